@@ -23,23 +23,61 @@
  */
 package org.primefaces.application.resource;
 
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
-import java.util.Calendar;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
-import java.util.TimeZone;
+import java.util.Map;
 import javax.faces.context.ExternalContext;
+import javax.faces.context.FacesContext;
+import javax.servlet.http.HttpServletResponse;
+
+import org.primefaces.cache.CacheProvider;
+import org.primefaces.context.PrimeApplicationContext;
 
 public abstract class BaseDynamicContentHandler implements DynamicContentHandler {
 
+    /**
+     * IMF-fixdate of RFC 7231, thread-safe unlike SimpleDateFormat.
+     */
+    public static final DateTimeFormatter HTTP_DATE_FORMAT = DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.US)
+            .withZone(ZoneOffset.UTC);
+
+    public static final String CACHE_REGION = "primefaces.dynamiccontent";
+
+    private static final int MAX_CACHED_CONTENT_LENGTH = 64 * 1024;
+
+    /**
+     * Total size of the content a single handler keeps in the {@link #CACHE_REGION}.
+     */
+    private static final long MAX_CACHED_CONTENT_SIZE = 4L * 1024 * 1024;
+
+    /**
+     * Keys and lengths of the content this handler has cached, least recently used first.
+     */
+    private final Map<String, Integer> cachedContents = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long cachedContentSize;
+
     public void handleCache(ExternalContext externalContext, boolean cache) {
-        if (cache) {
-            DateFormat httpDateFormat = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss z", Locale.US);
-            httpDateFormat.setTimeZone(TimeZone.getTimeZone("GMT"));
-            Calendar calendar = Calendar.getInstance();
-            calendar.add(Calendar.YEAR, 1);
-            externalContext.setResponseHeader("Cache-Control", "max-age=29030400");
-            externalContext.setResponseHeader("Expires", httpDateFormat.format(calendar.getTime()));
+        handleCache(externalContext, cache ? getCachePolicy(FacesContext.getCurrentInstance()) : null);
+    }
+
+    /**
+     * @param externalContext the current ExternalContext
+     * @param policy the cache policy or <code>null</code> if the content must not be cached
+     */
+    public void handleCache(ExternalContext externalContext, DynamicContentCachePolicy policy) {
+        if (policy != null) {
+            externalContext.setResponseHeader("Cache-Control", policy.getCacheControl());
+            if (policy.getMaxAge() >= 0) {
+                externalContext.setResponseHeader("Expires", HTTP_DATE_FORMAT.format(Instant.now().plusSeconds(policy.getMaxAge())));
+            }
         }
         else {
             externalContext.setResponseHeader("Cache-Control", "no-cache, no-store, must-revalidate");
@@ -47,4 +85,105 @@ public abstract class BaseDynamicContentHandler implements DynamicContentHandler
             externalContext.setResponseHeader("Expires", "Mon, 8 Aug 1980 10:00:00 GMT");
         }
     }
+
+    /**
+     * Sets the ETag of the content and responds with 304 (Not Modified) if the client already has it.
+     *
+     * @param externalContext the current ExternalContext
+     * @param eTag the quoted entity tag of the content
+     * @return <code>true</code> if the content does not need to be sent
+     */
+    protected boolean handleETag(ExternalContext externalContext, String eTag) {
+        externalContext.setResponseHeader("ETag", eTag);
+
+        if (PrimeResourceHandler.isETagMatched(externalContext.getRequestHeaderMap().get("If-None-Match"), eTag)) {
+            externalContext.setResponseStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * @param content the content
+     * @return a quoted entity tag derived from the content
+     */
+    protected String createETag(byte[] content) {
+        return "\"" + CachedResource.hash(content) + "\"";
+    }
+
+    /**
+     * @param parts the parameters which fully determine generated content
+     * @return a key of the content, which can be used for caching and as entity tag
+     */
+    protected String createKey(String... parts) {
+        return CachedResource.hash(String.join("\u0000", parts).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param context the current FacesContext
+     * @param key the key of the content
+     * @return the generated content from the {@link CacheProvider} or <code>null</code>
+     */
+    protected byte[] getCachedContent(FacesContext context, String key) {
+        byte[] content = (byte[]) PrimeApplicationContext.getCurrentInstance(context).getCacheProvider().get(CACHE_REGION, key);
+
+        synchronized (cachedContents) {
+            if (content == null) {
+                Integer length = cachedContents.remove(key);
+                if (length != null) {
+                    cachedContentSize -= length;
+                }
+            }
+            else {
+                // marks the content as recently used
+                cachedContents.get(key);
+            }
+        }
+
+        return content;
+    }
+
+    /**
+     * Stores generated content in the {@link CacheProvider}, large content is not cached.
+     * Once the content cached by this handler exceeds 4 MB, the least recently used content is removed again.
+     *
+     * @param context the current FacesContext
+     * @param key the key of the content
+     * @param content the generated content
+     */
+    protected void putCachedContent(FacesContext context, String key, byte[] content) {
+        if (content.length > MAX_CACHED_CONTENT_LENGTH) {
+            return;
+        }
+
+        CacheProvider cacheProvider = PrimeApplicationContext.getCurrentInstance(context).getCacheProvider();
+        cacheProvider.put(CACHE_REGION, key, content);
+
+        List<String> evicted = new ArrayList<>();
+        synchronized (cachedContents) {
+            Integer previous = cachedContents.put(key, content.length);
+            cachedContentSize += content.length - (previous == null ? 0 : previous);
+
+            Iterator<Map.Entry<String, Integer>> entries = cachedContents.entrySet().iterator();
+            while (cachedContentSize > MAX_CACHED_CONTENT_SIZE && entries.hasNext()) {
+                Map.Entry<String, Integer> entry = entries.next();
+                evicted.add(entry.getKey());
+                cachedContentSize -= entry.getValue();
+                entries.remove();
+            }
+        }
+
+        for (String evictedKey : evicted) {
+            cacheProvider.remove(CACHE_REGION, evictedKey);
+        }
+    }
+
+    /**
+     * @param context the current FacesContext
+     * @return the policy for cached content of this handler
+     */
+    protected DynamicContentCachePolicy getCachePolicy(FacesContext context) {
+        return PrimeApplicationContext.getCurrentInstance(context).getConfig().getDynamicContentCachePolicy();
+    }
 }
@@ -0,0 +1,172 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2009-2019 PrimeTek
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.application.resource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.zip.GZIPOutputStream;
+import javax.faces.application.Resource;
+
+/**
+ * In-memory copy of a library {@link Resource} together with its precompressed gzip variant and strong ETags.
+ */
+public class CachedResource {
+
+    private static final int MIN_COMPRESS_SIZE = 1024;
+    private static final int FINGERPRINT_LENGTH = 16;
+
+    private final String contentType;
+    private final byte[] content;
+    private final byte[] gzipContent;
+    private final String hash;
+
+    public CachedResource(String contentType, byte[] content) throws IOException {
+        this.contentType = contentType;
+        this.content = content;
+        this.gzipContent = isCompressible(contentType, content) ? gzip(content) : null;
+        this.hash = hash(content);
+    }
+
+    /**
+     * Reads the content of the given resource.
+     *
+     * @param resource the resource
+     * @return the cached resource or <code>null</code> if the resource has no content
+     * @throws IOException if the content could not be read
+     */
+    public static CachedResource create(Resource resource) throws IOException {
+        try (InputStream inputStream = resource.getInputStream()) {
+            if (inputStream == null) {
+                return null;
+            }
+
+            return new CachedResource(resource.getContentType(), read(inputStream));
+        }
+    }
+
+    /**
+     * Computes the fingerprint of the given resource, which changes whenever its content changes.
+     *
+     * @param resource the resource
+     * @return the fingerprint or <code>null</code> if the resource has no content
+     * @throws IOException if the content could not be read
+     */
+    public static String fingerprint(Resource resource) throws IOException {
+        try (InputStream inputStream = resource.getInputStream()) {
+            if (inputStream == null) {
+                return null;
+            }
+
+            return fingerprint(read(inputStream));
+        }
+    }
+
+    /**
+     * Computes the fingerprint of the given content.
+     *
+     * @param content the content
+     * @return the fingerprint
+     */
+    public static String fingerprint(byte[] content) {
+        return hash(content).substring(0, FINGERPRINT_LENGTH);
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public byte[] getContent() {
+        return content;
+    }
+
+    /**
+     * @return the gzip compressed content or <code>null</code> if compression is not worth it for this resource
+     */
+    public byte[] getGzipContent() {
+        return gzipContent;
+    }
+
+    /**
+     * @return the Base64 (URL safe) encoded SHA-256 hash of the content
+     */
+    public String getHash() {
+        return hash;
+    }
+
+    /**
+     * @param gzip whether the ETag of the gzip compressed variant is requested
+     * @return the strong ETag of the requested variant
+     */
+    public String getETag(boolean gzip) {
+        return "\"" + hash + (gzip ? "-gzip" : "") + "\"";
+    }
+
+    protected static boolean isCompressible(String contentType, byte[] content) {
+        if (contentType == null || content.length < MIN_COMPRESS_SIZE) {
+            return false;
+        }
+
+        return contentType.startsWith("text/")
+                || contentType.contains("javascript")
+                || contentType.contains("json")
+                || contentType.contains("xml")
+                || contentType.contains("font/ttf")
+                || contentType.contains("font/otf")
+                || contentType.contains("vnd.ms-fontobject");
+    }
+
+    protected static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.length / 3);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(content);
+        }
+
+        // keep only if it saves at least 10 percent
+        return compressed.size() < content.length * 0.9 ? compressed.toByteArray() : null;
+    }
+
+    protected static byte[] read(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            content.write(buffer, 0, read);
+        }
+        return content.toByteArray();
+    }
+
+    protected static String hash(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        }
+        catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
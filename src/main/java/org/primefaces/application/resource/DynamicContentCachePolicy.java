@@ -0,0 +1,83 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2009-2019 PrimeTek
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.application.resource;
+
+import java.util.Locale;
+
+/**
+ * Cache-Control policy for cached dynamic content (StreamedContent, Barcode, QR code).
+ * The default policy is configured by {@link org.primefaces.util.Constants.ContextParams#DYNAMIC_CONTENT_CACHE_CONTROL},
+ * handlers can provide their own by overriding {@link BaseDynamicContentHandler#getCachePolicy(javax.faces.context.FacesContext)}.
+ */
+public class DynamicContentCachePolicy {
+
+    public static final String DEFAULT_CACHE_CONTROL = "max-age=29030400";
+
+    private final String cacheControl;
+    private final long maxAge;
+
+    /**
+     * @param cacheControl the value of the Cache-Control header, e.g. <code>private, max-age=86400</code>
+     */
+    public DynamicContentCachePolicy(String cacheControl) {
+        this.cacheControl = cacheControl.trim();
+        this.maxAge = parseMaxAge(this.cacheControl);
+    }
+
+    /**
+     * @param maxAge seconds the content can be cached
+     * @param immutable if the content at the URL never changes, so browsers don't revalidate it on reloads
+     * @param privateCache if the content may only be stored in the browser cache and not by shared caches
+     */
+    public DynamicContentCachePolicy(long maxAge, boolean immutable, boolean privateCache) {
+        this.maxAge = maxAge;
+        this.cacheControl = (privateCache ? "private" : "public") + ", max-age=" + maxAge + (immutable ? ", immutable" : "");
+    }
+
+    public String getCacheControl() {
+        return cacheControl;
+    }
+
+    /**
+     * @return the max-age in seconds or -1 if the policy does not define it
+     */
+    public long getMaxAge() {
+        return maxAge;
+    }
+
+    protected static long parseMaxAge(String cacheControl) {
+        for (String directive : cacheControl.split(",")) {
+            String[] parts = directive.split("=", 2);
+            if (parts.length == 2 && parts[0].trim().toLowerCase(Locale.ROOT).equals("max-age")) {
+                try {
+                    return Long.parseLong(parts[1].trim());
+                }
+                catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid max-age in Cache-Control: " + cacheControl, e);
+                }
+            }
+        }
+        return -1;
+    }
+}
@@ -36,6 +36,11 @@ import java.util.UUID;
 
 public class MoveScriptsToBottomResponseWriter extends ResponseWriterWrapper {
 
+    private static final String[] ALIASES = {"PrimeFaces.settings", "PrimeFaces.cw", "PrimeFaces.ab", "window.PrimeFaces"};
+    private static final String[] ALIAS_REPLACEMENTS = {"pf.settings", "pf.cw", "pf.ab", "pf"};
+    private static final int MAX_REPLACEMENT_LENGTH = 11;
+    private static final int BUFFER_SIZE = 8192;
+
     private final ResponseWriter wrapped;
     private final MoveScriptsToBottomState state;
 
@@ -54,7 +59,6 @@ public class MoveScriptsToBottomResponseWriter extends ResponseWriterWrapper {
         scriptsRendered = false;
 
         include = new StringBuilder(50);
-        inline = new StringBuilder(75);
     }
 
     @Override
@@ -65,7 +69,7 @@ public class MoveScriptsToBottomResponseWriter extends ResponseWriterWrapper {
     @Override
     public void write(int c) throws IOException {
         if (inScript) {
-            inline.append((char) c);
+            startInline().append((char) c);
         }
         else {
             getWrapped().write(c);
@@ -75,7 +79,9 @@ public class MoveScriptsToBottomResponseWriter extends ResponseWriterWrapper {
     @Override
     public void write(char[] cbuf) throws IOException {
         if (inScript) {
-            inline.append(cbuf);
+            if (cbuf.length > 0) {
+                startInline().append(cbuf);
+            }
         }
         else {
             getWrapped().write(cbuf);
@@ -85,7 +91,9 @@ public class MoveScriptsToBottomResponseWriter extends ResponseWriterWrapper {
     @Override
     public void write(char[] cbuf, int off, int len) throws IOException {
         if (inScript) {
-            inline.append(cbuf, off, len);
+            if (len > 0) {
+                startInline().append(cbuf, off, len);
+            }
         }
         else {
             getWrapped().write(cbuf, off, len);
@@ -95,7 +103,9 @@ public class MoveScriptsToBottomResponseWriter extends ResponseWriterWrapper {
     @Override
     public void write(String str) throws IOException {
         if (inScript) {
-            inline.append(str);
+            if (str != null && !str.isEmpty()) {
+                startInline().append(str);
+            }
         }
         else {
             getWrapped().write(str);
@@ -105,7 +115,9 @@ public class MoveScriptsToBottomResponseWriter extends ResponseWriterWrapper {
     @Override
     public void writeText(char[] cbuf, int off, int len) throws IOException {
         if (inScript) {
-            inline.append(cbuf, off, len);
+            if (len > 0) {
+                startInline().append(cbuf, off, len);
+            }
         }
         else {
             getWrapped().writeText(cbuf, off, len);
@@ -115,7 +127,7 @@ public class MoveScriptsToBottomResponseWriter extends ResponseWriterWrapper {
     @Override
     public void writeText(Object text, String property) throws IOException {
         if (inScript) {
-            inline.append(text);
+            write(text == null ? null : text.toString());
         }
         else {
             getWrapped().writeText(text, property);
@@ -125,7 +137,7 @@ public class MoveScriptsToBottomResponseWriter extends ResponseWriterWrapper {
     @Override
     public void writeText(Object text, UIComponent component, String property) throws IOException {
         if (inScript) {
-            inline.append(text);
+            write(text == null ? null : text.toString());
         }
         else {
             getWrapped().writeText(text, property);
@@ -168,12 +180,14 @@ public class MoveScriptsToBottomResponseWriter extends ResponseWriterWrapper {
         if ("script".equalsIgnoreCase(name)) {
             inScript = false;
 
-            state.addInline(scriptType, inline);
+            if (inline != null) {
+                state.endInline(scriptType);
+                inline = null;
+            }
             state.addInclude(scriptType, include);
 
             scriptType = null;
             include.setLength(0);
-            inline.setLength(0);
         }
         else if ("body".equalsIgnoreCase(name) || ("html".equalsIgnoreCase(name) && !scriptsRendered)) {
 
@@ -194,18 +208,16 @@ public class MoveScriptsToBottomResponseWriter extends ResponseWriterWrapper {
             }
 
             // write inline scripts
-            for (Map.Entry<String, List<String>> entry : state.getInlines().entrySet()) {
+            for (Map.Entry<String, StringBuilder> entry : state.getInlines().entrySet()) {
                 String type = entry.getKey();
-                List<String> inlines = entry.getValue();
-
-                String id = UUID.randomUUID().toString();
-                String merged = mergeAndMinimizeInlineScripts(id, type, inlines);
+                StringBuilder inlines = entry.getValue();
 
-                if (!LangUtils.isValueBlank(merged)) {
+                if (inlines.length() > 0) {
+                    String id = UUID.randomUUID().toString();
                     getWrapped().startElement("script", null);
                     getWrapped().writeAttribute("id", id, null);
                     getWrapped().writeAttribute("type", type, null);
-                    getWrapped().write(merged);
+                    writeInlineScripts(id, type, inlines);
                     getWrapped().endElement("script");
                 }
             }
@@ -219,36 +231,77 @@ public class MoveScriptsToBottomResponseWriter extends ResponseWriterWrapper {
         }
     }
 
-    protected String mergeAndMinimizeInlineScripts(String id, String type, List<String> inlines) {
-        StringBuilder script = new StringBuilder(inlines.size() * 100);
-        for (int i = 0; i < inlines.size(); i++) {
-            if (i > 0) {
-                script.append("\n");
-            }
-            script.append(inlines.get(i));
-            script.append(";");
+    /**
+     * Writes the merged inline scripts in a single pass, replacing references to PrimeFaces by the shorter <code>pf</code> alias.
+     */
+    protected void writeInlineScripts(String id, String type, StringBuilder inlines) throws IOException {
+        ResponseWriter writer = getWrapped();
+        boolean minimize = "text/javascript".equalsIgnoreCase(type) && inlines.indexOf("PrimeFaces") != -1;
+        if (!minimize) {
+            writeChars(writer, inlines);
+            return;
         }
 
-        String minimized = script.toString();
+        writer.write("var pf=window.PrimeFaces;");
+
+        // replacements are never longer than the replaced text, so short scripts are never flushed in between
+        char[] buffer = new char[Math.min(BUFFER_SIZE, inlines.length()) + MAX_REPLACEMENT_LENGTH];
+        int length = 0;
+        int i = 0;
+        while (i < inlines.length()) {
+            if (length + MAX_REPLACEMENT_LENGTH > buffer.length) {
+                writer.write(buffer, 0, length);
+                length = 0;
+            }
 
-        if (!LangUtils.isValueBlank(minimized)) {
-            if ("text/javascript".equalsIgnoreCase(type)) {
-                minimized = minimized.replace(";;", ";");
+            char c = inlines.charAt(i);
+            int alias = (c == 'P' || c == 'w') ? findAlias(inlines, i) : -1;
+            if (alias == -1) {
+                buffer[length++] = c;
+                i++;
+            }
+            else {
+                String replacement = ALIAS_REPLACEMENTS[alias];
+                replacement.getChars(0, replacement.length(), buffer, length);
+                length += replacement.length();
+                i += ALIASES[alias].length();
+            }
+        }
+        writer.write(buffer, 0, length);
 
-                if (minimized.contains("PrimeFaces")) {
-                    minimized = minimized.replace("PrimeFaces.settings", "pf.settings")
-                        .replace("PrimeFaces.cw", "pf.cw")
-                        .replace("PrimeFaces.ab", "pf.ab")
-                        .replace("window.PrimeFaces", "pf");
+        writer.write("if(window.$){$(PrimeFaces.escapeClientId(\"" + id + "\")).remove();}");
+    }
 
-                    minimized = "var pf=window.PrimeFaces;"
-                            + minimized
-                            + "if(window.$){$(PrimeFaces.escapeClientId(\"" + id + "\")).remove();}";
+    private static int findAlias(CharSequence script, int index) {
+        for (int i = 0; i < ALIASES.length; i++) {
+            String alias = ALIASES[i];
+            if (index + alias.length() <= script.length()) {
+                int j = 0;
+                while (j < alias.length() && script.charAt(index + j) == alias.charAt(j)) {
+                    j++;
+                }
+                if (j == alias.length()) {
+                    return i;
                 }
             }
         }
+        return -1;
+    }
 
-        return minimized;
+    private static void writeChars(ResponseWriter writer, StringBuilder content) throws IOException {
+        char[] buffer = new char[Math.min(BUFFER_SIZE, content.length())];
+        for (int start = 0; start < content.length(); start += buffer.length) {
+            int end = Math.min(start + buffer.length, content.length());
+            content.getChars(start, end, buffer, 0);
+            writer.write(buffer, 0, end - start);
+        }
+    }
+
+    private StringBuilder startInline() {
+        if (inline == null) {
+            inline = state.startInline(scriptType);
+        }
+        return inline;
     }
 
     @Override
@@ -34,7 +34,7 @@ public class MoveScriptsToBottomState implements Serializable {
     private static final long serialVersionUID = 1L;
 
     private Map<String, List<String>> includes;
-    private Map<String, List<String>> inlines;
+    private Map<String, StringBuilder> inlines;
     private int savedInlineTags;
 
     public MoveScriptsToBottomState() {
@@ -50,20 +50,35 @@ public class MoveScriptsToBottomState implements Serializable {
         }
     }
 
-    public void addInline(String type, StringBuilder content) {
-        if (content.length() > 0) {
-            List<String> inlineList = inlines.computeIfAbsent(type, k -> new ArrayList<>(100));
-            inlineList.add(content.toString());
+    /**
+     * Returns the buffer to append the next inline script of the given type to, already separated from the previous one.
+     * Call {@link #endInline(String)} once the script is complete.
+     */
+    public StringBuilder startInline(String type) {
+        StringBuilder inline = inlines.computeIfAbsent(type, k -> new StringBuilder(4096));
+        if (inline.length() > 0) {
+            inline.append('\n');
+        }
+        return inline;
+    }
 
-            savedInlineTags++;
+    public void endInline(String type) {
+        StringBuilder inline = inlines.get(type);
+        if (inline.charAt(inline.length() - 1) != ';') {
+            inline.append(';');
         }
+
+        savedInlineTags++;
     }
 
     public Map<String, List<String>> getIncludes() {
         return includes;
     }
 
-    public Map<String, List<String>> getInlines() {
+    /**
+     * @return the merged inline scripts per type, each terminated by a semicolon and separated by line breaks
+     */
+    public Map<String, StringBuilder> getInlines() {
         return inlines;
     }
 
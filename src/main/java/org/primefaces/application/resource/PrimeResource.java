@@ -23,18 +23,23 @@
  */
 package org.primefaces.application.resource;
 
+import java.util.HashMap;
+import java.util.Map;
 import javax.faces.application.Resource;
 import javax.faces.application.ResourceWrapper;
 import javax.faces.context.FacesContext;
 import org.primefaces.context.PrimeApplicationContext;
 
 /**
- * {@link ResourceWrapper} which appends the version of PrimeFaces to the URL.
+ * {@link ResourceWrapper} which appends the version of PrimeFaces or a fingerprint of the resource content to the URL.
  */
 public class PrimeResource extends ResourceWrapper {
 
+    public static final String IMMUTABLE_CACHE_CONTROL = "public, max-age=31536000, immutable";
+
     private Resource wrapped;
     private String version;
+    private String fingerprint;
 
     @SuppressWarnings("deprecation") // the default constructor is deprecated in JSF 2.3
     public PrimeResource(final Resource resource) {
@@ -43,6 +48,18 @@ public class PrimeResource extends ResourceWrapper {
         version = "&v=" + PrimeApplicationContext.getCurrentInstance(FacesContext.getCurrentInstance()).getEnvironment().getBuildVersion();
     }
 
+    /**
+     * @param resource the wrapped resource
+     * @param fingerprint the fingerprint of the resource content, see {@link CachedResource#fingerprint(Resource)}
+     */
+    @SuppressWarnings("deprecation") // the default constructor is deprecated in JSF 2.3
+    public PrimeResource(final Resource resource, final String fingerprint) {
+        super();
+        wrapped = resource;
+        version = "&v=" + fingerprint;
+        this.fingerprint = fingerprint;
+    }
+
     @Override
     public Resource getWrapped() {
         return wrapped;
@@ -53,6 +70,26 @@ public class PrimeResource extends ResourceWrapper {
         return super.getRequestPath() + version;
     }
 
+    /**
+     * Adds an immutable Cache-Control header if the resource is requested by its current fingerprint.
+     */
+    @Override
+    public Map<String, String> getResponseHeaders() {
+        Map<String, String> headers = getWrapped().getResponseHeaders();
+        if (fingerprint != null) {
+            FacesContext context = FacesContext.getCurrentInstance();
+            if (context != null && fingerprint.equals(context.getExternalContext().getRequestParameterMap().get("v"))) {
+                headers = new HashMap<>(headers);
+                headers.put("Cache-Control", IMMUTABLE_CACHE_CONTROL);
+            }
+        }
+        return headers;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
     @Override
     public String getContentType() {
         return getWrapped().getContentType();
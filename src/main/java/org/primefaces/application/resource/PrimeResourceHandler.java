@@ -23,29 +23,66 @@
  */
 package org.primefaces.application.resource;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.faces.application.ProjectStage;
 import javax.faces.application.Resource;
 import javax.faces.application.ResourceHandler;
 import javax.faces.application.ResourceHandlerWrapper;
+import javax.faces.context.ExternalContext;
 import javax.faces.context.FacesContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import org.primefaces.application.resource.barcode.BarcodeHandler;
+import org.primefaces.context.PrimeApplicationContext;
 import org.primefaces.util.Constants;
 import org.primefaces.util.LangUtils;
+import org.primefaces.util.ResourceUtils;
 
 public class PrimeResourceHandler extends ResourceHandlerWrapper {
 
     private static final Logger LOGGER = Logger.getLogger(PrimeResourceHandler.class.getName());
 
+    private static final int MAX_CACHED_BUNDLES = 256;
+    private static final byte[] BUNDLE_SCRIPT_SEPARATOR = "\n;\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] BUNDLE_STYLESHEET_SEPARATOR = "\n".getBytes(StandardCharsets.US_ASCII);
+
     private final Map<String, DynamicContentHandler> handlers;
 
+    private final ConcurrentMap<String, CachedResource> cachedResources;
+
+    private final ConcurrentMap<String, String> fingerprints;
+
+    private final Map<String, CachedResource> cachedBundles;
+
     private final ResourceHandler wrapped;
 
     @SuppressWarnings("deprecation") // the default constructor is deprecated in JSF 2.3
     public PrimeResourceHandler(ResourceHandler wrapped) {
         this.wrapped = wrapped;
+        cachedResources = new ConcurrentHashMap<>();
+        fingerprints = new ConcurrentHashMap<>();
+        // the least recently used bundles are dropped, as requests can name any combination of resources
+        cachedBundles = Collections.synchronizedMap(new LinkedHashMap<String, CachedResource>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResource> eldest) {
+                return size() > MAX_CACHED_BUNDLES;
+            }
+        });
         handlers = new HashMap<>();
         handlers.put(DynamicContentType.STREAMED_CONTENT.toString(), new StreamedContentHandler());
 
@@ -65,21 +102,28 @@ public class PrimeResourceHandler extends ResourceHandlerWrapper {
 
     @Override
     public Resource createResource(String resourceName, String libraryName) {
-        Resource resource = super.createResource(resourceName, libraryName);
-
-        if (resource != null && libraryName != null && libraryName.equalsIgnoreCase(Constants.LIBRARY)) {
-            return new PrimeResource(resource);
-        }
-        else {
-            return resource;
-        }
+        return wrapResource(FacesContext.getCurrentInstance(), super.createResource(resourceName, libraryName), libraryName);
     }
 
     @Override
     public Resource createResource(String resourceName, String libraryName, String contentType) {
-        Resource resource = super.createResource(resourceName, libraryName, contentType);
+        return wrapResource(FacesContext.getCurrentInstance(), super.createResource(resourceName, libraryName, contentType), libraryName);
+    }
+
+    protected Resource wrapResource(FacesContext context, Resource resource, String libraryName) {
+        if (resource == null || !isPrimeFacesLibrary(libraryName)) {
+            return resource;
+        }
 
-        if (resource != null && libraryName != null && libraryName.equalsIgnoreCase(Constants.LIBRARY)) {
+        if (context != null && !context.isProjectStage(ProjectStage.Development)
+                && PrimeApplicationContext.getCurrentInstance(context).getConfig().isResourceFingerprintEnabled()) {
+            String fingerprint = getFingerprint(resource);
+            if (fingerprint != null) {
+                return new PrimeResource(resource, fingerprint);
+            }
+        }
+
+        if (libraryName.equalsIgnoreCase(Constants.LIBRARY)) {
             return new PrimeResource(resource);
         }
         else {
@@ -87,13 +131,42 @@ public class PrimeResourceHandler extends ResourceHandlerWrapper {
         }
     }
 
+    /**
+     * Computes the fingerprint of a resource once and caches it for the lifetime of the application.
+     *
+     * @param resource the resource
+     * @return the fingerprint or <code>null</code> if it could not be computed
+     */
+    protected String getFingerprint(Resource resource) {
+        String key = resource.getLibraryName() + ":" + resource.getResourceName();
+        String fingerprint = fingerprints.get(key);
+        if (fingerprint == null) {
+            try {
+                fingerprint = CachedResource.fingerprint(resource);
+            }
+            catch (IOException ex) {
+                LOGGER.log(Level.WARNING, "Could not compute fingerprint of resource " + key, ex);
+            }
+            if (fingerprint != null) {
+                fingerprints.putIfAbsent(key, fingerprint);
+            }
+        }
+        return fingerprint;
+    }
+
     @Override
     public void handleResourceRequest(FacesContext context) throws IOException {
         Map<String, String> params = context.getExternalContext().getRequestParameterMap();
         String handlerType = params.get(Constants.DYNAMIC_CONTENT_TYPE_PARAM);
 
         if (LangUtils.isValueBlank(handlerType)) {
-            super.handleResourceRequest(context);
+            String bundle = params.get(Constants.RESOURCE_BUNDLE_PARAM);
+            if (bundle != null) {
+                handleBundleRequest(context, bundle);
+            }
+            else if (!handleCachedResourceRequest(context)) {
+                super.handleResourceRequest(context);
+            }
         }
         else {
             DynamicContentHandler handler = handlers.get(handlerType);
@@ -107,4 +180,228 @@ public class PrimeResourceHandler extends ResourceHandlerWrapper {
         }
     }
 
+    /**
+     * Serves PrimeFaces library resources from memory, including a precompressed gzip variant and strong ETags.
+     *
+     * @param context the {@link FacesContext}
+     * @return <code>false</code> if the request is not handled and must be delegated to the wrapped handler
+     * @throws IOException if the resource could not be read or written
+     */
+    protected boolean handleCachedResourceRequest(FacesContext context) throws IOException {
+        if (context.isProjectStage(ProjectStage.Development)
+                || !PrimeApplicationContext.getCurrentInstance(context).getConfig().isResourceCacheEnabled()) {
+            return false;
+        }
+
+        ExternalContext externalContext = context.getExternalContext();
+        Map<String, String> params = externalContext.getRequestParameterMap();
+        String libraryName = params.get("ln");
+        if (!isPrimeFacesLibrary(libraryName) || params.containsKey("loc") || params.containsKey("con")) {
+            return false;
+        }
+
+        String resourceName = getResourceName(externalContext);
+        if (resourceName == null) {
+            return false;
+        }
+
+        // resources may contain EL resolved against the current mapping, e.g. the image URLs in the theme
+        String pathInfo = externalContext.getRequestPathInfo();
+        String key = externalContext.getRequestServletPath() + (pathInfo == null ? "" : pathInfo) + "?ln=" + libraryName;
+
+        Resource resource = createResource(resourceName, libraryName);
+        if (resource == null) {
+            return false;
+        }
+
+        CachedResource cachedResource = cachedResources.get(key);
+        if (cachedResource == null) {
+            cachedResource = CachedResource.create(resource);
+            if (cachedResource == null) {
+                return false;
+            }
+            cachedResources.putIfAbsent(key, cachedResource);
+        }
+
+        Map<String, String> headers = new HashMap<>(resource.getResponseHeaders());
+        headers.remove("ETag");
+        sendCachedResource(context, cachedResource, headers);
+        return true;
+    }
+
+    /**
+     * Serves a bundle of PrimeFaces library resources, see {@link ResourceUtils#getBundleRequestPath(FacesContext, java.util.Collection)}.
+     * Resources which do not exist (anymore) are left out, so a page which refers to an outdated bundle still gets the other resources.
+     *
+     * @param context the {@link FacesContext}
+     * @param bundle the names of the bundled resources, see {@link ResourceUtils#getBundleResourceNames(String)}
+     * @throws IOException if a resource could not be read or the response could not be written
+     */
+    protected void handleBundleRequest(FacesContext context, String bundle) throws IOException {
+        ExternalContext externalContext = context.getExternalContext();
+        Map<String, String> params = externalContext.getRequestParameterMap();
+        String libraryName = params.get("ln");
+        List<String> resourceNames = ResourceUtils.getBundleResourceNames(bundle);
+        if (!Constants.LIBRARY.equals(libraryName) || resourceNames == null) {
+            externalContext.setResponseStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        List<Resource> resources = new ArrayList<>(resourceNames.size());
+        for (String resourceName : resourceNames) {
+            Resource resource = createResource(resourceName, libraryName);
+            if (resource == null) {
+                if (LOGGER.isLoggable(Level.FINE)) {
+                    LOGGER.fine("Resource " + resourceName + " of bundle " + bundle + " not found");
+                }
+            }
+            else {
+                resources.add(resource);
+            }
+        }
+        if (resources.isEmpty()) {
+            externalContext.setResponseStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        // resources may contain EL resolved against the current mapping, e.g. image URLs
+        String key = externalContext.getRequestServletPath() + ":" + bundle;
+        CachedResource cachedResource = cachedBundles.get(key);
+        if (cachedResource == null) {
+            boolean script = bundle.endsWith(".js");
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            String contentType = null;
+            for (Resource resource : resources) {
+                CachedResource part = CachedResource.create(resource);
+                if (part == null) {
+                    externalContext.setResponseStatus(HttpServletResponse.SC_NOT_FOUND);
+                    return;
+                }
+                if (contentType == null) {
+                    contentType = part.getContentType();
+                }
+                content.write(part.getContent());
+                // protects against files without a trailing line break or semicolon
+                content.write(script ? BUNDLE_SCRIPT_SEPARATOR : BUNDLE_STYLESHEET_SEPARATOR);
+            }
+
+            cachedResource = new CachedResource(contentType, content.toByteArray());
+            if (resources.size() == resourceNames.size()) {
+                cachedBundles.put(key, cachedResource);
+            }
+        }
+
+        // the headers of the bundled resources, e.g. Expires or Last-Modified, do not apply to the whole bundle;
+        // it may only be cached forever if its version covers the content of all requested resources, otherwise the ETag is revalidated
+        boolean immutable = resources.size() == resourceNames.size()
+                && resources.stream().allMatch(resource -> ResourceUtils.getFingerprint(resource) != null)
+                && ResourceUtils.getBundleVersion(context, resources).equals(params.get("v"));
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Cache-Control", immutable ? PrimeResource.IMMUTABLE_CACHE_CONTROL : "no-cache");
+        sendCachedResource(context, cachedResource, headers);
+    }
+
+    protected void sendCachedResource(FacesContext context, CachedResource cachedResource, Map<String, String> headers) throws IOException {
+        ExternalContext externalContext = context.getExternalContext();
+        boolean gzip = cachedResource.getGzipContent() != null
+                && isGzipAccepted(externalContext.getRequestHeaderMap().get("Accept-Encoding"));
+        String etag = cachedResource.getETag(gzip);
+
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            externalContext.setResponseHeader(header.getKey(), header.getValue());
+        }
+        externalContext.setResponseHeader("ETag", etag);
+        if (cachedResource.getGzipContent() != null) {
+            externalContext.setResponseHeader("Vary", "Accept-Encoding");
+        }
+
+        if (isETagMatched(externalContext.getRequestHeaderMap().get("If-None-Match"), etag)) {
+            externalContext.setResponseStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        byte[] content = gzip ? cachedResource.getGzipContent() : cachedResource.getContent();
+        if (cachedResource.getContentType() != null) {
+            externalContext.setResponseContentType(cachedResource.getContentType());
+        }
+        if (gzip) {
+            externalContext.setResponseHeader("Content-Encoding", "gzip");
+        }
+        externalContext.setResponseContentLength(content.length);
+        externalContext.setResponseStatus(HttpServletResponse.SC_OK);
+
+        Object request = externalContext.getRequest();
+        if (!(request instanceof HttpServletRequest) || !"HEAD".equals(((HttpServletRequest) request).getMethod())) {
+            externalContext.getResponseOutputStream().write(content);
+        }
+    }
+
+    protected boolean isPrimeFacesLibrary(String libraryName) {
+        return libraryName != null
+                && (libraryName.equalsIgnoreCase(Constants.LIBRARY) || libraryName.startsWith(Constants.LIBRARY + "-"));
+    }
+
+    /**
+     * Extracts the resource name from a prefix (/faces/javax.faces.resource/components.js)
+     * or suffix (/javax.faces.resource/components.js.xhtml) mapped resource request.
+     *
+     * @param externalContext the {@link ExternalContext}
+     * @return the resource name or <code>null</code> if it can not be determined
+     */
+    protected String getResourceName(ExternalContext externalContext) {
+        String pathInfo = externalContext.getRequestPathInfo();
+        if (pathInfo != null && pathInfo.startsWith(RESOURCE_IDENTIFIER + "/")) {
+            return pathInfo.substring(RESOURCE_IDENTIFIER.length() + 1);
+        }
+
+        String servletPath = externalContext.getRequestServletPath();
+        if (servletPath != null && servletPath.startsWith(RESOURCE_IDENTIFIER + "/")) {
+            String resourceName = servletPath.substring(RESOURCE_IDENTIFIER.length() + 1);
+            int extension = resourceName.lastIndexOf('.');
+            return extension > 0 ? resourceName.substring(0, extension) : null;
+        }
+
+        return null;
+    }
+
+    static boolean isGzipAccepted(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            if (name.equals("gzip") || name.equals("*")) {
+                for (int i = 1; i < parts.length; i++) {
+                    String param = parts[i].trim();
+                    if (param.startsWith("q=") && param.substring(2).trim().matches("0(\\.0*)?")) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    static boolean isETagMatched(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
 }
@@ -30,6 +30,7 @@ import javax.faces.context.FacesContext;
 import net.glxn.qrgen.QRCode;
 import net.glxn.qrgen.image.ImageType;
 
+import org.primefaces.context.PrimeApplicationContext;
 import org.primefaces.util.Constants;
 
 import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
@@ -52,20 +53,54 @@ public class QRCodeHandler extends BaseDynamicContentHandler {
             externalContext.setResponseStatus(200);
             externalContext.setResponseContentType("image/png");
 
-            handleCache(externalContext, cache);
+            handleCache(externalContext, cache ? getCachePolicy(context) : null);
 
-            ErrorCorrectionLevel ecl = ErrorCorrectionLevel.L;
-            String errorCorrection = params.get("qrec");
-            if (!LangUtils.isValueBlank(errorCorrection)) {
-                ecl = ErrorCorrectionLevel.valueOf(errorCorrection);
-            }
+            ErrorCorrectionLevel ecl = getErrorCorrectionLevel(params.get("qrec"));
+            String key = createKey(context, ecl, value);
+
+            if (!cache || !handleETag(externalContext, "\"" + key + "\"")) {
+                byte[] image = getImage(context, key, ecl, value);
 
-            QRCode.from(value).to(ImageType.PNG).withErrorCorrection(ecl).withCharset("UTF-8")
-                        .writeTo(externalContext.getResponseOutputStream());
+                externalContext.setResponseContentLength(image.length);
+                externalContext.getResponseOutputStream().write(image);
+            }
 
             externalContext.responseFlushBuffer();
             context.responseComplete();
         }
     }
 
+    /**
+     * Generates the PNG image or takes it from the cache if enabled via {@link Constants.ContextParams#BARCODE_CACHE}.
+     *
+     * @param context the current FacesContext
+     * @param errorCorrection the error correction level (L, M, Q, H), <code>L</code> if blank
+     * @param value the value to encode
+     * @return the image
+     */
+    public byte[] getImage(FacesContext context, String errorCorrection, String value) {
+        ErrorCorrectionLevel ecl = getErrorCorrectionLevel(errorCorrection);
+        return getImage(context, createKey(context, ecl, value), ecl, value);
+    }
+
+    protected String createKey(FacesContext context, ErrorCorrectionLevel ecl, String value) {
+        String version = PrimeApplicationContext.getCurrentInstance(context).getEnvironment().getBuildVersion();
+        return createKey("qr", version, ecl.name(), value);
+    }
+
+    protected byte[] getImage(FacesContext context, String key, ErrorCorrectionLevel ecl, String value) {
+        boolean cacheEnabled = PrimeApplicationContext.getCurrentInstance(context).getConfig().isBarcodeCacheEnabled();
+        byte[] image = cacheEnabled ? getCachedContent(context, key) : null;
+        if (image == null) {
+            image = QRCode.from(value).to(ImageType.PNG).withErrorCorrection(ecl).withCharset("UTF-8").stream().toByteArray();
+            if (cacheEnabled) {
+                putCachedContent(context, key, image);
+            }
+        }
+        return image;
+    }
+
+    protected ErrorCorrectionLevel getErrorCorrectionLevel(String errorCorrection) {
+        return LangUtils.isValueBlank(errorCorrection) ? ErrorCorrectionLevel.L : ErrorCorrectionLevel.valueOf(errorCorrection);
+    }
 }
@@ -23,8 +23,11 @@
  */
 package org.primefaces.application.resource;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.SequenceInputStream;
 import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -43,6 +46,8 @@ public class StreamedContentHandler extends BaseDynamicContentHandler {
 
     private static final Logger LOGGER = Logger.getLogger(StreamedContentHandler.class.getName());
 
+    private static final int MAX_ETAG_CONTENT_LENGTH = 1024 * 1024;
+
     @Override
     public void handle(FacesContext context) throws IOException {
         Map<String, String> params = context.getExternalContext().getRequestParameterMap();
@@ -83,9 +88,31 @@ public class StreamedContentHandler extends BaseDynamicContentHandler {
 
                         handleCache(externalContext, cache);
 
+                        InputStream inputStream = streamedContent.getStream();
+
+                        // small content is buffered to allow revalidation via ETag
+                        byte[] content = null;
+                        if (cache) {
+                            byte[] head = read(inputStream, MAX_ETAG_CONTENT_LENGTH + 1);
+                            if (head.length <= MAX_ETAG_CONTENT_LENGTH) {
+                                content = head;
+                                if (handleETag(externalContext, createETag(content))) {
+                                    externalContext.responseFlushBuffer();
+                                    context.responseComplete();
+                                    return;
+                                }
+                            }
+                            else {
+                                inputStream = new SequenceInputStream(new ByteArrayInputStream(head), inputStream);
+                            }
+                        }
+
                         if (streamedContent.getContentLength() != null) {
                             externalContext.setResponseContentLength(streamedContent.getContentLength());
                         }
+                        else if (content != null) {
+                            externalContext.setResponseContentLength(content.length);
+                        }
 
                         if (streamedContent.getContentEncoding() != null) {
                             externalContext.setResponseHeader("Content-Encoding", streamedContent.getContentEncoding());
@@ -95,12 +122,16 @@ public class StreamedContentHandler extends BaseDynamicContentHandler {
                             externalContext.setResponseHeader("Content-Disposition", "inline;filename=\"" + streamedContent.getName() + "\"");
                         }
 
-                        byte[] buffer = new byte[2048];
+                        if (content != null) {
+                            externalContext.getResponseOutputStream().write(content);
+                        }
+                        else {
+                            byte[] buffer = new byte[2048];
 
-                        int length;
-                        InputStream inputStream = streamedContent.getStream();
-                        while ((length = (inputStream.read(buffer))) >= 0) {
-                            externalContext.getResponseOutputStream().write(buffer, 0, length);
+                            int length;
+                            while ((length = (inputStream.read(buffer))) >= 0) {
+                                externalContext.getResponseOutputStream().write(buffer, 0, length);
+                            }
                         }
                     }
                 }
@@ -121,4 +152,22 @@ public class StreamedContentHandler extends BaseDynamicContentHandler {
             }
         }
     }
+
+    /**
+     * Reads at most <code>limit</code> bytes.
+     */
+    protected byte[] read(InputStream inputStream, int limit) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[2048];
+
+        while (out.size() < limit) {
+            int length = inputStream.read(buffer, 0, Math.min(buffer.length, limit - out.size()));
+            if (length < 0) {
+                break;
+            }
+            out.write(buffer, 0, length);
+        }
+
+        return out.toByteArray();
+    }
 }
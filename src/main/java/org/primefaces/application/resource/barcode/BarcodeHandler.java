@@ -24,10 +24,11 @@
 package org.primefaces.application.resource.barcode;
 
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.faces.context.ExternalContext;
@@ -36,12 +37,14 @@ import javax.xml.XMLConstants;
 import javax.xml.transform.Result;
 import javax.xml.transform.Source;
 import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerFactory;
 
 import org.krysalis.barcode4j.HumanReadablePlacement;
 import org.krysalis.barcode4j.output.bitmap.BitmapCanvasProvider;
 import org.krysalis.barcode4j.output.svg.SVGCanvasProvider;
 import org.primefaces.application.resource.BaseDynamicContentHandler;
+import org.primefaces.context.PrimeApplicationContext;
 import org.primefaces.util.AgentUtils;
 import org.primefaces.util.Constants;
 import org.w3c.dom.DocumentFragment;
@@ -50,21 +53,26 @@ public class BarcodeHandler extends BaseDynamicContentHandler {
 
     private static final Logger LOGGER = Logger.getLogger(BarcodeHandler.class.getName());
 
-    private final Map<String, BarcodeGenerator> generators;
+    /**
+     * Generators are created per image, as their barcode beans are configured per request (human readable placement).
+     */
+    private final Map<String, Supplier<BarcodeGenerator>> generators;
+
+    private TransformerFactory transformerFactory;
 
     public BarcodeHandler() {
         generators = new HashMap<>();
-        generators.put("int2of5", new Int2of5Generator());
-        generators.put("codabar", new CodabarGenerator());
-        generators.put("code39", new Code39Generator());
-        generators.put("code128", new Code128Generator());
-        generators.put("ean8", new EAN8Generator());
-        generators.put("ean13", new EAN13Generator());
-        generators.put("upca", new UPCAGenerator());
-        generators.put("upce", new UPCEGenerator());
-        generators.put("postnet", new PostnetGenerator());
-        generators.put("pdf417", new PDF417Generator());
-        generators.put("datamatrix", new DataMatrixGenerator());
+        generators.put("int2of5", Int2of5Generator::new);
+        generators.put("codabar", CodabarGenerator::new);
+        generators.put("code39", Code39Generator::new);
+        generators.put("code128", Code128Generator::new);
+        generators.put("ean8", EAN8Generator::new);
+        generators.put("ean13", EAN13Generator::new);
+        generators.put("upca", UPCAGenerator::new);
+        generators.put("upce", UPCEGenerator::new);
+        generators.put("postnet", PostnetGenerator::new);
+        generators.put("pdf417", PDF417Generator::new);
+        generators.put("datamatrix", DataMatrixGenerator::new);
     }
 
     @Override
@@ -78,46 +86,40 @@ public class BarcodeHandler extends BaseDynamicContentHandler {
 
         if (value != null) {
             try {
-                BarcodeGenerator generator = generators.get(params.get("gen"));
+                String generatorName = params.get("gen");
+                Supplier<BarcodeGenerator> generator = generators.get(generatorName);
                 String format = params.get("fmt");
                 String hrp = params.get("hrp");
                 int orientation = Integer.parseInt(params.get("ori"));
                 boolean cache = Boolean.parseBoolean(params.get(Constants.DYNAMIC_CONTENT_CACHE_PARAM));
 
-                generator.getBarcodeBean().setMsgPosition(HumanReadablePlacement.byName(hrp));
-
                 if (AgentUtils.isLessThanIE(context, 9)) {
                     format = "png";
                 }
 
-                OutputStream out = externalContext.getResponseOutputStream();
-
-                handleCache(externalContext, cache);
+                handleCache(externalContext, cache ? getCachePolicy(context) : null);
 
                 if (format.equals("png")) {
                     externalContext.setResponseContentType("image/png");
-
-                    BitmapCanvasProvider bitmapCanvasProvider = new BitmapCanvasProvider(
-                            out, "image/x-png", 150, BufferedImage.TYPE_BYTE_BINARY, false, orientation);
-                    generator.generate(bitmapCanvasProvider, value);
-                    bitmapCanvasProvider.finish();
                 }
                 else if (format.equals("svg")) {
                     externalContext.setResponseContentType("image/svg+xml");
+                }
+                else {
+                    return;
+                }
 
-                    SVGCanvasProvider svgCanvasProvider = new SVGCanvasProvider(false, orientation);
-                    generator.generate(svgCanvasProvider, value);
-                    DocumentFragment frag = svgCanvasProvider.getDOMFragment();
+                String key = createKey(context, generatorName, format, hrp, orientation, value);
 
-                    TransformerFactory factory = TransformerFactory.newInstance();
-                    factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
-                    Transformer trans = factory.newTransformer();
-                    Source src = new javax.xml.transform.dom.DOMSource(frag);
-                    Result res = new javax.xml.transform.stream.StreamResult(out);
-                    trans.transform(src, res);
+                if (cache && handleETag(externalContext, "\"" + key + "\"")) {
+                    return;
                 }
 
+                byte[] image = getImage(context, key, generator, format, hrp, orientation, value);
+
                 externalContext.setResponseStatus(200);
+                externalContext.setResponseContentLength(image.length);
+                externalContext.getResponseOutputStream().write(image);
             }
             catch (Exception e) {
                 LOGGER.log(Level.SEVERE, "Error in streaming barcode resource. {0}", new Object[]{e.getMessage()});
@@ -128,4 +130,84 @@ public class BarcodeHandler extends BaseDynamicContentHandler {
             }
         }
     }
+
+    /**
+     * Generates the image or takes it from the cache if enabled via {@link org.primefaces.util.Constants.ContextParams#BARCODE_CACHE}.
+     *
+     * @param context the current FacesContext
+     * @param generatorName the barcode type, e.g. <code>ean13</code>
+     * @param format <code>svg</code> or <code>png</code>
+     * @param hrp the human readable placement
+     * @param orientation the orientation
+     * @param value the value to encode
+     * @return the image
+     * @throws Exception if the image cannot be generated
+     */
+    public byte[] getImage(FacesContext context, String generatorName, String format, String hrp, int orientation, String value) throws Exception {
+        Supplier<BarcodeGenerator> generator = generators.get(generatorName);
+        if (generator == null) {
+            throw new IllegalArgumentException("Unknown barcode type: " + generatorName);
+        }
+
+        String key = createKey(context, generatorName, format, hrp, orientation, value);
+        return getImage(context, key, generator, format, hrp, orientation, value);
+    }
+
+    protected String createKey(FacesContext context, String generatorName, String format, String hrp, int orientation, String value) {
+        String version = PrimeApplicationContext.getCurrentInstance(context).getEnvironment().getBuildVersion();
+        return createKey(generatorName, version, format, hrp, String.valueOf(orientation), value);
+    }
+
+    protected byte[] getImage(FacesContext context, String key, Supplier<BarcodeGenerator> generator, String format, String hrp, int orientation,
+            String value) throws Exception {
+        boolean cacheEnabled = PrimeApplicationContext.getCurrentInstance(context).getConfig().isBarcodeCacheEnabled();
+        byte[] image = cacheEnabled ? getCachedContent(context, key) : null;
+        if (image == null) {
+            image = generate(generator.get(), format, hrp, orientation, value);
+            if (cacheEnabled) {
+                putCachedContent(context, key, image);
+            }
+        }
+        return image;
+    }
+
+    protected byte[] generate(BarcodeGenerator generator, String format, String hrp, int orientation, String value) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        generator.getBarcodeBean().setMsgPosition(HumanReadablePlacement.byName(hrp));
+
+        if (format.equals("png")) {
+            BitmapCanvasProvider bitmapCanvasProvider = new BitmapCanvasProvider(
+                    out, "image/x-png", 150, BufferedImage.TYPE_BYTE_BINARY, false, orientation);
+            generator.generate(bitmapCanvasProvider, value);
+            bitmapCanvasProvider.finish();
+        }
+        else {
+            SVGCanvasProvider svgCanvasProvider = new SVGCanvasProvider(false, orientation);
+            generator.generate(svgCanvasProvider, value);
+            DocumentFragment frag = svgCanvasProvider.getDOMFragment();
+
+            Transformer trans = newTransformer();
+            Source src = new javax.xml.transform.dom.DOMSource(frag);
+            Result res = new javax.xml.transform.stream.StreamResult(out);
+            trans.transform(src, res);
+        }
+
+        return out.toByteArray();
+    }
+
+    /**
+     * The factory is created once, as its lookup is expensive. Factories are not thread-safe, but the transformers they create
+     * can be used independently.
+     */
+    protected Transformer newTransformer() throws TransformerConfigurationException {
+        synchronized (this) {
+            if (transformerFactory == null) {
+                TransformerFactory factory = TransformerFactory.newInstance();
+                factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+                transformerFactory = factory;
+            }
+            return transformerFactory.newTransformer();
+        }
+    }
 }
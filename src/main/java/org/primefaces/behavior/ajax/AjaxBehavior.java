@@ -281,6 +281,18 @@ public class AjaxBehavior extends AbstractBehavior implements AjaxSource {
         return true;
     }
 
+    /**
+     * @return <code>true</code> if the script of this behavior does not depend on any bound value expression
+     */
+    boolean isScriptLiteral() {
+        for (String attr : bindings.keySet()) {
+            if (!PropertyKeys.disabled.name().equals(attr) && !PropertyKeys.immediate.name().equals(attr)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
 
     @Override
     protected BehaviorAttribute[] getAllAttributes() {
@@ -23,8 +23,11 @@
  */
 package org.primefaces.behavior.ajax;
 
-import java.util.ArrayList;
 import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
 import javax.faces.component.ActionSource;
 import javax.faces.component.EditableValueHolder;
 import javax.faces.component.UIComponent;
@@ -38,9 +41,12 @@ import org.primefaces.component.api.ClientBehaviorRenderingMode;
 
 import org.primefaces.context.PrimeRequestContext;
 import org.primefaces.util.AjaxRequestBuilder;
+import org.primefaces.util.Constants;
 
 public class AjaxBehaviorRenderer extends ClientBehaviorRenderer {
 
+    private static final String SCRIPT_TEMPLATES = AjaxBehaviorRenderer.class.getName() + ".SCRIPT_TEMPLATES";
+
     @Override
     public void decode(FacesContext context, UIComponent component, ClientBehavior behavior) {
         AjaxBehavior ajaxBehavior = (AjaxBehavior) behavior;
@@ -70,10 +76,10 @@ public class AjaxBehaviorRenderer extends ClientBehaviorRenderer {
         Collection<ClientBehaviorContext.Parameter> behaviorParameters = behaviorContext.getParameters();
         if (behaviorParameters != null && !behaviorParameters.isEmpty()) {
             // perf optimzation
-            if (behaviorParameters instanceof ArrayList) {
+            if (behaviorParameters instanceof RandomAccess) {
                 for (int i = 0; i < behaviorParameters.size(); i++) {
                     ClientBehaviorContext.Parameter behaviorParameter =
-                            ((ArrayList<ClientBehaviorContext.Parameter>) behaviorParameters).get(i);
+                            ((List<ClientBehaviorContext.Parameter>) behaviorParameters).get(i);
                     if (behaviorParameter.getValue() instanceof ClientBehaviorRenderingMode) {
                         renderingMode = (ClientBehaviorRenderingMode) behaviorParameter.getValue();
                         break;
@@ -90,7 +96,22 @@ public class AjaxBehaviorRenderer extends ClientBehaviorRenderer {
             }
         }
 
+        FacesContext context = behaviorContext.getFacesContext();
         String source = behaviorContext.getSourceId();
+        String eventName = behaviorContext.getEventName();
+        Object fragmentId = context.getAttributes().get(Constants.FRAGMENT_ID);
+
+        // e.g. rows of a DataTable render the same script, only the ids differ
+        Map<AjaxBehavior, AjaxBehaviorScriptTemplate> templates = getScriptTemplates(context);
+        AjaxBehaviorScriptTemplate template = templates.get(ajaxBehavior);
+        boolean templateMatches = template != null && template.matches(component, eventName, renderingMode, fragmentId);
+        if (templateMatches && source != null && source.equals(component.getClientId(context))) {
+            String script = template.apply(source);
+            if (script != null) {
+                return script;
+            }
+        }
+
         String process = ajaxBehavior.getProcess();
         if (process == null) {
             process = "@this";
@@ -100,7 +121,7 @@ public class AjaxBehaviorRenderer extends ClientBehaviorRenderer {
 
         String request = builder.init()
                 .source(source)
-                .event(behaviorContext.getEventName())
+                .event(eventName)
                 .form(ajaxBehavior, component)
                 .process(component, process)
                 .update(component, ajaxBehavior.getUpdate())
@@ -119,9 +140,25 @@ public class AjaxBehaviorRenderer extends ClientBehaviorRenderer {
                 .params(component)
                 .buildBehavior(renderingMode);
 
+        if (!templateMatches) {
+            templates.put(ajaxBehavior, AjaxBehaviorScriptTemplate.create(context, ajaxBehavior, component, eventName, renderingMode, fragmentId,
+                    source, request));
+        }
+
         return request;
     }
 
+    @SuppressWarnings("unchecked") // only this renderer puts the templates into the context attributes
+    private Map<AjaxBehavior, AjaxBehaviorScriptTemplate> getScriptTemplates(FacesContext context) {
+        Map<Object, Object> attributes = context.getAttributes();
+        Map<AjaxBehavior, AjaxBehaviorScriptTemplate> templates = (Map<AjaxBehavior, AjaxBehaviorScriptTemplate>) attributes.get(SCRIPT_TEMPLATES);
+        if (templates == null) {
+            templates = new IdentityHashMap<>();
+            attributes.put(SCRIPT_TEMPLATES, templates);
+        }
+        return templates;
+    }
+
     private boolean isImmediate(UIComponent component, AjaxBehavior ajaxBehavior) {
         boolean immediate = false;
 
@@ -0,0 +1,247 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2009-2019 PrimeTek
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.behavior.ajax;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import javax.faces.component.UIComponent;
+import javax.faces.component.UIForm;
+import javax.faces.component.UINamingContainer;
+import javax.faces.component.UIParameter;
+import javax.faces.context.FacesContext;
+
+import org.primefaces.component.api.ClientBehaviorRenderingMode;
+import org.primefaces.util.ComponentTraversalUtils;
+import org.primefaces.util.LangUtils;
+
+/**
+ * Script of an {@link AjaxBehavior} with placeholders for the client id of the component and its form.
+ * Components inside iterating components (e.g. DataTable, UIRepeat) are rendered once per row with the same behavior,
+ * so the script only needs to be built once per request and the row specific ids are substituted afterwards.
+ */
+class AjaxBehaviorScriptTemplate {
+
+    private static final int SOURCE = 0;
+    private static final int FORM = 1;
+
+    private final UIComponent component;
+    private final String eventName;
+    private final ClientBehaviorRenderingMode renderingMode;
+    private final Object fragmentId;
+
+    // null if the script cannot be cached
+    private final String[] literals;
+    private final int[] placeholders;
+    private final char separatorChar;
+    private final int formSeparators;
+
+    private AjaxBehaviorScriptTemplate(UIComponent component, String eventName, ClientBehaviorRenderingMode renderingMode, Object fragmentId,
+            String[] literals, int[] placeholders, char separatorChar, int formSeparators) {
+        this.component = component;
+        this.eventName = eventName;
+        this.renderingMode = renderingMode;
+        this.fragmentId = fragmentId;
+        this.literals = literals;
+        this.placeholders = placeholders;
+        this.separatorChar = separatorChar;
+        this.formSeparators = formSeparators;
+    }
+
+    boolean matches(UIComponent component, String eventName, ClientBehaviorRenderingMode renderingMode, Object fragmentId) {
+        return this.component == component
+                && Objects.equals(this.eventName, eventName)
+                && this.renderingMode == renderingMode
+                && Objects.equals(this.fragmentId, fragmentId);
+    }
+
+    /**
+     * @param clientId the current client id of the component
+     * @return the script or <code>null</code> if the template can not be applied
+     */
+    String apply(String clientId) {
+        if (literals == null) {
+            return null;
+        }
+
+        String formClientId = null;
+        if (formSeparators >= 0) {
+            int end = -1;
+            for (int i = 0; i <= formSeparators; i++) {
+                end = clientId.indexOf(separatorChar, end + 1);
+                if (end == -1) {
+                    return null;
+                }
+            }
+            formClientId = clientId.substring(0, end);
+        }
+
+        int length = literals[0].length();
+        for (int i = 0; i < placeholders.length; i++) {
+            length += literals[i + 1].length() + (placeholders[i] == SOURCE ? clientId.length() : formClientId.length());
+        }
+
+        StringBuilder sb = new StringBuilder(length);
+        sb.append(literals[0]);
+        for (int i = 0; i < placeholders.length; i++) {
+            sb.append(placeholders[i] == SOURCE ? clientId : formClientId).append(literals[i + 1]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Creates the template from a script built for the given client id.
+     * If the script depends on more than the client id of the component and the client id of its form
+     * (value expressions, parameters, relative search expressions), a template which never applies is returned.
+     */
+    static AjaxBehaviorScriptTemplate create(FacesContext context, AjaxBehavior behavior, UIComponent component, String eventName,
+            ClientBehaviorRenderingMode renderingMode, Object fragmentId, String clientId, String script) {
+
+        char separatorChar = UINamingContainer.getSeparatorChar(context);
+        String formClientId = null;
+        int formSeparators = -1;
+        boolean cacheable = clientId != null
+                && clientId.equals(component.getClientId(context))
+                && behavior.isScriptLiteral()
+                && LangUtils.isValueBlank(behavior.getForm())
+                && !hasParameters(component);
+
+        if (cacheable) {
+            UIForm form = ComponentTraversalUtils.closestForm(context, component);
+            if (form != null) {
+                formClientId = form.getClientId(context);
+                formSeparators = count(formClientId, separatorChar);
+                cacheable = clientId.length() > formClientId.length()
+                        && clientId.startsWith(formClientId)
+                        && clientId.charAt(formClientId.length()) == separatorChar;
+            }
+        }
+
+        if (cacheable) {
+            String process = behavior.getProcess();
+            cacheable = isCacheable(process == null ? "@this" : process, separatorChar, clientId, formClientId)
+                    && isCacheable(behavior.getUpdate(), separatorChar, clientId, formClientId);
+        }
+
+        if (!cacheable) {
+            return new AjaxBehaviorScriptTemplate(component, eventName, renderingMode, fragmentId, null, null, separatorChar, -1);
+        }
+
+        // ids are only written as quoted or whitespace separated values in front of the callbacks
+        int end = script.indexOf("function(");
+        if (end == -1) {
+            end = script.length();
+        }
+
+        List<String> literals = new ArrayList<>();
+        List<Integer> placeholders = new ArrayList<>();
+        int literalStart = 0;
+        int tokenStart = 0;
+        for (int i = 0; i <= end; i++) {
+            if (i == end || script.charAt(i) == '"' || script.charAt(i) == ' ') {
+                int placeholder = -1;
+                if (isToken(script, tokenStart, i, clientId)) {
+                    placeholder = SOURCE;
+                }
+                else if (formClientId != null && isToken(script, tokenStart, i, formClientId)) {
+                    placeholder = FORM;
+                }
+
+                if (placeholder != -1) {
+                    literals.add(script.substring(literalStart, tokenStart));
+                    placeholders.add(placeholder);
+                    literalStart = i;
+                }
+                tokenStart = i + 1;
+            }
+        }
+        literals.add(script.substring(literalStart));
+
+        int[] placeholderArray = new int[placeholders.size()];
+        for (int i = 0; i < placeholderArray.length; i++) {
+            placeholderArray[i] = placeholders.get(i);
+        }
+
+        return new AjaxBehaviorScriptTemplate(component, eventName, renderingMode, fragmentId,
+                literals.toArray(new String[literals.size()]), placeholderArray, separatorChar, formSeparators);
+    }
+
+    /**
+     * Only expressions which resolve to the component, its form or to absolute ids can be cached.
+     */
+    static boolean isCacheable(String expressions, char separatorChar, String clientId, String formClientId) {
+        if (LangUtils.isValueBlank(expressions)) {
+            return true;
+        }
+
+        int start = 0;
+        int length = expressions.length();
+        for (int i = 0; i <= length; i++) {
+            if (i == length || expressions.charAt(i) == ' ' || expressions.charAt(i) == ',') {
+                if (i > start) {
+                    String expression = expressions.substring(start, i);
+                    if (!"@this".equals(expression) && !"@form".equals(expression) && !"@all".equals(expression) && !"@none".equals(expression)) {
+                        if (expression.charAt(0) != separatorChar || expression.indexOf('@') != -1) {
+                            return false;
+                        }
+
+                        String id = expression.substring(1);
+                        if (id.equals(clientId) || id.equals(formClientId)) {
+                            return false;
+                        }
+                    }
+                }
+                start = i + 1;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean hasParameters(UIComponent component) {
+        if (component.getChildCount() > 0) {
+            List<UIComponent> children = component.getChildren();
+            for (int i = 0; i < children.size(); i++) {
+                if (children.get(i) instanceof UIParameter) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isToken(String script, int start, int end, String value) {
+        return end - start == value.length() && script.regionMatches(start, value, 0, value.length());
+    }
+
+    private static int count(String value, char c) {
+        int count = 0;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == c) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
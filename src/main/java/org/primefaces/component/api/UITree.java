@@ -65,6 +65,12 @@ public abstract class UITree extends UIComponentBase implements NamingContainer
 
     private Boolean isNested = null;
 
+    private TreeNode indexedRoot;
+
+    private Map<String, TreeNode> rowKeyIndex;
+
+    private Map<String, int[]> rowKeyPaths;
+
     public enum PropertyKeys {
         var,
         selectionMode,
@@ -234,30 +240,113 @@ public abstract class UITree extends UIComponentBase implements NamingContainer
             return getValue();
         }
 
-        String[] paths = rowKey.split(SEPARATOR);
+        Map<String, TreeNode> index = getRowKeyIndex(searchRoot);
+        if (index != null) {
+            TreeNode node = index.get(rowKey);
+            if (node != null && rowKey.equals(node.getRowKey()) && isDescendant(searchRoot, node)) {
+                return node;
+            }
+        }
 
-        if (paths.length == 0) {
-            return null;
+        int[] paths = parseRowKey(rowKey);
+        TreeNode node = searchRoot;
+        for (int childIndex : paths) {
+            List<TreeNode> children = node.getChildren();
+            if (childIndex >= children.size()) {
+                return null;
+            }
+
+            node = children.get(childIndex);
+        }
+
+        if (index != null) {
+            index.put(rowKey, node);
         }
 
-        int childIndex = Integer.parseInt(paths[0]);
-        if (childIndex >= searchRoot.getChildren().size()) {
+        return node;
+    }
+
+    /**
+     * Parses the child indexes of a row key once, the result is cached for the lifetime of the component.
+     */
+    protected int[] parseRowKey(String rowKey) {
+        if (rowKeyPaths == null) {
+            rowKeyPaths = new HashMap<>();
+        }
+
+        int[] paths = rowKeyPaths.get(rowKey);
+        if (paths == null) {
+            int count = 1;
+            for (int i = 0; i < rowKey.length(); i++) {
+                if (rowKey.charAt(i) == SEPARATOR.charAt(0)) {
+                    count++;
+                }
+            }
+
+            paths = new int[count];
+            int start = 0;
+            for (int i = 0; i < count; i++) {
+                int end = rowKey.indexOf(SEPARATOR, start);
+                if (end == -1) {
+                    end = rowKey.length();
+                }
+
+                paths[i] = Integer.parseInt(rowKey.substring(start, end));
+                start = end + 1;
+            }
+
+            rowKeyPaths.put(rowKey, paths);
+        }
+
+        return paths;
+    }
+
+    /**
+     * Returns the row key to node index of the given root, a new index is started when the root changed.
+     * Nodes of a subtree search root are not indexed as their row keys are relative.
+     */
+    private Map<String, TreeNode> getRowKeyIndex(TreeNode root) {
+        if (root.getParent() != null) {
             return null;
         }
 
-        searchRoot = searchRoot.getChildren().get(childIndex);
+        if (indexedRoot != root || rowKeyIndex == null) {
+            indexedRoot = root;
+            rowKeyIndex = new HashMap<>();
+        }
+
+        return rowKeyIndex;
+    }
 
-        if (paths.length == 1) {
-            return searchRoot;
+    /**
+     * Updates the row key index after the row key of the given node changed, e.g. when the tree was sorted.
+     *
+     * @param node node of the indexed tree
+     */
+    public void indexRowKey(TreeNode node) {
+        if (rowKeyIndex != null) {
+            rowKeyIndex.put(node.getRowKey(), node);
         }
-        else {
-            String relativeRowKey = rowKey.substring(rowKey.indexOf(SEPARATOR) + 1);
+    }
 
-            return findTreeNode(searchRoot, relativeRowKey);
+    private boolean isDescendant(TreeNode root, TreeNode node) {
+        TreeNode parent = node.getParent();
+        while (parent != null) {
+            if (parent == root) {
+                return true;
+            }
+
+            parent = parent.getParent();
         }
+
+        return false;
     }
 
     public void buildRowKeys(TreeNode node) {
+        if (node.getParent() == null) {
+            getRowKeyIndex(node);
+        }
+
         int childCount = node.getChildCount();
         if (childCount > 0) {
             for (int i = 0; i < childCount; i++) {
@@ -268,6 +357,7 @@ public abstract class UITree extends UIComponentBase implements NamingContainer
 
                 String childRowKey = (node.getParent() == null) ? String.valueOf(i) : node.getRowKey() + "_" + i;
                 childNode.setRowKey(childRowKey);
+                indexRowKey(childNode);
                 buildRowKeys(childNode);
             }
         }
@@ -287,6 +377,10 @@ public abstract class UITree extends UIComponentBase implements NamingContainer
     }
 
     public void updateRowKeys(TreeNode node) {
+        if (node.getParent() == null) {
+            getRowKeyIndex(node);
+        }
+
         int childCount = node.getChildCount();
         if (childCount > 0) {
             for (int i = 0; i < childCount; i++) {
@@ -294,6 +388,7 @@ public abstract class UITree extends UIComponentBase implements NamingContainer
 
                 String childRowKey = (node.getParent() == null) ? String.valueOf(i) : node.getRowKey() + "_" + i;
                 childNode.setRowKey(childRowKey);
+                indexRowKey(childNode);
                 updateRowKeys(childNode);
             }
         }
@@ -546,27 +641,10 @@ public abstract class UITree extends UIComponentBase implements NamingContainer
                 TreeNode[] previousSelections = (TreeNode[]) previousSelection;
                 TreeNode[] selections = (TreeNode[]) selection;
 
-                if (previousSelections != null) {
-                    for (TreeNode node : previousSelections) {
-                        if (node instanceof CheckboxTreeNode) {
-                            ((CheckboxTreeNode) node).setSelected(false, propagateSelectionDown, propagateSelectionUp);
-                        }
-                        else {
-                            node.setSelected(false);
-                        }
-                    }
-                }
-
-                if (selections != null) {
-                    for (TreeNode node : selections) {
-                        if (node instanceof CheckboxTreeNode) {
-                            ((CheckboxTreeNode) node).setSelected(true, propagateSelectionDown, propagateSelectionUp);
-                        }
-                        else {
-                            node.setSelected(true);
-                        }
-                    }
-                }
+                CheckboxTreeNode.setSelected(
+                        previousSelections == null ? Collections.emptyList() : Arrays.asList(previousSelections),
+                        selections == null ? Collections.emptyList() : Arrays.asList(selections),
+                        propagateSelectionDown, propagateSelectionUp);
             }
 
             selectionVE.setValue(context.getELContext(), selection);
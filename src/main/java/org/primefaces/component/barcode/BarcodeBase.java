@@ -39,7 +39,8 @@ public abstract class BarcodeBase extends HtmlGraphicImage {
         format,
         orientation,
         qrErrorCorrection,
-        hrp
+        hrp,
+        stream
     }
 
     public BarcodeBase() {
@@ -99,4 +100,12 @@ public abstract class BarcodeBase extends HtmlGraphicImage {
         getStateHelper().put(PropertyKeys.hrp, hrp);
     }
 
+    public boolean isStream() {
+        return (Boolean) getStateHelper().eval(PropertyKeys.stream, true);
+    }
+
+    public void setStream(boolean stream) {
+        getStateHelper().put(PropertyKeys.stream, stream);
+    }
+
 }
\ No newline at end of file
@@ -26,17 +26,22 @@ package org.primefaces.component.barcode;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 
+import javax.faces.FacesException;
 import javax.faces.application.Resource;
 import javax.faces.component.UIComponent;
 import javax.faces.context.FacesContext;
 import javax.faces.context.ResponseWriter;
 
 import org.primefaces.application.resource.DynamicContentType;
+import org.primefaces.application.resource.QRCodeHandler;
+import org.primefaces.application.resource.barcode.BarcodeHandler;
 import org.primefaces.renderkit.CoreRenderer;
+import org.primefaces.util.AgentUtils;
 import org.primefaces.util.Constants;
 import org.primefaces.util.HTML;
 import org.primefaces.util.SharedStringBuilder;
@@ -60,23 +65,58 @@ public class BarcodeRenderer extends CoreRenderer {
             return;
         }
 
+        if (barcode.isStream()) {
+            src = context.getExternalContext().encodeResourceURL(getResourceURL(context, barcode, dynamicContentType, (String) value));
+        }
+        else {
+            src = getDataURI(context, barcode, dynamicContentType, (String) value);
+        }
+
+        writer.startElement("img", barcode);
+        if (shouldWriteId(component)) {
+            writer.writeAttribute("id", clientId, "id");
+        }
+        if (styleClass != null) {
+            writer.writeAttribute("class", styleClass, "styleClass");
+        }
+
+        writer.writeAttribute("src", src, null);
+
+        renderPassThruAttributes(context, barcode, HTML.IMG_ATTRS);
+
+        writer.endElement("img");
+    }
+
+    protected String getResourceURL(FacesContext context, Barcode barcode, DynamicContentType dynamicContentType, String value) throws IOException {
         try {
             Resource resource = context.getApplication().getResourceHandler().createResource("dynamiccontent.properties", "primefaces", "image/png");
             String resourcePath = resource.getRequestPath();
 
-            String sessionKey = UUID.randomUUID().toString();
             Map<String, Object> session = context.getExternalContext().getSessionMap();
             Map<String, String> barcodeMapping = (Map) session.get(Constants.BARCODE_MAPPING);
             if (barcodeMapping == null) {
                 barcodeMapping = new HashMap<>();
                 session.put(Constants.BARCODE_MAPPING, barcodeMapping);
             }
-            barcodeMapping.put(sessionKey, (String) value);
+            Map<String, String> barcodeKeys = (Map) session.get(Constants.BARCODE_KEYS);
+            if (barcodeKeys == null) {
+                barcodeKeys = new HashMap<>();
+                session.put(Constants.BARCODE_KEYS, barcodeKeys);
+            }
+
+            // random, so the value cannot be derived from the URL, but kept per value in the session,
+            // so repeated renderings use the same URL and can be served from the browser cache
+            String sessionKey = barcodeKeys.get(value);
+            if (sessionKey == null || !value.equals(barcodeMapping.get(sessionKey))) {
+                sessionKey = UUID.randomUUID().toString();
+                barcodeKeys.put(value, sessionKey);
+            }
+            barcodeMapping.put(sessionKey, value);
             StringBuilder builder = SharedStringBuilder.get(context, SB_BUILD);
 
-            src = builder.append(resourcePath).append("&").append(Constants.DYNAMIC_CONTENT_PARAM).append("=").append(URLEncoder.encode(sessionKey, "UTF-8"))
+            return builder.append(resourcePath).append("&").append(Constants.DYNAMIC_CONTENT_PARAM).append("=").append(URLEncoder.encode(sessionKey, "UTF-8"))
                     .append("&").append(Constants.DYNAMIC_CONTENT_TYPE_PARAM).append("=").append(dynamicContentType.toString())
-                    .append("&gen=").append(type)
+                    .append("&gen=").append(barcode.getType())
                     .append("&fmt=").append(barcode.getFormat())
                     .append("&qrec=").append(barcode.getQrErrorCorrection())
                     .append("&hrp=").append(barcode.getHrp())
@@ -87,19 +127,39 @@ public class BarcodeRenderer extends CoreRenderer {
         catch (UnsupportedEncodingException ex) {
             throw new IOException(ex);
         }
+    }
 
-        writer.startElement("img", barcode);
-        if (shouldWriteId(component)) {
-            writer.writeAttribute("id", clientId, "id");
+    /**
+     * Renders the image directly into the page, which avoids a request per barcode e.g. inside a DataTable.
+     */
+    protected String getDataURI(FacesContext context, Barcode barcode, DynamicContentType dynamicContentType, String value) {
+        String contentType;
+        byte[] image;
+
+        try {
+            if (dynamicContentType == DynamicContentType.QR_CODE) {
+                contentType = "image/png";
+                image = QRCodeHandlerHolder.INSTANCE.getImage(context, barcode.getQrErrorCorrection(), value);
+            }
+            else {
+                String format = AgentUtils.isLessThanIE(context, 9) ? "png" : barcode.getFormat();
+                contentType = format.equals("png") ? "image/png" : "image/svg+xml";
+                image = BarcodeHandlerHolder.INSTANCE.getImage(context, barcode.getType(), format, barcode.getHrp(), barcode.getOrientation(), value);
+            }
         }
-        if (styleClass != null) {
-            writer.writeAttribute("class", styleClass, "styleClass");
+        catch (Exception e) {
+            throw new FacesException("Could not generate barcode " + barcode.getClientId(context), e);
         }
 
-        writer.writeAttribute("src", context.getExternalContext().encodeResourceURL(src), null);
+        return "data:" + contentType + ";base64," + Base64.getEncoder().encodeToString(image);
+    }
 
-        renderPassThruAttributes(context, barcode, HTML.IMG_ATTRS);
+    // holders as barcode4j and qrgen are optional dependencies
+    private static class BarcodeHandlerHolder {
+        static final BarcodeHandler INSTANCE = new BarcodeHandler();
+    }
 
-        writer.endElement("img");
+    private static class QRCodeHandlerHolder {
+        static final QRCodeHandler INSTANCE = new QRCodeHandler();
     }
 }
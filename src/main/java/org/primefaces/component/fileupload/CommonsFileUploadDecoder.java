@@ -111,7 +111,10 @@ public class CommonsFileUploadDecoder {
 
         if (file != null) {
             UploadedFile uploadedFile = new CommonsUploadedFile(file, fileUpload.getSizeLimit());
-            if (FileUploadUtils.isValidFile(context, fileUpload, uploadedFile)) {
+            if (FileUploadChunkDecoder.isChunkedRequest(context, fileUpload)) {
+                FileUploadChunkDecoder.decode(context, fileUpload, uploadedFile);
+            }
+            else if (FileUploadUtils.isValidFile(context, fileUpload, uploadedFile)) {
                 fileUpload.queueEvent(new FileUploadEvent(fileUpload, uploadedFile));
             }
         }
@@ -23,11 +23,17 @@
  */
 package org.primefaces.component.fileupload;
 
+import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import javax.el.MethodExpression;
 import javax.faces.application.ResourceDependencies;
 import javax.faces.application.ResourceDependency;
 import javax.faces.context.FacesContext;
 
+import org.primefaces.event.FileUploadEvent;
+import org.primefaces.model.file.ChunkedUploadedFile;
+
 @ResourceDependencies({
         @ResourceDependency(library = "primefaces", name = "components.css"),
         @ResourceDependency(library = "primefaces", name = "fileupload/fileupload.css"),
@@ -52,15 +58,33 @@ public class FileUpload extends FileUploadBase {
     public static final String CONTAINER_CLASS_SIMPLE = "ui-fileupload-simple ui-widget";
     public static final String FILENAME_CLASS = "ui-fileupload-filename";
 
+    private static final Logger LOGGER = Logger.getLogger(FileUpload.class.getName());
+
     @Override
     public void broadcast(javax.faces.event.FacesEvent event) throws javax.faces.event.AbortProcessingException {
-        super.broadcast(event);
+        try {
+            super.broadcast(event);
 
-        FacesContext facesContext = getFacesContext();
-        MethodExpression me = getListener();
+            FacesContext facesContext = getFacesContext();
+            MethodExpression me = getListener();
 
-        if (me != null && event instanceof org.primefaces.event.FileUploadEvent) {
-            me.invoke(facesContext.getELContext(), new Object[]{event});
+            if (me != null && event instanceof org.primefaces.event.FileUploadEvent) {
+                me.invoke(facesContext.getELContext(), new Object[]{event});
+            }
+        }
+        finally {
+            if (event instanceof FileUploadEvent && ((FileUploadEvent) event).getFile() instanceof ChunkedUploadedFile) {
+                deleteChunkedFile((ChunkedUploadedFile) ((FileUploadEvent) event).getFile());
+            }
+        }
+    }
+
+    private void deleteChunkedFile(ChunkedUploadedFile file) {
+        try {
+            file.delete();
+        }
+        catch (IOException ex) {
+            LOGGER.log(Level.WARNING, "Could not delete reassembled file " + file.getPath(), ex);
         }
     }
 }
\ No newline at end of file
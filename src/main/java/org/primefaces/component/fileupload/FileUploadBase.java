@@ -69,7 +69,10 @@ public abstract class FileUploadBase extends UIInput implements Widget {
         cancelIcon,
         onAdd,
         validateContentType,
-        performVirusScan
+        performVirusScan,
+        maxChunkSize,
+        maxRetries,
+        retryTimeout
     }
 
     public FileUploadBase() {
@@ -360,4 +363,28 @@ public abstract class FileUploadBase extends UIInput implements Widget {
     public void setPerformVirusScan(boolean performVirusScan) {
         getStateHelper().put(PropertyKeys.performVirusScan, performVirusScan);
     }
-}
\ No newline at end of file
+
+    public long getMaxChunkSize() {
+        return (Long) getStateHelper().eval(PropertyKeys.maxChunkSize, 0L);
+    }
+
+    public void setMaxChunkSize(long maxChunkSize) {
+        getStateHelper().put(PropertyKeys.maxChunkSize, maxChunkSize);
+    }
+
+    public int getMaxRetries() {
+        return (Integer) getStateHelper().eval(PropertyKeys.maxRetries, 30);
+    }
+
+    public void setMaxRetries(int maxRetries) {
+        getStateHelper().put(PropertyKeys.maxRetries, maxRetries);
+    }
+
+    public int getRetryTimeout() {
+        return (Integer) getStateHelper().eval(PropertyKeys.retryTimeout, 1000);
+    }
+
+    public void setRetryTimeout(int retryTimeout) {
+        getStateHelper().put(PropertyKeys.retryTimeout, retryTimeout);
+    }
+}
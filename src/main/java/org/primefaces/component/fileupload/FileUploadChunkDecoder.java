@@ -0,0 +1,269 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2009-2019 PrimeTek
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.component.fileupload;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.faces.FacesException;
+import javax.faces.context.ExternalContext;
+import javax.faces.context.FacesContext;
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpSession;
+
+import org.primefaces.PrimeFaces;
+import org.primefaces.event.FileUploadEvent;
+import org.primefaces.model.file.ChunkedUploadedFile;
+import org.primefaces.model.file.UploadedFile;
+import org.primefaces.util.FileUploadUtils;
+import org.primefaces.util.LangUtils;
+
+/**
+ * Reassembles files the advanced FileUpload sends in chunks (see {@link FileUpload#getMaxChunkSize()}).
+ * Each chunk carries a <code>Content-Range</code> header and is appended to a temporary file keyed by the session,
+ * the component and the client side file id. The {@link FileUploadEvent} is queued once the last chunk arrived.
+ * Temporary files of abandoned uploads are deleted once they haven't been touched for longer than the session timeout.
+ */
+public class FileUploadChunkDecoder {
+
+    public static final String FILE_ID_HEADER = "X-File-Id";
+
+    public static final String UPLOADED_BYTES_PARAM = "_uploadedBytes";
+
+    private static final Logger LOGGER = Logger.getLogger(FileUploadChunkDecoder.class.getName());
+
+    private static final String CONTENT_RANGE_HEADER = "Content-Range";
+
+    private static final String CHUNK_DIRECTORY = "primefaces-upload-chunks";
+
+    private static final long CLEANUP_INTERVAL = TimeUnit.MINUTES.toMillis(5);
+
+    /**
+     * Used if sessions never time out.
+     */
+    private static final long DEFAULT_CHUNK_EXPIRY = TimeUnit.DAYS.toMillis(1);
+
+    private static final AtomicLong NEXT_CLEANUP = new AtomicLong();
+
+    private FileUploadChunkDecoder() {
+    }
+
+    public static boolean isChunkedRequest(FacesContext context, FileUpload fileUpload) {
+        return fileUpload.getMaxChunkSize() > 0 && context.getExternalContext().getRequestHeaderMap().get(CONTENT_RANGE_HEADER) != null;
+    }
+
+    public static void decode(FacesContext context, FileUpload fileUpload, UploadedFile chunk) throws IOException {
+        Map<String, String> headers = context.getExternalContext().getRequestHeaderMap();
+        ContentRange contentRange = ContentRange.parse(headers.get(CONTENT_RANGE_HEADER));
+        Path chunkFile = getChunkFile(context, fileUpload, headers.get(FILE_ID_HEADER));
+
+        // the declared total allows to reject early, the bytes actually received are checked as the client may lie about the total
+        Long sizeLimit = fileUpload.getSizeLimit();
+        if (sizeLimit != null && (contentRange.getTotal() > sizeLimit || contentRange.getStart() + chunk.getSize() > sizeLimit)) {
+            if (LOGGER.isLoggable(Level.WARNING)) {
+                LOGGER.warning(String.format("The uploaded file %s exceeds the size limit of %d bytes", chunk.getFileName(), sizeLimit));
+            }
+            Files.deleteIfExists(chunkFile);
+            context.renderResponse();
+            return;
+        }
+
+        long uploadedBytes = appendChunk(chunkFile, contentRange, chunk);
+        context.getExternalContext().setResponseHeader("Range", "bytes=0-" + (uploadedBytes - 1));
+
+        if (uploadedBytes < contentRange.getTotal()) {
+            // more chunks to come, skip the remaining lifecycle for this one
+            context.renderResponse();
+            return;
+        }
+
+        ChunkedUploadedFile uploadedFile = new ChunkedUploadedFile(chunkFile, chunk.getFileName(), chunk.getContentType());
+        if (FileUploadUtils.isValidFile(context, fileUpload, uploadedFile)) {
+            fileUpload.queueEvent(new FileUploadEvent(fileUpload, uploadedFile));
+        }
+        else {
+            uploadedFile.delete();
+        }
+    }
+
+    /**
+     * Provides the number of bytes already received for the given file as <code>uploadedBytes</code> callback param,
+     * so the client can resume an interrupted upload.
+     *
+     * @param context the {@link FacesContext}
+     * @param fileUpload the {@link FileUpload}
+     * @param fileId the client side file id
+     * @throws IOException if the temporary file could not be accessed
+     */
+    public static void decodeUploadedBytes(FacesContext context, FileUpload fileUpload, String fileId) throws IOException {
+        Path chunkFile = getChunkFile(context, fileUpload, fileId);
+        long uploadedBytes = Files.exists(chunkFile) ? Files.size(chunkFile) : 0L;
+
+        PrimeFaces.current().ajax().addCallbackParam("uploadedBytes", uploadedBytes);
+    }
+
+    /**
+     * Writes the chunk at the position given by the content range. Bytes behind that position, e.g. from a chunk
+     * which has been interrupted, are discarded.
+     *
+     * @return the number of bytes received so far
+     */
+    static long appendChunk(Path chunkFile, ContentRange contentRange, UploadedFile chunk) throws IOException {
+        long length = contentRange.getEnd() - contentRange.getStart() + 1;
+        if (chunk.getSize() != length) {
+            throw new FacesException("Chunk of " + chunk.getFileName() + " has " + chunk.getSize() + " bytes, but its Content-Range announces "
+                    + length + " bytes");
+        }
+
+        try (FileChannel channel = FileChannel.open(chunkFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            if (contentRange.getStart() > size) {
+                throw new FacesException("Chunk starting at byte " + contentRange.getStart() + " received, but only " + size
+                        + " bytes of " + chunk.getFileName() + " have been uploaded so far");
+            }
+
+            channel.truncate(contentRange.getStart());
+            channel.position(contentRange.getStart());
+            chunk.transferTo(channel);
+            return channel.size();
+        }
+    }
+
+    private static Path getChunkFile(FacesContext context, FileUpload fileUpload, String fileId) throws IOException {
+        if (LangUtils.isValueBlank(fileId)) {
+            throw new FacesException("Chunked file upload requires a file id");
+        }
+
+        ExternalContext externalContext = context.getExternalContext();
+        HttpSession session = (HttpSession) externalContext.getSession(true);
+
+        // the session is part of the key, so nobody can append to the upload of another user
+        String key = session.getId() + ":" + fileUpload.getClientId(context) + ":" + fileId;
+        String fileName = UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)) + ".part";
+
+        Object tempDir = externalContext.getApplicationMap().get(ServletContext.TEMPDIR);
+        Path chunkDirectory = tempDir instanceof File
+                ? ((File) tempDir).toPath().resolve(CHUNK_DIRECTORY)
+                : Paths.get(System.getProperty("java.io.tmpdir"), CHUNK_DIRECTORY);
+
+        Files.createDirectories(chunkDirectory);
+
+        long now = System.currentTimeMillis();
+        long nextCleanup = NEXT_CLEANUP.get();
+        if (now >= nextCleanup && NEXT_CLEANUP.compareAndSet(nextCleanup, now + CLEANUP_INTERVAL)) {
+            // every chunk touches the session, so a file older than the session timeout belongs to an expired session
+            int maxInactiveInterval = session.getMaxInactiveInterval();
+            deleteExpiredChunks(chunkDirectory, maxInactiveInterval > 0 ? TimeUnit.SECONDS.toMillis(maxInactiveInterval) : DEFAULT_CHUNK_EXPIRY, now);
+        }
+
+        return chunkDirectory.resolve(fileName);
+    }
+
+    /**
+     * Deletes the temporary files of uploads which haven't received a chunk within the given time.
+     *
+     * @param chunkDirectory the directory holding the temporary files
+     * @param maxAge the maximum time in milliseconds since the last chunk has been received
+     * @param now the current time in milliseconds
+     */
+    static void deleteExpiredChunks(Path chunkDirectory, long maxAge, long now) {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(chunkDirectory, "*.part")) {
+            for (Path file : files) {
+                try {
+                    if (now - Files.getLastModifiedTime(file).toMillis() > maxAge) {
+                        Files.deleteIfExists(file);
+                    }
+                }
+                catch (IOException e) {
+                    if (LOGGER.isLoggable(Level.FINE)) {
+                        LOGGER.log(Level.FINE, "Could not delete expired chunk file " + file, e);
+                    }
+                }
+            }
+        }
+        catch (IOException e) {
+            if (LOGGER.isLoggable(Level.WARNING)) {
+                LOGGER.log(Level.WARNING, "Could not clean up expired chunk files in " + chunkDirectory, e);
+            }
+        }
+    }
+
+    /**
+     * Parsed <code>Content-Range: bytes start-end/total</code> request header.
+     */
+    static class ContentRange {
+
+        private static final Pattern PATTERN = Pattern.compile("^bytes (\\d+)-(\\d+)/(\\d+)$");
+
+        private final long start;
+        private final long end;
+        private final long total;
+
+        ContentRange(long start, long end, long total) {
+            this.start = start;
+            this.end = end;
+            this.total = total;
+        }
+
+        static ContentRange parse(String header) {
+            Matcher matcher = header == null ? null : PATTERN.matcher(header.trim());
+            if (matcher == null || !matcher.matches()) {
+                throw new FacesException("Invalid Content-Range header: " + header);
+            }
+
+            ContentRange contentRange = new ContentRange(Long.parseLong(matcher.group(1)), Long.parseLong(matcher.group(2)),
+                    Long.parseLong(matcher.group(3)));
+            if (contentRange.start > contentRange.end || contentRange.end >= contentRange.total) {
+                throw new FacesException("Invalid Content-Range header: " + header);
+            }
+            return contentRange;
+        }
+
+        long getStart() {
+            return start;
+        }
+
+        long getEnd() {
+            return end;
+        }
+
+        long getTotal() {
+            return total;
+        }
+    }
+}
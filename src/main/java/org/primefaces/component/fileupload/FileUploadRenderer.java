@@ -42,12 +42,13 @@ public class FileUploadRenderer extends CoreRenderer {
 
     @Override
     public void decode(FacesContext context, UIComponent component) {
+        FileUpload fileUpload = (FileUpload) component;
+
         if (!context.getExternalContext().getRequestContentType().toLowerCase().startsWith("multipart/")) {
+            decodeUploadedBytes(context, fileUpload);
             return;
         }
 
-        FileUpload fileUpload = (FileUpload) component;
-
         if (!fileUpload.isDisabled()) {
             PrimeApplicationContext applicationContext = PrimeApplicationContext.getCurrentInstance(context);
             String uploader = applicationContext.getConfig().getUploader();
@@ -75,6 +76,20 @@ public class FileUploadRenderer extends CoreRenderer {
         }
     }
 
+    protected void decodeUploadedBytes(FacesContext context, FileUpload fileUpload) {
+        String fileId = context.getExternalContext().getRequestParameterMap()
+                .get(fileUpload.getClientId(context) + FileUploadChunkDecoder.UPLOADED_BYTES_PARAM);
+
+        if (fileId != null && fileUpload.getMaxChunkSize() > 0) {
+            try {
+                FileUploadChunkDecoder.decodeUploadedBytes(context, fileUpload, fileId);
+            }
+            catch (IOException e) {
+                throw new FacesException(e);
+            }
+        }
+    }
+
     @Override
     public void encodeEnd(FacesContext context, UIComponent component) throws IOException {
         FileUpload fileUpload = (FileUpload) component;
@@ -116,6 +131,12 @@ public class FileUploadRenderer extends CoreRenderer {
             if (allowTypes != null) {
                 wb.append(",allowTypes:").append(allowTypes);
             }
+
+            if (fileUpload.getMaxChunkSize() > 0) {
+                wb.attr("maxChunkSize", fileUpload.getMaxChunkSize())
+                        .attr("maxRetries", fileUpload.getMaxRetries())
+                        .attr("retryTimeout", fileUpload.getRetryTimeout());
+            }
         }
         else {
             wb.init("SimpleFileUpload", fileUpload.resolveWidgetVar(context), clientId)
@@ -98,7 +98,10 @@ public class NativeFileUploadDecoder {
 
         if (part != null) {
             NativeUploadedFile uploadedFile = new NativeUploadedFile(part, fileUpload.getSizeLimit());
-            if (FileUploadUtils.isValidFile(context, fileUpload, uploadedFile)) {
+            if (FileUploadChunkDecoder.isChunkedRequest(context, fileUpload)) {
+                FileUploadChunkDecoder.decode(context, fileUpload, uploadedFile);
+            }
+            else if (FileUploadUtils.isValidFile(context, fileUpload, uploadedFile)) {
                 fileUpload.queueEvent(new FileUploadEvent(fileUpload, uploadedFile));
             }
         }
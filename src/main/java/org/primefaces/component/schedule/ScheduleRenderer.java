@@ -38,6 +38,7 @@ import javax.faces.context.ResponseWriter;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
+import org.primefaces.model.DefaultScheduleModel;
 import org.primefaces.model.LazyScheduleModel;
 import org.primefaces.model.ScheduleEvent;
 import org.primefaces.model.ScheduleModel;
@@ -93,8 +94,12 @@ public class ScheduleRenderer extends CoreRenderer {
             LocalDateTime endDate = LocalDateTime.ofInstant(Instant.ofEpochMilli(endMillis), zoneId);
 
             LazyScheduleModel lazyModel = ((LazyScheduleModel) model);
-            lazyModel.clear(); //Clear old events
-            lazyModel.loadEvents(startDate, endDate); //Lazy load events
+            lazyModel.loadRange(startDate, endDate); //Lazy load events
+
+            if (lazyModel.isCached()) {
+                //Cached model keeps events of other periods
+                model = new DefaultScheduleModel(lazyModel.getEvents(startDate, endDate));
+            }
         }
 
         encodeEventsAsJSON(context, schedule, model);
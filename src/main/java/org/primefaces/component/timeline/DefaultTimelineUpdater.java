@@ -59,7 +59,8 @@ public class DefaultTimelineUpdater extends TimelineUpdater implements PhaseList
         UPDATE,
         DELETE,
         SELECT,
-        CLEAR
+        CLEAR,
+        RESET_LAZY_LOADING
     }
 
     @Override
@@ -114,6 +115,12 @@ public class DefaultTimelineUpdater extends TimelineUpdater implements PhaseList
         crudOperationDatas.add(new CrudOperationData(CrudOperation.CLEAR));
     }
 
+    @Override
+    public void resetLazyLoading() {
+        checkCrudOperationDataList();
+        crudOperationDatas.add(new CrudOperationData(CrudOperation.RESET_LAZY_LOADING));
+    }
+
     @Override
     public PhaseId getPhaseId() {
         return PhaseId.ANY_PHASE;
@@ -245,6 +252,13 @@ public class DefaultTimelineUpdater extends TimelineUpdater implements PhaseList
                         sb.append(widgetVar);
                         sb.append("').deleteAllEvents()");
                         break;
+
+                    case RESET_LAZY_LOADING:
+
+                        sb.append(";PF('");
+                        sb.append(widgetVar);
+                        sb.append("').resetLazyLoading()");
+                        break;
                 }
             }
 
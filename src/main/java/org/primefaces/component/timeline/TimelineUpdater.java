@@ -87,4 +87,11 @@ public abstract class TimelineUpdater {
     public abstract void select(String id);
 
     public abstract void clear();
+
+    /**
+     * Forgets the time range of lazy loaded events in UI, so the timeline fires the "lazyload" event again for the visible range.
+     */
+    public void resetLazyLoading() {
+        // nothing to do by default
+    }
 }
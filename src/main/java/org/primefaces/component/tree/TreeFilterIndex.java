@@ -0,0 +1,264 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2009-2019 PrimeTek
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.component.tree;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import javax.el.ELContext;
+import javax.el.ValueExpression;
+import javax.faces.context.FacesContext;
+import org.primefaces.model.TreeNode;
+import org.primefaces.model.filter.FilterConstraint;
+
+/**
+ * Keeps the filterBy values of all nodes of a tree, so consecutive filter requests of the same view do not evaluate them again.
+ * A longer filter text narrows the previous matches instead of testing all nodes. The index is rebuilt when the root node,
+ * the filterBy expression or the locale changes, or when a node, its row key or its data object is not the same anymore, e.g. after
+ * sorting, reordering or replacing nodes. Changes inside of data objects can't be detected, so the renderer discards the index
+ * whenever the tree is rendered. Its content is transient, a deserialized index is rebuilt.
+ */
+class TreeFilterIndex implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String STARTS_WITH_MATCH_MODE = "startsWith";
+    private static final String ENDS_WITH_MATCH_MODE = "endsWith";
+    private static final String CONTAINS_MATCH_MODE = "contains";
+    private static final String EXACT_MATCH_MODE = "exact";
+
+    private transient TreeNode root;
+    private transient String expression;
+    private transient Locale locale;
+
+    private transient List<TreeNode> nodes;
+    private transient List<Object> data;
+    private transient List<String> rowKeys;
+    private transient List<Object> values;
+    private transient List<String> texts;
+
+    private transient String lastMatchMode;
+    private transient String lastFilter;
+    private transient int[] lastMatches;
+
+    boolean isValid(TreeNode root, ValueExpression filterByVE, Locale locale) {
+        return this.root == root
+                && rowKeys != null
+                && filterByVE.getExpressionString().equals(expression)
+                && locale.equals(this.locale)
+                && matchesNodes(root, 0) == nodes.size();
+    }
+
+    void build(FacesContext context, TreeNode root, String var, ValueExpression filterByVE, Locale locale) {
+        this.root = root;
+        this.expression = filterByVE.getExpressionString();
+        this.locale = locale;
+        this.nodes = new ArrayList<>();
+        this.data = new ArrayList<>();
+        this.rowKeys = new ArrayList<>();
+        this.values = new ArrayList<>();
+        this.texts = new ArrayList<>();
+        this.lastFilter = null;
+        this.lastMatches = null;
+
+        Map<String, Object> requestMap = context.getExternalContext().getRequestMap();
+        addNodes(context.getELContext(), requestMap, var, filterByVE, root);
+        requestMap.remove(var);
+    }
+
+    /**
+     * @return the row keys of the matching nodes in tree order
+     */
+    List<String> filter(String matchMode, FilterConstraint filterConstraint, String filterValue) {
+        String filterText = (filterValue == null) ? "" : filterValue.trim().toLowerCase(locale);
+        boolean textMode = isTextMode(matchMode);
+
+        int[] candidates = null;
+        if (textMode && matchMode.equals(lastMatchMode) && lastMatches != null && isNarrowing(matchMode, lastFilter, filterText)) {
+            candidates = lastMatches;
+        }
+
+        int candidateCount = (candidates == null) ? rowKeys.size() : candidates.length;
+        int[] matches = new int[candidateCount];
+        int matchCount = 0;
+        for (int i = 0; i < candidateCount; i++) {
+            int index = (candidates == null) ? i : candidates[i];
+            boolean match = textMode
+                    ? matches(matchMode, texts.get(index), filterText)
+                    : filterConstraint.applies(values.get(index), filterValue, locale);
+
+            if (match) {
+                matches[matchCount++] = index;
+            }
+        }
+
+        lastMatchMode = matchMode;
+        lastFilter = filterText;
+        lastMatches = new int[matchCount];
+        System.arraycopy(matches, 0, lastMatches, 0, matchCount);
+
+        List<String> matchedRowKeys = new ArrayList<>(matchCount);
+        for (int i = 0; i < matchCount; i++) {
+            matchedRowKeys.add(rowKeys.get(lastMatches[i]));
+        }
+
+        return matchedRowKeys;
+    }
+
+    /**
+     * @return the row keys of the matching nodes, their ancestors and in lenient mode their descendants in tree order
+     */
+    List<String> getVisibleRowKeys(List<String> matchedRowKeys, boolean strict) {
+        Set<String> matched = new HashSet<>(matchedRowKeys);
+        Set<String> ancestors = new HashSet<>();
+        for (String rowKey : matchedRowKeys) {
+            int separator = rowKey.lastIndexOf('_');
+            while (separator > 0 && ancestors.add(rowKey.substring(0, separator))) {
+                separator = rowKey.lastIndexOf('_', separator - 1);
+            }
+        }
+
+        List<String> visibleRowKeys = new ArrayList<>();
+        for (String rowKey : rowKeys) {
+            if (matched.contains(rowKey) || ancestors.contains(rowKey) || (!strict && hasMatchedAncestor(rowKey, matched))) {
+                visibleRowKeys.add(rowKey);
+            }
+        }
+
+        return visibleRowKeys;
+    }
+
+    private boolean hasMatchedAncestor(String rowKey, Set<String> matched) {
+        int separator = rowKey.lastIndexOf('_');
+        while (separator > 0) {
+            if (matched.contains(rowKey.substring(0, separator))) {
+                return true;
+            }
+
+            separator = rowKey.lastIndexOf('_', separator - 1);
+        }
+
+        return false;
+    }
+
+    private void addNodes(ELContext elContext, Map<String, Object> requestMap, String var, ValueExpression filterByVE, TreeNode node) {
+        int childCount = node.getChildCount();
+        for (int i = 0; i < childCount; i++) {
+            TreeNode childNode = node.getChildren().get(i);
+            requestMap.put(var, childNode.getData());
+
+            Object value = filterByVE.getValue(elContext);
+            nodes.add(childNode);
+            data.add(childNode.getData());
+            rowKeys.add(childNode.getRowKey());
+            values.add(value);
+            texts.add(value == null ? null : value.toString().toLowerCase(locale));
+
+            addNodes(elContext, requestMap, var, filterByVE, childNode);
+        }
+    }
+
+    /**
+     * Compares the nodes below the given node in tree order with the indexed nodes, starting at the given position.
+     *
+     * @return the position after the last matching node or <code>-1</code> if a node does not match
+     */
+    private int matchesNodes(TreeNode node, int position) {
+        int next = position;
+        int childCount = node.getChildCount();
+        for (int i = 0; i < childCount; i++) {
+            TreeNode childNode = node.getChildren().get(i);
+            if (next >= nodes.size()
+                    || nodes.get(next) != childNode
+                    || data.get(next) != childNode.getData()
+                    || !Objects.equals(rowKeys.get(next), childNode.getRowKey())) {
+                return -1;
+            }
+
+            next = matchesNodes(childNode, next + 1);
+            if (next < 0) {
+                return -1;
+            }
+        }
+
+        return next;
+    }
+
+    private static boolean isTextMode(String matchMode) {
+        return STARTS_WITH_MATCH_MODE.equals(matchMode)
+                || ENDS_WITH_MATCH_MODE.equals(matchMode)
+                || CONTAINS_MATCH_MODE.equals(matchMode)
+                || EXACT_MATCH_MODE.equals(matchMode);
+    }
+
+    /**
+     * Matches of a filter text are a subset of the matches of the previous text, if the new text still contains it at the
+     * position the match mode tests.
+     */
+    private static boolean isNarrowing(String matchMode, String previousFilter, String filterText) {
+        if (STARTS_WITH_MATCH_MODE.equals(matchMode)) {
+            return filterText.startsWith(previousFilter);
+        }
+        else if (ENDS_WITH_MATCH_MODE.equals(matchMode)) {
+            return filterText.endsWith(previousFilter);
+        }
+        else if (CONTAINS_MATCH_MODE.equals(matchMode)) {
+            return filterText.contains(previousFilter);
+        }
+        else {
+            return filterText.equals(previousFilter);
+        }
+    }
+
+    /**
+     * Same semantics as the text filter constraints, with the node text already lower cased.
+     */
+    private static boolean matches(String matchMode, String text, String filterText) {
+        if (filterText.isEmpty()) {
+            return true;
+        }
+
+        if (text == null) {
+            return false;
+        }
+
+        if (STARTS_WITH_MATCH_MODE.equals(matchMode)) {
+            return text.startsWith(filterText);
+        }
+        else if (ENDS_WITH_MATCH_MODE.equals(matchMode)) {
+            return text.endsWith(filterText);
+        }
+        else if (CONTAINS_MATCH_MODE.equals(matchMode)) {
+            return text.contains(filterText);
+        }
+        else {
+            return text.equalsIgnoreCase(filterText);
+        }
+    }
+}
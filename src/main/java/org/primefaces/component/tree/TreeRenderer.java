@@ -35,6 +35,7 @@ import javax.faces.context.ResponseWriter;
 
 import org.primefaces.PrimeFaces;
 import org.primefaces.component.api.UITree;
+import org.primefaces.model.LazyTreeNode;
 import org.primefaces.model.TreeNode;
 import org.primefaces.model.filter.FilterConstraint;
 import org.primefaces.renderkit.CoreRenderer;
@@ -235,8 +236,6 @@ public class TreeRenderer extends CoreRenderer {
             String filteredValue = params.get(clientId + "_filter");
             Locale filterLocale = LocaleUtils.getCurrentLocale(context);
 
-            tree.getFilteredRowKeys().clear();
-            encodeFilteredNodes(context, tree, tree.getValue(), filteredValue, filterLocale);
             TreeNode root = tree.getValue();
 
             if (root != null && root.getRowKey() == null) {
@@ -245,39 +244,93 @@ public class TreeRenderer extends CoreRenderer {
                 tree.initPreselection();
             }
 
-            if (root != null && (LangUtils.isValueBlank(filteredValue) || tree.getFilteredRowKeys().size() > 0)) {
+            tree.getFilteredRowKeys().clear();
+            TreeFilterIndex filterIndex = null;
+            if (root instanceof LazyTreeNode) {
+                // the loader filters the nodes, so all loaded nodes are shown
+                filterLazyTree(tree, (LazyTreeNode) root, filteredValue);
+            }
+            else if (root != null) {
+                filterIndex = getFilterIndex(context, tree, root, filterLocale);
+                tree.getFilteredRowKeys().addAll(filterIndex.filter(tree.getFilterMatchMode(), getFilterConstraint(tree), filteredValue));
+            }
+
+            if (params.containsKey(clientId + "_filterToggle")) {
+                if (filterIndex != null && !LangUtils.isValueBlank(filteredValue)) {
+                    List<String> visibleRowKeys = filterIndex.getVisibleRowKeys(tree.getFilteredRowKeys(), tree.getFilterMode().equals("strict"));
+                    PrimeFaces.current().ajax().addCallbackParam("visibleRowKeys", String.join(",", visibleRowKeys));
+                }
+            }
+            else if (root instanceof LazyTreeNode || (root != null && (LangUtils.isValueBlank(filteredValue) || tree.getFilteredRowKeys().size() > 0))) {
                 encodeTreeNodeChildren(context, tree, root, clientId, tree.isDynamic(), tree.isCheckboxSelection(), tree.isDroppable());
             }
         }
         else {
+            discardFilterIndex(context, tree);
             encodeMarkup(context, tree);
             encodeScript(context, tree);
         }
     }
 
-    protected void encodeFilteredNodes(FacesContext context, Tree tree, TreeNode node, String filteredValue, Locale filterLocale)
-            throws IOException {
-        int childCount = node.getChildCount();
-        if (childCount > 0) {
-            String var = tree.getVar();
-            Map<String, Object> requestMap = context.getExternalContext().getRequestMap();
-            ValueExpression filterByVE = tree.getValueExpression(Tree.PropertyKeys.filterBy.toString());
-            FilterConstraint filterConstraint = getFilterConstraint(tree);
+    /**
+     * Reloads the children of a lazy tree with the filter value keyed by the property of the filterBy expression.
+     */
+    protected void filterLazyTree(Tree tree, LazyTreeNode root, String filteredValue) {
+        Map<String, Object> filters = new HashMap<>();
+        if (!LangUtils.isValueBlank(filteredValue)) {
+            filters.put(resolveFilterField(tree.getValueExpression(Tree.PropertyKeys.filterBy.toString())), filteredValue);
+        }
 
-            for (int i = 0; i < childCount; i++) {
-                TreeNode childNode = node.getChildren().get(i);
-                requestMap.put(var, childNode.getData());
+        root.filter(filters);
+        root.setRowKey(ROOT_ROW_KEY);
+        tree.buildRowKeys(root);
+    }
 
-                if (filterConstraint.applies(filterByVE.getValue(context.getELContext()), filteredValue, filterLocale)) {
-                    tree.getFilteredRowKeys().add(childNode.getRowKey());
-                }
-                encodeFilteredNodes(context, tree, childNode, filteredValue, filterLocale);
-            }
+    protected String resolveFilterField(ValueExpression expression) {
+        String expressionString = expression.getExpressionString();
+        if (expressionString.startsWith("#{")) {
+            expressionString = expressionString.substring(2, expressionString.indexOf('}')); //Remove #{}
+            return expressionString.substring(expressionString.indexOf('.') + 1); //Remove var
+        }
+
+        return expressionString;
+    }
+
+    /**
+     * Returns the filter index of the tree kept in the view map, it is built on the first filter request and whenever the model changed.
+     */
+    protected TreeFilterIndex getFilterIndex(FacesContext context, Tree tree, TreeNode root, Locale filterLocale) {
+        Map<String, Object> viewMap = context.getViewRoot().getViewMap();
+        String key = getFilterIndexKey(context, tree);
+        ValueExpression filterByVE = tree.getValueExpression(Tree.PropertyKeys.filterBy.toString());
+
+        TreeFilterIndex filterIndex = (TreeFilterIndex) viewMap.get(key);
+        if (filterIndex == null) {
+            filterIndex = new TreeFilterIndex();
+            viewMap.put(key, filterIndex);
+        }
+
+        if (!filterIndex.isValid(root, filterByVE, filterLocale)) {
+            filterIndex.build(context, root, tree.getVar(), filterByVE, filterLocale);
+        }
+
+        return filterIndex;
+    }
 
-            requestMap.remove(var);
+    /**
+     * Discards the filter index when the tree is rendered, as the data of its nodes may have been changed by the application.
+     */
+    protected void discardFilterIndex(FacesContext context, Tree tree) {
+        Map<String, Object> viewMap = context.getViewRoot() == null ? null : context.getViewRoot().getViewMap(false);
+        if (viewMap != null) {
+            viewMap.remove(getFilterIndexKey(context, tree));
         }
     }
 
+    private String getFilterIndexKey(FacesContext context, Tree tree) {
+        return TreeFilterIndex.class.getName() + ":" + tree.getClientId(context);
+    }
+
     protected void encodeScript(FacesContext context, Tree tree) throws IOException {
         String clientId = tree.getClientId(context);
         boolean dynamic = tree.isDynamic();
@@ -318,7 +371,8 @@ public class TreeRenderer extends CoreRenderer {
 
         if (filter) {
             wb.attr("filter", true)
-                    .attr("filterMode", tree.getFilterMode(), "lenient");
+                    .attr("filterMode", tree.getFilterMode(), "lenient")
+                    .attr("lazy", tree.getValue() instanceof LazyTreeNode, false);
         }
 
         encodeIconStates(context, tree, wb);
@@ -331,6 +385,10 @@ public class TreeRenderer extends CoreRenderer {
         boolean vertical = tree.getOrientation().equals("vertical");
         TreeNode root = tree.getValue();
 
+        if (root instanceof LazyTreeNode && ((LazyTreeNode) root).getPageSize() > 0) {
+            throw new FacesException("tree's value must not have a page size. ClientId: " + tree.getClientId(context));
+        }
+
         if (root != null && root.getRowKey() == null) {
             root.setRowKey(ROOT_ROW_KEY);
             tree.buildRowKeys(root);
@@ -46,6 +46,7 @@ import org.primefaces.component.columns.Columns;
 import org.primefaces.event.*;
 import org.primefaces.event.data.PageEvent;
 import org.primefaces.event.data.SortEvent;
+import org.primefaces.model.LazyTreeNode;
 import org.primefaces.model.SortOrder;
 import org.primefaces.model.TreeNode;
 import org.primefaces.model.filter.*;
@@ -81,6 +82,8 @@ public class TreeTable extends TreeTableBase {
     public static final String SCROLLABLE_HEADER_CLASS = "ui-widget-header ui-treetable-scrollable-header";
     public static final String SCROLLABLE_HEADER_BOX_CLASS = "ui-treetable-scrollable-header-box";
     public static final String SCROLLABLE_BODY_CLASS = "ui-treetable-scrollable-body";
+    public static final String VIRTUALSCROLL_WRAPPER_CLASS = "ui-treetable-virtualscroll-wrapper";
+    public static final String VIRTUALSCROLL_TABLE_CLASS = "ui-treetable-virtualscroll-table";
     public static final String SCROLLABLE_FOOTER_CLASS = "ui-widget-header ui-treetable-scrollable-footer";
     public static final String SCROLLABLE_FOOTER_BOX_CLASS = "ui-treetable-scrollable-footer-box";
     public static final String SELECTABLE_NODE_CLASS = "ui-treetable-selectable-node";
@@ -171,6 +174,17 @@ public class TreeTable extends TreeTableBase {
         return context.getExternalContext().getRequestParameterMap().containsKey(getClientId(context) + "_pagination");
     }
 
+    public boolean isScrollingRequest(FacesContext context) {
+        return context.getExternalContext().getRequestParameterMap().containsKey(getClientId(context) + "_scrolling");
+    }
+
+    /**
+     * Virtual scrolling renders a window of the visible rows, it requires a scrollable TreeTable without paginator.
+     */
+    public boolean isVirtualScrolling() {
+        return isScrollable() && isVirtualScroll() && !isPaginator() && getScrollRows() > 0;
+    }
+
     public boolean isRowEditRequest(FacesContext context) {
         return context.getExternalContext().getRequestParameterMap().containsKey(getClientId(context) + "_rowEditAction");
     }
@@ -294,7 +308,7 @@ public class TreeTable extends TreeTableBase {
 
     @Override
     public void processDecodes(FacesContext context) {
-        if (isToggleRequest(context)) {
+        if (isToggleRequest(context) || isScrollingRequest(context)) {
             decode(context);
         }
         else {
@@ -488,6 +502,9 @@ public class TreeTable extends TreeTableBase {
         if (root == null) {
             return (-1);
         }
+        else if (root instanceof LazyTreeNode) {
+            return ((LazyTreeNode) root).getTotalChildCount();
+        }
         else {
             List<TreeNode> children = root.getChildren();
             return children == null ? -1 : children.size();
@@ -76,7 +76,9 @@ public abstract class TreeTableBase extends UITree implements Widget, ClientBeha
         filteredNode,
         filterEvent,
         filterDelay,
-        cellEditMode
+        cellEditMode,
+        virtualScroll,
+        scrollRows
     }
 
     public TreeTableBase() {
@@ -409,4 +411,20 @@ public abstract class TreeTableBase extends UITree implements Widget, ClientBeha
     public void setCellEditMode(String cellEditMode) {
         getStateHelper().put(PropertyKeys.cellEditMode, cellEditMode);
     }
+
+    public boolean isVirtualScroll() {
+        return (Boolean) getStateHelper().eval(PropertyKeys.virtualScroll, false);
+    }
+
+    public void setVirtualScroll(boolean virtualScroll) {
+        getStateHelper().put(PropertyKeys.virtualScroll, virtualScroll);
+    }
+
+    public int getScrollRows() {
+        return (Integer) getStateHelper().eval(PropertyKeys.scrollRows, 0);
+    }
+
+    public void setScrollRows(int scrollRows) {
+        getStateHelper().put(PropertyKeys.scrollRows, scrollRows);
+    }
 }
\ No newline at end of file
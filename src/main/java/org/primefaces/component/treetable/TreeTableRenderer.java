@@ -25,9 +25,13 @@ package org.primefaces.component.treetable;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 import javax.el.ELContext;
 import javax.el.MethodExpression;
@@ -166,13 +170,20 @@ public class TreeTableRenderer extends DataRenderer {
             TreeNode node = tt.getRowNode();
             node.setExpanded(true);
 
-            if (tt.getExpandMode().equals("self")) {
+            if (tt.isVirtualScrolling()) {
+                // the children may be many more rows than the window, so the window is rendered again like on collapse
+                encodeVirtualScrollWindow(context, tt);
+            }
+            else if (tt.getExpandMode().equals("self")) {
                 encodeNode(context, tt, node);
             }
             else {
                 encodeNodeChildren(context, tt, node);
             }
         }
+        else if (tt.isScrollingRequest(context)) {
+            encodeScroll(context, tt);
+        }
         else if (tt.isFilterRequest(context)) {
             tt.updateFilteredNode(context, null);
             tt.setValue(null);
@@ -245,6 +256,12 @@ public class TreeTableRenderer extends DataRenderer {
             wb.attr("stickyHeader", true);
         }
 
+        if (tt.isVirtualScrolling()) {
+            wb.attr("virtualScroll", true)
+                    .attr("scrollStep", tt.getScrollRows())
+                    .attr("scrollLimit", getVisibleNodes(tt.getValue()).size());
+        }
+
         //Editing
         if (tt.isEditable()) {
             wb.attr("editable", true)
@@ -282,6 +299,9 @@ public class TreeTableRenderer extends DataRenderer {
         if (!(root instanceof TreeNode)) {
             throw new FacesException("treeTable's value must be an instance of " + TreeNode.class.getName() + ". ClientId: " + clientId);
         }
+        if (!hasPaginator && root instanceof LazyTreeNode && ((LazyTreeNode) root).getPageSize() > 0) {
+            throw new FacesException("treeTable's value must not have a page size without paginator. ClientId: " + clientId);
+        }
 
         if (hasPaginator) {
             tt.calculateFirst();
@@ -359,12 +379,20 @@ public class TreeTableRenderer extends DataRenderer {
     protected void encodeScrollBody(FacesContext context, TreeTable tt, String tableStyle, String tableStyleClass) throws IOException {
         ResponseWriter writer = context.getResponseWriter();
         String scrollHeight = tt.getScrollHeight();
+        boolean virtualScrolling = tt.isVirtualScrolling();
 
         writer.startElement("div", null);
         writer.writeAttribute("class", TreeTable.SCROLLABLE_BODY_CLASS, null);
         if (scrollHeight != null && scrollHeight.indexOf('%') == -1) {
             writer.writeAttribute("style", "height:" + scrollHeight + "px", null);
         }
+
+        if (virtualScrolling) {
+            writer.startElement("div", null);
+            writer.writeAttribute("class", TreeTable.VIRTUALSCROLL_WRAPPER_CLASS, null);
+            tableStyleClass = (tableStyleClass == null) ? TreeTable.VIRTUALSCROLL_TABLE_CLASS : tableStyleClass + " " + TreeTable.VIRTUALSCROLL_TABLE_CLASS;
+        }
+
         writer.startElement("table", null);
         writer.writeAttribute("role", "grid", null);
 
@@ -378,6 +406,9 @@ public class TreeTableRenderer extends DataRenderer {
         encodeTbody(context, tt, false);
 
         writer.endElement("table");
+        if (virtualScrolling) {
+            writer.endElement("div");
+        }
         writer.endElement("div");
     }
 
@@ -535,7 +566,10 @@ public class TreeTableRenderer extends DataRenderer {
         }
 
         if (root != null) {
-            if (tt.isPaginator()) {
+            if (tt.isVirtualScrolling()) {
+                encodeVisibleNodes(context, tt, getVisibleNodes(root), 0);
+            }
+            else if (tt.isPaginator()) {
                 int first = tt.getFirst();
                 int rows = tt.getRows() == 0 ? tt.getRowCount() : tt.getRows();
                 encodeNodeChildren(context, tt, root, first, rows);
@@ -553,6 +587,10 @@ public class TreeTableRenderer extends DataRenderer {
     }
 
     protected void encodeNode(FacesContext context, TreeTable tt, TreeNode treeNode) throws IOException {
+        encodeNode(context, tt, treeNode, true);
+    }
+
+    protected void encodeNode(FacesContext context, TreeTable tt, TreeNode treeNode, boolean encodeChildren) throws IOException {
         ResponseWriter writer = context.getResponseWriter();
         String rowKey = treeNode.getRowKey();
         String parentRowKey = treeNode.getParent().getRowKey();
@@ -675,11 +713,94 @@ public class TreeTableRenderer extends DataRenderer {
 
         writer.endElement("tr");
 
-        if (treeNode.isExpanded()) {
+        if (encodeChildren && treeNode.isExpanded()) {
             encodeNodeChildren(context, tt, treeNode);
         }
     }
 
+    /**
+     * Renders the window of visible rows requested by the client while scrolling, a node can be collapsed in the same request.
+     */
+    protected void encodeScroll(FacesContext context, TreeTable tt) throws IOException {
+        Map<String, String> params = context.getExternalContext().getRequestParameterMap();
+        String clientId = tt.getClientId(context);
+
+        String collapsedNodeKey = params.get(clientId + "_collapse");
+        if (collapsedNodeKey != null) {
+            tt.setRowKey(collapsedNodeKey);
+            TreeNode node = tt.getRowNode();
+            if (node != null) {
+                node.setExpanded(false);
+            }
+        }
+
+        encodeVirtualScrollWindow(context, tt);
+    }
+
+    /**
+     * Renders the window of visible rows starting at the first row requested by the client. The first row is passed back,
+     * as it is moved into the visible rows if the client requested a row outside of them.
+     */
+    protected void encodeVirtualScrollWindow(FacesContext context, TreeTable tt) throws IOException {
+        List<TreeNode> visibleNodes = getVisibleNodes(tt.getValue());
+        int first = getVirtualScrollFirst(context, tt, visibleNodes.size());
+
+        encodeVisibleNodes(context, tt, visibleNodes, first);
+        tt.setRowKey(null);
+
+        PrimeFaces.current().ajax().addCallbackParam("totalRecords", visibleNodes.size());
+        PrimeFaces.current().ajax().addCallbackParam("first", first);
+    }
+
+    protected int getVirtualScrollFirst(FacesContext context, TreeTable tt, int visibleCount) {
+        String firstParam = context.getExternalContext().getRequestParameterMap().get(tt.getClientId(context) + "_first");
+        int first = 0;
+        if (firstParam != null) {
+            try {
+                first = Integer.parseInt(firstParam);
+            }
+            catch (NumberFormatException e) {
+                first = 0;
+            }
+        }
+
+        return Math.max(0, Math.min(first, visibleCount - tt.getScrollRows()));
+    }
+
+    /**
+     * Renders twice the scrollRows of the visible nodes starting at first, each row without its children.
+     */
+    protected void encodeVisibleNodes(FacesContext context, TreeTable tt, List<TreeNode> visibleNodes, int first) throws IOException {
+        int last = Math.min(first + (tt.getScrollRows() * 2), visibleNodes.size());
+        for (int i = Math.max(first, 0); i < last; i++) {
+            encodeNode(context, tt, visibleNodes.get(i), false);
+        }
+    }
+
+    /**
+     * Flattens the nodes that are displayed, which are the children of the root and of expanded nodes, in rendering order.
+     */
+    protected List<TreeNode> getVisibleNodes(TreeNode root) {
+        List<TreeNode> visibleNodes = new ArrayList<>();
+        if (root != null) {
+            addVisibleNodes(root, visibleNodes);
+        }
+
+        return visibleNodes;
+    }
+
+    private void addVisibleNodes(TreeNode node, List<TreeNode> visibleNodes) {
+        int childCount = node.getChildCount();
+        for (int i = 0; i < childCount; i++) {
+            TreeNode child = node.getChildren().get(i);
+            visibleNodes.add(child);
+
+            if (child.isExpanded()) {
+                addVisibleNodes(child, visibleNodes);
+            }
+        }
+    }
+
     protected void encodeColumnHeader(FacesContext context, TreeTable tt, UIColumn column) throws IOException {
         if (!column.isRendered()) {
             return;
@@ -839,6 +960,10 @@ public class TreeTableRenderer extends DataRenderer {
 
     protected void encodeNodeChildren(FacesContext context, TreeTable tt, TreeNode treeNode, int first, int size) throws IOException {
         if (size > 0) {
+            if (treeNode instanceof LazyTreeNode) {
+                ((LazyTreeNode) treeNode).loadChildren(first, size);
+            }
+
             List<TreeNode> children = treeNode.getChildren();
             int childCount = treeNode.getChildCount();
             int last = (first + size);
@@ -1035,9 +1160,14 @@ public class TreeTableRenderer extends DataRenderer {
 
         ValueExpression sortByVE = tt.getValueExpression("sortBy");
         SortOrder sortOrder = SortOrder.valueOf(tt.getSortOrder().toUpperCase(Locale.ENGLISH));
-        TreeUtils.sortNode(root, new TreeNodeComparator(sortByVE, tt.getVar(), sortOrder, tt.getSortFunction(),
-                tt.isCaseSensitiveSort(), tt.resolveDataLocale()));
-        tt.updateRowKeys(root);
+        if (root instanceof LazyTreeNode) {
+            ((LazyTreeNode) root).sort(resolveField(sortColumn, sortByVE), sortOrder);
+        }
+        else {
+            // only the row keys of moved nodes are updated and reindexed
+            TreeUtils.sortNode(root, new TreeNodeComparator(sortByVE, tt.getVar(), sortOrder, tt.getSortFunction(),
+                    tt.isCaseSensitiveSort(), tt.resolveDataLocale()), tt::indexRowKey);
+        }
 
         String selectedRowKeys = tt.getSelectedRowKeysAsString();
         if (selectedRowKeys != null) {
@@ -1174,13 +1304,13 @@ public class TreeTableRenderer extends DataRenderer {
         TreeNode filteredNode = null;
 
         tt.getFilteredRowKeys().clear();
-        findFilteredRowKeys(context, tt, root, filterMetadata, filterLocale, globalFilterValue);
-
-        filteredNode = createNewNode(root, root.getParent());
-
-        List<String> filteredRowKeys = tt.getFilteredRowKeys();
-
-        createFilteredNodeFromRowKeys(tt, root, filteredNode, filteredRowKeys);
+        if (root instanceof LazyTreeNode) {
+            ((LazyTreeNode) root).filter(populateFilterParameterMap(filterMetadata, globalFilterValue));
+            filteredNode = root;
+        }
+        else {
+            filteredNode = filterTree(context, tt, root, filterMetadata, filterLocale, globalFilterValue);
+        }
 
         tt.updateFilteredNode(context, filteredNode);
         tt.setValue(filteredNode);
@@ -1188,15 +1318,90 @@ public class TreeTableRenderer extends DataRenderer {
 
         //Metadata for callback
         if (tt.isPaginator()) {
-            PrimeFaces.current().ajax().addCallbackParam("totalRecords", filteredNode.getChildren().size());
+            PrimeFaces.current().ajax().addCallbackParam("totalRecords", tt.getRowCount());
+        }
+        else if (tt.isVirtualScrolling()) {
+            PrimeFaces.current().ajax().addCallbackParam("totalRecords", getVisibleNodes(filteredNode).size());
         }
         if (tt.getSelectedRowKeysAsString() != null) {
             PrimeFaces.current().ajax().addCallbackParam("selection", tt.getSelectedRowKeysAsString());
         }
     }
 
+    /**
+     * Creates the filters passed to the {@link org.primefaces.model.LazyTreeNodeLoader}, keyed by the field of the column.
+     */
+    protected Map<String, Object> populateFilterParameterMap(List<FilterMeta> filterMetadata, String globalFilterValue) {
+        Map<String, Object> filterParameterMap = new HashMap<>();
+
+        for (FilterMeta filterMeta : filterMetadata) {
+            Object filterValue = filterMeta.getFilterValue();
+            if (filterValue == null || LangUtils.isValueBlank(filterValue.toString())) {
+                continue;
+            }
+
+            UIColumn column = filterMeta.getColumn();
+            if (column instanceof DynamicColumn) {
+                ((DynamicColumn) column).applyStatelessModel();
+            }
+
+            filterParameterMap.put(resolveField(column, filterMeta.getFilterByVE()), filterValue);
+        }
+
+        if (!LangUtils.isValueBlank(globalFilterValue)) {
+            filterParameterMap.put("globalFilter", globalFilterValue);
+        }
+
+        return filterParameterMap;
+    }
+
+    protected String resolveField(UIColumn column, ValueExpression expression) {
+        if (column != null && column.getField() != null) {
+            return column.getField();
+        }
+
+        if (expression != null) {
+            String expressionString = expression.getExpressionString();
+            if (expressionString.startsWith("#{")) {
+                expressionString = expressionString.substring(2, expressionString.indexOf('}')); //Remove #{}
+                return expressionString.substring(expressionString.indexOf('.') + 1); //Remove var
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Collects the row keys of the matching nodes and creates a copy of the tree with the matching nodes, their ancestors and their descendants.
+     *
+     * @return the root of the copy
+     */
+    protected TreeNode filterTree(FacesContext context, TreeTable tt, TreeNode root, List<FilterMeta> filterMetadata, Locale filterLocale,
+                                  String globalFilterValue) throws IOException {
+        Set<TreeNode> matchedNodes = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<TreeNode> ancestorNodes = Collections.newSetFromMap(new IdentityHashMap<>());
+        findFilteredRowKeys(context, tt, root, filterMetadata, filterLocale, globalFilterValue, matchedNodes, ancestorNodes);
+
+        TreeNode filteredNode = createNewNode(root, root.getParent());
+        createFilteredNode(root, filteredNode, matchedNodes, ancestorNodes, false);
+
+        return filteredNode;
+    }
+
     protected void findFilteredRowKeys(FacesContext context, TreeTable tt, TreeNode node, List<FilterMeta> filterMetadata, Locale filterLocale,
                                        String globalFilterValue) throws IOException {
+        findFilteredRowKeys(context, tt, node, filterMetadata, filterLocale, globalFilterValue,
+                Collections.newSetFromMap(new IdentityHashMap<>()), Collections.newSetFromMap(new IdentityHashMap<>()));
+    }
+
+    /**
+     * Collects the row keys of the matching nodes and marks the matching nodes and the ancestors of matching nodes.
+     *
+     * @return <code>true</code> if a child or a descendant of the node matches
+     */
+    protected boolean findFilteredRowKeys(FacesContext context, TreeTable tt, TreeNode node, List<FilterMeta> filterMetadata, Locale filterLocale,
+                                          String globalFilterValue, Set<TreeNode> matchedNodes, Set<TreeNode> ancestorNodes) throws IOException {
+        boolean descendantMatches = false;
         int childCount = node.getChildCount();
         boolean hasGlobalFilter = !LangUtils.isValueBlank(globalFilterValue);
         GlobalFilterConstraint globalFilterConstraint = (GlobalFilterConstraint) FILTER_CONSTRAINTS.get(GLOBAL_MODE);
@@ -1244,28 +1449,39 @@ public class TreeTableRenderer extends DataRenderer {
 
             if (matches) {
                 tt.getFilteredRowKeys().add(rowKey);
+                matchedNodes.add(childNode);
+            }
+
+            if (findFilteredRowKeys(context, tt, childNode, filterMetadata, filterLocale, globalFilterValue, matchedNodes, ancestorNodes)) {
+                ancestorNodes.add(childNode);
+                descendantMatches = true;
             }
 
-            findFilteredRowKeys(context, tt, childNode, filterMetadata, filterLocale, globalFilterValue);
+            descendantMatches = descendantMatches || matches;
         }
+
+        return descendantMatches;
     }
 
-    private void createFilteredNodeFromRowKeys(TreeTable tt, TreeNode node, TreeNode filteredNode, List<String> filteredRowKeys) {
+    /**
+     * Copies matching nodes, their ancestors and their descendants in a single traversal. Ancestors are expanded to show the matches,
+     * unless they match themselves or are below a match, those keep their own expanded state.
+     */
+    private void createFilteredNode(TreeNode node, TreeNode filteredNode, Set<TreeNode> matchedNodes, Set<TreeNode> ancestorNodes,
+                                    boolean ancestorMatches) {
         int childCount = node.getChildCount();
         for (int i = 0; i < childCount; i++) {
             TreeNode childNode = node.getChildren().get(i);
-            String rowKeyOfChildNode = childNode.getRowKey();
-
-            for (String rk : filteredRowKeys) {
-                if (rk.equals(rowKeyOfChildNode) || rk.startsWith(rowKeyOfChildNode + "_") || rowKeyOfChildNode.startsWith(rk + "_")) {
-                    TreeNode newNode = createNewNode(childNode, filteredNode);
-                    if (rk.startsWith(rowKeyOfChildNode + "_")) {
-                        newNode.setExpanded(true);
-                    }
+            boolean matches = matchedNodes.contains(childNode);
+            boolean ancestor = ancestorNodes.contains(childNode);
 
-                    createFilteredNodeFromRowKeys(tt, childNode, newNode, filteredRowKeys);
-                    break;
+            if (ancestorMatches || matches || ancestor) {
+                TreeNode newNode = createNewNode(childNode, filteredNode);
+                if (ancestor && !matches && !ancestorMatches) {
+                    newNode.setExpanded(true);
                 }
+
+                createFilteredNode(childNode, newNode, matchedNodes, ancestorNodes, ancestorMatches || matches);
             }
         }
     }
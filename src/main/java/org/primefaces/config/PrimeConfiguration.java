@@ -29,6 +29,7 @@ import javax.faces.component.UIInput;
 import javax.faces.context.ExternalContext;
 import javax.faces.context.FacesContext;
 
+import org.primefaces.application.resource.DynamicContentCachePolicy;
 import org.primefaces.util.Constants;
 
 /**
@@ -52,6 +53,14 @@ public class PrimeConfiguration {
     private final boolean moveScriptsToBottom;
     private boolean csp;
     private String cspPolicy;
+    private final int virusScanThreads;
+    private final long virusScanCacheTtl;
+    private final int virusScanCacheSize;
+    private final boolean resourceCacheEnabled;
+    private final boolean resourceFingerprintEnabled;
+    private final boolean resourceBundlingEnabled;
+    private final DynamicContentCachePolicy dynamicContentCachePolicy;
+    private final boolean barcodeCacheEnabled;
 
     // internal config
     private final boolean stringConverterAvailable;
@@ -120,6 +129,30 @@ public class PrimeConfiguration {
         if (csp) {
             cspPolicy = externalContext.getInitParameter(Constants.ContextParams.CSP_POLICY);
         }
+
+        value = externalContext.getInitParameter(Constants.ContextParams.VIRUS_SCAN_THREADS);
+        virusScanThreads = (value == null) ? Runtime.getRuntime().availableProcessors() : Integer.parseInt(value);
+
+        value = externalContext.getInitParameter(Constants.ContextParams.VIRUS_SCAN_CACHE_TTL);
+        virusScanCacheTtl = (value == null) ? 0L : Long.parseLong(value);
+
+        value = externalContext.getInitParameter(Constants.ContextParams.VIRUS_SCAN_CACHE_SIZE);
+        virusScanCacheSize = (value == null) ? 10000 : Integer.parseInt(value);
+
+        value = externalContext.getInitParameter(Constants.ContextParams.RESOURCE_CACHE);
+        resourceCacheEnabled = (value == null) ? true : Boolean.valueOf(value);
+
+        value = externalContext.getInitParameter(Constants.ContextParams.RESOURCE_FINGERPRINT);
+        resourceFingerprintEnabled = (value == null) ? false : Boolean.valueOf(value);
+
+        value = externalContext.getInitParameter(Constants.ContextParams.RESOURCE_BUNDLING);
+        resourceBundlingEnabled = (value == null) ? false : Boolean.valueOf(value);
+
+        value = externalContext.getInitParameter(Constants.ContextParams.DYNAMIC_CONTENT_CACHE_CONTROL);
+        dynamicContentCachePolicy = new DynamicContentCachePolicy(value == null ? DynamicContentCachePolicy.DEFAULT_CACHE_CONTROL : value);
+
+        value = externalContext.getInitParameter(Constants.ContextParams.BARCODE_CACHE);
+        barcodeCacheEnabled = (value == null) ? false : Boolean.valueOf(value);
     }
 
     protected boolean resolveValidateEmptyFields(FacesContext context, PrimeEnvironment environment) {
@@ -220,4 +253,36 @@ public class PrimeConfiguration {
     public String getCspPolicy() {
         return cspPolicy;
     }
+
+    public int getVirusScanThreads() {
+        return virusScanThreads;
+    }
+
+    public long getVirusScanCacheTtl() {
+        return virusScanCacheTtl;
+    }
+
+    public int getVirusScanCacheSize() {
+        return virusScanCacheSize;
+    }
+
+    public boolean isResourceCacheEnabled() {
+        return resourceCacheEnabled;
+    }
+
+    public boolean isResourceFingerprintEnabled() {
+        return resourceFingerprintEnabled;
+    }
+
+    public boolean isResourceBundlingEnabled() {
+        return resourceBundlingEnabled;
+    }
+
+    public DynamicContentCachePolicy getDynamicContentCachePolicy() {
+        return dynamicContentCachePolicy;
+    }
+
+    public boolean isBarcodeCacheEnabled() {
+        return barcodeCacheEnabled;
+    }
 }
@@ -121,8 +121,6 @@ public class PrimeApplicationContext {
             validator = null;
         }
 
-        virusScannerService = new Lazy<>(() -> new VirusScannerService(applicationClassLoader));
-
         if (environment.isTikaAvailable()) {
             for (FileTypeDetector detector : ServiceLoader.load(FileTypeDetector.class)) {
                 if (PrimeEnvironment.TIKA_FILE_DETECTOR_CLASS.equals(detector.getClass().getName())) {
@@ -147,6 +145,9 @@ public class PrimeApplicationContext {
                 }
             }
         });
+
+        virusScannerService = new Lazy<>(() -> new VirusScannerService(applicationClassLoader, config.getVirusScanThreads(),
+                cacheProvider::get, config.getVirusScanCacheTtl(), config.getVirusScanCacheSize()));
     }
 
     public static PrimeApplicationContext getCurrentInstance(FacesContext facesContext) {
@@ -223,5 +224,9 @@ public class PrimeApplicationContext {
                 validatorFactory.get().close();
             }
         }
+
+        if (virusScannerService.isInitialized()) {
+            virusScannerService.get().release();
+        }
     }
 }
@@ -24,7 +24,13 @@
 package org.primefaces.model;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class CheckboxTreeNode implements TreeNode, Serializable {
 
@@ -223,6 +229,134 @@ public class CheckboxTreeNode implements TreeNode, Serializable {
         }
     }
 
+    /**
+     * Applies the selection of many nodes at once, with the same result as calling {@link #setSelected(boolean, boolean, boolean)}
+     * for the unselected and then for the selected nodes in the order of the collections, but without walking the same subtrees
+     * and ancestors again for each node. The last write to a node wins: its own selection, the selection propagated down from an
+     * ancestor or, for an ancestor of a later selected or unselected node, the state recomputed from its children. Nodes that are
+     * not CheckboxTreeNodes are just selected or unselected.
+     *
+     * @param unselectedNodes nodes to unselect, applied before the selection
+     * @param selectedNodes nodes to select
+     * @param propagateDown whether children of the nodes are updated
+     * @param propagateUp whether the ancestors of the nodes are updated
+     */
+    public static void setSelected(Collection<? extends TreeNode> unselectedNodes, Collection<? extends TreeNode> selectedNodes,
+            boolean propagateDown, boolean propagateUp) {
+        List<TreeNode> nodes = new ArrayList<>();
+        if (unselectedNodes != null) {
+            nodes.addAll(unselectedNodes);
+        }
+        int unselectedCount = nodes.size();
+        if (selectedNodes != null) {
+            nodes.addAll(selectedNodes);
+        }
+
+        // position of the last operation on each node, which decides its own selection
+        Map<TreeNode, Integer> operations = new IdentityHashMap<>();
+        for (int i = 0; i < nodes.size(); i++) {
+            TreeNode node = nodes.get(i);
+            if (node instanceof CheckboxTreeNode) {
+                operations.put(node, i);
+            }
+            else {
+                node.setSelected(i >= unselectedCount);
+            }
+        }
+
+        // position of the operation which selected or unselected each node last, either directly or by propagating down
+        Map<TreeNode, Integer> writes = new IdentityHashMap<>();
+        for (Map.Entry<TreeNode, Integer> operation : operations.entrySet()) {
+            CheckboxTreeNode node = (CheckboxTreeNode) operation.getKey();
+            if (!propagateDown) {
+                node.applySelection(operation.getValue(), unselectedCount, writes);
+            }
+            else if (!hasAncestorIn(node, operations.keySet())) {
+                node.propagateSelectionDown(operation.getValue(), operations, unselectedCount, writes);
+            }
+        }
+
+        if (propagateUp) {
+            // position of the last operation below each ancestor, the later operations are walked up first
+            Map<TreeNode, Integer> updates = new IdentityHashMap<>();
+            for (int i = nodes.size() - 1; i >= 0; i--) {
+                TreeNode node = nodes.get(i);
+                if (node instanceof CheckboxTreeNode) {
+                    TreeNode parent = node.getParent();
+                    while (parent != null && !updates.containsKey(parent)) {
+                        updates.put(parent, i);
+                        parent = parent.getParent();
+                    }
+                }
+            }
+
+            // ancestors whose state is recomputed after they were selected or unselected for the last time
+            Set<TreeNode> ancestors = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Map.Entry<TreeNode, Integer> update : updates.entrySet()) {
+                if (update.getValue() > writes.getOrDefault(update.getKey(), -1)) {
+                    ancestors.add(update.getKey());
+                }
+            }
+
+            for (TreeNode ancestor : ancestors) {
+                if (!ancestors.contains(ancestor.getParent())) {
+                    ((CheckboxTreeNode) ancestor).updateSelectionState(ancestors);
+                }
+            }
+        }
+    }
+
+    private void applySelection(int position, int unselectedCount, Map<TreeNode, Integer> writes) {
+        this.selected = position >= unselectedCount;
+        this.partialSelected = false;
+        writes.put(this, position);
+    }
+
+    private void propagateSelectionDown(int inheritedPosition, Map<TreeNode, Integer> operations, int unselectedCount,
+            Map<TreeNode, Integer> writes) {
+        int position = Math.max(inheritedPosition, operations.getOrDefault(this, -1));
+        applySelection(position, unselectedCount, writes);
+
+        for (TreeNode child : children) {
+            ((CheckboxTreeNode) child).propagateSelectionDown(position, operations, unselectedCount, writes);
+        }
+    }
+
+    private static boolean hasAncestorIn(TreeNode node, Set<TreeNode> nodes) {
+        TreeNode parent = node.getParent();
+        while (parent != null) {
+            if (nodes.contains(parent)) {
+                return true;
+            }
+            parent = parent.getParent();
+        }
+
+        return false;
+    }
+
+    private void updateSelectionState(Set<TreeNode> ancestors) {
+        boolean allChildrenSelected = true;
+        this.partialSelected = false;
+
+        for (int i = 0; i < this.getChildren().size(); i++) {
+            TreeNode childNode = this.getChildren().get(i);
+            if (ancestors.contains(childNode)) {
+                ((CheckboxTreeNode) childNode).updateSelectionState(ancestors);
+            }
+
+            boolean childSelected = childNode.isSelected();
+            boolean childPartialSelected = childNode.isPartialSelected();
+            allChildrenSelected = allChildrenSelected && childSelected;
+            this.partialSelected = this.partialSelected || childSelected || childPartialSelected;
+        }
+
+        this.selected = allChildrenSelected;
+
+        if (allChildrenSelected) {
+            this.setPartialSelected(false);
+        }
+    }
+
     @Override
     public boolean isSelectable() {
         return selectable;
@@ -173,12 +173,33 @@ public class CheckboxTreeNodeChildren extends TreeNodeList {
             TreeNode previous = get(index);
             super.set(index, node);
             node.setParent(parent);
-            updateRowKeys(parent);
+            updateRowKeys(parent, node, index);
             updateSelectionState(parent);
             return previous;
         }
     }
 
+    /**
+     * Reorders the siblings without updating their row keys, the selection state of the parent is updated once.
+     *
+     * @param nodes the current siblings in their new order
+     */
+    @Override
+    public void setSiblings(TreeNode[] nodes) {
+        if (nodes.length != size()) {
+            throw new IllegalArgumentException("Only the current siblings can be reordered");
+        }
+
+        for (int i = 0; i < nodes.length; i++) {
+            if (nodes[i].getParent() != parent) {
+                throw new IllegalArgumentException("Only the current siblings can be reordered");
+            }
+            super.set(i, nodes[i]);
+        }
+
+        updateSelectionState(parent);
+    }
+
     @Override
     public TreeNode remove(int index) {
         TreeNode node = get(index);
@@ -216,13 +237,17 @@ public class CheckboxTreeNodeChildren extends TreeNodeList {
             for (int i = 0; i < childCount; i++) {
                 TreeNode childNode = node.getChildren().get(i);
 
-                String childRowKey = (node.getParent() == null) ? String.valueOf(i) : node.getRowKey() + "_" + i;
-                childNode.setRowKey(childRowKey);
-                updateRowKeys(childNode);
+                updateRowKeys(node, childNode, i);
             }
         }
     }
 
+    private void updateRowKeys(TreeNode node, TreeNode childNode, int i) {
+        String childRowKey = (node.getParent() == null) ? String.valueOf(i) : node.getRowKey() + "_" + i;
+        childNode.setRowKey(childRowKey);
+        updateRowKeys(childNode);
+    }
+
     private void updateSelectionState(TreeNode node) {
         boolean allChildrenSelected = true;
         boolean partialSelected = false;
@@ -0,0 +1,452 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2009-2019 PrimeTek
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.model;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Array backed tree model for very large trees. Nodes are stored in flat parent, first child and next sibling arrays and
+ * addressed by their index, the {@link TreeNode} instances handed to the components are lightweight views created on
+ * access and never serialized. The tree only holds its views weakly, so views and their children lists which are not
+ * referenced anymore, e.g. after rendering, are garbage collected and created again when needed. Row keys of nodes are
+ * derived from their position instead of being stored.
+ * <p>
+ * Nodes removed from their parent keep their slot, so a model with many removals should be rebuilt from time to time.
+ */
+public class CompactTree implements Serializable {
+
+    /**
+     * Index of the root node.
+     */
+    public static final int ROOT = 0;
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int NONE = -1;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private static final byte EXPANDED = 1;
+
+    private static final byte SELECTED = 2;
+
+    private static final byte UNSELECTABLE = 4;
+
+    private int size;
+
+    private int[] parents;
+
+    private int[] firstChildren;
+
+    private int[] nextSiblings;
+
+    private int[] types;
+
+    private byte[] flags;
+
+    private Object[] data;
+
+    private List<String> typeNames = new ArrayList<>();
+
+    private String rootRowKey;
+
+    private transient int[] lastChildren;
+
+    private transient ViewReference[] views;
+
+    private transient ReferenceQueue<CompactTreeNode> releasedViews;
+
+    private transient int[] positions;
+
+    public CompactTree() {
+        this(null, DEFAULT_CAPACITY);
+    }
+
+    public CompactTree(Object rootData) {
+        this(rootData, DEFAULT_CAPACITY);
+    }
+
+    public CompactTree(Object rootData, int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 1);
+        parents = new int[capacity];
+        firstChildren = new int[capacity];
+        nextSiblings = new int[capacity];
+        lastChildren = new int[capacity];
+        types = new int[capacity];
+        flags = new byte[capacity];
+        data = new Object[capacity];
+        typeNames.add(DefaultTreeNode.DEFAULT_TYPE);
+
+        createNode(NONE, 0, rootData);
+    }
+
+    /**
+     * Appends a node of the default type.
+     *
+     * @param parent index of the parent node
+     * @param nodeData data of the new node
+     * @return index of the new node
+     */
+    public int addNode(int parent, Object nodeData) {
+        return addNode(parent, DefaultTreeNode.DEFAULT_TYPE, nodeData);
+    }
+
+    /**
+     * Appends a node as last child of a parent.
+     *
+     * @param parent index of the parent node
+     * @param type type of the new node
+     * @param nodeData data of the new node
+     * @return index of the new node
+     */
+    public int addNode(int parent, String type, Object nodeData) {
+        checkIndex(parent);
+
+        int index = createNode(parent, getTypeIndex(type), nodeData);
+        linkLast(parent, index);
+
+        CompactTreeNodeChildren children = getLoadedChildren(parent);
+        if (children != null) {
+            children.append(getNode(index));
+        }
+
+        return index;
+    }
+
+    public TreeNode getRoot() {
+        return getNode(ROOT);
+    }
+
+    /**
+     * @param index index of a node
+     * @return the view of the node, the same instance is returned for the same index
+     */
+    public TreeNode getNode(int index) {
+        checkIndex(index);
+        expungeReleasedViews();
+
+        if (views == null) {
+            views = new ViewReference[parents.length];
+            releasedViews = new ReferenceQueue<>();
+        }
+
+        CompactTreeNode view = peekNode(index);
+        if (view == null) {
+            view = new CompactTreeNode(this, index);
+            views[index] = new ViewReference(view, index, releasedViews);
+        }
+
+        return view;
+    }
+
+    /**
+     * @return number of nodes including the root and removed nodes
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Shrinks the node arrays to the number of nodes.
+     */
+    public void trimToSize() {
+        if (size < parents.length) {
+            resize(size);
+        }
+    }
+
+    String getType(int index) {
+        return typeNames.get(types[index]);
+    }
+
+    void setType(int index, String type) {
+        types[index] = getTypeIndex(type);
+    }
+
+    Object getData(int index) {
+        return data[index];
+    }
+
+    void setData(int index, Object nodeData) {
+        data[index] = nodeData;
+    }
+
+    int getParent(int index) {
+        return parents[index];
+    }
+
+    void setParent(int index, int parent) {
+        parents[index] = parent;
+        positions = null;
+    }
+
+    boolean isExpanded(int index) {
+        return (flags[index] & EXPANDED) != 0;
+    }
+
+    void setExpanded(int index, boolean value) {
+        setFlag(index, EXPANDED, value);
+    }
+
+    boolean isSelected(int index) {
+        return (flags[index] & SELECTED) != 0;
+    }
+
+    void setSelected(int index, boolean value) {
+        setFlag(index, SELECTED, value);
+    }
+
+    boolean isSelectable(int index) {
+        return (flags[index] & UNSELECTABLE) == 0;
+    }
+
+    void setSelectable(int index, boolean value) {
+        setFlag(index, UNSELECTABLE, !value);
+    }
+
+    boolean hasChildren(int index) {
+        return firstChildren[index] != NONE;
+    }
+
+    int getChildCount(int index) {
+        int count = 0;
+        for (int child = firstChildren[index]; child != NONE; child = nextSiblings[child]) {
+            count++;
+        }
+
+        return count;
+    }
+
+    void loadChildren(int index, CompactTreeNodeChildren children) {
+        for (int child = firstChildren[index]; child != NONE; child = nextSiblings[child]) {
+            children.append(getNode(child));
+        }
+    }
+
+    /**
+     * Appends a node to the sibling list of a parent.
+     */
+    void linkLast(int index, int child) {
+        if (lastChildren[index] == NONE) {
+            firstChildren[index] = child;
+        }
+        else {
+            nextSiblings[lastChildren[index]] = child;
+        }
+        nextSiblings[child] = NONE;
+        lastChildren[index] = child;
+    }
+
+    /**
+     * Replaces the sibling list of a parent with the given children, used after changes of the children list of a view.
+     */
+    void linkChildren(int index, List<TreeNode> children) {
+        int previous = NONE;
+        firstChildren[index] = NONE;
+        for (int i = 0; i < children.size(); i++) {
+            int child = ((CompactTreeNode) children.get(i)).getIndex();
+            if (previous == NONE) {
+                firstChildren[index] = child;
+            }
+            else {
+                nextSiblings[previous] = child;
+            }
+            previous = child;
+        }
+
+        if (previous != NONE) {
+            nextSiblings[previous] = NONE;
+        }
+        lastChildren[index] = previous;
+        positions = null;
+    }
+
+    String getRowKey(int index) {
+        if (index == ROOT) {
+            return rootRowKey;
+        }
+
+        int parent = parents[index];
+        if (parent == NONE) {
+            return null;
+        }
+
+        String position = String.valueOf(getPosition(index));
+        return (parents[parent] == NONE) ? position : getRowKey(parent) + "_" + position;
+    }
+
+    /**
+     * Row keys of nodes other than the root are derived from their position, so only the row key of the root is kept.
+     */
+    void setRowKey(int index, String rowKey) {
+        if (index == ROOT) {
+            rootRowKey = rowKey;
+        }
+    }
+
+    /**
+     * @return the position of a node among its siblings, the positions of all siblings are computed at once
+     */
+    private int getPosition(int index) {
+        if (positions == null) {
+            positions = new int[parents.length];
+            Arrays.fill(positions, NONE);
+        }
+
+        if (positions[index] == NONE) {
+            int i = 0;
+            for (int child = firstChildren[parents[index]]; child != NONE; child = nextSiblings[child]) {
+                positions[child] = i++;
+            }
+        }
+
+        return positions[index];
+    }
+
+    private CompactTreeNode peekNode(int index) {
+        ViewReference reference = (views == null) ? null : views[index];
+        return (reference == null) ? null : reference.get();
+    }
+
+    private CompactTreeNodeChildren getLoadedChildren(int index) {
+        CompactTreeNode view = peekNode(index);
+        return (view == null) ? null : view.getLoadedChildren();
+    }
+
+    /**
+     * Clears the slots of views which were garbage collected.
+     */
+    private void expungeReleasedViews() {
+        if (releasedViews == null) {
+            return;
+        }
+
+        Reference<? extends CompactTreeNode> reference = releasedViews.poll();
+        while (reference != null) {
+            int index = ((ViewReference) reference).index;
+            if (index < views.length && views[index] == reference) {
+                views[index] = null;
+            }
+            reference = releasedViews.poll();
+        }
+    }
+
+    private int createNode(int parent, int type, Object nodeData) {
+        if (size == parents.length) {
+            resize(Math.max(size + (size >> 1), size + 1));
+        }
+
+        int index = size++;
+        parents[index] = parent;
+        positions = null;
+        firstChildren[index] = NONE;
+        nextSiblings[index] = NONE;
+        lastChildren[index] = NONE;
+        types[index] = type;
+        data[index] = nodeData;
+
+        return index;
+    }
+
+    private void resize(int capacity) {
+        parents = Arrays.copyOf(parents, capacity);
+        firstChildren = Arrays.copyOf(firstChildren, capacity);
+        nextSiblings = Arrays.copyOf(nextSiblings, capacity);
+        lastChildren = Arrays.copyOf(lastChildren, capacity);
+        types = Arrays.copyOf(types, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        data = Arrays.copyOf(data, capacity);
+        positions = null;
+
+        if (views != null) {
+            views = Arrays.copyOf(views, capacity);
+        }
+    }
+
+    private int getTypeIndex(String type) {
+        int typeIndex = typeNames.indexOf(type);
+        if (typeIndex == NONE) {
+            typeNames.add(type);
+            typeIndex = typeNames.size() - 1;
+        }
+
+        return typeIndex;
+    }
+
+    private void setFlag(int index, byte flag, boolean value) {
+        if (value) {
+            flags[index] |= flag;
+        }
+        else {
+            flags[index] &= ~flag;
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        trimToSize();
+        out.defaultWriteObject();
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+
+        lastChildren = new int[parents.length];
+        Arrays.fill(lastChildren, NONE);
+        for (int i = 0; i < size; i++) {
+            int child = firstChildren[i];
+            while (child != NONE) {
+                lastChildren[i] = child;
+                child = nextSiblings[child];
+            }
+        }
+    }
+
+    /**
+     * Weak reference to a view, which knows the slot to clear once the view was garbage collected.
+     */
+    private static final class ViewReference extends WeakReference<CompactTreeNode> {
+
+        private final int index;
+
+        ViewReference(CompactTreeNode view, int index, ReferenceQueue<CompactTreeNode> queue) {
+            super(view, queue);
+            this.index = index;
+        }
+    }
+}
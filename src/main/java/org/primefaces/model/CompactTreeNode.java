@@ -0,0 +1,196 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2009-2019 PrimeTek
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.model;
+
+import java.io.Serializable;
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.util.List;
+
+/**
+ * View of a node of a {@link CompactTree}, its state is kept in the arrays of the tree. Children are loaded into a
+ * {@link TreeNodeList} on access, nodes can be moved inside the same tree through it. Changes of the list are written to
+ * the arrays right away, so the list is only held weakly and loaded again once it was garbage collected.
+ */
+public class CompactTreeNode implements TreeNode, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final CompactTree tree;
+
+    private final int index;
+
+    private transient Reference<CompactTreeNodeChildren> children;
+
+    CompactTreeNode(CompactTree tree, int index) {
+        this.tree = tree;
+        this.index = index;
+    }
+
+    public CompactTree getTree() {
+        return tree;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    @Override
+    public String getType() {
+        return tree.getType(index);
+    }
+
+    @Override
+    public void setType(String type) {
+        tree.setType(index, type);
+    }
+
+    @Override
+    public Object getData() {
+        return tree.getData(index);
+    }
+
+    public void setData(Object data) {
+        tree.setData(index, data);
+    }
+
+    @Override
+    public List<TreeNode> getChildren() {
+        CompactTreeNodeChildren loadedChildren = getLoadedChildren();
+        if (loadedChildren == null) {
+            loadedChildren = new CompactTreeNodeChildren(this);
+            tree.loadChildren(index, loadedChildren);
+            children = new WeakReference<>(loadedChildren);
+        }
+
+        return loadedChildren;
+    }
+
+    CompactTreeNodeChildren getLoadedChildren() {
+        return (children == null) ? null : children.get();
+    }
+
+    @Override
+    public TreeNode getParent() {
+        int parent = tree.getParent(index);
+        return (parent == -1) ? null : tree.getNode(parent);
+    }
+
+    @Override
+    public void setParent(TreeNode parent) {
+        if (parent == null) {
+            clearParent();
+        }
+        else if (parent != getParent()) {
+            parent.getChildren().add(this);
+        }
+    }
+
+    @Override
+    public void clearParent() {
+        TreeNode parent = getParent();
+        if (parent != null) {
+            parent.getChildren().remove(this);
+        }
+    }
+
+    @Override
+    public boolean isExpanded() {
+        return tree.isExpanded(index);
+    }
+
+    @Override
+    public void setExpanded(boolean expanded) {
+        tree.setExpanded(index, expanded);
+    }
+
+    @Override
+    public int getChildCount() {
+        CompactTreeNodeChildren loadedChildren = getLoadedChildren();
+        return (loadedChildren == null) ? tree.getChildCount(index) : loadedChildren.size();
+    }
+
+    @Override
+    public boolean isLeaf() {
+        return !tree.hasChildren(index);
+    }
+
+    @Override
+    public boolean isSelected() {
+        return tree.isSelected(index);
+    }
+
+    @Override
+    public void setSelected(boolean value) {
+        tree.setSelected(index, value);
+    }
+
+    @Override
+    public boolean isSelectable() {
+        return tree.isSelectable(index);
+    }
+
+    @Override
+    public void setSelectable(boolean selectable) {
+        tree.setSelectable(index, selectable);
+    }
+
+    @Override
+    public boolean isPartialSelected() {
+        return false;
+    }
+
+    @Override
+    public void setPartialSelected(boolean value) {
+        //nothing
+    }
+
+    @Override
+    public void setRowKey(String rowKey) {
+        tree.setRowKey(index, rowKey);
+    }
+
+    @Override
+    public String getRowKey() {
+        return tree.getRowKey(index);
+    }
+
+    @Override
+    public String toString() {
+        Object data = getData();
+        if (data != null) {
+            return data.toString();
+        }
+        else {
+            return super.toString();
+        }
+    }
+
+    /**
+     * Views are unique per node, a deserialized view is replaced by the one of its tree.
+     */
+    private Object readResolve() {
+        return tree.getNode(index);
+    }
+}
@@ -0,0 +1,216 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2009-2019 PrimeTek
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+
+/**
+ * Children of a {@link CompactTreeNode}, changes are applied to the parent and sibling arrays of the tree right away. Only
+ * nodes of the same tree can be added.
+ */
+class CompactTreeNodeChildren extends TreeNodeList {
+
+    private static final long serialVersionUID = 1L;
+
+    private final CompactTreeNode parent;
+
+    CompactTreeNodeChildren(CompactTreeNode parent) {
+        this.parent = parent;
+    }
+
+    void append(TreeNode node) {
+        super.add(node);
+    }
+
+    private CompactTreeNode toNode(TreeNode node) {
+        if (node == null) {
+            throw new NullPointerException();
+        }
+
+        if (!(node instanceof CompactTreeNode) || ((CompactTreeNode) node).getTree() != parent.getTree()) {
+            throw new IllegalArgumentException("Node does not belong to the tree of its parent: " + node);
+        }
+
+        return (CompactTreeNode) node;
+    }
+
+    private void eraseParent(CompactTreeNode node) {
+        TreeNode parentNode = node.getParent();
+        if (parentNode != null) {
+            parentNode.getChildren().remove(node);
+        }
+    }
+
+    private void attach(CompactTreeNode node) {
+        parent.getTree().setParent(node.getIndex(), parent.getIndex());
+    }
+
+    private void detach(TreeNode node) {
+        parent.getTree().setParent(((CompactTreeNode) node).getIndex(), -1);
+    }
+
+    private void link() {
+        parent.getTree().linkChildren(parent.getIndex(), this);
+    }
+
+    @Override
+    public boolean add(TreeNode node) {
+        CompactTreeNode child = toNode(node);
+        eraseParent(child);
+        super.add(child);
+        attach(child);
+        parent.getTree().linkLast(parent.getIndex(), child.getIndex());
+        return true;
+    }
+
+    @Override
+    public void add(int index, TreeNode node) {
+        CompactTreeNode child = toNode(node);
+        if ((index < 0) || (index > size())) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        eraseParent(child);
+        super.add(Math.min(index, size()), child);
+        attach(child);
+        link();
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends TreeNode> collection) {
+        boolean changed = false;
+        for (TreeNode node : new ArrayList<TreeNode>(collection)) {
+            changed |= add(node);
+        }
+
+        return changed;
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends TreeNode> collection) {
+        boolean changed = false;
+        for (TreeNode node : new ArrayList<TreeNode>(collection)) {
+            add(index++, node);
+            changed = true;
+        }
+
+        return changed;
+    }
+
+    @Override
+    public TreeNode set(int index, TreeNode node) {
+        CompactTreeNode child = toNode(node);
+        if ((index < 0) || (index >= size())) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        if (child.getParent() != parent) {
+            eraseParent(child);
+        }
+
+        TreeNode previous = super.set(index, child);
+        detach(previous);
+        attach(child);
+        link();
+        return previous;
+    }
+
+    /**
+     * Optimized set implementation to be used in sorting
+     *
+     * @param index index of the element to replace
+     * @param node node to be stored at the specified position
+     * @return the node previously at the specified position
+     */
+    @Override
+    public TreeNode setSibling(int index, TreeNode node) {
+        CompactTreeNode child = toNode(node);
+        if ((index < 0) || (index >= size())) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        if (child.getParent() != parent) {
+            eraseParent(child);
+        }
+
+        TreeNode previous = super.set(index, child);
+        attach(child);
+        link();
+        return previous;
+    }
+
+    @Override
+    public void setSiblings(TreeNode[] nodes) {
+        for (int i = 0; i < nodes.length; i++) {
+            CompactTreeNode child = toNode(nodes[i]);
+            if (get(i) != child) {
+                super.set(i, child);
+                attach(child);
+            }
+        }
+
+        link();
+    }
+
+    @Override
+    public void sort(Comparator<? super TreeNode> comparator) {
+        super.sort(comparator);
+        link();
+    }
+
+    @Override
+    public TreeNode remove(int index) {
+        TreeNode node = super.remove(index);
+        detach(node);
+        link();
+        return node;
+    }
+
+    @Override
+    public boolean remove(Object object) {
+        if (object == null) {
+            throw new NullPointerException();
+        }
+
+        int index = super.indexOf(object);
+        if (index == -1) {
+            return false;
+        }
+
+        remove(index);
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < size(); i++) {
+            detach(get(i));
+        }
+
+        super.clear();
+        link();
+    }
+}
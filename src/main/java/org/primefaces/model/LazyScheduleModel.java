@@ -23,12 +23,22 @@
  */
 package org.primefaces.model;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
 
 public class LazyScheduleModel extends DefaultScheduleModel {
 
     private static final long serialVersionUID = 1L;
 
+    private Duration cacheWindow;
+
+    private RangeCache<LocalDateTime> loadedRanges = new RangeCache<>();
+
     /**
      * Method to be used when implementing lazy loading, implementers should override to fetch events that belong to a particular period
      *
@@ -37,4 +47,104 @@ public class LazyScheduleModel extends DefaultScheduleModel {
      */
     public void loadEvents(LocalDateTime start, LocalDateTime end) {
     }
+
+    /**
+     * Provides the events of a period, called by the Schedule for every displayed period. Without a cache window, the model
+     * is cleared and {@link #loadEvents(LocalDateTime, LocalDateTime)} is called for the whole period. With a cache window,
+     * loadEvents is only called for the parts of the period that were not loaded before and events of periods farther than
+     * the window from the displayed period are removed. Loaded events starting in a period loaded before or having the id
+     * of an event already in the model are dropped, so events spanning several periods should be given a stable id.
+     *
+     * @param start Start date of period
+     * @param end   End date of period
+     */
+    public void loadRange(LocalDateTime start, LocalDateTime end) {
+        if (cacheWindow == null) {
+            clear();
+            loadEvents(start, end);
+            return;
+        }
+
+        if (!loadedRanges.evictOutside(start.minus(cacheWindow), end.plus(cacheWindow)).isEmpty()) {
+            getEvents().removeIf(event -> !loadedRanges.intersects(event.getStartDate(), event.getEndDate()));
+        }
+
+        Set<String> loadedIds = new HashSet<>();
+        for (ScheduleEvent event : getEvents()) {
+            loadedIds.add(event.getId());
+        }
+
+        loadedRanges.load(start, end, (missingStart, missingEnd) -> {
+            int loadedCount = getEventCount();
+            loadEvents(missingStart, missingEnd);
+
+            // events starting in a period loaded before or loaded for another part of this period are already in the model
+            Iterator<ScheduleEvent> events = getEvents().listIterator(Math.min(loadedCount, getEventCount()));
+            while (events.hasNext()) {
+                ScheduleEvent event = events.next();
+                if (loadedRanges.intersects(event.getStartDate(), null)
+                        || (event.getId() != null && !loadedIds.add(event.getId()))) {
+                    events.remove();
+                }
+            }
+        });
+    }
+
+    /**
+     * @param start Start date of period
+     * @param end   End date of period
+     * @return the events of the model overlapping the given period
+     */
+    public List<ScheduleEvent> getEvents(LocalDateTime start, LocalDateTime end) {
+        List<ScheduleEvent> events = new ArrayList<>();
+        for (ScheduleEvent event : getEvents()) {
+            LocalDateTime eventEnd = (event.getEndDate() == null) ? event.getStartDate() : event.getEndDate();
+            if (event.getStartDate().isBefore(end) && !eventEnd.isBefore(start)) {
+                events.add(event);
+            }
+        }
+
+        return events;
+    }
+
+    /**
+     * Adds the event. With a cache window, the id of the event is kept if it has one, so events loaded for several periods
+     * can be recognized.
+     *
+     * @param event the event to add
+     */
+    @Override
+    public void addEvent(ScheduleEvent event) {
+        if (!isCached() || event.getId() == null) {
+            super.addEvent(event);
+        }
+        else {
+            getEvents().add(event);
+        }
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        loadedRanges.clear();
+    }
+
+    public Duration getCacheWindow() {
+        return cacheWindow;
+    }
+
+    /**
+     * Enables caching of loaded periods.
+     *
+     * @param cacheWindow Loaded events are kept as long as they are within this duration before or after the displayed period,
+     *                    null disables caching
+     */
+    public void setCacheWindow(Duration cacheWindow) {
+        this.cacheWindow = cacheWindow;
+        clear();
+    }
+
+    public boolean isCached() {
+        return cacheWindow != null;
+    }
 }
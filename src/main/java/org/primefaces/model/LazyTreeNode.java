@@ -0,0 +1,356 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2009-2019 PrimeTek
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.model;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * TreeNode whose children are loaded through a {@link LazyTreeNodeLoader} when they are accessed or the node is expanded.
+ * The loader, page size, sort and filter criteria are kept on the topmost LazyTreeNode, so nodes created by the loader
+ * just need to be LazyTreeNodes themselves.
+ * <p>
+ * The page size only applies to the children of the root node of the tree, which are loaded in ranges by the paginator of the
+ * TreeTable. The children of all other nodes are loaded completely when they are accessed.
+ */
+public class LazyTreeNode extends DefaultTreeNode {
+
+    private static final long serialVersionUID = 1L;
+
+    private LazyTreeNodeLoader loader;
+
+    private int pageSize;
+
+    private boolean loaded;
+
+    private boolean fullyLoaded;
+
+    private int totalChildCount = -1;
+
+    private String sortField;
+
+    private SortOrder sortOrder = SortOrder.UNSORTED;
+
+    private Map<String, Object> filters = Collections.emptyMap();
+
+    public LazyTreeNode(LazyTreeNodeLoader loader) {
+        this(loader, 0);
+    }
+
+    public LazyTreeNode(LazyTreeNodeLoader loader, int pageSize) {
+        super();
+        this.loader = loader;
+        this.pageSize = pageSize;
+    }
+
+    public LazyTreeNode(Object data) {
+        super(data);
+    }
+
+    public LazyTreeNode(Object data, TreeNode parent) {
+        super(data, parent);
+    }
+
+    public LazyTreeNode(String type, Object data, TreeNode parent) {
+        super(type, data, parent);
+    }
+
+    @Override
+    public List<TreeNode> getChildren() {
+        if (!loaded) {
+            loadPage();
+        }
+
+        return super.getChildren();
+    }
+
+    /**
+     * Children of a collapsed node are not loaded just to count them, so traversals skip unloaded subtrees.
+     */
+    @Override
+    public int getChildCount() {
+        if (!loaded && (isExpanded() || getParent() == null)) {
+            loadPage();
+        }
+
+        return loaded ? super.getChildCount() : 0;
+    }
+
+    @Override
+    public boolean isLeaf() {
+        if (loaded) {
+            return super.isLeaf();
+        }
+
+        LazyTreeNodeLoader nodeLoader = getLoader();
+        return nodeLoader == null || nodeLoader.isLeaf(this);
+    }
+
+    /**
+     * Loads the children which are not loaded yet, up to the given number of children.
+     *
+     * @param count the number of children required
+     */
+    public void loadChildren(int count) {
+        loadChildren(0, count);
+    }
+
+    /**
+     * Loads the children in the given range which are not loaded yet with a single call of the loader. Children before the
+     * range which are not loaded yet are represented by placeholder nodes until their range is requested.
+     *
+     * @param first the index of the first child required
+     * @param count the number of children required
+     */
+    public void loadChildren(int first, int count) {
+        if (!loaded && !isPaged()) {
+            loadPage();
+        }
+
+        List<TreeNode> children = super.getChildren();
+        long last = (long) first + count;
+        if (fullyLoaded) {
+            last = Math.min(last, children.size());
+        }
+
+        int from = first;
+        while (from < last && from < children.size() && !(children.get(from) instanceof UnloadedNode)) {
+            from++;
+        }
+        if (from >= last) {
+            return;
+        }
+
+        long to = last;
+        if (to <= children.size()) {
+            while (to > from && !(children.get((int) to - 1) instanceof UnloadedNode)) {
+                to--;
+            }
+        }
+
+        // 0 loads all remaining children
+        loadRange(from, to >= Integer.MAX_VALUE ? 0 : (int) (to - from));
+    }
+
+    /**
+     * @return the total number of children reported by the loader or the number of loaded children if unknown
+     */
+    public int getTotalChildCount() {
+        if (totalChildCount < 0) {
+            LazyTreeNodeLoader nodeLoader = getLoader();
+            if (nodeLoader != null) {
+                totalChildCount = nodeLoader.count(this, getLazyRoot().filters);
+            }
+        }
+
+        return totalChildCount < 0 ? getChildCount() : totalChildCount;
+    }
+
+    /**
+     * Sorts the tree by reloading the children with the given criteria, nothing is reloaded if the criteria did not change.
+     *
+     * @param sortField the field to sort by
+     * @param sortOrder the sort order
+     */
+    public void sort(String sortField, SortOrder sortOrder) {
+        LazyTreeNode root = getLazyRoot();
+        if (!Objects.equals(root.sortField, sortField) || root.sortOrder != sortOrder) {
+            root.sortField = sortField;
+            root.sortOrder = sortOrder;
+            root.reset();
+        }
+    }
+
+    /**
+     * Filters the tree by reloading the children with the given criteria, nothing is reloaded if the criteria did not change.
+     *
+     * @param filters the filter values by field
+     */
+    public void filter(Map<String, Object> filters) {
+        LazyTreeNode root = getLazyRoot();
+        Map<String, Object> newFilters = (filters == null || filters.isEmpty()) ? Collections.emptyMap() : new HashMap<>(filters);
+        if (!root.filters.equals(newFilters)) {
+            root.filters = newFilters;
+            root.reset();
+        }
+    }
+
+    /**
+     * Discards the loaded children, they are loaded again on the next access.
+     */
+    public void reset() {
+        List<TreeNode> children = super.getChildren();
+        for (int i = 0; i < children.size(); i++) {
+            children.get(i).clearParent();
+        }
+        children.clear();
+
+        loaded = false;
+        fullyLoaded = false;
+        totalChildCount = -1;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public boolean hasMoreChildren() {
+        return !fullyLoaded;
+    }
+
+    public LazyTreeNodeLoader getLoader() {
+        if (loader == null && getParent() instanceof LazyTreeNode) {
+            return ((LazyTreeNode) getParent()).getLoader();
+        }
+
+        return loader;
+    }
+
+    public void setLoader(LazyTreeNodeLoader loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * @return the page size of the root node, <code>0</code> if children are not loaded in pages
+     */
+    public int getPageSize() {
+        return getLazyRoot().pageSize;
+    }
+
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public String getSortField() {
+        return getLazyRoot().sortField;
+    }
+
+    public SortOrder getSortOrder() {
+        return getLazyRoot().sortOrder;
+    }
+
+    public Map<String, Object> getFilters() {
+        return Collections.unmodifiableMap(getLazyRoot().filters);
+    }
+
+    /**
+     * Loads the next page of children of the root node, or all remaining children of any other node.
+     */
+    protected void loadPage() {
+        loadRange(super.getChildren().size(), isPaged() ? pageSize : 0);
+    }
+
+    /**
+     * @return <code>true</code> if this is the root node of the tree and its children are loaded in pages
+     */
+    protected boolean isPaged() {
+        return pageSize > 0 && getParent() == null;
+    }
+
+    /**
+     * @param from the index of the first child to load
+     * @param length the number of children to load, <code>0</code> to load all remaining children
+     */
+    protected void loadRange(int from, int length) {
+        LazyTreeNodeLoader nodeLoader = getLoader();
+        if (nodeLoader == null) {
+            loaded = true;
+            fullyLoaded = true;
+            return;
+        }
+
+        LazyTreeNode root = getLazyRoot();
+        List<TreeNode> children = super.getChildren();
+        int size = children.size();
+        boolean wasLoaded = loaded;
+        boolean success = false;
+
+        // set while loading, so nodes created with this node as parent do not trigger another load
+        loaded = true;
+        try {
+            List<TreeNode> page = nodeLoader.load(this, from, length, root.sortField, root.sortOrder, root.filters);
+
+            // nodes created with this node as parent were appended, they are placed at their index below
+            truncateChildren(size);
+
+            int pageLength = page == null ? 0 : page.size();
+            for (int i = 0; i < pageLength; i++) {
+                int index = from + i;
+                while (children.size() < index) {
+                    children.add(new UnloadedNode());
+                }
+
+                if (index < children.size()) {
+                    children.set(index, page.get(i));
+                }
+                else {
+                    children.add(page.get(i));
+                }
+            }
+
+            if (length <= 0 || pageLength < length) {
+                // the loader reached the last child, children after it are outdated
+                truncateChildren(from + pageLength);
+                fullyLoaded = true;
+            }
+
+            success = true;
+        }
+        finally {
+            if (!success) {
+                truncateChildren(size);
+                loaded = wasLoaded;
+            }
+        }
+    }
+
+    private void truncateChildren(int size) {
+        List<TreeNode> children = super.getChildren();
+        while (children.size() > size) {
+            children.remove(children.size() - 1);
+        }
+    }
+
+    private LazyTreeNode getLazyRoot() {
+        LazyTreeNode root = this;
+        TreeNode node = getParent();
+        while (node instanceof LazyTreeNode) {
+            root = (LazyTreeNode) node;
+            node = node.getParent();
+        }
+
+        return root;
+    }
+
+    /**
+     * Placeholder for a child which is not loaded yet, as the children after it were requested first.
+     */
+    private static final class UnloadedNode extends DefaultTreeNode {
+
+        private static final long serialVersionUID = 1L;
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2009-2019 PrimeTek
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.model;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads the children of a {@link LazyTreeNode} on demand.
+ */
+public interface LazyTreeNodeLoader extends Serializable {
+
+    /**
+     * Loads a page of children of the given node.
+     *
+     * @param node the node whose children are loaded
+     * @param first index of the first child to load
+     * @param pageSize maximum number of children to load, <code>0</code> to load all children
+     * @param sortField the field to sort by, <code>null</code> if unsorted
+     * @param sortOrder the sort order
+     * @param filters the filter values by field, <code>globalFilter</code> holds the global filter value
+     * @return the loaded children, should not be attached to the node already
+     */
+    List<TreeNode> load(LazyTreeNode node, int first, int pageSize, String sortField, SortOrder sortOrder, Map<String, Object> filters);
+
+    /**
+     * Counts the children of the given node, used by the paginator of the TreeTable.
+     *
+     * @param node the node whose children are counted
+     * @param filters the filter values by field
+     * @return the number of children or <code>-1</code> if unknown
+     */
+    default int count(LazyTreeNode node, Map<String, Object> filters) {
+        return -1;
+    }
+
+    /**
+     * Checks if the given node has no children, without loading them.
+     *
+     * @param node the node to check
+     * @return <code>true</code> if the node is a leaf
+     */
+    default boolean isLeaf(LazyTreeNode node) {
+        return false;
+    }
+}
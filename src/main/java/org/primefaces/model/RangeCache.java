@@ -0,0 +1,233 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2009-2019 PrimeTek
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.model;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Keeps the ranges (e.g. date ranges) for which data was already loaded, so lazy models only have to load the parts of a
+ * requested range that are not loaded yet. Ranges include their start and exclude their end, touching and overlapping
+ * ranges are merged.
+ *
+ * @param <T> type of the range bounds, e.g. {@link java.time.LocalDateTime} or {@link java.util.Date}
+ */
+public class RangeCache<T extends Comparable<? super T>> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final TreeMap<T, T> ranges = new TreeMap<>();
+
+    /**
+     * Calls the loader for every part of the given range that is not loaded yet and records it as loaded afterwards.
+     *
+     * @param start start of the range
+     * @param end end of the range (exclusive)
+     * @param loader called with start and end of each missing part
+     */
+    public void load(T start, T end, BiConsumer<T, T> loader) {
+        for (Range<T> range : getMissingRanges(start, end)) {
+            loader.accept(range.getStart(), range.getEnd());
+            addRange(range.getStart(), range.getEnd());
+        }
+    }
+
+    /**
+     * @param start start of the range
+     * @param end end of the range (exclusive)
+     * @return the parts of the given range which are not loaded yet, in ascending order
+     */
+    public List<Range<T>> getMissingRanges(T start, T end) {
+        List<Range<T>> missingRanges = new ArrayList<>();
+        if (start.compareTo(end) >= 0) {
+            return missingRanges;
+        }
+
+        T position = start;
+        Map.Entry<T, T> floor = ranges.floorEntry(start);
+        if (floor != null && floor.getValue().compareTo(position) > 0) {
+            position = floor.getValue();
+        }
+
+        for (Map.Entry<T, T> range : ranges.subMap(start, false, end, false).entrySet()) {
+            if (range.getKey().compareTo(position) > 0) {
+                missingRanges.add(new Range<>(position, range.getKey()));
+            }
+            if (range.getValue().compareTo(position) > 0) {
+                position = range.getValue();
+            }
+        }
+
+        if (position.compareTo(end) < 0) {
+            missingRanges.add(new Range<>(position, end));
+        }
+
+        return missingRanges;
+    }
+
+    /**
+     * Records a range as loaded.
+     *
+     * @param start start of the range
+     * @param end end of the range (exclusive)
+     */
+    public void addRange(T start, T end) {
+        if (start.compareTo(end) >= 0) {
+            return;
+        }
+
+        T mergedStart = start;
+        T mergedEnd = end;
+
+        Map.Entry<T, T> floor = ranges.floorEntry(start);
+        if (floor != null && floor.getValue().compareTo(start) >= 0) {
+            mergedStart = floor.getKey();
+            mergedEnd = max(mergedEnd, floor.getValue());
+        }
+
+        Map<T, T> covered = ranges.subMap(mergedStart, true, end, true);
+        for (T coveredEnd : covered.values()) {
+            mergedEnd = max(mergedEnd, coveredEnd);
+        }
+        covered.clear();
+
+        ranges.put(mergedStart, mergedEnd);
+    }
+
+    /**
+     * @param start start of the range
+     * @param end end of the range (exclusive), or null for a single point
+     * @return true if a loaded range overlaps the given range
+     */
+    public boolean intersects(T start, T end) {
+        Map.Entry<T, T> floor = ranges.floorEntry(start);
+        if (floor != null && floor.getValue().compareTo(start) > 0) {
+            return true;
+        }
+
+        if (end == null) {
+            return false;
+        }
+
+        T higher = ranges.higherKey(start);
+        return higher != null && higher.compareTo(end) < 0;
+    }
+
+    /**
+     * Forgets all loaded parts outside of the given range.
+     *
+     * @param start start of the range to keep
+     * @param end end of the range to keep (exclusive)
+     * @return the forgotten ranges
+     */
+    public List<Range<T>> evictOutside(T start, T end) {
+        List<Range<T>> evictedRanges = new ArrayList<>();
+        List<Range<T>> keptRanges = new ArrayList<>();
+
+        for (Map.Entry<T, T> range : ranges.entrySet()) {
+            T rangeStart = range.getKey();
+            T rangeEnd = range.getValue();
+
+            if (rangeStart.compareTo(start) < 0) {
+                evictedRanges.add(new Range<>(rangeStart, min(rangeEnd, start)));
+            }
+            if (rangeEnd.compareTo(end) > 0) {
+                evictedRanges.add(new Range<>(max(rangeStart, end), rangeEnd));
+            }
+
+            T keptStart = max(rangeStart, start);
+            T keptEnd = min(rangeEnd, end);
+            if (keptStart.compareTo(keptEnd) < 0) {
+                keptRanges.add(new Range<>(keptStart, keptEnd));
+            }
+        }
+
+        if (!evictedRanges.isEmpty()) {
+            ranges.clear();
+            for (Range<T> range : keptRanges) {
+                ranges.put(range.getStart(), range.getEnd());
+            }
+        }
+
+        return evictedRanges;
+    }
+
+    /**
+     * @return the loaded ranges in ascending order
+     */
+    public List<Range<T>> getRanges() {
+        List<Range<T>> loadedRanges = new ArrayList<>(ranges.size());
+        for (Map.Entry<T, T> range : ranges.entrySet()) {
+            loadedRanges.add(new Range<>(range.getKey(), range.getValue()));
+        }
+
+        return loadedRanges;
+    }
+
+    public boolean isEmpty() {
+        return ranges.isEmpty();
+    }
+
+    public void clear() {
+        ranges.clear();
+    }
+
+    private static <T extends Comparable<? super T>> T max(T a, T b) {
+        return (a.compareTo(b) >= 0) ? a : b;
+    }
+
+    private static <T extends Comparable<? super T>> T min(T a, T b) {
+        return (a.compareTo(b) <= 0) ? a : b;
+    }
+
+    public static final class Range<T> implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final T start;
+        private final T end;
+
+        public Range(T start, T end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        public T getStart() {
+            return start;
+        }
+
+        public T getEnd() {
+            return end;
+        }
+
+        @Override
+        public String toString() {
+            return "[" + start + ", " + end + ")";
+        }
+    }
+}
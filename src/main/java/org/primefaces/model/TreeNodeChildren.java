@@ -174,6 +174,25 @@ public class TreeNodeChildren extends TreeNodeList {
         }
     }
 
+    /**
+     * Reorders the siblings without updating their row keys.
+     *
+     * @param nodes the current siblings in their new order
+     */
+    @Override
+    public void setSiblings(TreeNode[] nodes) {
+        if (nodes.length != size()) {
+            throw new IllegalArgumentException("Only the current siblings can be reordered");
+        }
+
+        for (int i = 0; i < nodes.length; i++) {
+            if (nodes[i].getParent() != parent) {
+                throw new IllegalArgumentException("Only the current siblings can be reordered");
+            }
+            super.set(i, nodes[i]);
+        }
+    }
+
     @Override
     public TreeNode remove(int index) {
         TreeNode node = get(index);
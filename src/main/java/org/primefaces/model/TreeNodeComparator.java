@@ -49,17 +49,46 @@ public class TreeNodeComparator implements Comparator {
         this.locale = locale;
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public int compare(Object obj1, Object obj2) {
+        return compareSortKeys(getSortKey((TreeNode) obj1), getSortKey((TreeNode) obj2));
+    }
+
+    /**
+     * Evaluates the sortBy expression for the given node, so it can be compared several times without evaluating it again.
+     * Strings of a case insensitive sort are already lower cased.
+     *
+     * @param node the node to evaluate
+     * @return the sort key of the node
+     */
+    public Object getSortKey(TreeNode node) {
         try {
             FacesContext context = FacesContext.getCurrentInstance();
 
-            context.getExternalContext().getRequestMap().put(var, ((TreeNode) obj1).getData());
-            Object value1 = sortBy.getValue(context.getELContext());
-            context.getExternalContext().getRequestMap().put(var, ((TreeNode) obj2).getData());
-            Object value2 = sortBy.getValue(context.getELContext());
+            context.getExternalContext().getRequestMap().put(var, node.getData());
+            Object value = sortBy.getValue(context.getELContext());
+
+            if (sortFunction == null && !caseSensitive && value instanceof String) {
+                return ((String) value).toLowerCase(locale);
+            }
 
+            return value;
+        }
+        catch (Exception e) {
+            throw new FacesException(e);
+        }
+    }
+
+    /**
+     * Compares two sort keys returned by {@link #getSortKey(TreeNode)}.
+     *
+     * @param value1 the first sort key
+     * @param value2 the second sort key
+     * @return the comparison result respecting the sort order
+     */
+    @SuppressWarnings("unchecked")
+    public int compareSortKeys(Object value1, Object value2) {
+        try {
             int result;
 
             //Empty check
@@ -73,15 +102,10 @@ public class TreeNodeComparator implements Comparator {
                 result = -1;
             }
             else if (sortFunction == null) {
-                if (value1 instanceof String && value2 instanceof String) {
-                    result = this.caseSensitive ? ((Comparable) value1).compareTo(value2)
-                            : (((String) value1).toLowerCase(locale)).compareTo(((String) value2).toLowerCase(locale));
-                }
-                else {
-                    result = ((Comparable) value1).compareTo(value2);
-                }
+                result = ((Comparable) value1).compareTo(value2);
             }
             else {
+                FacesContext context = FacesContext.getCurrentInstance();
                 result = (Integer) sortFunction.invoke(context.getELContext(), new Object[]{value1, value2});
             }
 
@@ -92,4 +116,11 @@ public class TreeNodeComparator implements Comparator {
             throw new FacesException(e);
         }
     }
+
+    /**
+     * @return <code>true</code> if sort keys can be compared outside of the request thread
+     */
+    public boolean isConcurrent() {
+        return sortFunction == null;
+    }
 }
@@ -39,4 +39,18 @@ public class TreeNodeList extends ArrayList<TreeNode> {
     public TreeNode setSibling(int index, TreeNode node) {
         throw new UnsupportedOperationException();
     }
+
+    /**
+     * Reorders all siblings at once, to be used in sorting. Implementations may leave the row keys of the reordered nodes
+     * untouched, so they have to be updated afterwards, e.g. via {@link org.primefaces.component.api.UITree#updateRowKeys(TreeNode)}.
+     *
+     * @param nodes the current siblings in their new order
+     */
+    public void setSiblings(TreeNode[] nodes) {
+        for (int i = 0; i < nodes.length; i++) {
+            if (get(i) != nodes[i]) {
+                setSibling(i, nodes[i]);
+            }
+        }
+    }
 }
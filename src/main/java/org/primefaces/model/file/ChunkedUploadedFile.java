@@ -0,0 +1,119 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2009-2019 PrimeTek
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.model.file;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import javax.faces.FacesException;
+
+import org.primefaces.util.FileUploadUtils;
+
+/**
+ * UploadedFile implementation for a file which has been reassembled from chunks on the server.
+ * Like the temporary file behind a servlet {@link javax.servlet.http.Part}, the reassembled file is deleted
+ * once the {@link org.primefaces.event.FileUploadEvent} has been processed.
+ */
+public class ChunkedUploadedFile implements UploadedFile, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String path;
+    private String fileName;
+    private String contentType;
+
+    public ChunkedUploadedFile() {
+        // NOOP
+    }
+
+    public ChunkedUploadedFile(Path path, String fileName, String contentType) {
+        this.path = path.toString();
+        this.fileName = fileName;
+        this.contentType = contentType;
+    }
+
+    @Override
+    public String getFileName() {
+        return fileName;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return Files.newInputStream(getPath());
+    }
+
+    @Override
+    public byte[] getContent() {
+        try {
+            return Files.readAllBytes(getPath());
+        }
+        catch (IOException ex) {
+            throw new FacesException(ex);
+        }
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public long getSize() {
+        try {
+            return Files.size(getPath());
+        }
+        catch (IOException ex) {
+            throw new FacesException(ex);
+        }
+    }
+
+    @Override
+    public void write(String filePath) throws Exception {
+        String validFilePath = FileUploadUtils.getValidFilePath(filePath);
+        transferTo(Paths.get(validFilePath));
+    }
+
+    @Override
+    public long transferTo(Path target) throws IOException {
+        Files.copy(getPath(), target, StandardCopyOption.REPLACE_EXISTING);
+        return Files.size(target);
+    }
+
+    /**
+     * Deletes the reassembled file.
+     *
+     * @throws IOException If the file could not be deleted.
+     */
+    public void delete() throws IOException {
+        Files.deleteIfExists(getPath());
+    }
+
+    public Path getPath() {
+        return Paths.get(path);
+    }
+}
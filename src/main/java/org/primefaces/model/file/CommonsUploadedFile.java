@@ -24,6 +24,7 @@
 package org.primefaces.model.file;
 
 import org.apache.commons.fileupload.FileItem;
+import org.apache.commons.fileupload.disk.DiskFileItem;
 import org.apache.commons.io.input.BoundedInputStream;
 import org.primefaces.util.FileUploadUtils;
 
@@ -31,6 +32,12 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 
 /**
  *
@@ -85,4 +92,51 @@ public class CommonsUploadedFile implements UploadedFile, Serializable {
         fileItem.write(new File(validFilePath));
     }
 
+    @Override
+    public long transferTo(Path target) throws IOException {
+        File storeLocation = getStoreLocation();
+        if (storeLocation == null || isSizeLimitExceeded()) {
+            return UploadedFile.super.transferTo(target);
+        }
+
+        Files.copy(storeLocation.toPath(), target, StandardCopyOption.REPLACE_EXISTING);
+        return getSize();
+    }
+
+    @Override
+    public long transferTo(WritableByteChannel target) throws IOException {
+        File storeLocation = getStoreLocation();
+        if (storeLocation == null || isSizeLimitExceeded()) {
+            return UploadedFile.super.transferTo(target);
+        }
+
+        try (FileChannel input = FileChannel.open(storeLocation.toPath(), StandardOpenOption.READ)) {
+            long size = input.size();
+            long position = 0;
+            while (position < size) {
+                position += input.transferTo(position, size - position, target);
+            }
+            return position;
+        }
+    }
+
+    /**
+     * Returns the temporary file the upload has already been spooled to by Commons FileUpload.
+     *
+     * @return the spooled file or <code>null</code> if the content is kept in memory
+     */
+    public File getStoreLocation() {
+        if (fileItem instanceof DiskFileItem && !fileItem.isInMemory()) {
+            File storeLocation = ((DiskFileItem) fileItem).getStoreLocation();
+            if (storeLocation != null && storeLocation.exists()) {
+                return storeLocation;
+            }
+        }
+        return null;
+    }
+
+    private boolean isSizeLimitExceeded() {
+        return sizeLimit != null && getSize() > sizeLimit;
+    }
+
 }
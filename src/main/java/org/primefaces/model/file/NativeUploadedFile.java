@@ -37,11 +37,15 @@ public class NativeUploadedFile implements UploadedFile, Serializable {
 
     private static final long serialVersionUID = 1L;
     private static final int DEFAULT_BUFFER_SIZE = 1024 * 4;
+    /**
+     * Content of larger files is read on each {@link #getContent()} call instead of being kept on the heap.
+     */
+    private static final long MAX_CACHED_CONTENT_SIZE = 1024 * 1024;
     private static final String CONTENT_DISPOSITION_FILENAME_ATTR = "filename";
 
     private Part part;
     private String filename;
-    private byte[] cachedContent;
+    private transient byte[] cachedContent;
     private Long sizeLimit;
 
     public NativeUploadedFile() {
@@ -76,6 +80,7 @@ public class NativeUploadedFile implements UploadedFile, Serializable {
             return cachedContent;
         }
 
+        byte[] content;
         try (InputStream input = getInputStream()) {
             ByteArrayOutputStream output = new ByteArrayOutputStream();
             byte[] buffer = new byte[DEFAULT_BUFFER_SIZE];
@@ -84,13 +89,16 @@ public class NativeUploadedFile implements UploadedFile, Serializable {
             while (-1 != (n = input.read(buffer))) {
                 output.write(buffer, 0, n);
             }
-            cachedContent = output.toByteArray();
+            content = output.toByteArray();
         }
         catch (IOException ex) {
-            cachedContent = null;
             throw new FacesException(ex);
         }
-        return cachedContent;
+
+        if (content.length <= MAX_CACHED_CONTENT_SIZE) {
+            cachedContent = content;
+        }
+        return content;
     }
 
     @Override
@@ -25,6 +25,13 @@ package org.primefaces.model.file;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 
 public interface UploadedFile {
 
@@ -32,6 +39,13 @@ public interface UploadedFile {
 
     InputStream getInputStream() throws IOException;
 
+    /**
+     * Returns the whole content of the uploaded file as byte array.
+     * Prefer {@link #getInputStream()} or one of the <code>transferTo</code> methods for large files
+     * as this always loads the complete content into memory.
+     *
+     * @return the content of the uploaded file
+     */
     byte[] getContent();
 
     String getContentType();
@@ -45,4 +59,40 @@ public interface UploadedFile {
      * @throws Exception If something went wrong.
      */
     void write(String filePath) throws Exception;
+
+    /**
+     * Streams the uploaded file to the given target path, replacing an existing file, without loading it into memory.
+     *
+     * @param target The target path.
+     * @return the number of transferred bytes
+     * @throws IOException If the file could not be transferred.
+     */
+    default long transferTo(Path target) throws IOException {
+        try (InputStream input = getInputStream()) {
+            return Files.copy(input, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Streams the uploaded file to the given channel without loading it into memory.
+     * The channel is not closed.
+     *
+     * @param target The target channel.
+     * @return the number of transferred bytes
+     * @throws IOException If the file could not be transferred.
+     */
+    default long transferTo(WritableByteChannel target) throws IOException {
+        try (ReadableByteChannel input = Channels.newChannel(getInputStream())) {
+            ByteBuffer buffer = ByteBuffer.allocate(8192);
+            long count = 0;
+            while (input.read(buffer) != -1) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    count += target.write(buffer);
+                }
+                buffer.clear();
+            }
+            return count;
+        }
+    }
 }
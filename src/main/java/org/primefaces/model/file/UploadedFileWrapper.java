@@ -25,6 +25,8 @@ package org.primefaces.model.file;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
 import javax.faces.FacesWrapper;
 import javax.faces.component.StateHolder;
 import javax.faces.context.FacesContext;
@@ -79,6 +81,16 @@ public class UploadedFileWrapper implements UploadedFile, FacesWrapper<UploadedF
         getWrapped().write(filePath);
     }
 
+    @Override
+    public long transferTo(Path target) throws IOException {
+        return getWrapped().transferTo(target);
+    }
+
+    @Override
+    public long transferTo(WritableByteChannel target) throws IOException {
+        return getWrapped().transferTo(target);
+    }
+
     @Override
     public String getFileName() {
         return getWrapped().getFileName();
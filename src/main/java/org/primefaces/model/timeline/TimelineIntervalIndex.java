@@ -0,0 +1,148 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2009-2019 PrimeTek
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.model.timeline;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Events of a {@link TimelineModel} per group, bucketed by the binary magnitude of their durations and sorted by their start
+ * dates. As the durations in a bucket differ by less than a factor of two, a range query only scans events close to the
+ * range in every bucket, so a single long event does not slow down the queries of its group. The start date, duration
+ * bucket and group an event was indexed with are kept, so an event changed in place can still be removed.
+ */
+class TimelineIntervalIndex<E> {
+
+    private final Map<String, Map<Integer, NavigableMap<Long, List<TimelineEvent<E>>>>> groups = new HashMap<>();
+
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    TimelineIntervalIndex(List<TimelineEvent<E>> events) {
+        for (TimelineEvent<E> event : events) {
+            add(event);
+        }
+    }
+
+    void add(TimelineEvent<E> event) {
+        remove(event.getId());
+
+        if (event.getStartDate() == null) {
+            return;
+        }
+
+        long start = event.getStartDate().getTime();
+        int bucket = getBucket(getEnd(event) - start);
+        String group = event.getGroup();
+
+        groups.computeIfAbsent(group, k -> new HashMap<>())
+                .computeIfAbsent(bucket, k -> new TreeMap<>())
+                .computeIfAbsent(start, k -> new ArrayList<>(1))
+                .add(event);
+        entries.put(event.getId(), new Entry(group, bucket, start));
+    }
+
+    void remove(String id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+
+        Map<Integer, NavigableMap<Long, List<TimelineEvent<E>>>> buckets = groups.get(entry.group);
+        NavigableMap<Long, List<TimelineEvent<E>>> starts = buckets.get(entry.bucket);
+        List<TimelineEvent<E>> events = starts.get(entry.start);
+        events.removeIf(e -> id.equals(e.getId()));
+        if (events.isEmpty()) {
+            starts.remove(entry.start);
+            if (starts.isEmpty()) {
+                buckets.remove(entry.bucket);
+                if (buckets.isEmpty()) {
+                    groups.remove(entry.group);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return events of the group whose start or end date lies in the given range or which contain the range, an event
+     * without end date covers just its start date
+     */
+    List<TimelineEvent<E>> getIntersectingEvents(String group, Date startDate, Date endDate) {
+        List<TimelineEvent<E>> intersectingEvents = new ArrayList<>();
+        Map<Integer, NavigableMap<Long, List<TimelineEvent<E>>>> buckets = groups.get(group);
+        if (buckets == null) {
+            return intersectingEvents;
+        }
+
+        long start = startDate.getTime();
+        long end = (endDate == null) ? start : endDate.getTime();
+
+        for (Map.Entry<Integer, NavigableMap<Long, List<TimelineEvent<E>>>> bucket : buckets.entrySet()) {
+            long maxDuration = getMaxDuration(bucket.getKey());
+            long from = (start < Long.MIN_VALUE + maxDuration) ? Long.MIN_VALUE : start - maxDuration;
+            for (List<TimelineEvent<E>> events : bucket.getValue().subMap(from, true, end, true).values()) {
+                for (TimelineEvent<E> event : events) {
+                    if (getEnd(event) >= start) {
+                        intersectingEvents.add(event);
+                    }
+                }
+            }
+        }
+
+        return intersectingEvents;
+    }
+
+    /**
+     * @return 0 for an empty duration, otherwise the number of bits of the duration
+     */
+    private static int getBucket(long duration) {
+        return (duration <= 0) ? 0 : Long.SIZE - Long.numberOfLeadingZeros(duration);
+    }
+
+    private static long getMaxDuration(int bucket) {
+        return (bucket >= Long.SIZE - 1) ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+
+    private static long getEnd(TimelineEvent<?> event) {
+        Date end = (event.getEndDate() == null) ? event.getStartDate() : event.getEndDate();
+        return end.getTime();
+    }
+
+    private static final class Entry {
+
+        private final String group;
+        private final int bucket;
+        private final long start;
+
+        Entry(String group, int bucket, long start) {
+            this.group = group;
+            this.bucket = bucket;
+            this.start = start;
+        }
+    }
+}
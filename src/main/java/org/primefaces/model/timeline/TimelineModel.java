@@ -24,12 +24,20 @@
 package org.primefaces.model.timeline;
 
 import java.io.Serializable;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.TreeSet;
+import java.util.function.BiFunction;
 import org.primefaces.component.timeline.TimelineUpdater;
+import org.primefaces.event.timeline.TimelineLazyLoadEvent;
+import org.primefaces.model.RangeCache;
 
 public class TimelineModel<E, G> implements Serializable {
 
@@ -45,6 +53,28 @@ public class TimelineModel<E, G> implements Serializable {
      */
     private List<TimelineGroup<G>> groups;
 
+    /**
+     * date ranges loaded by {@link #loadEvents(Date, Date, BiFunction, TimelineUpdater)}
+     */
+    private RangeCache<Date> loadedRanges;
+
+    /**
+     * lazy loaded events are kept as long as they are within this duration before or after the requested range
+     */
+    private Duration lazyLoadWindow;
+
+    /**
+     * positions of the events by their id, rebuilt after deletions and when the event list was changed directly
+     */
+    private transient Map<String, Integer> positions;
+
+    private transient TimelineIntervalIndex<E> intervalIndex;
+
+    /**
+     * number of events when the indexes were last updated, a different size means the event list was changed directly
+     */
+    private transient int indexedSize;
+
     public TimelineModel() {
         events = new ArrayList<>();
     }
@@ -71,7 +101,9 @@ public class TimelineModel<E, G> implements Serializable {
      * @param event event to be added
      */
     public void add(TimelineEvent<E> event) {
+        validateIndex();
         events.add(event);
+        indexAdded(event);
     }
 
     /**
@@ -94,7 +126,9 @@ public class TimelineModel<E, G> implements Serializable {
      * @param timelineUpdater TimelineUpdater instance to add the event in UI
      */
     public void add(TimelineEvent<E> event, TimelineUpdater timelineUpdater) {
+        validateIndex();
         events.add(event);
+        indexAdded(event);
 
         if (timelineUpdater != null) {
             // update UI
@@ -158,6 +192,10 @@ public class TimelineModel<E, G> implements Serializable {
         if (index >= 0) {
             events.set(index, event);
 
+            if (intervalIndex != null) {
+                intervalIndex.add(event);
+            }
+
             if (timelineUpdater != null) {
                 // update UI
                 timelineUpdater.update(event);
@@ -204,7 +242,15 @@ public class TimelineModel<E, G> implements Serializable {
      * @param timelineUpdater TimelineUpdater instance to delete the event in UI
      */
     public void delete(TimelineEvent<E> event, TimelineUpdater timelineUpdater) {
-        events.remove(event);
+        validateIndex();
+        if (events.remove(event)) {
+            positions = null;
+            indexedSize = events.size();
+
+            if (intervalIndex != null) {
+                intervalIndex.remove(event.getId());
+            }
+        }
 
         if (timelineUpdater != null) {
             // update UI
@@ -229,8 +275,26 @@ public class TimelineModel<E, G> implements Serializable {
      */
     public void deleteAll(Collection<TimelineEvent<E>> events, TimelineUpdater timelineUpdater) {
         if (events != null && !events.isEmpty()) {
+            Set<String> ids = new LinkedHashSet<>();
             for (TimelineEvent<E> event : events) {
-                delete(event, timelineUpdater);
+                ids.add(event.getId());
+            }
+
+            // remove all events in one pass, the list may be the event list of this model
+            validateIndex();
+            this.events.removeIf(event -> ids.contains(event.getId()));
+            positions = null;
+            indexedSize = this.events.size();
+
+            for (String id : ids) {
+                if (intervalIndex != null) {
+                    intervalIndex.remove(id);
+                }
+
+                if (timelineUpdater != null) {
+                    // update UI
+                    timelineUpdater.delete(id);
+                }
             }
         }
     }
@@ -253,6 +317,8 @@ public class TimelineModel<E, G> implements Serializable {
      */
     public void clear() {
         events.clear();
+        resetIndex();
+        loadedRanges = null;
     }
 
     /**
@@ -262,6 +328,8 @@ public class TimelineModel<E, G> implements Serializable {
      */
     public void clear(TimelineUpdater timelineUpdater) {
         events.clear();
+        resetIndex();
+        loadedRanges = null;
 
         if (timelineUpdater != null) {
             // update UI
@@ -269,11 +337,84 @@ public class TimelineModel<E, G> implements Serializable {
         }
     }
 
+    /**
+     * Loads the events of the time ranges of a lazyload event, see {@link #loadEvents(Date, Date, BiFunction, TimelineUpdater)}.
+     *
+     * @param lazyLoadEvent   lazyload event of the timeline
+     * @param loader          loads the events of a time range, called with its start and end date
+     * @param timelineUpdater TimelineUpdater instance to add and delete the events in UI
+     */
+    public void loadEvents(TimelineLazyLoadEvent lazyLoadEvent, BiFunction<Date, Date, Collection<TimelineEvent<E>>> loader,
+            TimelineUpdater timelineUpdater) {
+        loadEvents(lazyLoadEvent.getStartDateFirst(), lazyLoadEvent.getEndDateFirst(), loader, timelineUpdater);
+
+        if (lazyLoadEvent.getStartDateSecond() != null && lazyLoadEvent.getEndDateSecond() != null) {
+            loadEvents(lazyLoadEvent.getStartDateSecond(), lazyLoadEvent.getEndDateSecond(), loader, timelineUpdater);
+        }
+    }
+
+    /**
+     * Loads the events of a time range with UI update. The loader is only called for the parts of the range that were not
+     * loaded before, loaded events which are already in the model or overlap a range loaded before are skipped, so the loader
+     * has to return all events overlapping the given time range. If a lazy load window is set, events farther away from the
+     * range are deleted and the timeline is told to request them again.
+     *
+     * @param startDate       start of the time range
+     * @param endDate         end of the time range (inclusive)
+     * @param loader          loads the events of a time range, called with its start and end date
+     * @param timelineUpdater TimelineUpdater instance to add and delete the events in UI
+     */
+    public void loadEvents(Date startDate, Date endDate, BiFunction<Date, Date, Collection<TimelineEvent<E>>> loader,
+            TimelineUpdater timelineUpdater) {
+        if (loadedRanges == null) {
+            loadedRanges = new RangeCache<>();
+        }
+
+        Date end = new Date(endDate.getTime() + 1);
+
+        if (lazyLoadWindow != null && !loadedRanges.isEmpty()) {
+            long window = lazyLoadWindow.toMillis();
+            if (!loadedRanges.evictOutside(new Date(startDate.getTime() - window), new Date(end.getTime() + window)).isEmpty()) {
+                List<TimelineEvent<E>> evictedEvents = new ArrayList<>();
+                for (TimelineEvent<E> event : events) {
+                    if (!loadedRanges.intersects(event.getStartDate(), event.getEndDate())) {
+                        evictedEvents.add(event);
+                    }
+                }
+
+                deleteAll(evictedEvents, timelineUpdater);
+
+                if (timelineUpdater != null) {
+                    // update UI
+                    timelineUpdater.resetLazyLoading();
+                }
+            }
+        }
+
+        loadedRanges.load(startDate, end, (missingStart, missingEnd) -> {
+            Collection<TimelineEvent<E>> loadedEvents = loader.apply(missingStart, new Date(missingEnd.getTime() - 1));
+            if (loadedEvents != null) {
+                for (TimelineEvent<E> event : loadedEvents) {
+                    // an event overlapping a range loaded before was returned for that range already
+                    if (!isLoaded(event) && !hasEvent(event)) {
+                        add(event, timelineUpdater);
+                    }
+                }
+            }
+        });
+    }
+
+    private boolean isLoaded(TimelineEvent<E> event) {
+        Date endDate = event.getEndDate();
+        return loadedRanges.intersects(event.getStartDate(), (endDate == null) ? null : new Date(endDate.getTime() + 1));
+    }
+
     /**
      * Gets all overlapped events to the given one. The given and overlapped events belong to the same group. Events are ordered
      * by their start dates - first events with more recent start dates and then events with older start dates. If start dates are
      * equal, events will be ordered by their end dates. In this case, if an event has a null end date, it is ordered before the
-     * event with a not null end date.
+     * event with a not null end date. Events are looked up in an index by group and start date, so an event whose dates
+     * changed must be passed to {@link #update(TimelineEvent)} to be found.
      *
      * @param event given event
      * @return TreeSet&lt;TimelineEvent&lt;E&gt;&gt; ordered overlapped events or null if no overlapping exist
@@ -284,18 +425,12 @@ public class TimelineModel<E, G> implements Serializable {
         }
 
         List<TimelineEvent<E>> overlappedEvents = null;
-        for (TimelineEvent<E> e : events) {
+        for (TimelineEvent<E> e : getIntervalIndex().getIntersectingEvents(event.getGroup(), event.getStartDate(), event.getEndDate())) {
             if (e.equals(event)) {
                 // given event should not be included
                 continue;
             }
 
-            if (event.getGroup() == null && e.getGroup() != null
-                    || (event.getGroup() != null && !event.getGroup().equals(e.getGroup()))) {
-                // ignore different groups
-                continue;
-            }
-
             if (isOverlapping(event, e)) {
                 if (overlappedEvents == null) {
                     overlappedEvents = new ArrayList<>();
@@ -401,6 +536,21 @@ public class TimelineModel<E, G> implements Serializable {
      */
     public void setEvents(List<TimelineEvent<E>> events) {
         this.events = events;
+        resetIndex();
+        loadedRanges = null;
+    }
+
+    public Duration getLazyLoadWindow() {
+        return lazyLoadWindow;
+    }
+
+    /**
+     * Sets how far lazy loaded events may be away from the last loaded time range before they are deleted.
+     *
+     * @param lazyLoadWindow duration before and after the loaded time range, null keeps all loaded events
+     */
+    public void setLazyLoadWindow(Duration lazyLoadWindow) {
+        this.lazyLoadWindow = lazyLoadWindow;
     }
 
     /**
@@ -428,13 +578,8 @@ public class TimelineModel<E, G> implements Serializable {
      * @return TimelineEvent found event or null
      */
     public TimelineEvent<E> getEvent(String id) {
-        if (id != null) {
-            return events.stream()
-                    .filter(event -> id.equals(event.getId()))
-                    .findAny()
-                    .orElse(null);
-        }
-        return null;
+        int index = getIndex(id);
+        return (index < 0) ? null : events.get(index);
     }
 
     /**
@@ -443,7 +588,7 @@ public class TimelineModel<E, G> implements Serializable {
      * @return
      */
     public boolean hasEvent(TimelineEvent<E> event) {
-        return events.contains(event);
+        return event != null && getIndex(event.getId()) >= 0;
     }
 
     /**
@@ -473,19 +618,68 @@ public class TimelineModel<E, G> implements Serializable {
      */
     @Deprecated
     public int getIndex(TimelineEvent<E> event) {
-        int index = -1;
+        return (event == null) ? -1 : getIndex(event.getId());
+    }
 
-        if (event != null) {
-            for (int i = 0; i < events.size(); i++) {
-                if (events.get(i).equals(event)) {
-                    index = i;
+    private int getIndex(String id) {
+        if (id == null) {
+            return -1;
+        }
 
-                    break;
-                }
-            }
+        validateIndex();
+        if (positions == null) {
+            buildPositions();
+        }
+
+        Integer index = positions.get(id);
+        if (index != null && !id.equals(events.get(index).getId())) {
+            // an event was replaced in the event list directly
+            buildPositions();
+            index = positions.get(id);
         }
 
-        return index;
+        return (index == null) ? -1 : index;
+    }
+
+    private void buildPositions() {
+        positions = new HashMap<>();
+        for (int i = 0; i < events.size(); i++) {
+            positions.putIfAbsent(events.get(i).getId(), i);
+        }
+        indexedSize = events.size();
+    }
+
+    private void indexAdded(TimelineEvent<E> event) {
+        if (positions != null) {
+            positions.putIfAbsent(event.getId(), events.size() - 1);
+        }
+
+        if (intervalIndex != null) {
+            intervalIndex.add(event);
+        }
+
+        indexedSize = events.size();
+    }
+
+    private TimelineIntervalIndex<E> getIntervalIndex() {
+        validateIndex();
+        if (intervalIndex == null) {
+            intervalIndex = new TimelineIntervalIndex<>(events);
+            indexedSize = events.size();
+        }
+
+        return intervalIndex;
+    }
+
+    private void validateIndex() {
+        if (indexedSize != events.size()) {
+            resetIndex();
+        }
+    }
+
+    private void resetIndex() {
+        positions = null;
+        intervalIndex = null;
     }
 
     private boolean isOverlapping(TimelineEvent<E> event1, TimelineEvent<E> event2) {
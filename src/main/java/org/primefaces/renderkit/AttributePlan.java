@@ -0,0 +1,211 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2009-2019 PrimeTek
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.renderkit;
+
+import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.faces.FacesException;
+import javax.faces.component.StateHelper;
+import javax.faces.component.UIComponent;
+
+/**
+ * Per component class plan for rendering a fixed list of attributes (e.g. {@link org.primefaces.util.HTML#INPUT_TEXT_ATTRS}).
+ * For attributes whose getter is declared together with a <code>PropertyKeys</code> enum containing the attribute, as generated for the
+ * PrimeFaces and the standard HTML components, the {@link StateHelper} is checked for a local value or a value expression first. Unset
+ * attributes are skipped with the default value of their getter, which is only evaluated once. Other attributes are read from the
+ * attributes map as usual.
+ */
+class AttributePlan {
+
+    private static final Logger LOGGER = Logger.getLogger(AttributePlan.class.getName());
+
+    private static final AttributePlan NONE = new AttributePlan(null);
+
+    private static final Object UNKNOWN = new Object();
+
+    private static final MethodHandle STATE_HELPER = findStateHelper();
+
+    // keyed by the identity of the (constant) attribute arrays; ClassValue does not keep component classes of redeployed applications alive
+    private static final ClassValue<ConcurrentMap<String[], AttributePlan>> PLANS = new ClassValue<ConcurrentMap<String[], AttributePlan>>() {
+        @Override
+        protected ConcurrentMap<String[], AttributePlan> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private final Serializable[] keys;
+
+    private final Object[] defaults;
+
+    private AttributePlan(Serializable[] keys) {
+        this.keys = keys;
+        if (keys == null) {
+            defaults = null;
+        }
+        else {
+            defaults = new Object[keys.length];
+            Arrays.fill(defaults, UNKNOWN);
+        }
+    }
+
+    static AttributePlan get(UIComponent component, String[] attrs) {
+        ConcurrentMap<String[], AttributePlan> plans = PLANS.get(component.getClass());
+        AttributePlan plan = plans.get(attrs);
+        if (plan == null) {
+            plan = create(component.getClass(), attrs);
+            plans.putIfAbsent(attrs, plan);
+        }
+        return plan;
+    }
+
+    /**
+     * @param component the component to render
+     * @return the state helper of the component to pass to {@link #getValue(UIComponent, StateHelper, int, String)},
+     * or <code>null</code> if no attribute of the plan is checked for presence
+     */
+    StateHelper getStateHelper(UIComponent component) {
+        if (keys == null || STATE_HELPER == null) {
+            return null;
+        }
+
+        try {
+            return (StateHelper) STATE_HELPER.invoke(component);
+        }
+        catch (RuntimeException | Error ex) {
+            throw ex;
+        }
+        catch (Throwable ex) {
+            throw new FacesException(ex);
+        }
+    }
+
+    /**
+     * @param component the component to render
+     * @param stateHelper the state helper returned by {@link #getStateHelper(UIComponent)}
+     * @param index the index of the attribute in the attribute list
+     * @param attribute the attribute
+     * @return the value of the attribute, same as <code>component.getAttributes().get(attribute)</code>
+     */
+    Object getValue(UIComponent component, StateHelper stateHelper, int index, String attribute) {
+        Serializable key = stateHelper == null ? null : keys[index];
+        if (key == null) {
+            return component.getAttributes().get(attribute);
+        }
+
+        Object value = stateHelper.get(key);
+        if (value != null) {
+            return value;
+        }
+
+        if (component.getValueExpression(attribute) != null) {
+            return component.getAttributes().get(attribute);
+        }
+
+        // unset, the generated getter returns its default value
+        Object defaultValue = defaults[index];
+        if (defaultValue == UNKNOWN) {
+            defaultValue = component.getAttributes().get(attribute);
+            defaults[index] = defaultValue;
+        }
+        return defaultValue;
+    }
+
+    private static AttributePlan create(Class<?> componentClass, String[] attrs) {
+        Serializable[] keys = new Serializable[attrs.length];
+        boolean found = false;
+        for (int i = 0; i < attrs.length; i++) {
+            try {
+                keys[i] = findPropertyKey(componentClass, attrs[i]);
+            }
+            catch (RuntimeException ex) {
+                if (LOGGER.isLoggable(Level.FINE)) {
+                    LOGGER.log(Level.FINE, "Cannot find property key of " + attrs[i] + " in " + componentClass.getName(), ex);
+                }
+            }
+            found |= keys[i] != null;
+        }
+
+        return found ? new AttributePlan(keys) : NONE;
+    }
+
+    /**
+     * Finds the property key of an attribute whose public getter is declared by the same class as a <code>PropertyKeys</code> enum
+     * containing the attribute. Overriding getters of subclasses may contain custom logic and are not considered.
+     */
+    private static Serializable findPropertyKey(Class<?> componentClass, String attribute) {
+        if (attribute.isEmpty()) {
+            return null;
+        }
+
+        String property = Character.toUpperCase(attribute.charAt(0)) + attribute.substring(1);
+        Method getter = findGetter(componentClass, "get" + property);
+        if (getter == null) {
+            getter = findGetter(componentClass, "is" + property);
+        }
+        if (getter == null) {
+            return null;
+        }
+
+        for (Class<?> nested : getter.getDeclaringClass().getDeclaredClasses()) {
+            if (nested.isEnum() && nested.getSimpleName().equals("PropertyKeys")) {
+                for (Object constant : nested.getEnumConstants()) {
+                    if (constant.toString().equals(attribute)) {
+                        return (Serializable) constant;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Method findGetter(Class<?> componentClass, String name) {
+        try {
+            Method getter = componentClass.getMethod(name);
+            return Modifier.isStatic(getter.getModifiers()) ? null : getter;
+        }
+        catch (NoSuchMethodException ex) {
+            return null;
+        }
+    }
+
+    private static MethodHandle findStateHelper() {
+        try {
+            Method method = UIComponent.class.getDeclaredMethod("getStateHelper");
+            method.setAccessible(true);
+            return MethodHandles.lookup().unreflect(method);
+        }
+        catch (NoSuchMethodException | IllegalAccessException | RuntimeException ex) {
+            LOGGER.log(Level.FINE, "Cannot access the StateHelper of components, attributes are read from the attributes map", ex);
+            return null;
+        }
+    }
+}
@@ -36,6 +36,7 @@ import org.primefaces.validate.bean.BeanValidationMetadataMapper;
 
 import javax.el.PropertyNotFoundException;
 import javax.faces.component.EditableValueHolder;
+import javax.faces.component.StateHelper;
 import javax.faces.component.UIComponent;
 import javax.faces.component.UIParameter;
 import javax.faces.component.UIViewRoot;
@@ -63,6 +64,9 @@ public abstract class CoreRenderer extends Renderer {
     private static final String SB_GET_EVENT_BEHAVIORS = CoreRenderer.class.getName() + "#getEventBehaviors";
     private static final String SB_RENDER_VALIDATOR_IDS = CoreRenderer.class.getName() + "#renderValidatorIds";
 
+    private static final List<ClientBehaviorContext.Parameter> OBSTRUSIVE_BEHAVIOR_PARAMS = Collections.singletonList(
+            new ClientBehaviorContext.Parameter(Constants.CLIENT_BEHAVIOR_RENDERING_MODE, ClientBehaviorRenderingMode.OBSTRUSIVE));
+
     protected void renderChildren(FacesContext context, UIComponent component) throws IOException {
         if (component.getChildCount() > 0) {
             for (int i = 0; i < component.getChildCount(); i++) {
@@ -100,9 +104,12 @@ public abstract class CoreRenderer extends Renderer {
         //pre-defined attributes
         if (attrs != null && attrs.length > 0) {
             ResponseWriter writer = context.getResponseWriter();
+            AttributePlan plan = AttributePlan.get(component, attrs);
+            StateHelper stateHelper = plan.getStateHelper(component);
 
-            for (String attribute : attrs) {
-                Object value = component.getAttributes().get(attribute);
+            for (int i = 0; i < attrs.length; i++) {
+                String attribute = attrs[i];
+                Object value = plan.getValue(component, stateHelper, i, attribute);
                 if (shouldRenderAttribute(value)) {
                     writer.writeAttribute(attribute, value.toString(), attribute);
                 }
@@ -131,9 +138,13 @@ public abstract class CoreRenderer extends Renderer {
             throws IOException {
         ResponseWriter writer = context.getResponseWriter();
         StringBuilder builder = null;
+        String clientId = null;
+        AttributePlan plan = AttributePlan.get(component, eventAttrs);
+        StateHelper stateHelper = plan.getStateHelper(component);
 
-        for (String domEvent : eventAttrs) {
-            Object eventValue = component.getAttributes().get(domEvent);
+        for (int e = 0; e < eventAttrs.length; e++) {
+            String domEvent = eventAttrs[e];
+            Object eventValue = plan.getValue(component, stateHelper, e, domEvent);
             String behaviorEvent = domEvent.substring(2, domEvent.length());
             List<ClientBehavior> eventBehaviors = behaviors.get(behaviorEvent);
             boolean hasEventValue = (eventValue != null);
@@ -153,14 +164,12 @@ public abstract class CoreRenderer extends Renderer {
                 }
 
                 if (hasEventBehaviors) {
-                    String clientId = component.getClientId(context);
-
-                    List<ClientBehaviorContext.Parameter> params = new ArrayList<>(1);
-                    params.add(new ClientBehaviorContext.Parameter(
-                            Constants.CLIENT_BEHAVIOR_RENDERING_MODE, ClientBehaviorRenderingMode.OBSTRUSIVE));
+                    if (clientId == null) {
+                        clientId = component.getClientId(context);
+                    }
 
                     ClientBehaviorContext cbc = ClientBehaviorContext.createClientBehaviorContext(
-                            context, component, behaviorEvent, clientId, params);
+                            context, component, behaviorEvent, clientId, OBSTRUSIVE_BEHAVIOR_PARAMS);
                     int size = eventBehaviors.size();
                     boolean chained = false;
 
@@ -208,14 +217,17 @@ public abstract class CoreRenderer extends Renderer {
     protected void renderPassThruAttributes(FacesContext context, UIComponent component, String[] attrs, String[] ignoredAttrs)
             throws IOException {
         ResponseWriter writer = context.getResponseWriter();
+        AttributePlan plan = AttributePlan.get(component, attrs);
+        StateHelper stateHelper = plan.getStateHelper(component);
 
         //pre-defined attributes
-        for (String attribute : attrs) {
+        for (int i = 0; i < attrs.length; i++) {
+            String attribute = attrs[i];
             if (isIgnoredAttribute(attribute, ignoredAttrs)) {
                 continue;
             }
 
-            Object value = component.getAttributes().get(attribute);
+            Object value = plan.getValue(component, stateHelper, i, attribute);
 
             if (shouldRenderAttribute(value)) {
                 writer.writeAttribute(attribute, value.toString(), attribute);
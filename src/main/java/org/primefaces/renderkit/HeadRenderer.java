@@ -24,7 +24,9 @@
 package org.primefaces.renderkit;
 
 import java.io.IOException;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import javax.el.ELContext;
 import javax.el.ExpressionFactory;
 import javax.el.ValueExpression;
@@ -39,7 +41,9 @@ import javax.faces.context.ResponseWriter;
 import javax.faces.render.Renderer;
 import org.primefaces.context.PrimeApplicationContext;
 import org.primefaces.util.ComponentUtils;
+import org.primefaces.util.Constants;
 import org.primefaces.util.LocaleUtils;
+import org.primefaces.util.ResourceUtils;
 
 /**
  * Renders head content based on the following order
@@ -103,9 +107,14 @@ public class HeadRenderer extends Renderer {
         //Registered Resources
         UIViewRoot viewRoot = context.getViewRoot();
         List<UIComponent> resources = viewRoot.getComponentResources(context, "head");
-        for (int i = 0; i < resources.size(); i++) {
-            UIComponent resource = resources.get(i);
-            resource.encodeAll(context);
+        if (applicationContext.getConfig().isResourceBundlingEnabled() && !projectStage.equals(ProjectStage.Development)) {
+            encodeBundledResources(context, resources);
+        }
+        else {
+            for (int i = 0; i < resources.size(); i++) {
+                UIComponent resource = resources.get(i);
+                resource.encodeAll(context);
+            }
         }
 
         if (csvEnabled) {
@@ -172,6 +181,66 @@ public class HeadRenderer extends Renderer {
         }
     }
 
+    /**
+     * Renders all scripts and all stylesheets of the PrimeFaces library as one bundle each, at the position of the first of them.
+     * Other resources are rendered as usual. Resources added later via AJAX are still loaded individually,
+     * as are all resources of a bundle which is too large or refers to a missing resource.
+     */
+    protected void encodeBundledResources(FacesContext context, List<UIComponent> resources) throws IOException {
+        Set<String> scripts = new LinkedHashSet<>();
+        Set<String> stylesheets = new LinkedHashSet<>();
+        for (int i = 0; i < resources.size(); i++) {
+            UIComponent resource = resources.get(i);
+            if (ResourceUtils.isBundleable(resource)) {
+                (ResourceUtils.isScript(resource) ? scripts : stylesheets).add((String) resource.getAttributes().get("name"));
+            }
+        }
+
+        String scriptsPath = scripts.size() > 1 ? ResourceUtils.getBundleRequestPath(context, scripts) : null;
+        String stylesheetsPath = stylesheets.size() > 1 ? ResourceUtils.getBundleRequestPath(context, stylesheets) : null;
+
+        ResponseWriter writer = context.getResponseWriter();
+        boolean markRendered = PrimeApplicationContext.getCurrentInstance(context).getEnvironment().isAtLeastJsf23();
+        boolean scriptsRendered = false;
+        boolean stylesheetsRendered = false;
+        for (int i = 0; i < resources.size(); i++) {
+            UIComponent resource = resources.get(i);
+            if (!ResourceUtils.isBundleable(resource)) {
+                resource.encodeAll(context);
+                continue;
+            }
+
+            boolean script = ResourceUtils.isScript(resource);
+            String bundlePath = script ? scriptsPath : stylesheetsPath;
+            if (bundlePath == null) {
+                resource.encodeAll(context);
+                continue;
+            }
+
+            if (script && !scriptsRendered) {
+                writer.startElement("script", null);
+                writer.writeAttribute("type", "text/javascript", null);
+                writer.writeAttribute("src", bundlePath, null);
+                writer.endElement("script");
+                scriptsRendered = true;
+            }
+            else if (!script && !stylesheetsRendered) {
+                writer.startElement("link", null);
+                writer.writeAttribute("type", "text/css", null);
+                writer.writeAttribute("rel", "stylesheet", null);
+                writer.writeAttribute("href", bundlePath, null);
+                writer.endElement("link");
+                stylesheetsRendered = true;
+            }
+
+            // JSF 2.3 must not render them again on AJAX requests
+            if (markRendered) {
+                context.getApplication().getResourceHandler()
+                        .markResourceRendered(context, (String) resource.getAttributes().get("name"), Constants.LIBRARY);
+            }
+        }
+    }
+
     protected void encodeValidationResources(FacesContext context, boolean beanValidationEnabled) throws IOException {
         ResponseWriter writer = context.getResponseWriter();
         Resource resource = context.getApplication().getResourceHandler().createResource("validation/validation.js", "primefaces");
@@ -47,6 +47,14 @@ public class Constants {
         public static final String MOVE_SCRIPTS_TO_BOTTOM = "primefaces.MOVE_SCRIPTS_TO_BOTTOM";
         public static final String CSP = "primefaces.CSP";
         public static final String CSP_POLICY = "primefaces.CSP_POLICY";
+        public static final String VIRUS_SCAN_THREADS = "primefaces.VIRUS_SCAN_THREADS";
+        public static final String VIRUS_SCAN_CACHE_TTL = "primefaces.VIRUS_SCAN_CACHE_TTL";
+        public static final String VIRUS_SCAN_CACHE_SIZE = "primefaces.VIRUS_SCAN_CACHE_SIZE";
+        public static final String RESOURCE_CACHE = "primefaces.RESOURCE_CACHE";
+        public static final String RESOURCE_FINGERPRINT = "primefaces.RESOURCE_FINGERPRINT";
+        public static final String RESOURCE_BUNDLING = "primefaces.RESOURCE_BUNDLING";
+        public static final String DYNAMIC_CONTENT_CACHE_CONTROL = "primefaces.DYNAMIC_CONTENT_CACHE_CONTROL";
+        public static final String BARCODE_CACHE = "primefaces.BARCODE_CACHE";
     }
 
     public static class RequestParams {
@@ -72,9 +80,11 @@ public class Constants {
     public static final String DYNAMIC_CONTENT_PARAM = "pfdrid";
     public static final String DYNAMIC_CONTENT_CACHE_PARAM = "pfdrid_c";
     public static final String DYNAMIC_CONTENT_TYPE_PARAM = "pfdrt";
+    public static final String RESOURCE_BUNDLE_PARAM = "pfbundle";
     public static final String DYNAMIC_RESOURCES_MAPPING = "primefaces.dynamicResourcesMapping";
 
     public static final String BARCODE_MAPPING = "primefaces.barcodeMapping";
+    public static final String BARCODE_KEYS = "primefaces.barcodeKeys";
 
     public static final String FRAGMENT_ID = "primefaces.fragment";
 
@@ -23,16 +23,21 @@
  */
 package org.primefaces.util;
 
-import java.io.BufferedInputStream;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.io.PushbackInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.spi.FileTypeDetector;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -47,10 +52,11 @@ import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.io.IOUtils;
 import org.primefaces.component.fileupload.FileUpload;
 import org.primefaces.context.PrimeApplicationContext;
+import org.primefaces.model.file.CommonsUploadedFile;
+import org.primefaces.model.file.UploadedFile;
 import org.primefaces.shaded.owasp.SafeFile;
 import org.primefaces.shaded.owasp.ValidationException;
 import org.primefaces.virusscan.VirusException;
-import org.primefaces.model.file.UploadedFile;
 
 /**
  * Utilities for FileUpload components.
@@ -61,6 +67,33 @@ public class FileUploadUtils {
 
     private static final Pattern INVALID_FILENAME_PATTERN = Pattern.compile("([\\/:*?\"<>|])");
 
+    /**
+     * Number of leading bytes used for content type detection, large enough to hold the magic bytes Apache Tika looks at.
+     */
+    private static final int CONTENT_TYPE_PROBE_SIZE = 64 * 1024;
+
+    /**
+     * Content types a truncated prefix is detected as when the real type is only visible further in the file,
+     * e.g. docx, xlsx or odt are zip archives whose entries are only found via the central directory at the end of the file.
+     */
+    private static final Set<String> CONTAINER_CONTENT_TYPES = new HashSet<>(Arrays.asList(
+            "application/zip",
+            "application/x-tika-ooxml",
+            "application/x-tika-msoffice",
+            "application/x-tika-ooxml-protected"));
+
+    /**
+     * Number of trailing bytes searched for the end of central directory record of a zip container.
+     */
+    private static final int ZIP_TAIL_SIZE = 64 * 1024;
+
+    /**
+     * Maximum number of trailing bytes read to get the complete central directory of a zip container.
+     */
+    private static final int MAX_ZIP_DIRECTORY_SIZE = 1024 * 1024;
+
+    private static final int ZIP_END_OF_DIRECTORY_SIZE = 22;
+
     private FileUploadUtils() {
     }
 
@@ -141,7 +174,7 @@ public class FileUploadUtils {
         String fileName = uploadedFile.getFileName();
         try {
             boolean validType = isValidFileName(fileUpload, uploadedFile)
-                        && isValidFileContent(context, fileUpload, fileName, uploadedFile.getInputStream());
+                        && isValidFileContent(context, fileUpload, uploadedFile);
             if (validType) {
                 if (LOGGER.isLoggable(Level.FINE)) {
                     LOGGER.fine(String.format("The uploaded file %s meets the filename and content type specifications", fileName));
@@ -191,7 +224,8 @@ public class FileUploadUtils {
         return true;
     }
 
-    private static boolean isValidFileContent(PrimeApplicationContext context, FileUpload fileUpload, String fileName, InputStream stream) throws IOException {
+    private static boolean isValidFileContent(PrimeApplicationContext context, FileUpload fileUpload, UploadedFile uploadedFile)
+            throws IOException {
         if (!fileUpload.isValidateContentType()) {
             if (LOGGER.isLoggable(Level.FINE)) {
                 LOGGER.fine("Content type checking is disabled");
@@ -208,58 +242,98 @@ public class FileUploadUtils {
             LOGGER.warning("Could not find Apache Tika in classpath which is recommended for reliable content type checking");
         }
 
+        String fileName = uploadedFile.getFileName();
+        String contentType = probeContentType(context, uploadedFile);
+        if (contentType == null) {
+            if (LOGGER.isLoggable(Level.WARNING)) {
+                LOGGER.warning(String.format("Could not determine content type of uploaded file %s, consider plugging in an adequate " +
+                        "FileTypeDetector implementation", fileName));
+            }
+            return false;
+        }
+
+        //Comma-separated values: file_extension|audio/*|video/*|image/*|media_type (see https://www.w3schools.com/tags/att_input_accept.asp)
+        String[] accepts = fileUpload.getAccept().split(",");
+        boolean accepted = false;
+        for (String accept : accepts) {
+            accept = accept.trim().toLowerCase();
+            if (accept.startsWith(".") && fileName.toLowerCase().endsWith(accept)) {
+                accepted = true;
+                if (LOGGER.isLoggable(Level.FINE)) {
+                    LOGGER.fine(String.format("The file extension %s of the uploaded file %s is accepted", accept, fileName));
+                }
+                break;
+            }
+            //Now we have a media type that may contain wildcards
+            if (FilenameUtils.wildcardMatch(contentType.toLowerCase(), accept)) {
+                accepted = true;
+                if (LOGGER.isLoggable(Level.FINE)) {
+                    LOGGER.fine(String.format("The content type %s of the uploaded file %s is accepted by %s", contentType, fileName, accept));
+                }
+                break;
+            }
+        }
+        if (!accepted) {
+            if (LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.fine(String.format("The uploaded file %s with content type %s does not match the accept specification %s", fileName, contentType,
+                        fileUpload.getAccept()));
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Detects the content type of an uploaded file without copying the whole upload.
+     * If Commons FileUpload already spooled the file to disk and Apache Tika is in place, the spooled file is probed directly.
+     * Otherwise only the first {@link #CONTENT_TYPE_PROBE_SIZE} bytes (the magic bytes) are written to a temporary file and probed.
+     * If the prefix is only detected as a zip container (see {@link #CONTAINER_CONTENT_TYPES}), the central directory at the end
+     * of the upload is written at its original position as well and the file is probed again. The part in between is skipped and
+     * stays a hole of the temporary file, so the detector can locate the entries at the start of the container, e.g. the
+     * <code>[Content_Types].xml</code> of OOXML or the <code>mimetype</code> of ODF documents, without the whole upload being copied.
+     *
+     * @param context the {@link PrimeApplicationContext}
+     * @param uploadedFile the uploaded file
+     * @return the content type or <code>null</code> if it could not be determined
+     * @throws IOException if the file content could not be read
+     */
+    private static String probeContentType(PrimeApplicationContext context, UploadedFile uploadedFile) throws IOException {
+        FileTypeDetector fileTypeDetector = context.getFileTypeDetector();
+
+        //Tika detects by magic bytes, so the name of the spooled file doesn't matter
+        if (fileTypeDetector != null && uploadedFile instanceof CommonsUploadedFile) {
+            File storeLocation = ((CommonsUploadedFile) uploadedFile).getStoreLocation();
+            if (storeLocation != null) {
+                return fileTypeDetector.probeContentType(storeLocation.toPath());
+            }
+        }
+
+        byte[] prefix = new byte[CONTENT_TYPE_PROBE_SIZE];
+        int prefixLength;
+        try (InputStream in = uploadedFile.getInputStream()) {
+            prefixLength = IOUtils.read(in, prefix);
+        }
+
         //If Tika is in place, we drop the original file extension to avoid short circuit detection by just looking at the file extension
-        String tempFileSuffix = tika ? null : "." + FilenameUtils.getExtension(fileName);
+        String tempFileSuffix = fileTypeDetector != null ? null : "." + FilenameUtils.getExtension(uploadedFile.getFileName());
         String tempFilePrefix = UUID.randomUUID().toString();
         Path tempFile = Files.createTempFile(tempFilePrefix, tempFileSuffix);
         try {
-            InputStream in = new PushbackInputStream(new BufferedInputStream(stream));
-            try (OutputStream out = new FileOutputStream(tempFile.toFile())) {
-                IOUtils.copyLarge(in, out);
+            try (OutputStream out = Files.newOutputStream(tempFile)) {
+                out.write(prefix, 0, prefixLength);
             }
-            String contentType = null;
-            if (context.getFileTypeDetector() != null) {
-                contentType = context.getFileTypeDetector().probeContentType(tempFile);
+            if (fileTypeDetector != null) {
+                String contentType = fileTypeDetector.probeContentType(tempFile);
+                if (prefixLength == CONTENT_TYPE_PROBE_SIZE && contentType != null && CONTAINER_CONTENT_TYPES.contains(contentType)
+                        && writeZipDirectory(uploadedFile, tempFile)) {
+                    //the prefix was truncated, so the container entries Tika needs could not be located without the central directory
+                    contentType = fileTypeDetector.probeContentType(tempFile);
+                }
+                return contentType;
             }
             else {
                 // use default Java fallback
-                contentType = Files.probeContentType(tempFile);
-            }
-
-            if (contentType == null) {
-                if (LOGGER.isLoggable(Level.WARNING)) {
-                    LOGGER.warning(String.format("Could not determine content type of uploaded file %s, consider plugging in an adequate " +
-                            "FileTypeDetector implementation", fileName));
-                }
-                return false;
-            }
-            //Comma-separated values: file_extension|audio/*|video/*|image/*|media_type (see https://www.w3schools.com/tags/att_input_accept.asp)
-            String[] accepts = fileUpload.getAccept().split(",");
-            boolean accepted = false;
-            for (String accept : accepts) {
-                accept = accept.trim().toLowerCase();
-                if (accept.startsWith(".") && fileName.toLowerCase().endsWith(accept)) {
-                    accepted = true;
-                    if (LOGGER.isLoggable(Level.FINE)) {
-                        LOGGER.fine(String.format("The file extension %s of the uploaded file %s is accepted", accept, fileName));
-                    }
-                    break;
-                }
-                //Now we have a media type that may contain wildcards
-                if (FilenameUtils.wildcardMatch(contentType.toLowerCase(), accept)) {
-                    accepted = true;
-                    if (LOGGER.isLoggable(Level.FINE)) {
-                        LOGGER.fine(String.format("The content type %s of the uploaded file %s is accepted by %s", contentType, fileName, accept));
-                    }
-                    break;
-                }
-            }
-            if (!accepted) {
-                if (LOGGER.isLoggable(Level.FINE)) {
-                    LOGGER.fine(String.format("The uploaded file %s with content type %s does not match the accept specification %s", fileName, contentType,
-                            fileUpload.getAccept()));
-                }
-                return false;
+                return Files.probeContentType(tempFile);
             }
         }
         finally {
@@ -282,23 +356,109 @@ public class FileUploadUtils {
                 }
             }
         }
+    }
+
+    /**
+     * Writes the central directory of a zip upload to the temporary file at its original position.
+     *
+     * @return <code>false</code> if the upload has no readable central directory within {@link #MAX_ZIP_DIRECTORY_SIZE} bytes
+     */
+    private static boolean writeZipDirectory(UploadedFile uploadedFile, Path tempFile) throws IOException {
+        long size = uploadedFile.getSize();
+        if (size < ZIP_END_OF_DIRECTORY_SIZE) {
+            return false;
+        }
+
+        long tailStart = Math.max(0, size - ZIP_TAIL_SIZE);
+        byte[] tail = readRange(uploadedFile, tailStart, (int) (size - tailStart));
+        if (tail == null) {
+            return false;
+        }
+
+        int end = tail.length - ZIP_END_OF_DIRECTORY_SIZE;
+        while (end >= 0 && readInt(tail, end) != 0x06054b50) {
+            end--;
+        }
+        if (end < 0) {
+            return false;
+        }
+
+        //0xFFFFFFFF marks a zip64 archive, whose directory is located via another record
+        long directoryOffset = readInt(tail, end + 16);
+        if (directoryOffset == 0xFFFFFFFFL || directoryOffset > tailStart + end) {
+            return false;
+        }
+        if (directoryOffset < tailStart) {
+            if (size - directoryOffset > MAX_ZIP_DIRECTORY_SIZE) {
+                return false;
+            }
+            tailStart = directoryOffset;
+            tail = readRange(uploadedFile, tailStart, (int) (size - tailStart));
+            if (tail == null) {
+                return false;
+            }
+        }
+
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(tail);
+            long position = tailStart;
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+        }
         return true;
     }
 
+    /**
+     * @return the bytes of the given range of the upload or <code>null</code> if the upload is shorter
+     */
+    private static byte[] readRange(UploadedFile uploadedFile, long offset, int length) throws IOException {
+        try (InputStream in = uploadedFile.getInputStream()) {
+            //InputStream#skip seeks in file based streams, unlike IOUtils#skipFully which reads the skipped bytes
+            byte[] buffer = null;
+            long remaining = offset;
+            while (remaining > 0) {
+                long skipped = in.skip(remaining);
+                if (skipped <= 0) {
+                    if (buffer == null) {
+                        buffer = new byte[8192];
+                    }
+                    skipped = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                    if (skipped == -1) {
+                        return null;
+                    }
+                }
+                remaining -= skipped;
+            }
+
+            byte[] bytes = new byte[length];
+            return IOUtils.read(in, bytes) == length ? bytes : null;
+        }
+    }
+
+    private static long readInt(byte[] bytes, int index) {
+        //zip headers are little endian
+        return (bytes[index] & 0xFFL) | (bytes[index + 1] & 0xFFL) << 8 | (bytes[index + 2] & 0xFFL) << 16 | (bytes[index + 3] & 0xFFL) << 24;
+    }
+
     public static void performVirusScan(FacesContext facesContext, FileUpload fileUpload, InputStream inputStream) throws VirusException {
         if (fileUpload.isPerformVirusScan()) {
             PrimeApplicationContext.getCurrentInstance(facesContext).getVirusScannerService().performVirusScan(inputStream);
         }
     }
 
+    public static void performVirusScan(FacesContext facesContext, FileUpload fileUpload, List<UploadedFile> files)
+            throws VirusException, IOException {
+        if (fileUpload.isPerformVirusScan()) {
+            PrimeApplicationContext.getCurrentInstance(facesContext).getVirusScannerService().performVirusScan(files);
+        }
+    }
+
     public static boolean isValidFile(FacesContext context, FileUpload fileUpload, UploadedFile uploadedFile) throws IOException {
-        Long sizeLimit = fileUpload.getSizeLimit();
-        PrimeApplicationContext appContext = PrimeApplicationContext.getCurrentInstance(context);
-        boolean valid = (sizeLimit == null || uploadedFile.getSize() <= sizeLimit)
-                && FileUploadUtils.isValidType(appContext, fileUpload, uploadedFile);
+        boolean valid = isValidSizeAndType(context, fileUpload, uploadedFile);
         if (valid) {
             try {
-                FileUploadUtils.performVirusScan(context, fileUpload, uploadedFile.getInputStream());
+                FileUploadUtils.performVirusScan(context, fileUpload, Collections.singletonList(uploadedFile));
             }
             catch (VirusException ex) {
                 return false;
@@ -312,12 +472,30 @@ public class FileUploadUtils {
         Long sizeLimit = fileUpload.getSizeLimit();
         for (UploadedFile file : files) {
             totalPartSize += file.getSize();
-            if (!isValidFile(context, fileUpload, file)) {
+            if (!isValidSizeAndType(context, fileUpload, file)) {
                 return false;
             }
         }
 
-        return sizeLimit == null || totalPartSize <= sizeLimit;
+        if (sizeLimit != null && totalPartSize > sizeLimit) {
+            return false;
+        }
+
+        try {
+            // all files at once, so they can be scanned concurrently
+            FileUploadUtils.performVirusScan(context, fileUpload, files);
+        }
+        catch (VirusException ex) {
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean isValidSizeAndType(FacesContext context, FileUpload fileUpload, UploadedFile uploadedFile) {
+        Long sizeLimit = fileUpload.getSizeLimit();
+        PrimeApplicationContext appContext = PrimeApplicationContext.getCurrentInstance(context);
+        return (sizeLimit == null || uploadedFile.getSize() <= sizeLimit)
+                && FileUploadUtils.isValidType(appContext, fileUpload, uploadedFile);
     }
 
     /**
@@ -24,7 +24,12 @@
 package org.primefaces.util;
 
 import java.io.Serializable;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import javax.faces.FacesException;
 import javax.faces.application.Application;
@@ -34,10 +39,17 @@ import javax.faces.component.UIComponent;
 import javax.faces.component.UIOutput;
 import javax.faces.context.FacesContext;
 
+import org.primefaces.application.resource.CachedResource;
+import org.primefaces.application.resource.PrimeResource;
+import org.primefaces.context.PrimeApplicationContext;
+
 public class ResourceUtils {
 
     public static final String RENDERER_SCRIPT = "javax.faces.resource.Script";
     public static final String RENDERER_STYLESHEET = "javax.faces.resource.Stylesheet";
+    public static final String BUNDLE_SEPARATOR = ",";
+    public static final int MAX_BUNDLE_SIZE = 64;
+    public static final int MAX_BUNDLE_LENGTH = 2048;
 
     private ResourceUtils() {
     }
@@ -61,6 +73,119 @@ public class ResourceUtils {
         return resource.getRequestPath();
     }
 
+    /**
+     * Creates the request path of a bundle, which concatenates the given resources of the PrimeFaces library into a single response.
+     * The request path contains the names of the resources, so any node of a cluster can serve it, even after a restart, and a version
+     * derived from the versions (fingerprints) of all bundled resources.
+     *
+     * @param context the {@link FacesContext}
+     * @param resourceNames the names of the resources, in the order they must be concatenated
+     * @return the request path of the bundle or <code>null</code> if a resource does not exist or the bundle is too large,
+     * see {@link #getBundleResourceNames(String)}
+     */
+    public static String getBundleRequestPath(FacesContext context, Collection<String> resourceNames) {
+        String bundle = String.join(BUNDLE_SEPARATOR, resourceNames);
+        if (getBundleResourceNames(bundle) == null) {
+            return null;
+        }
+
+        ResourceHandler resourceHandler = context.getApplication().getResourceHandler();
+        List<Resource> resources = new ArrayList<>(resourceNames.size());
+        for (String resourceName : resourceNames) {
+            Resource resource = resourceHandler.createResource(resourceName, Constants.LIBRARY);
+            if (resource == null) {
+                return null;
+            }
+            resources.add(resource);
+        }
+
+        // without the version of the first resource
+        Resource first = resources.get(0);
+        String requestPath = first instanceof PrimeResource ? ((PrimeResource) first).getWrapped().getRequestPath() : first.getRequestPath();
+        if (requestPath == null) {
+            return null;
+        }
+
+        try {
+            return requestPath + (requestPath.contains("?") ? "&" : "?") + Constants.RESOURCE_BUNDLE_PARAM + "=" + URLEncoder.encode(bundle, "UTF-8")
+                    + "&v=" + getBundleVersion(context, resources);
+        }
+        catch (UnsupportedEncodingException ex) {
+            throw new FacesException(ex);
+        }
+    }
+
+    /**
+     * Parses the resource names of a bundle request. Only up to {@link #MAX_BUNDLE_SIZE} scripts or stylesheets with a total length
+     * of {@link #MAX_BUNDLE_LENGTH} can be bundled, so a request can not make the server read and cache arbitrarily large bundles.
+     *
+     * @param bundle the resource names of the bundle, separated by {@link #BUNDLE_SEPARATOR}
+     * @return the resource names or <code>null</code> if the bundle is too large, empty or contains different types of resources
+     */
+    public static List<String> getBundleResourceNames(String bundle) {
+        if (bundle == null || bundle.length() > MAX_BUNDLE_LENGTH) {
+            return null;
+        }
+
+        String[] resourceNames = bundle.split(BUNDLE_SEPARATOR, -1);
+        if (resourceNames.length > MAX_BUNDLE_SIZE) {
+            return null;
+        }
+
+        String extension = resourceNames[0].endsWith(".js") ? ".js" : ".css";
+        for (String resourceName : resourceNames) {
+            if (resourceName.length() <= extension.length() || !resourceName.endsWith(extension)) {
+                return null;
+            }
+        }
+
+        return Arrays.asList(resourceNames);
+    }
+
+    /**
+     * The version of a bundle, derived from the fingerprints of the given resources or the PrimeFaces version for resources without one.
+     *
+     * @param context the {@link FacesContext}
+     * @param resources the bundled resources
+     * @return the version
+     */
+    public static String getBundleVersion(FacesContext context, List<Resource> resources) {
+        StringBuilder versions = new StringBuilder();
+        for (Resource resource : resources) {
+            String fingerprint = getFingerprint(resource);
+            versions.append(resource.getResourceName()).append(':')
+                    .append(fingerprint == null ? PrimeApplicationContext.getCurrentInstance(context).getEnvironment().getBuildVersion() : fingerprint)
+                    .append(';');
+        }
+
+        return CachedResource.fingerprint(versions.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param resource the resource
+     * @return the fingerprint of the content of the resource or <code>null</code> if it is not fingerprinted
+     */
+    public static String getFingerprint(Resource resource) {
+        return resource instanceof PrimeResource ? ((PrimeResource) resource).getFingerprint() : null;
+    }
+
+    /**
+     * Whether the given component resource can be served as part of a bundle, see {@link #getBundleRequestPath(FacesContext, Collection)}.
+     *
+     * @param component the component resource
+     * @return <code>true</code> for scripts and stylesheets of the PrimeFaces library
+     */
+    public static boolean isBundleable(UIComponent component) {
+        if (!(component instanceof UIOutput) || !component.isRendered() || !(isScript(component) || isStylesheet(component))) {
+            return false;
+        }
+
+        String name = (String) component.getAttributes().get("name");
+        return Constants.LIBRARY.equals(component.getAttributes().get("library"))
+                && !LangUtils.isValueBlank(name)
+                && !name.contains(BUNDLE_SEPARATOR);
+    }
+
     public static void addComponentResource(FacesContext context, String name, String library, String target) {
 
         Application application = context.getApplication();
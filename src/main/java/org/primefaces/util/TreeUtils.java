@@ -25,7 +25,9 @@ package org.primefaces.util;
 
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.function.Consumer;
 import org.primefaces.model.TreeNode;
+import org.primefaces.model.TreeNodeComparator;
 import org.primefaces.model.TreeNodeList;
 
 /**
@@ -33,6 +35,11 @@ import org.primefaces.model.TreeNodeList;
  */
 public class TreeUtils {
 
+    /**
+     * Minimum number of siblings before they are sorted in parallel.
+     */
+    public static final int PARALLEL_SORT_THRESHOLD = 8192;
+
     private TreeUtils() {
     }
 
@@ -57,4 +64,85 @@ public class TreeUtils {
             }
         }
     }
+
+    /**
+     * Sorts children of a node using a {@link TreeNodeComparator}. The sort key of each node is evaluated only once,
+     * wide levels are sorted in parallel and each level is reordered at once via {@link TreeNodeList#setSiblings(TreeNode[])}.
+     * Only the row keys of nodes which moved or have a moved ancestor are updated.
+     *
+     * @param node Node instance whose children to be sorted
+     * @param comparator Comparator to use in sorting
+     */
+    public static void sortNode(TreeNode node, TreeNodeComparator comparator) {
+        sortNode(node, comparator, null);
+    }
+
+    /**
+     * Sorts children of a node like {@link #sortNode(TreeNode, TreeNodeComparator)} and passes every node whose row key
+     * was updated to the given listener, e.g. to update a row key index.
+     *
+     * @param node Node instance whose children to be sorted
+     * @param comparator Comparator to use in sorting
+     * @param rowKeyListener called with every node whose row key changed, may be null
+     */
+    public static void sortNode(TreeNode node, TreeNodeComparator comparator, Consumer<TreeNode> rowKeyListener) {
+        sortNode(node, comparator, rowKeyListener, false);
+    }
+
+    private static void sortNode(TreeNode node, TreeNodeComparator comparator, Consumer<TreeNode> rowKeyListener, boolean moved) {
+        TreeNodeList children = (TreeNodeList) node.getChildren();
+
+        if (children != null && !children.isEmpty()) {
+            int size = children.size();
+            SortEntry[] entries = new SortEntry[size];
+            for (int i = 0; i < size; i++) {
+                TreeNode child = children.get(i);
+                entries[i] = new SortEntry(child, comparator.getSortKey(child));
+            }
+
+            Comparator<SortEntry> entryComparator = (e1, e2) -> comparator.compareSortKeys(e1.key, e2.key);
+            if (size >= PARALLEL_SORT_THRESHOLD && comparator.isConcurrent()) {
+                Arrays.parallelSort(entries, entryComparator);
+            }
+            else {
+                Arrays.sort(entries, entryComparator);
+            }
+
+            TreeNode[] sorted = new TreeNode[size];
+            boolean[] movedChildren = new boolean[size];
+            boolean reordered = false;
+            for (int i = 0; i < size; i++) {
+                sorted[i] = entries[i].node;
+                movedChildren[i] = moved || sorted[i] != children.get(i);
+                reordered |= sorted[i] != children.get(i);
+            }
+
+            if (reordered) {
+                children.setSiblings(sorted);
+            }
+
+            for (int i = 0; i < size; i++) {
+                TreeNode child = sorted[i];
+                if (movedChildren[i]) {
+                    child.setRowKey((node.getParent() == null) ? String.valueOf(i) : node.getRowKey() + "_" + i);
+                    if (rowKeyListener != null) {
+                        rowKeyListener.accept(child);
+                    }
+                }
+
+                sortNode(child, comparator, rowKeyListener, movedChildren[i]);
+            }
+        }
+    }
+
+    private static final class SortEntry {
+
+        private final TreeNode node;
+        private final Object key;
+
+        SortEntry(TreeNode node, Object key) {
+            this.node = node;
+            this.key = key;
+        }
+    }
 }
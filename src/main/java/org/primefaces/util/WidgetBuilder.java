@@ -34,10 +34,19 @@ import java.io.IOException;
  */
 public class WidgetBuilder {
 
+    private static final int BUFFER_SIZE = 512;
+
     protected boolean endFunction = false;
     protected FacesContext context;
     protected PrimeConfiguration configuration;
 
+    /**
+     * Buffer for the fragment of the current call, which is written with a single write to the ResponseWriter.
+     * The WidgetBuilder is shared per request, so the buffers are reused for all widgets.
+     */
+    protected StringBuilder buffer = new StringBuilder(BUFFER_SIZE);
+    private char[] chars = new char[BUFFER_SIZE];
+
     public WidgetBuilder(FacesContext context, PrimeConfiguration configuration) {
         this.context = context;
         this.configuration = configuration;
@@ -55,14 +64,8 @@ public class WidgetBuilder {
     protected WidgetBuilder init(String widgetClass, String widgetVar, String id, boolean endFunction) throws IOException {
         this.endFunction = endFunction;
 
-        ResponseWriter rw = context.getResponseWriter();
-        rw.write("PrimeFaces.cw(\"");
-        rw.write(widgetClass);
-        rw.write("\",\"");
-        rw.write(widgetVar);
-        rw.write("\",{id:\"");
-        rw.write(id);
-        rw.write("\"");
+        buffer.append("PrimeFaces.cw(\"").append(widgetClass).append("\",\"").append(widgetVar).append("\",{id:\"").append(id).append("\"");
+        write();
 
         return this;
     }
@@ -78,7 +81,7 @@ public class WidgetBuilder {
             this.init(widgetClass, widgetVar, id, false);
         }
         else {
-            context.getResponseWriter().write("$(function(){");
+            buffer.append("$(function(){");
             this.init(widgetClass, widgetVar, id, true);
         }
 
@@ -93,7 +96,7 @@ public class WidgetBuilder {
     public WidgetBuilder initWithWindowLoad(String widgetClass, String widgetVar, String id) throws IOException {
 
         this.renderScriptBlock(id);
-        context.getResponseWriter().write("$(window).on(\"load\",function(){");
+        buffer.append("$(window).on(\"load\",function(){");
         this.init(widgetClass, widgetVar, id, true);
 
         return this;
@@ -102,7 +105,7 @@ public class WidgetBuilder {
     public WidgetBuilder initWithComponentLoad(String widgetClass, String widgetVar, String id, String targetId) throws IOException {
 
         this.renderScriptBlock(id);
-        context.getResponseWriter().write("PrimeFaces.onElementLoad($(PrimeFaces.escapeClientId(\"" + targetId + "\")),function(){");
+        buffer.append("PrimeFaces.onElementLoad($(PrimeFaces.escapeClientId(\"").append(targetId).append("\")),function(){");
         this.init(widgetClass, widgetVar, id, true);
 
         return this;
@@ -127,12 +130,9 @@ public class WidgetBuilder {
      */
     public WidgetBuilder selectorAttr(String name, String value) throws IOException {
         if (value != null) {
-            ResponseWriter rw = context.getResponseWriter();
-            rw.write(",");
-            rw.write(name);
-            rw.write(":\"");
-            rw.write(ComponentUtils.escapeSelector(value));
-            rw.write("\"");
+            String escaped = ComponentUtils.escapeSelector(value);
+            buffer.append(',').append(name).append(":\"").append(escaped).append('"');
+            write();
         }
 
         return this;
@@ -140,12 +140,9 @@ public class WidgetBuilder {
 
     public WidgetBuilder attr(String name, String value) throws IOException {
         if (value != null) {
-            ResponseWriter rw = context.getResponseWriter();
-            rw.write(",");
-            rw.write(name);
-            rw.write(":\"");
-            rw.write(EscapeUtils.forJavaScript(value));
-            rw.write("\"");
+            String escaped = EscapeUtils.forJavaScript(value);
+            buffer.append(',').append(name).append(":\"").append(escaped).append('"');
+            write();
         }
 
         return this;
@@ -153,11 +150,8 @@ public class WidgetBuilder {
 
     public WidgetBuilder nativeAttr(String name, String value) throws IOException {
         if (value != null) {
-            ResponseWriter rw = context.getResponseWriter();
-            rw.write(",");
-            rw.write(name);
-            rw.write(":");
-            rw.write(value);
+            buffer.append(',').append(name).append(':').append(value);
+            write();
         }
 
         return this;
@@ -165,11 +159,8 @@ public class WidgetBuilder {
 
     public WidgetBuilder nativeAttr(String name, String value, String defaultValue) throws IOException {
         if (value != null && !value.equals(defaultValue)) {
-            ResponseWriter rw = context.getResponseWriter();
-            rw.write(",");
-            rw.write(name);
-            rw.write(":");
-            rw.write(value);
+            buffer.append(',').append(name).append(':').append(value);
+            write();
         }
 
         return this;
@@ -177,11 +168,8 @@ public class WidgetBuilder {
 
     public WidgetBuilder attr(String name, Boolean value) throws IOException {
         if (value != null) {
-            ResponseWriter rw = context.getResponseWriter();
-            rw.write(",");
-            rw.write(name);
-            rw.write(":");
-            rw.write(Boolean.toString(value));
+            buffer.append(',').append(name).append(':').append(value.booleanValue());
+            write();
         }
 
         return this;
@@ -189,11 +177,17 @@ public class WidgetBuilder {
 
     public WidgetBuilder attr(String name, Number value) throws IOException {
         if (value != null) {
-            ResponseWriter rw = context.getResponseWriter();
-            rw.write(",");
-            rw.write(name);
-            rw.write(":");
-            rw.write(value.toString());
+            buffer.append(',').append(name).append(':');
+            if (value instanceof Integer) {
+                buffer.append(value.intValue());
+            }
+            else if (value instanceof Long) {
+                buffer.append(value.longValue());
+            }
+            else {
+                buffer.append(value.toString());
+            }
+            write();
         }
 
         return this;
@@ -201,12 +195,9 @@ public class WidgetBuilder {
 
     public WidgetBuilder attr(String name, String value, String defaultValue) throws IOException {
         if (value != null && !value.equals(defaultValue)) {
-            ResponseWriter rw = context.getResponseWriter();
-            rw.write(",");
-            rw.write(name);
-            rw.write(":\"");
-            rw.write(EscapeUtils.forJavaScript(value));
-            rw.write("\"");
+            String escaped = EscapeUtils.forJavaScript(value);
+            buffer.append(',').append(name).append(":\"").append(escaped).append('"');
+            write();
         }
 
         return this;
@@ -214,11 +205,8 @@ public class WidgetBuilder {
 
     public WidgetBuilder attr(String name, double value, double defaultValue) throws IOException {
         if (value != defaultValue) {
-            ResponseWriter rw = context.getResponseWriter();
-            rw.write(",");
-            rw.write(name);
-            rw.write(":");
-            rw.write(Double.toString(value));
+            buffer.append(',').append(name).append(':').append(value);
+            write();
         }
 
         return this;
@@ -226,11 +214,8 @@ public class WidgetBuilder {
 
     public WidgetBuilder attr(String name, int value, int defaultValue) throws IOException {
         if (value != defaultValue) {
-            ResponseWriter rw = context.getResponseWriter();
-            rw.write(",");
-            rw.write(name);
-            rw.write(":");
-            rw.write(Integer.toString(value));
+            buffer.append(',').append(name).append(':').append(value);
+            write();
         }
 
         return this;
@@ -238,11 +223,8 @@ public class WidgetBuilder {
 
     public WidgetBuilder attr(String name, boolean value, boolean defaultValue) throws IOException {
         if (value != defaultValue) {
-            ResponseWriter rw = context.getResponseWriter();
-            rw.write(",");
-            rw.write(name);
-            rw.write(":");
-            rw.write(Boolean.toString(value));
+            buffer.append(',').append(name).append(':').append(value);
+            write();
         }
 
         return this;
@@ -250,14 +232,8 @@ public class WidgetBuilder {
 
     public WidgetBuilder callback(String name, String signature, String callback) throws IOException {
         if (callback != null) {
-            ResponseWriter rw = context.getResponseWriter();
-            rw.write(",");
-            rw.write(name);
-            rw.write(":");
-            rw.write(signature);
-            rw.write("{");
-            rw.write(callback);
-            rw.write("}");
+            buffer.append(',').append(name).append(':').append(signature).append('{').append(callback).append('}');
+            write();
         }
 
         return this;
@@ -265,14 +241,8 @@ public class WidgetBuilder {
 
     public WidgetBuilder returnCallback(String name, String signature, String callback) throws IOException {
         if (callback != null) {
-            ResponseWriter rw = context.getResponseWriter();
-            rw.write(",");
-            rw.write(name);
-            rw.write(":");
-            rw.write(signature);
-            rw.write("{return ");
-            rw.write(callback);
-            rw.write("}");
+            buffer.append(',').append(name).append(':').append(signature).append("{return ").append(callback).append('}');
+            write();
         }
 
         return this;
@@ -280,11 +250,8 @@ public class WidgetBuilder {
 
     public WidgetBuilder callback(String name, String callback) throws IOException {
         if (callback != null) {
-            ResponseWriter rw = context.getResponseWriter();
-            rw.write(",");
-            rw.write(name);
-            rw.write(":");
-            rw.write(callback);
+            buffer.append(',').append(name).append(':').append(callback);
+            write();
         }
 
         return this;
@@ -309,13 +276,35 @@ public class WidgetBuilder {
     }
 
     public void finish() throws IOException {
-        ResponseWriter rw = context.getResponseWriter();
-        rw.write("});");
+        buffer.append("});");
 
         if (endFunction) {
-            rw.write("});");
+            buffer.append("});");
+        }
+
+        write();
+        context.getResponseWriter().endElement("script");
+    }
+
+    /**
+     * Writes the buffered fragment with a single call to the ResponseWriter.
+     * Renderers may write to the ResponseWriter directly between the calls of the builder,
+     * so the buffer must not be kept across calls.
+     *
+     * @throws IOException
+     */
+    protected void write() throws IOException {
+        int length = buffer.length();
+        if (length == 0) {
+            return;
+        }
+
+        if (chars.length < length) {
+            chars = new char[Math.max(length, chars.length * 2)];
         }
 
-        rw.endElement("script");
+        buffer.getChars(0, length, chars, 0);
+        buffer.setLength(0);
+        context.getResponseWriter().write(chars, 0, length);
     }
 }
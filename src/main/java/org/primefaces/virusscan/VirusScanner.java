@@ -44,4 +44,20 @@ public interface VirusScanner {
      */
     void performVirusScan(InputStream inputStream) throws VirusException;
 
+    /**
+     * Indicate whether {@link #performVirusScan(InputStream)} may be called concurrently from threads other than the request thread,
+     * so multiple uploaded files can be scanned in parallel. Implementations relying on the current FacesContext must return <code>false</code>.
+     * @return <code>true</code> if scans may run concurrently, <code>false</code> otherwise
+     */
+    default boolean isConcurrent() {
+        return false;
+    }
+
+    /**
+     * Release resources held by this provider, e.g. pooled connections. Called when the application is shut down.
+     */
+    default void release() {
+        // NOOP
+    }
+
 }
@@ -23,24 +23,82 @@
  */
 package org.primefaces.virusscan;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.PushbackInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.ServiceLoader;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import org.primefaces.cache.CacheProvider;
+import org.primefaces.model.file.UploadedFile;
+import org.primefaces.util.Lazy;
+
 /**
  * This service may be used to load registered {@link VirusScanner} providers and perform virus scan.
  */
 public class VirusScannerService {
 
+    /**
+     * Cache region holding the content hashes of files which passed the virus scan.
+     */
+    public static final String CACHE_REGION = "primefaces.virusscan";
+
     private static final Logger LOGGER = Logger.getLogger(VirusScannerService.class.getName());
 
     private final ClassLoader classLoader;
+    private final Lazy<ExecutorService> executor;
+    private final Supplier<CacheProvider> cacheProvider;
+    private final long cacheTtl;
+    private final int cacheSize;
+
+    /**
+     * Expiry of the hashes this service put into the cache, oldest first. As the TTL is fixed, this is also the order of expiry.
+     */
+    private final LinkedHashMap<String, Long> cachedHashes = new LinkedHashMap<>();
 
     public VirusScannerService(ClassLoader classLoader) {
+        this(classLoader, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param classLoader the class loader used to look up {@link VirusScanner} providers
+     * @param threads the maximum number of concurrent scans of {@link VirusScanner#isConcurrent() concurrent} providers
+     */
+    public VirusScannerService(ClassLoader classLoader, int threads) {
+        this(classLoader, threads, null, 0L, 0);
+    }
+
+    /**
+     * @param classLoader the class loader used to look up {@link VirusScanner} providers
+     * @param threads the maximum number of concurrent scans of {@link VirusScanner#isConcurrent() concurrent} providers
+     * @param cacheProvider the cache remembering clean files by their content hash, may be <code>null</code>
+     * @param cacheTtl the number of seconds a clean file is not scanned again, <code>0</code> disables the cache
+     * @param cacheSize the maximum number of hashes kept in the cache, <code>0</code> disables the cache
+     */
+    public VirusScannerService(ClassLoader classLoader, int threads, Supplier<CacheProvider> cacheProvider, long cacheTtl, int cacheSize) {
         this.classLoader = classLoader;
+        this.executor = new Lazy<>(() -> createExecutor(threads));
+        this.cacheProvider = cacheProvider;
+        this.cacheTtl = cacheTtl;
+        this.cacheSize = cacheSize;
     }
 
     /**
@@ -53,37 +111,269 @@ public class VirusScannerService {
             LOGGER.fine("Performing virus scan...");
         }
 
-        // ServiceLoader is not thread-safe so it cannot be cached:
-        // https://docs.oracle.com/javase/7/docs/api/java/util/ServiceLoader.html
-        Iterator<VirusScanner> scanners = ServiceLoader.load(VirusScanner.class, classLoader).iterator();
-        while (scanners.hasNext()) {
-            try {
-                VirusScanner scanner = scanners.next();
-                String clazz = scanner.getClass().getName();
-                if (!scanner.isEnabled()) {
+        for (VirusScanner scanner : getEnabledScanners()) {
+            performVirusScan(scanner, new PushbackInputStream(inputStream));
+        }
+
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine("No virus detected");
+        }
+    }
+
+    /**
+     * Perform virus scan on multiple files and throw exception if at least one registered {@link VirusScanner} provider has detected a virus
+     * in any of them. Files are scanned in parallel by providers supporting {@link VirusScanner#isConcurrent() concurrent} scans.
+     * If the result cache is enabled, files whose content has already passed the scan within the configured TTL are skipped.
+     * @param files the files to perform virus scan on
+     * @throws VirusException if at least one {@link VirusScanner} provider has detected a virus
+     * @throws IOException if the content of a file could not be read
+     */
+    public void performVirusScan(List<UploadedFile> files) throws VirusException, IOException {
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine(String.format("Performing virus scan of %d files...", files.size()));
+        }
+
+        List<VirusScanner> scanners = getEnabledScanners();
+        if (scanners.isEmpty()) {
+            return;
+        }
+
+        List<UploadedFile> pending = files;
+        List<String> hashes = null;
+        if (isCacheEnabled()) {
+            pending = new ArrayList<>(files.size());
+            hashes = new ArrayList<>(files.size());
+            for (UploadedFile file : files) {
+                String hash = hash(file);
+                if (isCleanCached(hash)) {
                     if (LOGGER.isLoggable(Level.FINE)) {
-                        LOGGER.fine(String.format("Skipping virus scan with %s provider since it is disabled", clazz));
+                        LOGGER.fine(String.format("Skipping virus scan of %s since its content has already been scanned", file.getFileName()));
                     }
-                    continue;
                 }
-                if (LOGGER.isLoggable(Level.FINE)) {
-                    LOGGER.fine(String.format("Performing virus scan with %s provider", clazz));
-                }
-                scanner.performVirusScan(new PushbackInputStream(inputStream));
-                if (LOGGER.isLoggable(Level.FINE)) {
-                    LOGGER.fine(String.format("No virus detected with %s provider", clazz));
+                else {
+                    pending.add(file);
+                    hashes.add(hash);
                 }
             }
-            catch (VirusException ex) {
-                if (LOGGER.isLoggable(Level.SEVERE)) {
-                    LOGGER.severe("Detected a virus");
-                }
-                throw ex;
+        }
+
+        performVirusScan(scanners, pending);
+
+        if (hashes != null) {
+            long expiry = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(cacheTtl);
+            for (String hash : hashes) {
+                putClean(hash, expiry);
             }
         }
+
         if (LOGGER.isLoggable(Level.FINE)) {
             LOGGER.fine("No virus detected");
         }
     }
 
+    /**
+     * Stops the threads used for concurrent scans and releases the resources of the registered {@link VirusScanner} providers.
+     */
+    public void release() {
+        if (executor.isInitialized()) {
+            executor.get().shutdownNow();
+        }
+
+        for (VirusScanner scanner : getScanners()) {
+            try {
+                scanner.release();
+            }
+            catch (RuntimeException ex) {
+                if (LOGGER.isLoggable(Level.WARNING)) {
+                    LOGGER.log(Level.WARNING, String.format("Could not release %s provider", scanner.getClass().getName()), ex);
+                }
+            }
+        }
+    }
+
+    protected boolean isCacheEnabled() {
+        return cacheProvider != null && cacheTtl > 0 && cacheSize > 0;
+    }
+
+    /**
+     * Computes the hash identifying the content of the given file in the result cache.
+     * @param file the file
+     * @return the Base64 encoded SHA-256 hash of the file content
+     * @throws IOException if the content of the file could not be read
+     */
+    protected String hash(UploadedFile file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+
+        try (InputStream inputStream = file.getInputStream()) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+
+        return Base64.getEncoder().encodeToString(digest.digest());
+    }
+
+    private boolean isCleanCached(String hash) {
+        Object expiry = cacheProvider.get().get(CACHE_REGION, hash);
+        if (expiry instanceof Long && (Long) expiry > System.currentTimeMillis()) {
+            return true;
+        }
+        if (expiry != null) {
+            cacheProvider.get().remove(CACHE_REGION, hash);
+            synchronized (cachedHashes) {
+                cachedHashes.remove(hash);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Caches a clean result and removes expired hashes as well as the oldest hashes exceeding the cache size from the cache,
+     * so the cache region stays bounded even if the {@link CacheProvider} does not evict on its own.
+     */
+    private void putClean(String hash, long expiry) {
+        List<String> evicted = new ArrayList<>();
+        synchronized (cachedHashes) {
+            cachedHashes.remove(hash);
+            cachedHashes.put(hash, expiry);
+
+            long now = System.currentTimeMillis();
+            Iterator<Map.Entry<String, Long>> entries = cachedHashes.entrySet().iterator();
+            while (entries.hasNext()) {
+                Map.Entry<String, Long> entry = entries.next();
+                if (cachedHashes.size() <= cacheSize && entry.getValue() > now) {
+                    break;
+                }
+                evicted.add(entry.getKey());
+                entries.remove();
+            }
+        }
+
+        CacheProvider cache = cacheProvider.get();
+        cache.put(CACHE_REGION, hash, expiry);
+        for (String key : evicted) {
+            cache.remove(CACHE_REGION, key);
+        }
+    }
+
+    private void performVirusScan(List<VirusScanner> scanners, List<UploadedFile> files) throws VirusException, IOException {
+        List<Future<Void>> scans = new ArrayList<>();
+        try {
+            for (VirusScanner scanner : scanners) {
+                for (UploadedFile file : files) {
+                    if (scanner.isConcurrent() && files.size() > 1) {
+                        scans.add(executor.get().submit(() -> {
+                            performVirusScan(scanner, file);
+                            return null;
+                        }));
+                    }
+                    else {
+                        performVirusScan(scanner, file);
+                    }
+                }
+            }
+
+            for (Future<Void> scan : scans) {
+                scan.get();
+            }
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Virus scan has been interrupted", ex);
+        }
+        catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof VirusException) {
+                throw (VirusException) cause;
+            }
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Cannot perform virus scan", cause);
+        }
+        finally {
+            for (Future<Void> scan : scans) {
+                scan.cancel(true);
+            }
+        }
+    }
+
+    protected List<VirusScanner> getScanners() {
+        List<VirusScanner> scanners = new ArrayList<>();
+
+        // ServiceLoader is not thread-safe so it cannot be cached:
+        // https://docs.oracle.com/javase/7/docs/api/java/util/ServiceLoader.html
+        Iterator<VirusScanner> iterator = ServiceLoader.load(VirusScanner.class, classLoader).iterator();
+        while (iterator.hasNext()) {
+            scanners.add(iterator.next());
+        }
+
+        return scanners;
+    }
+
+    protected List<VirusScanner> getEnabledScanners() {
+        List<VirusScanner> enabled = new ArrayList<>();
+
+        for (VirusScanner scanner : getScanners()) {
+            if (scanner.isEnabled()) {
+                enabled.add(scanner);
+            }
+            else if (LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.fine(String.format("Skipping virus scan with %s provider since it is disabled", scanner.getClass().getName()));
+            }
+        }
+
+        return enabled;
+    }
+
+    protected ExecutorService createExecutor(int threads) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "primefaces-virusscan-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        // bounded queue, if it is full the request thread scans itself
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(threads * 16),
+                threadFactory, new ThreadPoolExecutor.CallerRunsPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    private void performVirusScan(VirusScanner scanner, UploadedFile file) throws VirusException, IOException {
+        try (InputStream inputStream = file.getInputStream()) {
+            performVirusScan(scanner, inputStream);
+        }
+    }
+
+    private void performVirusScan(VirusScanner scanner, InputStream inputStream) throws VirusException {
+        String clazz = scanner.getClass().getName();
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine(String.format("Performing virus scan with %s provider", clazz));
+        }
+        try {
+            scanner.performVirusScan(inputStream);
+        }
+        catch (VirusException ex) {
+            if (LOGGER.isLoggable(Level.SEVERE)) {
+                LOGGER.severe("Detected a virus");
+            }
+            throw ex;
+        }
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine(String.format("No virus detected with %s provider", clazz));
+        }
+    }
 }
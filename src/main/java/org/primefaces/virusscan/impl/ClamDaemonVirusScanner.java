@@ -0,0 +1,379 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2009-2019 PrimeTek
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.virusscan.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.faces.FacesException;
+import javax.faces.context.ExternalContext;
+import javax.faces.context.FacesContext;
+
+import org.primefaces.virusscan.VirusException;
+import org.primefaces.virusscan.VirusScanner;
+
+/**
+ * {@link VirusScanner} provider for a ClamAV daemon (clamd), e.g. running on the same host.
+ * The content is sent via the <code>INSTREAM</code> command, so clamd does not need access to the uploaded files.
+ * Connections are kept open as clamd sessions (<code>IDSESSION</code>) and pooled per configuration; the pools are closed by {@link #release()}.
+ * It requires {@link #CONTEXT_PARAM_HOST} to be specified.
+ */
+public class ClamDaemonVirusScanner implements VirusScanner {
+
+    public static final String CONTEXT_PARAM_HOST = "primefaces.virusscan.CLAMD_HOST";
+    public static final String CONTEXT_PARAM_PORT = "primefaces.virusscan.CLAMD_PORT";
+    public static final String CONTEXT_PARAM_TIMEOUT = "primefaces.virusscan.CLAMD_TIMEOUT";
+    public static final String CONTEXT_PARAM_POOL_SIZE = "primefaces.virusscan.CLAMD_POOL_SIZE";
+
+    private static final Logger LOGGER = Logger.getLogger(ClamDaemonVirusScanner.class.getName());
+
+    private static final int DEFAULT_PORT = 3310;
+    private static final int DEFAULT_TIMEOUT = 30000;
+    private static final int DEFAULT_POOL_SIZE = 4;
+    private static final int CHUNK_SIZE = 8192;
+
+    /**
+     * clamd closes idle sessions after its <code>IdleTimeout</code> (30 seconds by default), so older connections are not reused.
+     */
+    private static final long MAX_IDLE_MILLIS = 10000;
+
+    private static final Map<String, ConnectionPool> POOLS = new ConcurrentHashMap<>();
+
+    private final String host;
+    private final int port;
+    private final int timeout;
+    private final int poolSize;
+
+    public ClamDaemonVirusScanner() {
+        FacesContext context = FacesContext.getCurrentInstance();
+        ExternalContext externalContext = context == null ? null : context.getExternalContext();
+        if (externalContext == null) {
+            host = null;
+            port = DEFAULT_PORT;
+            timeout = DEFAULT_TIMEOUT;
+            poolSize = DEFAULT_POOL_SIZE;
+        }
+        else {
+            host = externalContext.getInitParameter(CONTEXT_PARAM_HOST);
+            String value = externalContext.getInitParameter(CONTEXT_PARAM_PORT);
+            port = value == null ? DEFAULT_PORT : Integer.parseInt(value);
+            value = externalContext.getInitParameter(CONTEXT_PARAM_TIMEOUT);
+            timeout = value == null ? DEFAULT_TIMEOUT : Integer.parseInt(value);
+            value = externalContext.getInitParameter(CONTEXT_PARAM_POOL_SIZE);
+            poolSize = value == null ? DEFAULT_POOL_SIZE : Integer.parseInt(value);
+        }
+    }
+
+    /**
+     * @param host the clamd host
+     * @param port the clamd TCP port
+     * @param timeout the maximum duration of a single scan in milliseconds
+     * @param poolSize the maximum number of concurrent connections to clamd
+     */
+    public ClamDaemonVirusScanner(String host, int port, int timeout, int poolSize) {
+        this.host = host;
+        this.port = port;
+        this.timeout = timeout;
+        this.poolSize = poolSize;
+    }
+
+    /**
+     * Closes the pooled clamd sessions of all instances.
+     */
+    @Override
+    public void release() {
+        for (String key : POOLS.keySet()) {
+            ConnectionPool pool = POOLS.remove(key);
+            if (pool != null) {
+                pool.close();
+            }
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return host != null;
+    }
+
+    @Override
+    public boolean isConcurrent() {
+        return true;
+    }
+
+    @Override
+    public void performVirusScan(InputStream inputStream) throws VirusException {
+        String reply;
+        try {
+            reply = getPool().scan(inputStream, System.currentTimeMillis() + timeout);
+        }
+        catch (IOException ex) {
+            if (LOGGER.isLoggable(Level.WARNING)) {
+                LOGGER.log(Level.WARNING, "Cannot perform virus scan", ex);
+            }
+            throw new FacesException("Cannot perform virus scan", ex);
+        }
+
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine(String.format("Retrieved reply \"%s\".", reply));
+        }
+        if (reply.endsWith("FOUND")) {
+            throw new VirusException();
+        }
+        if (!reply.endsWith("OK")) {
+            throw new FacesException("Cannot perform virus scan: " + reply);
+        }
+    }
+
+    private ConnectionPool getPool() {
+        // keyed by the whole configuration, so instances with another timeout or pool size don't share a pool configured differently
+        return POOLS.computeIfAbsent(host + ":" + port + ":" + timeout + ":" + poolSize, k -> new ConnectionPool(host, port, timeout, poolSize));
+    }
+
+    /**
+     * Pool of clamd sessions, limited to a maximum number of concurrently used connections.
+     */
+    private static class ConnectionPool {
+
+        private final String host;
+        private final int port;
+        private final int timeout;
+        private final Semaphore permits;
+        private final BlockingDeque<Connection> idle = new LinkedBlockingDeque<>();
+        private final ScheduledThreadPoolExecutor watchdog;
+        private volatile boolean closed;
+
+        ConnectionPool(String host, int port, int timeout, int size) {
+            this.host = host;
+            this.port = port;
+            this.timeout = timeout;
+            this.permits = new Semaphore(size, true);
+
+            // aborts scans exceeding their deadline, socket writes cannot time out on their own
+            watchdog = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "primefaces-clamd-watchdog");
+                thread.setDaemon(true);
+                return thread;
+            });
+            watchdog.setKeepAliveTime(60L, TimeUnit.SECONDS);
+            watchdog.allowCoreThreadTimeOut(true);
+            watchdog.setRemoveOnCancelPolicy(true);
+        }
+
+        String scan(InputStream inputStream, long deadline) throws IOException {
+            try {
+                if (!permits.tryAcquire(remaining(deadline), TimeUnit.MILLISECONDS)) {
+                    throw new IOException("Timeout while waiting for a clamd connection");
+                }
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for a clamd connection", ex);
+            }
+
+            Connection connection = null;
+            ScheduledFuture<?> abort = null;
+            try {
+                connection = borrow(deadline);
+                abort = watchdog.schedule(connection::abort, remaining(deadline), TimeUnit.MILLISECONDS);
+                String reply = connection.scan(inputStream, deadline);
+                if (!closed && (reply.endsWith("OK") || reply.endsWith("FOUND"))) {
+                    // clamd may end the session after an error, so only keep healthy connections
+                    idle.offerFirst(connection);
+                    connection = null;
+                }
+                return reply;
+            }
+            catch (IOException ex) {
+                if (remaining(deadline) == 0) {
+                    throw new IOException("Timeout while scanning content with clamd", ex);
+                }
+                throw ex;
+            }
+            finally {
+                if (abort != null) {
+                    abort.cancel(false);
+                }
+                if (connection != null) {
+                    connection.close();
+                }
+                permits.release();
+            }
+        }
+
+        void close() {
+            closed = true;
+            watchdog.shutdownNow();
+            Connection connection;
+            while ((connection = idle.pollFirst()) != null) {
+                connection.close();
+            }
+        }
+
+        private Connection borrow(long deadline) throws IOException {
+            Connection connection;
+            while ((connection = idle.pollFirst()) != null) {
+                if (connection.isUsable()) {
+                    return connection;
+                }
+                connection.close();
+            }
+            return new Connection(host, port, (int) Math.min(timeout, remaining(deadline)));
+        }
+    }
+
+    /**
+     * Single clamd session; commands are prefixed with <code>z</code> and terminated by a null character.
+     */
+    private static class Connection {
+
+        private final SocketChannel channel;
+        private final Socket socket;
+        private final DataOutputStream output;
+        private final InputStream input;
+        private long lastUsed;
+
+        Connection(String host, int port, int connectTimeout) throws IOException {
+            channel = SocketChannel.open();
+            socket = channel.socket();
+            try {
+                socket.connect(new InetSocketAddress(host, port), Math.max(connectTimeout, 1));
+                output = new DataOutputStream(socket.getOutputStream());
+                input = socket.getInputStream();
+                output.write("zIDSESSION\0".getBytes(StandardCharsets.US_ASCII));
+                output.flush();
+            }
+            catch (IOException ex) {
+                socket.close();
+                throw ex;
+            }
+            lastUsed = System.currentTimeMillis();
+        }
+
+        String scan(InputStream inputStream, long deadline) throws IOException {
+            output.write("zINSTREAM\0".getBytes(StandardCharsets.US_ASCII));
+
+            byte[] buffer = new byte[CHUNK_SIZE];
+            int n;
+            while ((n = inputStream.read(buffer)) != -1) {
+                if (remaining(deadline) == 0) {
+                    throw new IOException("Timeout while sending content to clamd");
+                }
+                output.writeInt(n);
+                output.write(buffer, 0, n);
+            }
+            output.writeInt(0);
+            output.flush();
+
+            socket.setSoTimeout((int) Math.max(remaining(deadline), 1));
+            String reply = readReply();
+            lastUsed = System.currentTimeMillis();
+
+            // replies within a session are prefixed with the request number, e.g. "1: stream: OK"
+            int index = reply.indexOf(": ");
+            return index == -1 ? reply : reply.substring(index + 2);
+        }
+
+        boolean isUsable() {
+            if (socket.isClosed() || System.currentTimeMillis() - lastUsed >= MAX_IDLE_MILLIS) {
+                return false;
+            }
+
+            // detect sessions ended by clamd (e.g. restarted), as the content of an upload can only be sent once;
+            // a non-blocking read returns immediately, anything but "no data" means end of stream or unexpected data
+            try {
+                channel.configureBlocking(false);
+                try {
+                    return channel.read(ByteBuffer.allocate(1)) == 0;
+                }
+                finally {
+                    channel.configureBlocking(true);
+                }
+            }
+            catch (IOException ex) {
+                return false;
+            }
+        }
+
+        void abort() {
+            try {
+                socket.close();
+            }
+            catch (IOException ex) {
+                // ignore
+            }
+        }
+
+        void close() {
+            try {
+                if (!socket.isClosed()) {
+                    output.write("zEND\0".getBytes(StandardCharsets.US_ASCII));
+                    output.flush();
+                }
+            }
+            catch (IOException ex) {
+                // ignore, closing anyway
+            }
+            finally {
+                try {
+                    socket.close();
+                }
+                catch (IOException ex) {
+                    // ignore
+                }
+            }
+        }
+
+        private String readReply() throws IOException {
+            ByteArrayOutputStream reply = new ByteArrayOutputStream();
+            int b;
+            while ((b = input.read()) > 0) {
+                reply.write(b);
+            }
+            if (b == -1) {
+                throw new IOException("clamd closed the connection");
+            }
+            return new String(reply.toByteArray(), StandardCharsets.US_ASCII).trim();
+        }
+    }
+
+    private static long remaining(long deadline) {
+        return Math.max(deadline - System.currentTimeMillis(), 0);
+    }
+}
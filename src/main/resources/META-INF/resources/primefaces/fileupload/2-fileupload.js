@@ -52,6 +52,7 @@ PrimeFaces.widget.FileUpload = PrimeFaces.widget.BaseWidget.extend({
             dataType: 'xml',
             dropZone: (this.cfg.dnd === false) ? null : this.jq,
             sequentialUploads: this.cfg.sequentialUploads,
+            maxChunkSize: this.cfg.maxChunkSize,
             formData: function() {
                 return $this.createPostData();
             },
@@ -130,6 +131,13 @@ PrimeFaces.widget.FileUpload = PrimeFaces.widget.BaseWidget.extend({
                     }
                     return;
                 }
+                if($this.cfg.maxChunkSize && (data.retries || 0) < $this.cfg.maxRetries) {
+                    data.retries = (data.retries || 0) + 1;
+                    setTimeout(function() {
+                        $this.resumeUpload(data);
+                    }, $this.cfg.retryTimeout);
+                    return;
+                }
                 if($this.cfg.onerror) {
                     $this.cfg.onerror.call($this, data.jqXHR, data.textStatus, data.jqXHR.pfArgs);
                 }
@@ -214,6 +222,10 @@ PrimeFaces.widget.FileUpload = PrimeFaces.widget.BaseWidget.extend({
         file.row.data('fileId', this.fileId++);
         file.row.data('filedata', data);
 
+        if(this.cfg.maxChunkSize) {
+            data.headers = $.extend({}, data.headers, {'X-File-Id': this.createFileId(file)});
+        }
+
         this.files.push(file);
 
         if(this.cfg.auto) {
@@ -368,10 +380,42 @@ PrimeFaces.widget.FileUpload = PrimeFaces.widget.BaseWidget.extend({
     upload: function() {
         for(var i = 0; i < this.files.length; i++) {
             this.files[i].ajaxRequest = this.files[i].row.data('filedata');
-            this.files[i].ajaxRequest.submit();
+
+            if(this.cfg.maxChunkSize) {
+                this.resumeUpload(this.files[i].ajaxRequest);
+            }
+            else {
+                this.files[i].ajaxRequest.submit();
+            }
         }
     },
 
+    resumeUpload: function(data) {
+        var file = data.files[0];
+
+        PrimeFaces.ajax.Request.handle({
+            source: this.id,
+            process: this.id,
+            global: false,
+            params: [
+                {name: this.id + '_uploadedBytes', value: data.headers['X-File-Id']}
+            ],
+            oncomplete: function(xhr, status, args) {
+                var uploadedBytes = (args && args.uploadedBytes) || 0;
+
+                //a complete but unprocessed upload is sent again
+                data.uploadedBytes = uploadedBytes < file.size ? uploadedBytes : 0;
+                data.data = null;
+                data.submit();
+            }
+        });
+    },
+
+    createFileId: function(file) {
+        //stable across page reloads, so an interrupted upload can be resumed
+        return encodeURIComponent([file.name, file.size, file.lastModified || ''].join('_'));
+    },
+
     createPostData: function() {
         var process = this.cfg.process ? this.id + ' ' + PrimeFaces.expressions.SearchExpressionFacade.resolveComponents(this.cfg.process).join(' ') : this.id;
         var params = this.form.serializeArray();
@@ -534,6 +534,18 @@ PrimeFaces.widget.Timeline = PrimeFaces.widget.DeferredWidget.extend({
         return null;
     },
 
+    /**
+     * Forgets the time range of loaded events, the next range change fires the lazyload event for the visible range.
+     */
+    resetLazyLoading: function() {
+        if (this.lazy) {
+            this.rangeLoadedEvents = {
+                start: null,
+                end: null
+            };
+        }
+    },
+
     /**
      * Force render the timeline component.
      */
@@ -1117,6 +1117,11 @@ PrimeFaces.widget.VerticalTree = PrimeFaces.widget.BaseTree.extend({
      * Ajax filter
      */
     filter: function() {
+        if(!this.cfg.dynamic && !this.cfg.lazy) {
+            this.filterToggle();
+            return;
+        }
+
         var $this = this,
         options = {
             source: this.id,
@@ -1161,6 +1166,70 @@ PrimeFaces.widget.VerticalTree = PrimeFaces.widget.BaseTree.extend({
 
     },
 
+    /**
+     * Ajax filter of a non dynamic tree, all nodes are already rendered so the server only returns the row keys to show.
+     */
+    filterToggle: function() {
+        var $this = this,
+        options = {
+            source: this.id,
+            process: this.id,
+            global: false,
+            formId: this.cfg.formId,
+            params: [{name: this.id + '_filtering', value: true},
+                     {name: this.id + '_filterToggle', value: true},
+                     {name: this.id + '_encodeFeature', value: true}],
+            oncomplete: function(xhr, status, args) {
+                $this.toggleFilteredNodes(args ? args.visibleRowKeys : undefined);
+            }
+        };
+
+        if(this.hasBehavior('filter')) {
+            this.callBehavior('filter', options);
+        }
+        else {
+            PrimeFaces.ajax.Request.handle(options);
+        }
+    },
+
+    toggleFilteredNodes: function(visibleRowKeys) {
+        var nodes = this.container.find('li.ui-treenode');
+
+        if(visibleRowKeys === undefined) {
+            nodes.show();
+            return;
+        }
+
+        var visible = {},
+        expanded = {},
+        keys = visibleRowKeys.length ? visibleRowKeys.split(',') : [];
+        for(var i = 0; i < keys.length; i++) {
+            var key = keys[i],
+            separator = key.lastIndexOf('_');
+
+            visible[key] = true;
+            if(separator > 0) {
+                expanded[key.substring(0, separator)] = true;
+            }
+        }
+
+        for(var j = 0; j < nodes.length; j++) {
+            var node = nodes.eq(j),
+            rowKey = node.attr('data-rowkey');
+
+            if(visible[rowKey]) {
+                node.show();
+
+                if(expanded[rowKey] && !node.hasClass('ui-treenode-leaf')) {
+                    this.showNodeChildren(node);
+                }
+            }
+            else {
+                node.hide();
+            }
+        }
+    },
+
     restoreScrollState: function() {
         var scrollState = this.scrollStateHolder.val(),
         scrollValues = scrollState.split(',');
@@ -184,6 +184,10 @@ PrimeFaces.widget.TreeTable = PrimeFaces.widget.DeferredWidget.extend({
                         widget: $this,
                         handle: function(content) {
                             this.tbody.html(content);
+
+                            if(this.cfg.virtualScroll) {
+                                this.resetVirtualScroll();
+                            }
                         }
                     });
 
@@ -196,6 +200,10 @@ PrimeFaces.widget.TreeTable = PrimeFaces.widget.DeferredWidget.extend({
                         paginator.setTotalRecords(args.totalRecords);
                     }
                 }
+
+                if($this.cfg.virtualScroll) {
+                    $this.updateVirtualScrollHeight(args);
+                }
             }
         };
 
@@ -496,6 +504,10 @@ PrimeFaces.widget.TreeTable = PrimeFaces.widget.DeferredWidget.extend({
                                 sortIcon.removeClass('ui-icon-triangle-1-n').addClass('ui-icon-triangle-1-s');
                             else if(order === 'ASCENDING')
                                 sortIcon.removeClass('ui-icon-triangle-1-s').addClass('ui-icon-triangle-1-n');
+
+                            if(this.cfg.virtualScroll) {
+                                this.resetVirtualScroll();
+                            }
                         }
                     });
 
@@ -520,17 +532,28 @@ PrimeFaces.widget.TreeTable = PrimeFaces.widget.DeferredWidget.extend({
     expandNode: function(node) {
         var $this = this,
         nodeKey = node.attr('data-rk'),
-        options = {
+        params = [{name: this.id + '_expand', value: nodeKey}];
+
+        //the rendered window is replaced instead of inserting the whole subtree
+        if(this.cfg.virtualScroll) {
+            params.push({name: this.id + '_first', value: this.virtualScrollFirst});
+        }
+
+        var options = {
             source: this.id,
             process: this.id,
             update: this.id,
-            params: [
-                {name: this.id + '_expand', value: nodeKey}
-            ],
+            params: params,
             onsuccess: function(responseXML, status, xhr) {
                 PrimeFaces.ajax.Response.handle(responseXML, status, xhr, {
                         widget: $this,
                         handle: function(content) {
+                            if($this.cfg.virtualScroll) {
+                                this.tbody.html(content);
+                                this.indeterminateNodes(this.tbody.children('tr.ui-treetable-partialselected'));
+                                return;
+                            }
+
                             if($this.cfg.expandMode === "self")
                                 node.replaceWith(content);
                             else
@@ -548,8 +571,14 @@ PrimeFaces.widget.TreeTable = PrimeFaces.widget.DeferredWidget.extend({
 
                 return true;
             },
-            oncomplete: function() {
+            oncomplete: function(xhr, status, args) {
                 node.data('processing', false);
+
+                if($this.cfg.virtualScroll) {
+                    $this.updateVirtualScrollPosition(args);
+                    $this.updateVirtualScrollHeight(args);
+                }
+
                 $this.updateVerticalScroll();
             }
         };
@@ -585,6 +614,10 @@ PrimeFaces.widget.TreeTable = PrimeFaces.widget.DeferredWidget.extend({
             this.alignScrollBody();
         }
 
+        if(this.cfg.virtualScroll) {
+            this.loadRowsWithVirtualScroll(this.virtualScrollFirst, [{name: this.id + '_collapse', value: nodeKey}]);
+        }
+
         if(this.hasBehavior('collapse')) {
             var $this = this,
             nodeKey = node.attr('data-rk'),
@@ -971,7 +1004,7 @@ PrimeFaces.widget.TreeTable = PrimeFaces.widget.DeferredWidget.extend({
         this.scrollHeaderBox = this.scrollHeader.children('div.ui-treetable-scrollable-header-box');
         this.scrollFooterBox = this.scrollFooter.children('div.ui-treetable-scrollable-footer-box');
         this.headerTable = this.scrollHeaderBox.children('table');
-        this.bodyTable = this.scrollBody.children('table');
+        this.bodyTable = this.cfg.virtualScroll ? this.scrollBody.children('div').children('table') : this.scrollBody.children('table');
         this.footerTable = this.scrollFooterBox.children('table');
         this.headerCols = this.headerTable.find('> thead > tr > th');
         this.footerCols = this.footerTable.find('> tfoot > tr > td');
@@ -1011,11 +1044,24 @@ PrimeFaces.widget.TreeTable = PrimeFaces.widget.DeferredWidget.extend({
 
         this.updateVerticalScroll();
 
+        if(this.cfg.virtualScroll) {
+            this.virtualScrollFirst = 0;
+            this.rowHeight = this.tbody.children('tr').first().outerHeight();
+            this.updateVirtualScrollHeight();
+        }
+
         this.scrollBody.scroll(function() {
             var scrollLeft = $this.scrollBody.scrollLeft();
             $this.scrollHeaderBox.css('margin-left', -scrollLeft);
             $this.scrollFooterBox.css('margin-left', -scrollLeft);
 
+            if($this.cfg.virtualScroll) {
+                clearTimeout($this.scrollTimeout);
+                $this.scrollTimeout = setTimeout(function() {
+                    $this.onVirtualScroll();
+                }, 200);
+            }
+
             $this.saveScrollState();
         });
 
@@ -1651,6 +1697,82 @@ PrimeFaces.widget.TreeTable = PrimeFaces.widget.DeferredWidget.extend({
         }
     },
 
+    /**
+     * Loads the window of visible rows around the viewport when it is scrolled out of the rendered rows.
+     */
+    onVirtualScroll: function() {
+        if(this.virtualScrollActive) {
+            return;
+        }
+
+        var scrollTop = this.scrollBody.scrollTop(),
+        viewportHeight = this.scrollBody.outerHeight(),
+        tableTop = parseFloat(this.bodyTable.css('top')),
+        tableHeight = this.bodyTable.outerHeight();
+
+        if(scrollTop + viewportHeight > tableTop + tableHeight || scrollTop < tableTop) {
+            var first = Math.max(0, Math.floor(scrollTop / this.rowHeight) - Math.floor(this.cfg.scrollStep / 2));
+            this.loadRowsWithVirtualScroll(first);
+        }
+    },
+
+    loadRowsWithVirtualScroll: function(first, extraParams) {
+        this.virtualScrollActive = true;
+
+        var $this = this,
+        params = [{name: this.id + '_scrolling', value: true},
+                  {name: this.id + '_first', value: first}],
+        options = {
+            source: this.id,
+            process: this.id,
+            update: this.id,
+            formId: this.cfg.formId,
+            params: extraParams ? params.concat(extraParams) : params,
+            onsuccess: function(responseXML, status, xhr) {
+                PrimeFaces.ajax.Response.handle(responseXML, status, xhr, {
+                    widget: $this,
+                    handle: function(content) {
+                        this.tbody.html(content);
+                        this.indeterminateNodes(this.tbody.children('tr.ui-treetable-partialselected'));
+                    }
+                });
+
+                return true;
+            },
+            oncomplete: function(xhr, status, args) {
+                $this.virtualScrollActive = false;
+                $this.updateVirtualScrollPosition(args);
+                $this.updateVirtualScrollHeight(args);
+            }
+        };
+
+        PrimeFaces.ajax.Request.handle(options);
+    },
+
+    /**
+     * Moves the rendered rows to the first row of the window, which the server may have moved into the visible rows.
+     */
+    updateVirtualScrollPosition: function(args) {
+        if(args && typeof args.first !== 'undefined') {
+            this.virtualScrollFirst = args.first;
+            this.bodyTable.css('top', (args.first * this.rowHeight) + 'px');
+        }
+    },
+
+    resetVirtualScroll: function() {
+        this.virtualScrollFirst = 0;
+        this.bodyTable.css('top', '0px');
+        this.scrollBody.scrollTop(0);
+    },
+
+    updateVirtualScrollHeight: function(args) {
+        if(args && typeof args.totalRecords !== 'undefined') {
+            this.cfg.scrollLimit = args.totalRecords;
+        }
+
+        this.scrollBody.children('div').css('height', (this.cfg.scrollLimit * this.rowHeight + 1) + 'px');
+    },
+
     updateVerticalScroll: function() {
         if(this.cfg.scrollable && this.cfg.scrollHeight) {
             if(this.bodyTable.outerHeight() < this.scrollBody.outerHeight()) {
@@ -0,0 +1,159 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2009-2019 PrimeTek
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.application.resource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.matches;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import javax.faces.context.ExternalContext;
+import javax.faces.context.FacesContext;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.primefaces.cache.CacheProvider;
+import org.primefaces.context.PrimeApplicationContext;
+
+public class BaseDynamicContentHandlerTest {
+
+    private BaseDynamicContentHandler handler;
+    private ExternalContext externalContext;
+    private Map<String, String> requestHeaders;
+
+    @BeforeEach
+    public void setup() {
+        handler = new BaseDynamicContentHandler() {
+            @Override
+            public void handle(FacesContext context) {
+            }
+        };
+
+        requestHeaders = new HashMap<>();
+        externalContext = mock(ExternalContext.class);
+        when(externalContext.getRequestHeaderMap()).thenReturn(requestHeaders);
+    }
+
+    @Test
+    public void httpDate() {
+        assertEquals("Fri, 08 Aug 1980 10:00:00 GMT",
+                BaseDynamicContentHandler.HTTP_DATE_FORMAT.format(ZonedDateTime.parse("1980-08-08T12:00:00+02:00")));
+    }
+
+    @Test
+    public void cachePolicy() {
+        handler.handleCache(externalContext, new DynamicContentCachePolicy(86400, true, true));
+
+        verify(externalContext).setResponseHeader("Cache-Control", "private, max-age=86400, immutable");
+        verify(externalContext).setResponseHeader(eq("Expires"), matches("\\w{3}, \\d{2} \\w{3} \\d{4} \\d{2}:\\d{2}:\\d{2} GMT"));
+    }
+
+    @Test
+    public void cachePolicyWithoutMaxAge() {
+        DynamicContentCachePolicy policy = new DynamicContentCachePolicy("no-cache");
+        assertEquals(-1, policy.getMaxAge());
+
+        handler.handleCache(externalContext, policy);
+
+        verify(externalContext).setResponseHeader("Cache-Control", "no-cache");
+        verify(externalContext, never()).setResponseHeader(eq("Expires"), anyString());
+    }
+
+    @Test
+    public void parseMaxAge() {
+        assertEquals(29030400, new DynamicContentCachePolicy(DynamicContentCachePolicy.DEFAULT_CACHE_CONTROL).getMaxAge());
+        assertEquals(60, new DynamicContentCachePolicy(" public, MAX-AGE = 60 , must-revalidate").getMaxAge());
+        assertThrows(IllegalArgumentException.class, () -> new DynamicContentCachePolicy("max-age=forever"));
+    }
+
+    @Test
+    public void noCache() {
+        handler.handleCache(externalContext, (DynamicContentCachePolicy) null);
+
+        verify(externalContext).setResponseHeader("Cache-Control", "no-cache, no-store, must-revalidate");
+        verify(externalContext).setResponseHeader("Pragma", "no-cache");
+    }
+
+    @Test
+    public void eTag() {
+        String eTag = handler.createETag("content".getBytes(StandardCharsets.UTF_8));
+        assertEquals(eTag, handler.createETag("content".getBytes(StandardCharsets.UTF_8)));
+        assertNotEquals(eTag, handler.createETag("changed".getBytes(StandardCharsets.UTF_8)));
+
+        assertFalse(handler.handleETag(externalContext, eTag));
+        verify(externalContext).setResponseHeader("ETag", eTag);
+        verify(externalContext, never()).setResponseStatus(304);
+
+        requestHeaders.put("If-None-Match", "\"other\", " + eTag);
+        assertTrue(handler.handleETag(externalContext, eTag));
+        verify(externalContext).setResponseStatus(304);
+    }
+
+    @Test
+    public void cachedContentLimited() {
+        Map<String, Object> cache = new HashMap<>();
+        CacheProvider cacheProvider = mock(CacheProvider.class);
+        doAnswer(invocation -> cache.put(invocation.getArgument(1), invocation.getArgument(2))).when(cacheProvider).put(anyString(), anyString(), any());
+        doAnswer(invocation -> cache.remove(invocation.getArgument(1))).when(cacheProvider).remove(anyString(), anyString());
+        when(cacheProvider.get(anyString(), anyString())).thenAnswer(invocation -> cache.get(invocation.getArgument(1)));
+        PrimeApplicationContext applicationContext = mock(PrimeApplicationContext.class);
+        when(applicationContext.getCacheProvider()).thenReturn(cacheProvider);
+        when(externalContext.getApplicationMap()).thenReturn(Collections.singletonMap(PrimeApplicationContext.INSTANCE_KEY, applicationContext));
+        FacesContext context = mock(FacesContext.class);
+        when(context.getExternalContext()).thenReturn(externalContext);
+
+        byte[] content = new byte[64 * 1024];
+        for (int i = 0; i < 64; i++) {
+            handler.putCachedContent(context, "key" + i, content);
+        }
+        assertEquals(64, cache.size());
+
+        assertSame(content, handler.getCachedContent(context, "key0"));
+        handler.putCachedContent(context, "key64", content);
+        assertEquals(64, cache.size());
+        assertNotNull(cache.get("key0"));
+        assertNull(cache.get("key1"));
+
+        handler.putCachedContent(context, "large", new byte[64 * 1024 + 1]);
+        assertNull(cache.get("large"));
+    }
+}
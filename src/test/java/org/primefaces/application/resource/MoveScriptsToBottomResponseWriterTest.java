@@ -32,9 +32,10 @@ import org.mockito.InOrder;
 import javax.faces.context.ResponseWriter;
 import java.io.IOException;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.ArgumentMatchers.contains;
-import static org.mockito.ArgumentMatchers.matches;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -46,10 +47,21 @@ public class MoveScriptsToBottomResponseWriterTest {
     private MoveScriptsToBottomResponseWriter writer;
     private MoveScriptsToBottomState state;
     private ResponseWriter wrappedWriter;
+    private StringBuilder output;
 
     @BeforeEach
-    public void setup() {
+    public void setup() throws IOException {
         wrappedWriter = mock(ResponseWriter.class);
+        output = new StringBuilder();
+        doAnswer(invocation -> output.append('<').append((String) invocation.getArgument(0)).append('>'))
+                .when(wrappedWriter).startElement(anyString(), any());
+        doAnswer(invocation -> output.append("</").append((String) invocation.getArgument(0)).append('>'))
+                .when(wrappedWriter).endElement(anyString());
+        doAnswer(invocation -> output.append((String) invocation.getArgument(0)))
+                .when(wrappedWriter).write(anyString());
+        // copy immediately, the buffer is reused
+        doAnswer(invocation -> output.append((char[]) invocation.getArgument(0), (int) invocation.getArgument(1), (int) invocation.getArgument(2)))
+                .when(wrappedWriter).write(any(char[].class), anyInt(), anyInt());
         state = new MoveScriptsToBottomState();
         writer = new MoveScriptsToBottomResponseWriter(wrappedWriter, state);
     }
@@ -87,7 +99,7 @@ public class MoveScriptsToBottomResponseWriterTest {
         writer.endElement("script");
         verify(wrappedWriter, never()).endElement("script");
 
-        Assertions.assertEquals(1, state.getInlines().get("text/javascript").size());
+        Assertions.assertEquals("inline;", state.getInlines().get("text/javascript").toString());
         Assertions.assertTrue(state.getIncludes().isEmpty());
         Assertions.assertEquals(0, state.getSavedInlineTags());
 
@@ -95,7 +107,7 @@ public class MoveScriptsToBottomResponseWriterTest {
         verify(wrappedWriter).endElement("body");
 
         verify(wrappedWriter).startElement("script", null);
-        verify(wrappedWriter).write("inline;");
+        Assertions.assertTrue(output.toString().contains("<script>inline;</script>"));
         verify(wrappedWriter).endElement("script");
 
         writer.endElement("html");
@@ -115,14 +127,14 @@ public class MoveScriptsToBottomResponseWriterTest {
         writer.writeText("script2", null);
         writer.endElement("script");
 
-        Assertions.assertEquals(2, state.getInlines().get("text/javascript").size());
+        Assertions.assertEquals("script1;\nscript2;", state.getInlines().get("text/javascript").toString());
         Assertions.assertTrue(state.getIncludes().isEmpty());
         Assertions.assertEquals(1, state.getSavedInlineTags());
 
         writer.endElement("body");
 
         verify(wrappedWriter).startElement("script", null);
-        verify(wrappedWriter).write(matches("(?s).*script1.*script2.*"));
+        Assertions.assertTrue(output.toString().matches("(?s).*<script>script1;\nscript2;</script>.*"));
         verify(wrappedWriter).endElement("body");
     }
 
@@ -152,8 +164,8 @@ public class MoveScriptsToBottomResponseWriterTest {
         writer.endElement("body");
 
         verify(wrappedWriter, times(2)).startElement("script", null);
-        verify(wrappedWriter).write(matches("(?s).*javascript1.*javascript2(?!.*vertex.*).*"));
-        verify(wrappedWriter).write(matches("(?s)(?!.*javascript.*).*vertex.*"));
+        Assertions.assertTrue(output.toString().contains("<script>javascript1;\njavascript2;</script>"));
+        Assertions.assertTrue(output.toString().contains("<script>vertex;</script>"));
         verify(wrappedWriter, times(2)).endElement("script");
     }
 
@@ -190,7 +202,27 @@ public class MoveScriptsToBottomResponseWriterTest {
 
         writer.endElement("body");
 
-        verify(wrappedWriter).write(contains("pf.settings pf.cw pf.ab pf ;"));
+        Assertions.assertTrue(output.toString().contains("pf.settings pf.cw pf.ab pf ;"));
+    }
+
+    @Test
+    public void testLargeInlineScriptMinimization() throws IOException {
+        writer.startElement("body", null);
+
+        StringBuilder script = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            script.append("PrimeFaces.cw('Widget',").append(i).append(");for(;;){}\n");
+            expected.append("pf.cw('Widget',").append(i).append(");for(;;){}\n");
+        }
+
+        writer.startElement("script", null);
+        writer.write(script.toString());
+        writer.endElement("script");
+
+        writer.endElement("body");
+
+        Assertions.assertTrue(output.toString().contains("var pf=window.PrimeFaces;" + expected + ";if(window.$)"));
     }
 
     @Test
@@ -240,10 +272,10 @@ public class MoveScriptsToBottomResponseWriterTest {
         writer.endElement("body");
 
         Assertions.assertEquals(1, state.getIncludes().get("text/javascript").size());
-        Assertions.assertEquals(1, state.getInlines().get("text/javascript").size());
+        Assertions.assertEquals("inline;", state.getInlines().get("text/javascript").toString());
         verify(wrappedWriter, times(2)).startElement("script", null);
         verify(wrappedWriter).writeAttribute("src", "include", null);
-        verify(wrappedWriter).write(contains("inline"));
+        Assertions.assertTrue(output.toString().contains("inline"));
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,399 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2009-2019 PrimeTek
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.application.resource;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import javax.faces.application.Application;
+import javax.faces.application.ProjectStage;
+import javax.faces.application.Resource;
+import javax.faces.application.ResourceHandler;
+import javax.faces.context.ExternalContext;
+import javax.faces.context.FacesContext;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.primefaces.config.PrimeConfiguration;
+import org.primefaces.config.PrimeEnvironment;
+import org.primefaces.context.PrimeApplicationContext;
+import org.primefaces.util.Constants;
+import org.primefaces.util.ResourceUtils;
+
+public class PrimeResourceHandlerTest {
+
+    private static final String CSS;
+
+    static {
+        StringBuilder css = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            css.append(".ui-widget-").append(i).append(" { color: #333; }\n");
+        }
+        CSS = css.toString();
+    }
+
+    private PrimeConfiguration config;
+    private FacesContext context;
+    private ExternalContext externalContext;
+    private Map<String, String> requestHeaders;
+    private Resource resource;
+    private ResourceHandler wrapped;
+    private PrimeResourceHandler handler;
+    private ByteArrayOutputStream output;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        config = mock(PrimeConfiguration.class);
+        when(config.isResourceCacheEnabled()).thenReturn(true);
+        PrimeApplicationContext applicationContext = mock(PrimeApplicationContext.class);
+        when(applicationContext.getConfig()).thenReturn(config);
+        PrimeEnvironment environment = mock(PrimeEnvironment.class);
+        when(environment.getBuildVersion()).thenReturn("7.1");
+        when(applicationContext.getEnvironment()).thenReturn(environment);
+
+        Map<String, Object> applicationMap = new HashMap<>();
+        applicationMap.put(PrimeApplicationContext.INSTANCE_KEY, applicationContext);
+
+        Map<String, String> params = new HashMap<>();
+        params.put("ln", "primefaces-aristo");
+        requestHeaders = new HashMap<>();
+        output = new ByteArrayOutputStream();
+
+        externalContext = mock(ExternalContext.class);
+        when(externalContext.getApplicationMap()).thenReturn(applicationMap);
+        when(externalContext.getRequestParameterMap()).thenReturn(params);
+        when(externalContext.getRequestHeaderMap()).thenReturn(requestHeaders);
+        when(externalContext.getRequestServletPath()).thenReturn("/javax.faces.resource/theme.css.xhtml");
+        when(externalContext.getResponseOutputStream()).thenReturn(output);
+
+        context = mock(FacesContext.class);
+        when(context.getExternalContext()).thenReturn(externalContext);
+        when(context.isProjectStage(ProjectStage.Production)).thenReturn(true);
+
+        resource = mock(Resource.class);
+        when(resource.getContentType()).thenReturn("text/css");
+        when(resource.getInputStream()).thenAnswer(invocation -> new ByteArrayInputStream(CSS.getBytes(StandardCharsets.UTF_8)));
+        when(resource.getResponseHeaders()).thenReturn(Collections.singletonMap("ETag", "W/\"weak\""));
+
+        wrapped = mock(ResourceHandler.class);
+        when(wrapped.createResource("theme.css", "primefaces-aristo")).thenReturn(resource);
+        handler = new PrimeResourceHandler(wrapped);
+        CurrentInstance.set(context);
+    }
+
+    @AfterEach
+    public void teardown() {
+        CurrentInstance.set(null);
+    }
+
+    @Test
+    public void servesGzipVariant() throws IOException {
+        requestHeaders.put("Accept-Encoding", "gzip, deflate, br");
+
+        handler.handleResourceRequest(context);
+
+        verify(externalContext).setResponseHeader("Content-Encoding", "gzip");
+        verify(externalContext, never()).setResponseHeader("ETag", "W/\"weak\"");
+        verify(wrapped, never()).handleResourceRequest(context);
+        Assertions.assertEquals(CSS, gunzip(output.toByteArray()));
+    }
+
+    @Test
+    public void servesIdentityVariant() throws IOException {
+        handler.handleResourceRequest(context);
+
+        verify(externalContext, never()).setResponseHeader("Content-Encoding", "gzip");
+        Assertions.assertEquals(CSS, new String(output.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void notModified() throws IOException {
+        handler.handleResourceRequest(context);
+        String etag = CachedResource.create(resource).getETag(false);
+
+        output.reset();
+        requestHeaders.put("If-None-Match", etag);
+        handler.handleResourceRequest(context);
+
+        verify(externalContext).setResponseStatus(304);
+        Assertions.assertEquals(0, output.size());
+        // once by the handler, once by this test
+        verify(resource, times(2)).getInputStream();
+    }
+
+    @Test
+    public void developmentStageDelegated() throws IOException {
+        when(context.isProjectStage(ProjectStage.Production)).thenReturn(false);
+        when(context.isProjectStage(ProjectStage.Development)).thenReturn(true);
+
+        handler.handleResourceRequest(context);
+
+        verify(wrapped).handleResourceRequest(context);
+    }
+
+    @Test
+    public void resourceName() {
+        when(externalContext.getRequestServletPath()).thenReturn("/faces");
+        when(externalContext.getRequestPathInfo()).thenReturn("/javax.faces.resource/jquery/jquery.js");
+        Assertions.assertEquals("jquery/jquery.js", handler.getResourceName(externalContext));
+
+        when(externalContext.getRequestServletPath()).thenReturn("/javax.faces.resource/jquery/jquery.js.xhtml");
+        when(externalContext.getRequestPathInfo()).thenReturn(null);
+        Assertions.assertEquals("jquery/jquery.js", handler.getResourceName(externalContext));
+    }
+
+    @Test
+    public void gzipAccepted() {
+        Assertions.assertTrue(PrimeResourceHandler.isGzipAccepted("gzip, deflate, br"));
+        Assertions.assertTrue(PrimeResourceHandler.isGzipAccepted("deflate;q=1.0, GZIP;q=0.5"));
+        Assertions.assertTrue(PrimeResourceHandler.isGzipAccepted("*"));
+        Assertions.assertFalse(PrimeResourceHandler.isGzipAccepted("gzip;q=0"));
+        Assertions.assertFalse(PrimeResourceHandler.isGzipAccepted("identity"));
+        Assertions.assertFalse(PrimeResourceHandler.isGzipAccepted(null));
+    }
+
+    @Test
+    public void etagMatched() {
+        Assertions.assertTrue(PrimeResourceHandler.isETagMatched("\"abc\"", "\"abc\""));
+        Assertions.assertTrue(PrimeResourceHandler.isETagMatched("\"xyz\", W/\"abc\"", "\"abc\""));
+        Assertions.assertTrue(PrimeResourceHandler.isETagMatched("*", "\"abc\""));
+        Assertions.assertFalse(PrimeResourceHandler.isETagMatched("\"abc-gzip\"", "\"abc\""));
+        Assertions.assertFalse(PrimeResourceHandler.isETagMatched(null, "\"abc\""));
+    }
+
+    @Test
+    public void smallOrBinaryResourcesNotCompressed() throws IOException {
+        Assertions.assertNull(new CachedResource("text/css", "a{}".getBytes(StandardCharsets.UTF_8)).getGzipContent());
+        Assertions.assertNull(new CachedResource("image/png", CSS.getBytes(StandardCharsets.UTF_8)).getGzipContent());
+        Assertions.assertNotNull(new CachedResource("application/javascript", CSS.getBytes(StandardCharsets.UTF_8)).getGzipContent());
+    }
+
+    @Test
+    public void fingerprintedRequestPath() throws IOException {
+        when(config.isResourceFingerprintEnabled()).thenReturn(true);
+        when(resource.getLibraryName()).thenReturn("primefaces-aristo");
+        when(resource.getResourceName()).thenReturn("theme.css");
+        when(resource.getRequestPath()).thenReturn("/javax.faces.resource/theme.css.xhtml?ln=primefaces-aristo");
+
+        PrimeResource wrappedResource = (PrimeResource) handler.wrapResource(context, resource, "primefaces-aristo");
+        String fingerprint = wrappedResource.getFingerprint();
+
+        Assertions.assertEquals(16, fingerprint.length());
+        Assertions.assertEquals("/javax.faces.resource/theme.css.xhtml?ln=primefaces-aristo&v=" + fingerprint, wrappedResource.getRequestPath());
+
+        // computed only once
+        handler.wrapResource(context, resource, "primefaces-aristo");
+        verify(resource, times(1)).getInputStream();
+    }
+
+    @Test
+    public void fingerprintedResponseImmutable() throws IOException {
+        when(config.isResourceFingerprintEnabled()).thenReturn(true);
+        when(resource.getLibraryName()).thenReturn("primefaces-aristo");
+        when(resource.getResourceName()).thenReturn("theme.css");
+        String fingerprint = ((PrimeResource) handler.wrapResource(context, resource, "primefaces-aristo")).getFingerprint();
+
+        handler.handleResourceRequest(context);
+        verify(externalContext, never()).setResponseHeader("Cache-Control", PrimeResource.IMMUTABLE_CACHE_CONTROL);
+
+        externalContext.getRequestParameterMap().put("v", fingerprint);
+        handler.handleResourceRequest(context);
+        verify(externalContext).setResponseHeader("Cache-Control", PrimeResource.IMMUTABLE_CACHE_CONTROL);
+    }
+
+    @Test
+    public void bundle() throws IOException {
+        when(config.isResourceFingerprintEnabled()).thenReturn(true);
+        mockResource("jquery/jquery.js", "var jQuery = {}");
+        mockResource("core.js", "var PrimeFaces = {} // no line break");
+        externalContext.getRequestParameterMap().put("ln", "primefaces");
+        externalContext.getRequestParameterMap().put(Constants.RESOURCE_BUNDLE_PARAM, "jquery/jquery.js,core.js");
+        externalContext.getRequestParameterMap().put("v", bundleVersion("jquery/jquery.js", "core.js"));
+
+        // served without the bundle having been rendered by this handler, e.g. after a restart or by another node of a cluster
+        handler.handleResourceRequest(context);
+
+        verify(externalContext).setResponseContentType("application/javascript");
+        verify(externalContext).setResponseHeader("Cache-Control", PrimeResource.IMMUTABLE_CACHE_CONTROL);
+        Assertions.assertEquals("var jQuery = {}\n;\nvar PrimeFaces = {} // no line break\n;\n", new String(output.toByteArray(), StandardCharsets.UTF_8));
+        verify(wrapped, never()).handleResourceRequest(context);
+    }
+
+    @Test
+    public void bundleHeadersOfResourcesNotApplied() throws IOException {
+        mockResource("jquery/jquery.js", "var jQuery = {}");
+        mockResource("core.js", "var PrimeFaces = {}");
+        when(wrapped.createResource("jquery/jquery.js", "primefaces").getResponseHeaders())
+                .thenReturn(Collections.singletonMap("Expires", "Thu, 01 Jan 2099 00:00:00 GMT"));
+        externalContext.getRequestParameterMap().put("ln", "primefaces");
+        externalContext.getRequestParameterMap().put(Constants.RESOURCE_BUNDLE_PARAM, "jquery/jquery.js,core.js");
+        externalContext.getRequestParameterMap().put("v", "outdated");
+
+        handler.handleResourceRequest(context);
+
+        verify(externalContext, never()).setResponseHeader(eq("Expires"), anyString());
+        verify(externalContext).setResponseHeader("Cache-Control", "no-cache");
+    }
+
+    @Test
+    public void bundleUnknownResourceLeftOut() throws IOException {
+        when(config.isResourceFingerprintEnabled()).thenReturn(true);
+        mockResource("core.js", "var PrimeFaces = {}");
+        externalContext.getRequestParameterMap().put("ln", "primefaces");
+        externalContext.getRequestParameterMap().put(Constants.RESOURCE_BUNDLE_PARAM, "removed.js,core.js");
+        externalContext.getRequestParameterMap().put("v", bundleVersion("core.js"));
+
+        handler.handleResourceRequest(context);
+
+        verify(externalContext).setResponseStatus(200);
+        verify(externalContext).setResponseHeader("Cache-Control", "no-cache");
+        Assertions.assertEquals("var PrimeFaces = {}\n;\n", new String(output.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void bundleWithoutResourcesRejected() throws IOException {
+        externalContext.getRequestParameterMap().put("ln", "primefaces");
+        externalContext.getRequestParameterMap().put(Constants.RESOURCE_BUNDLE_PARAM, "removed.js,other.js");
+
+        handler.handleResourceRequest(context);
+
+        verify(externalContext).setResponseStatus(404);
+        Assertions.assertEquals(0, output.size());
+    }
+
+    @Test
+    public void bundleMixedTypesRejected() throws IOException {
+        mockResource("core.js", "var PrimeFaces = {}");
+        mockResource("components.css", ".ui-widget {}");
+        externalContext.getRequestParameterMap().put("ln", "primefaces");
+        externalContext.getRequestParameterMap().put(Constants.RESOURCE_BUNDLE_PARAM, "core.js,components.css");
+
+        handler.handleResourceRequest(context);
+
+        verify(externalContext).setResponseStatus(404);
+        verify(wrapped, never()).createResource("core.js", "primefaces");
+        Assertions.assertEquals(0, output.size());
+    }
+
+    @Test
+    public void bundleOtherLibraryRejected() throws IOException {
+        externalContext.getRequestParameterMap().put(Constants.RESOURCE_BUNDLE_PARAM, "theme.css,other.css");
+
+        handler.handleResourceRequest(context);
+
+        verify(externalContext).setResponseStatus(404);
+        verify(wrapped, never()).createResource("theme.css", "primefaces-aristo");
+    }
+
+    @Test
+    public void bundleBounded() {
+        Assertions.assertNotNull(ResourceUtils.getBundleResourceNames(String.join(",", Collections.nCopies(ResourceUtils.MAX_BUNDLE_SIZE, "core.js"))));
+        Assertions.assertNull(ResourceUtils.getBundleResourceNames(String.join(",", Collections.nCopies(ResourceUtils.MAX_BUNDLE_SIZE + 1, "core.js"))));
+        StringBuilder longName = new StringBuilder();
+        while (longName.length() <= ResourceUtils.MAX_BUNDLE_LENGTH) {
+            longName.append("long/");
+        }
+        Assertions.assertNull(ResourceUtils.getBundleResourceNames(longName + "core.js"));
+        Assertions.assertNull(ResourceUtils.getBundleResourceNames("core.js,,components.js"));
+        Assertions.assertNull(ResourceUtils.getBundleResourceNames("core.js,image.png"));
+    }
+
+    @Test
+    public void bundleVersionCoversAllResources() throws IOException {
+        when(config.isResourceFingerprintEnabled()).thenReturn(true);
+        Application application = mock(Application.class);
+        when(context.getApplication()).thenReturn(application);
+        mockResource("jquery/jquery.js", "var jQuery = {}");
+        mockResource("core.js", "var PrimeFaces = {}");
+        when(application.getResourceHandler()).thenReturn(handler);
+        List<String> resourceNames = Arrays.asList("jquery/jquery.js", "core.js");
+
+        String requestPath = ResourceUtils.getBundleRequestPath(context, resourceNames);
+
+        // only the content of the last resource changes
+        mockResource("core.js", "var PrimeFaces = {version: 2}");
+        when(application.getResourceHandler()).thenReturn(new PrimeResourceHandler(wrapped));
+        String changedRequestPath = ResourceUtils.getBundleRequestPath(context, resourceNames);
+
+        Assertions.assertTrue(requestPath.startsWith("/javax.faces.resource/jquery/jquery.js.xhtml?ln=primefaces&pfbundle="));
+        Assertions.assertEquals(requestPath.substring(0, requestPath.indexOf("&v=")), changedRequestPath.substring(0, changedRequestPath.indexOf("&v=")));
+        Assertions.assertNotEquals(requestPath, changedRequestPath);
+    }
+
+    private String bundleVersion(String... resourceNames) {
+        List<Resource> resources = new ArrayList<>();
+        for (String resourceName : resourceNames) {
+            resources.add(handler.createResource(resourceName, "primefaces"));
+        }
+        return ResourceUtils.getBundleVersion(context, resources);
+    }
+
+    private void mockResource(String name, String content) throws IOException {
+        Resource mock = mock(Resource.class);
+        when(mock.getContentType()).thenReturn(name.endsWith(".js") ? "application/javascript" : "text/css");
+        when(mock.getInputStream()).thenAnswer(invocation -> new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+        when(mock.getResponseHeaders()).thenReturn(Collections.emptyMap());
+        when(mock.getLibraryName()).thenReturn("primefaces");
+        when(mock.getResourceName()).thenReturn(name);
+        when(mock.getRequestPath()).thenReturn("/javax.faces.resource/" + name + ".xhtml?ln=primefaces");
+        when(wrapped.createResource(name, "primefaces")).thenReturn(mock);
+    }
+
+    private static String gunzip(byte[] content) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(content))) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            int b;
+            while ((b = in.read()) != -1) {
+                out.write(b);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private abstract static class CurrentInstance extends FacesContext {
+
+        static void set(FacesContext context) {
+            setCurrentInstance(context);
+        }
+    }
+}
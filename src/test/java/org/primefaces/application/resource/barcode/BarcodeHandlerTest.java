@@ -0,0 +1,190 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2009-2019 PrimeTek
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.application.resource.barcode;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import javax.faces.context.ExternalContext;
+import javax.faces.context.FacesContext;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.primefaces.application.resource.DynamicContentCachePolicy;
+import org.primefaces.application.resource.QRCodeHandler;
+import org.primefaces.cache.CacheProvider;
+import org.primefaces.config.PrimeConfiguration;
+import org.primefaces.config.PrimeEnvironment;
+import org.primefaces.context.PrimeApplicationContext;
+import org.primefaces.util.Constants;
+
+public class BarcodeHandlerTest {
+
+    private PrimeConfiguration config;
+    private CacheProvider cacheProvider;
+    private FacesContext context;
+    private ExternalContext externalContext;
+    private Map<String, String> params;
+    private Map<String, String> requestHeaders;
+    private Map<String, String> responseHeaders;
+    private ByteArrayOutputStream output;
+    private int generated;
+    private BarcodeHandler handler;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        config = mock(PrimeConfiguration.class);
+        when(config.getDynamicContentCachePolicy()).thenReturn(new DynamicContentCachePolicy(DynamicContentCachePolicy.DEFAULT_CACHE_CONTROL));
+        when(config.isBarcodeCacheEnabled()).thenReturn(true);
+        Map<String, Object> cache = new HashMap<>();
+        cacheProvider = mock(CacheProvider.class);
+        doAnswer(invocation -> cache.put(invocation.getArgument(1), invocation.getArgument(2))).when(cacheProvider).put(anyString(), anyString(), any());
+        when(cacheProvider.get(anyString(), anyString())).thenAnswer(invocation -> cache.get(invocation.getArgument(1)));
+        PrimeEnvironment environment = mock(PrimeEnvironment.class);
+        when(environment.getBuildVersion()).thenReturn("7.1");
+        PrimeApplicationContext applicationContext = mock(PrimeApplicationContext.class);
+        when(applicationContext.getConfig()).thenReturn(config);
+        when(applicationContext.getEnvironment()).thenReturn(environment);
+        when(applicationContext.getCacheProvider()).thenReturn(cacheProvider);
+
+        Map<String, Object> applicationMap = new HashMap<>();
+        applicationMap.put(PrimeApplicationContext.INSTANCE_KEY, applicationContext);
+        Map<String, Object> sessionMap = new HashMap<>();
+        sessionMap.put(Constants.BARCODE_MAPPING, new HashMap<>(Collections.singletonMap("key", "4006381333931")));
+
+        params = new HashMap<>();
+        params.put(Constants.DYNAMIC_CONTENT_PARAM, "key");
+        params.put(Constants.DYNAMIC_CONTENT_CACHE_PARAM, "true");
+        params.put("gen", "ean13");
+        params.put("fmt", "svg");
+        params.put("hrp", "bottom");
+        params.put("ori", "0");
+        requestHeaders = new HashMap<>();
+        responseHeaders = new HashMap<>();
+
+        externalContext = mock(ExternalContext.class);
+        when(externalContext.getApplicationMap()).thenReturn(applicationMap);
+        when(externalContext.getSessionMap()).thenReturn(sessionMap);
+        when(externalContext.getRequestParameterMap()).thenReturn(params);
+        when(externalContext.getRequestHeaderMap()).thenReturn(requestHeaders);
+        when(externalContext.getResponseOutputStream()).thenAnswer(invocation -> output);
+        doAnswer(invocation -> responseHeaders.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(externalContext).setResponseHeader(anyString(), anyString());
+
+        context = mock(FacesContext.class);
+        when(context.getExternalContext()).thenReturn(externalContext);
+
+        handler = new BarcodeHandler() {
+            @Override
+            protected byte[] generate(BarcodeGenerator generator, String format, String hrp, int orientation, String value) throws Exception {
+                generated++;
+                return super.generate(generator, format, hrp, orientation, value);
+            }
+        };
+    }
+
+    @Test
+    public void svg() throws IOException {
+        String svg = request();
+        assertTrue(svg.contains("<svg"), svg);
+        assertTrue(svg.contains(">333931<"), svg);
+        verify(externalContext).setResponseContentType("image/svg+xml");
+        assertEquals(DynamicContentCachePolicy.DEFAULT_CACHE_CONTROL, responseHeaders.get("Cache-Control"));
+        assertNotNull(responseHeaders.get("ETag"));
+    }
+
+    @Test
+    public void cachedImage() throws IOException {
+        String svg = request();
+        assertEquals(svg, request());
+        assertEquals(1, generated);
+
+        params.put("hrp", "none");
+        assertNotEquals(svg, request());
+        assertEquals(2, generated);
+    }
+
+    @Test
+    public void cacheDisabled() throws IOException {
+        when(config.isBarcodeCacheEnabled()).thenReturn(false);
+
+        String svg = request();
+        assertEquals(svg, request());
+        assertEquals(2, generated);
+        verify(cacheProvider, never()).put(anyString(), anyString(), any());
+    }
+
+    @Test
+    public void notModified() throws IOException {
+        request();
+        String eTag = responseHeaders.get("ETag");
+
+        requestHeaders.put("If-None-Match", eTag);
+        assertEquals("", request());
+        verify(externalContext).setResponseStatus(304);
+        assertEquals(1, generated);
+    }
+
+    @Test
+    public void png() throws IOException {
+        params.put("fmt", "png");
+        request();
+
+        byte[] png = output.toByteArray();
+        assertEquals((byte) 0x89, png[0]);
+        assertEquals("PNG", new String(png, 1, 3, StandardCharsets.US_ASCII));
+        verify(externalContext).setResponseContentType("image/png");
+    }
+
+    @Test
+    public void image() throws Exception {
+        byte[] png = handler.getImage(context, "code128", "png", "none", 90, "PF-7.1");
+        assertEquals("PNG", new String(png, 1, 3, StandardCharsets.US_ASCII));
+        assertSame(png, handler.getImage(context, "code128", "png", "none", 90, "PF-7.1"));
+        assertEquals(1, generated);
+
+        assertThrows(IllegalArgumentException.class, () -> handler.getImage(context, "unknown", "png", "none", 0, "PF-7.1"));
+    }
+
+    @Test
+    public void qrImage() {
+        QRCodeHandler qrCodeHandler = new QRCodeHandler();
+        byte[] png = qrCodeHandler.getImage(context, "M", "https://www.primefaces.org");
+        assertEquals("PNG", new String(png, 1, 3, StandardCharsets.US_ASCII));
+        assertSame(png, qrCodeHandler.getImage(context, "M", "https://www.primefaces.org"));
+        assertNotSame(png, qrCodeHandler.getImage(context, null, "https://www.primefaces.org"));
+    }
+
+    private String request() throws IOException {
+        output = new ByteArrayOutputStream();
+        handler.handle(context);
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2009-2019 PrimeTek
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.behavior.ajax;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import javax.el.ValueExpression;
+import javax.faces.component.UIComponent;
+import javax.faces.component.UIForm;
+import javax.faces.context.ExternalContext;
+import javax.faces.context.FacesContext;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.primefaces.component.api.ClientBehaviorRenderingMode;
+
+public class AjaxBehaviorScriptTemplateTest {
+
+    private static final ClientBehaviorRenderingMode MODE = ClientBehaviorRenderingMode.OBSTRUSIVE;
+
+    private FacesContext context;
+    private UIForm form;
+    private UIComponent component;
+
+    @BeforeEach
+    public void setup() {
+        context = mock(FacesContext.class);
+        when(context.getAttributes()).thenReturn(new HashMap<>());
+        when(context.getExternalContext()).thenReturn(mock(ExternalContext.class));
+
+        form = mock(UIForm.class);
+        when(form.getClientId(context)).thenReturn("rep:0:frm");
+
+        component = mock(UIComponent.class);
+        when(component.getParent()).thenReturn(form);
+        when(component.getClientId(context)).thenReturn("rep:0:frm:tbl:0:btn");
+    }
+
+    @Test
+    public void apply() {
+        AjaxBehavior behavior = new AjaxBehavior();
+        behavior.setProcess("@this :frm2:input");
+        behavior.setUpdate("@form");
+        behavior.setOncomplete("alert(\"rep:0:frm:tbl:0:btn\")");
+
+        String script = "PrimeFaces.ab({s:\"rep:0:frm:tbl:0:btn\",e:\"click\",f:\"rep:0:frm\",p:\"rep:0:frm:tbl:0:btn frm2:input\",u:\"rep:0:frm\""
+                + ",onco:function(xhr,status,args,data){alert(\"rep:0:frm:tbl:0:btn\");}});";
+        AjaxBehaviorScriptTemplate template = create(behavior, script);
+
+        assertTrue(template.matches(component, "click", MODE, null));
+        assertFalse(template.matches(component, "change", MODE, null));
+        assertFalse(template.matches(component, "click", ClientBehaviorRenderingMode.UNOBSTRUSIVE, null));
+        assertFalse(template.matches(mock(UIComponent.class), "click", MODE, null));
+
+        assertEquals(script, template.apply("rep:0:frm:tbl:0:btn"));
+        assertEquals("PrimeFaces.ab({s:\"rep:12:frm:tbl:345:btn\",e:\"click\",f:\"rep:12:frm\",p:\"rep:12:frm:tbl:345:btn frm2:input\",u:\"rep:12:frm\""
+                + ",onco:function(xhr,status,args,data){alert(\"rep:0:frm:tbl:0:btn\");}});", template.apply("rep:12:frm:tbl:345:btn"));
+        assertNull(template.apply("btn"));
+    }
+
+    @Test
+    public void relativeExpression() {
+        AjaxBehavior behavior = new AjaxBehavior();
+        behavior.setUpdate("@parent");
+        assertNull(create(behavior, "PrimeFaces.ab({s:\"rep:0:frm:tbl:0:btn\"});").apply("rep:0:frm:tbl:0:btn"));
+
+        behavior.setUpdate("output");
+        assertNull(create(behavior, "PrimeFaces.ab({s:\"rep:0:frm:tbl:0:btn\"});").apply("rep:0:frm:tbl:0:btn"));
+    }
+
+    @Test
+    public void valueExpression() {
+        AjaxBehavior behavior = new AjaxBehavior();
+        behavior.setValueExpression("oncomplete", mock(ValueExpression.class));
+        assertNull(create(behavior, "PrimeFaces.ab({s:\"rep:0:frm:tbl:0:btn\"});").apply("rep:0:frm:tbl:0:btn"));
+
+        behavior = new AjaxBehavior();
+        behavior.setValueExpression("disabled", mock(ValueExpression.class));
+        assertNotNull(create(behavior, "PrimeFaces.ab({s:\"rep:0:frm:tbl:0:btn\"});").apply("rep:0:frm:tbl:0:btn"));
+    }
+
+    @Test
+    public void isCacheable() {
+        assertTrue(AjaxBehaviorScriptTemplate.isCacheable(null, ':', "frm:btn", "frm"));
+        assertTrue(AjaxBehaviorScriptTemplate.isCacheable("@this, @form @all @none", ':', "frm:btn", "frm"));
+        assertTrue(AjaxBehaviorScriptTemplate.isCacheable(":frm:msgs :growl", ':', "frm:btn", "frm"));
+        assertFalse(AjaxBehaviorScriptTemplate.isCacheable(":frm:btn", ':', "frm:btn", "frm"));
+        assertFalse(AjaxBehaviorScriptTemplate.isCacheable(":frm", ':', "frm:btn", "frm"));
+        assertFalse(AjaxBehaviorScriptTemplate.isCacheable("@this msgs", ':', "frm:btn", "frm"));
+        assertFalse(AjaxBehaviorScriptTemplate.isCacheable(":frm:@parent", ':', "frm:btn", "frm"));
+        assertFalse(AjaxBehaviorScriptTemplate.isCacheable("@widgetVar(dlg)", ':', "frm:btn", "frm"));
+    }
+
+    private AjaxBehaviorScriptTemplate create(AjaxBehavior behavior, String script) {
+        return AjaxBehaviorScriptTemplate.create(context, behavior, component, "click", MODE, null, "rep:0:frm:tbl:0:btn", script);
+    }
+}
@@ -0,0 +1,73 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2009-2019 PrimeTek
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.component.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+import org.primefaces.component.tree.Tree;
+import org.primefaces.model.DefaultTreeNode;
+import org.primefaces.model.TreeNode;
+
+public class UITreeTest {
+
+    @Test
+    public void findTreeNode() {
+        TreeNode root = new DefaultTreeNode("root", null);
+        TreeNode child0 = new DefaultTreeNode("0", root);
+        TreeNode child1 = new DefaultTreeNode("1", root);
+        TreeNode child10 = new DefaultTreeNode("1_0", child1);
+        TreeNode child11 = new DefaultTreeNode("1_1", child1);
+
+        Tree tree = new Tree();
+        tree.buildRowKeys(root);
+
+        assertSame(child0, tree.findTreeNode(root, "0"));
+        assertSame(child11, tree.findTreeNode(root, "1_1"));
+        assertSame(child10, tree.findTreeNode(child1, "0"));
+        assertNull(tree.findTreeNode(root, "1_2"));
+        assertNull(tree.findTreeNode(root, "2"));
+    }
+
+    @Test
+    public void findTreeNodeAfterModification() {
+        TreeNode root = new DefaultTreeNode("root", null);
+        TreeNode child0 = new DefaultTreeNode("0", root);
+        new DefaultTreeNode("0_0", child0);
+        TreeNode child1 = new DefaultTreeNode("1", root);
+        TreeNode child10 = new DefaultTreeNode("1_0", child1);
+
+        Tree tree = new Tree();
+        tree.buildRowKeys(root);
+        assertEquals("0_0", tree.findTreeNode(root, "0_0").getData());
+
+        root.getChildren().remove(child0);
+
+        assertSame(child1, tree.findTreeNode(root, "0"));
+        assertSame(child10, tree.findTreeNode(root, "0_0"));
+        assertNull(tree.findTreeNode(root, "1"));
+    }
+}
@@ -0,0 +1,104 @@
+/* 
+ * The MIT License
+ *
+ * Copyright (c) 2009-2019 PrimeTek
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.component.barcode;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.faces.application.Application;
+import javax.faces.application.Resource;
+import javax.faces.application.ResourceHandler;
+import javax.faces.context.ExternalContext;
+import javax.faces.context.FacesContext;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.primefaces.application.resource.DynamicContentType;
+import org.primefaces.util.Constants;
+
+public class BarcodeRendererTest {
+
+    private static final Pattern KEY = Pattern.compile(Constants.DYNAMIC_CONTENT_PARAM + "=([^&]+)");
+
+    private FacesContext context;
+    private Map<String, Object> sessionMap;
+    private Barcode barcode;
+
+    @BeforeEach
+    public void setup() {
+        sessionMap = new HashMap<>();
+        ExternalContext externalContext = mock(ExternalContext.class);
+        when(externalContext.getSessionMap()).thenReturn(sessionMap);
+
+        Resource resource = mock(Resource.class);
+        when(resource.getRequestPath()).thenReturn("/javax.faces.resource/dynamiccontent.properties.xhtml?ln=primefaces");
+        ResourceHandler resourceHandler = mock(ResourceHandler.class);
+        when(resourceHandler.createResource(anyString(), anyString(), anyString())).thenReturn(resource);
+        Application application = mock(Application.class);
+        when(application.getResourceHandler()).thenReturn(resourceHandler);
+
+        context = mock(FacesContext.class);
+        when(context.getExternalContext()).thenReturn(externalContext);
+        when(context.getApplication()).thenReturn(application);
+        when(context.getAttributes()).thenReturn(new HashMap<>());
+
+        barcode = mock(Barcode.class);
+        when(barcode.getType()).thenReturn("code128");
+        when(barcode.getFormat()).thenReturn("svg");
+    }
+
+    @Test
+    public void resourceKeyIsRandomPerValue() throws IOException {
+        BarcodeRenderer renderer = new BarcodeRenderer();
+        String key = getKey(renderer.getResourceURL(context, barcode, DynamicContentType.BARCODE, "1234"));
+
+        assertEquals(key, getKey(renderer.getResourceURL(context, barcode, DynamicContentType.BARCODE, "1234")));
+        assertNotEquals(key, getKey(renderer.getResourceURL(context, barcode, DynamicContentType.BARCODE, "1235")));
+        assertNotEquals(UUID.nameUUIDFromBytes("1234".getBytes(StandardCharsets.UTF_8)).toString(), key);
+        assertEquals("1234", ((Map) sessionMap.get(Constants.BARCODE_MAPPING)).get(key));
+
+        // a new session gets a new key
+        sessionMap.clear();
+        String newKey = getKey(renderer.getResourceURL(context, barcode, DynamicContentType.BARCODE, "1234"));
+        assertNotEquals(key, newKey);
+        assertFalse(newKey.isEmpty());
+    }
+
+    private static String getKey(String url) {
+        Matcher matcher = KEY.matcher(url);
+        return matcher.find() ? matcher.group(1) : "";
+    }
+}
@@ -0,0 +1,169 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2009-2019 PrimeTek
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.component.fileupload;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.stream.Stream;
+
+import javax.faces.FacesException;
+import javax.faces.context.ExternalContext;
+import javax.faces.context.FacesContext;
+import javax.servlet.http.Part;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.primefaces.component.fileupload.FileUploadChunkDecoder.ContentRange;
+import org.primefaces.model.file.NativeUploadedFile;
+import org.primefaces.model.file.UploadedFile;
+
+public class FileUploadChunkDecoderTest {
+
+    private Path chunkFile;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        chunkFile = Files.createTempFile("chunk", ".part");
+        Files.delete(chunkFile);
+    }
+
+    @AfterEach
+    public void teardown() throws IOException {
+        Files.deleteIfExists(chunkFile);
+    }
+
+    @Test
+    public void parseContentRange() {
+        ContentRange contentRange = ContentRange.parse("bytes 100-199/1000");
+
+        Assertions.assertEquals(100, contentRange.getStart());
+        Assertions.assertEquals(199, contentRange.getEnd());
+        Assertions.assertEquals(1000, contentRange.getTotal());
+    }
+
+    @Test
+    public void parseInvalidContentRange() {
+        Assertions.assertThrows(FacesException.class, () -> ContentRange.parse(null));
+        Assertions.assertThrows(FacesException.class, () -> ContentRange.parse("bytes */1000"));
+        Assertions.assertThrows(FacesException.class, () -> ContentRange.parse("bytes 200-100/1000"));
+        Assertions.assertThrows(FacesException.class, () -> ContentRange.parse("bytes 0-1000/1000"));
+    }
+
+    @Test
+    public void appendChunks() throws IOException {
+        Assertions.assertEquals(5, FileUploadChunkDecoder.appendChunk(chunkFile, ContentRange.parse("bytes 0-4/11"), chunk("Prime")));
+        Assertions.assertEquals(10, FileUploadChunkDecoder.appendChunk(chunkFile, ContentRange.parse("bytes 5-9/11"), chunk("Faces")));
+        Assertions.assertEquals(11, FileUploadChunkDecoder.appendChunk(chunkFile, ContentRange.parse("bytes 10-10/11"), chunk("!")));
+
+        Assertions.assertEquals("PrimeFaces!", new String(Files.readAllBytes(chunkFile), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void appendResumedChunk() throws IOException {
+        FileUploadChunkDecoder.appendChunk(chunkFile, ContentRange.parse("bytes 0-4/10"), chunk("Prime"));
+        // interrupted chunk, only partially received
+        Assertions.assertThrows(FacesException.class,
+            () -> FileUploadChunkDecoder.appendChunk(chunkFile, ContentRange.parse("bytes 5-9/10"), chunk("Fa")));
+        Assertions.assertEquals(5, Files.size(chunkFile));
+        // resent after resume
+        Assertions.assertEquals(10, FileUploadChunkDecoder.appendChunk(chunkFile, ContentRange.parse("bytes 5-9/10"), chunk("Faces")));
+
+        Assertions.assertEquals("PrimeFaces", new String(Files.readAllBytes(chunkFile), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void appendChunkWithGap() throws IOException {
+        FileUploadChunkDecoder.appendChunk(chunkFile, ContentRange.parse("bytes 0-4/15"), chunk("Prime"));
+
+        Assertions.assertThrows(FacesException.class,
+            () -> FileUploadChunkDecoder.appendChunk(chunkFile, ContentRange.parse("bytes 10-14/15"), chunk("Faces")));
+    }
+
+    @Test
+    public void appendChunkLongerThanContentRange() throws IOException {
+        Assertions.assertThrows(FacesException.class,
+            () -> FileUploadChunkDecoder.appendChunk(chunkFile, ContentRange.parse("bytes 0-4/15"), chunk("PrimeFaces")));
+        Assertions.assertFalse(Files.exists(chunkFile));
+    }
+
+    @Test
+    public void deleteExpiredChunks() throws IOException {
+        Path chunkDirectory = Files.createTempDirectory("chunks");
+        try {
+            Path expired = Files.write(chunkDirectory.resolve("expired.part"), new byte[] {1});
+            Path active = Files.write(chunkDirectory.resolve("active.part"), new byte[] {1});
+            Path other = Files.write(chunkDirectory.resolve("other.txt"), new byte[] {1});
+            long now = System.currentTimeMillis();
+            Files.setLastModifiedTime(expired, FileTime.fromMillis(now - 60000));
+            Files.setLastModifiedTime(other, FileTime.fromMillis(now - 60000));
+
+            FileUploadChunkDecoder.deleteExpiredChunks(chunkDirectory, 30000, now);
+
+            Assertions.assertFalse(Files.exists(expired));
+            Assertions.assertTrue(Files.exists(active));
+            Assertions.assertTrue(Files.exists(other));
+        }
+        finally {
+            try (Stream<Path> files = Files.list(chunkDirectory)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(chunkDirectory);
+        }
+    }
+
+    @Test
+    public void isChunkedRequestRequiresMaxChunkSize() {
+        FacesContext context = mock(FacesContext.class);
+        ExternalContext externalContext = mock(ExternalContext.class);
+        when(context.getExternalContext()).thenReturn(externalContext);
+        when(externalContext.getRequestHeaderMap()).thenReturn(Collections.singletonMap("Content-Range", "bytes 0-4/10"));
+        FileUpload fileUpload = mock(FileUpload.class);
+
+        Assertions.assertFalse(FileUploadChunkDecoder.isChunkedRequest(context, fileUpload));
+
+        when(fileUpload.getMaxChunkSize()).thenReturn(5L);
+        Assertions.assertTrue(FileUploadChunkDecoder.isChunkedRequest(context, fileUpload));
+    }
+
+    private UploadedFile chunk(String content) throws IOException {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        Part part = mock(Part.class);
+        when(part.getHeader("content-disposition")).thenReturn("form-data; name=\"XXX:XXX\"; filename=\"test.txt\"");
+        when(part.getSize()).thenReturn((long) bytes.length);
+        when(part.getInputStream()).thenReturn(new ByteArrayInputStream(bytes));
+        return new NativeUploadedFile(part, null);
+    }
+}
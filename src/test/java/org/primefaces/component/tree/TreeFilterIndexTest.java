@@ -0,0 +1,169 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2009-2019 PrimeTek
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.component.tree;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import javax.el.ELContext;
+import javax.el.ValueExpression;
+import javax.faces.context.FacesContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.primefaces.mock.FacesContextMock;
+import org.primefaces.model.DefaultTreeNode;
+import org.primefaces.model.TreeNode;
+
+public class TreeFilterIndexTest {
+
+    private FacesContext context;
+    private ValueExpression filterBy;
+    private TreeNode root;
+
+    @BeforeEach
+    public void setup() {
+        context = new FacesContextMock() {
+            @Override
+            public ELContext getELContext() {
+                return null;
+            }
+        };
+        filterBy = mock(ValueExpression.class);
+        when(filterBy.getExpressionString()).thenReturn("#{node}");
+        when(filterBy.getValue(any())).thenAnswer(invocation -> context.getExternalContext().getRequestMap().get("node"));
+
+        root = new DefaultTreeNode("root", null);
+        TreeNode documents = new DefaultTreeNode("Documents", root);
+        new DefaultTreeNode("Resume", documents);
+        new DefaultTreeNode("Expenses", documents);
+        TreeNode music = new DefaultTreeNode("Music", root);
+        new DefaultTreeNode("Mozart", music);
+
+        root.setRowKey("root");
+        root.getChildren().get(0).setRowKey("0");
+        root.getChildren().get(0).getChildren().get(0).setRowKey("0_0");
+        root.getChildren().get(0).getChildren().get(1).setRowKey("0_1");
+        root.getChildren().get(1).setRowKey("1");
+        root.getChildren().get(1).getChildren().get(0).setRowKey("1_0");
+    }
+
+    @AfterEach
+    public void teardown() {
+        context.release();
+    }
+
+    @Test
+    public void buildEvaluatesEachNodeOnce() {
+        TreeFilterIndex index = new TreeFilterIndex();
+        index.build(context, root, "node", filterBy, Locale.ENGLISH);
+
+        index.filter("contains", Tree.FILTER_CONSTRAINTS.get("contains"), "m");
+        index.filter("contains", Tree.FILTER_CONSTRAINTS.get("contains"), "mo");
+
+        verify(filterBy, times(5)).getValue(any());
+        assertFalse(context.getExternalContext().getRequestMap().containsKey("node"));
+    }
+
+    @Test
+    public void filterNarrowsPreviousMatches() {
+        TreeFilterIndex index = new TreeFilterIndex();
+        index.build(context, root, "node", filterBy, Locale.ENGLISH);
+
+        assertEquals(Arrays.asList("0", "0_0", "0_1"), index.filter("contains", Tree.FILTER_CONSTRAINTS.get("contains"), "e"));
+        assertEquals(Arrays.asList("0_0", "0_1"), index.filter("contains", Tree.FILTER_CONSTRAINTS.get("contains"), "es"));
+        assertEquals(Collections.singletonList("0_0"), index.filter("contains", Tree.FILTER_CONSTRAINTS.get("contains"), "res"));
+        assertEquals(Arrays.asList("0", "0_0", "0_1", "1", "1_0"), index.filter("contains", Tree.FILTER_CONSTRAINTS.get("contains"), ""));
+        assertEquals(Arrays.asList("1", "1_0"), index.filter("startsWith", Tree.FILTER_CONSTRAINTS.get("startsWith"), "M"));
+        assertEquals(Collections.singletonList("1_0"), index.filter("exact", Tree.FILTER_CONSTRAINTS.get("exact"), "mozart"));
+    }
+
+    @Test
+    public void visibleRowKeys() {
+        TreeFilterIndex index = new TreeFilterIndex();
+        index.build(context, root, "node", filterBy, Locale.ENGLISH);
+
+        List<String> matches = index.filter("startsWith", Tree.FILTER_CONSTRAINTS.get("startsWith"), "doc");
+        assertEquals(Arrays.asList("0", "0_0", "0_1"), index.getVisibleRowKeys(matches, false));
+        assertEquals(Collections.singletonList("0"), index.getVisibleRowKeys(matches, true));
+
+        matches = index.filter("startsWith", Tree.FILTER_CONSTRAINTS.get("startsWith"), "moz");
+        assertEquals(Arrays.asList("1", "1_0"), index.getVisibleRowKeys(matches, true));
+    }
+
+    @Test
+    public void invalidatedByModelChange() {
+        TreeFilterIndex index = new TreeFilterIndex();
+        assertFalse(index.isValid(root, filterBy, Locale.ENGLISH));
+
+        index.build(context, root, "node", filterBy, Locale.ENGLISH);
+        assertTrue(index.isValid(root, filterBy, Locale.ENGLISH));
+        assertFalse(index.isValid(root, filterBy, Locale.GERMAN));
+
+        new DefaultTreeNode("Beethoven", root.getChildren().get(1));
+        assertFalse(index.isValid(root, filterBy, Locale.ENGLISH));
+    }
+
+    @Test
+    public void invalidatedByReplacedData() {
+        TreeFilterIndex index = new TreeFilterIndex();
+        index.build(context, root, "node", filterBy, Locale.ENGLISH);
+
+        ((DefaultTreeNode) root.getChildren().get(1).getChildren().get(0)).setData("Bach");
+        assertFalse(index.isValid(root, filterBy, Locale.ENGLISH));
+
+        index.build(context, root, "node", filterBy, Locale.ENGLISH);
+        assertEquals(Collections.singletonList("1_0"), index.filter("contains", Tree.FILTER_CONSTRAINTS.get("contains"), "bach"));
+    }
+
+    @Test
+    public void invalidatedByReorder() {
+        TreeFilterIndex index = new TreeFilterIndex();
+        index.build(context, root, "node", filterBy, Locale.ENGLISH);
+
+        // same number of nodes in another order
+        TreeNode documents = root.getChildren().get(0);
+        TreeNode resume = documents.getChildren().get(0);
+        TreeNode expenses = documents.getChildren().get(1);
+        documents.getChildren().set(0, new DefaultTreeNode("placeholder", null));
+        documents.getChildren().set(1, resume);
+        documents.getChildren().set(0, expenses);
+        assertEquals(2, documents.getChildCount());
+        assertFalse(index.isValid(root, filterBy, Locale.ENGLISH));
+
+        index.build(context, root, "node", filterBy, Locale.ENGLISH);
+        assertTrue(index.isValid(root, filterBy, Locale.ENGLISH));
+        assertEquals(Collections.singletonList("0_0"), index.filter("contains", Tree.FILTER_CONSTRAINTS.get("contains"), "exp"));
+    }
+}
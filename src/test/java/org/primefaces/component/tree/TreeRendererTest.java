@@ -0,0 +1,95 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2009-2019 PrimeTek
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.component.tree;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import javax.el.ValueExpression;
+import javax.faces.context.FacesContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.primefaces.mock.FacesContextMock;
+import org.primefaces.model.LazyTreeNode;
+import org.primefaces.model.LazyTreeNodeLoader;
+import org.primefaces.model.SortOrder;
+import org.primefaces.model.TreeNode;
+
+public class TreeRendererTest {
+
+    private FacesContext context;
+
+    @BeforeEach
+    public void setup() {
+        context = new FacesContextMock();
+    }
+
+    @AfterEach
+    public void teardown() {
+        context.release();
+    }
+
+    @Test
+    public void lazyFilterDelegatesToLoader() {
+        List<Map<String, Object>> requestedFilters = new ArrayList<>();
+        LazyTreeNodeLoader loader = new LazyTreeNodeLoader() {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public List<TreeNode> load(LazyTreeNode node, int first, int pageSize, String sortField, SortOrder sortOrder,
+                    Map<String, Object> filters) {
+                requestedFilters.add(filters);
+                List<TreeNode> children = new ArrayList<>();
+                for (int i = 0; i < (filters.isEmpty() ? 3 : 1); i++) {
+                    children.add(new LazyTreeNode("node" + i));
+                }
+                return children;
+            }
+        };
+
+        ValueExpression filterBy = mock(ValueExpression.class);
+        when(filterBy.getExpressionString()).thenReturn("#{node.name}");
+        Tree tree = new Tree();
+        tree.setValueExpression("filterBy", filterBy);
+        LazyTreeNode root = new LazyTreeNode(loader);
+        assertEquals(3, root.getChildCount());
+
+        TreeRenderer renderer = new TreeRenderer();
+        renderer.filterLazyTree(tree, root, "Doc");
+        assertEquals(1, root.getChildCount());
+        assertEquals(Collections.singletonMap("name", "Doc"), requestedFilters.get(1));
+        assertEquals("0", root.getChildren().get(0).getRowKey());
+
+        renderer.filterLazyTree(tree, root, " ");
+        assertEquals(3, root.getChildCount());
+        assertEquals(Collections.emptyMap(), requestedFilters.get(2));
+    }
+}
@@ -0,0 +1,317 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2009-2019 PrimeTek
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.component.treetable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import javax.el.ELContext;
+import javax.el.ValueExpression;
+import javax.faces.context.ExternalContext;
+import javax.faces.context.FacesContext;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.primefaces.component.api.UIColumn;
+import org.primefaces.context.PrimeRequestContext;
+import org.primefaces.mock.FacesContextMock;
+import org.primefaces.model.DefaultTreeNode;
+import org.primefaces.model.FilterMeta;
+import org.primefaces.model.TreeNode;
+
+public class TreeTableRendererTest {
+
+    private FacesContext context;
+    private Map<String, String> params;
+    private Map<String, Object> callbackParams;
+    private TreeNode root;
+    private TreeTable tt;
+    private List<Object> renderedNodes;
+    private TreeTableRenderer renderer;
+
+    @BeforeEach
+    public void setup() {
+        params = new HashMap<>();
+        ExternalContext externalContext = mock(ExternalContext.class);
+        when(externalContext.getRequestParameterMap()).thenReturn(params);
+        context = new FacesContextMock() {
+            @Override
+            public ExternalContext getExternalContext() {
+                return externalContext;
+            }
+        };
+        callbackParams = new HashMap<>();
+        PrimeRequestContext requestContext = mock(PrimeRequestContext.class);
+        when(requestContext.getCallbackParams()).thenReturn(callbackParams);
+        PrimeRequestContext.setCurrentInstance(requestContext, context);
+
+        // a, b (b1, b2 (b21 .. b25), b3), c
+        root = new DefaultTreeNode("root", null);
+        new DefaultTreeNode("a", root);
+        TreeNode b = new DefaultTreeNode("b", root);
+        new DefaultTreeNode("b1", b);
+        TreeNode b2 = new DefaultTreeNode("b2", b);
+        for (int i = 1; i <= 5; i++) {
+            new DefaultTreeNode("b2" + i, b2);
+        }
+        new DefaultTreeNode("b3", b);
+        new DefaultTreeNode("c", root);
+        b.setExpanded(true);
+
+        Map<String, TreeNode> nodes = new HashMap<>();
+        collectNodes(root, nodes);
+        String[] rowKey = new String[1];
+        tt = mock(TreeTable.class);
+        when(tt.getClientId(context)).thenReturn("tt");
+        when(tt.getValue()).thenReturn(root);
+        when(tt.isVirtualScrolling()).thenReturn(true);
+        when(tt.getScrollRows()).thenReturn(2);
+        when(tt.getExpandMode()).thenReturn("children");
+        doAnswer(invocation -> rowKey[0] = invocation.getArgument(0)).when(tt).setRowKey(any());
+        when(tt.getRowNode()).thenAnswer(invocation -> nodes.get(rowKey[0]));
+        when(tt.isScrollingRequest(context)).thenAnswer(invocation -> params.containsKey("tt_scrolling"));
+
+        renderedNodes = new ArrayList<>();
+        renderer = new TreeTableRenderer() {
+            @Override
+            protected void encodeNode(FacesContext context, TreeTable tt, TreeNode treeNode, boolean encodeChildren) {
+                renderedNodes.add(treeNode.getData());
+            }
+        };
+    }
+
+    @AfterEach
+    public void teardown() {
+        context.release();
+    }
+
+    @Test
+    public void visibleNodes() {
+        TreeNode root = new DefaultTreeNode("root", null);
+        TreeNode a = new DefaultTreeNode("a", root);
+        new DefaultTreeNode("a1", a);
+        TreeNode b = new DefaultTreeNode("b", root);
+        TreeNode b1 = new DefaultTreeNode("b1", b);
+        new DefaultTreeNode("b11", b1);
+        new DefaultTreeNode("b2", b);
+        b.setExpanded(true);
+
+        List<TreeNode> visibleNodes = new TreeTableRenderer().getVisibleNodes(root);
+
+        assertEquals(4, visibleNodes.size());
+        assertEquals("a", visibleNodes.get(0).getData());
+        assertEquals("b", visibleNodes.get(1).getData());
+        assertEquals("b1", visibleNodes.get(2).getData());
+        assertEquals("b2", visibleNodes.get(3).getData());
+    }
+
+    @Test
+    public void filter() throws IOException {
+        TreeNode root = new DefaultTreeNode("root", null);
+        TreeNode parent = new DefaultTreeNode("match parent", root);
+        new DefaultTreeNode("match child", parent);
+        new DefaultTreeNode("other child", parent);
+        TreeNode ancestor = new DefaultTreeNode("other", root);
+        TreeNode innerAncestor = new DefaultTreeNode("other", ancestor);
+        new DefaultTreeNode("match leaf", innerAncestor);
+        new DefaultTreeNode("other leaf", innerAncestor);
+        TreeNode nonMatching = new DefaultTreeNode("other", root);
+        new DefaultTreeNode("other", nonMatching);
+
+        List<String> filteredRowKeys = new ArrayList<>();
+        TreeNode filtered = filter(root, "match", filteredRowKeys);
+
+        assertEquals(Arrays.asList("0", "0_0", "1_0_0"), filteredRowKeys);
+        assertEquals(Arrays.asList("match parent", "other"), getData(filtered.getChildren()));
+
+        // a matching parent keeps its state and all of its children
+        TreeNode filteredParent = filtered.getChildren().get(0);
+        assertFalse(filteredParent.isExpanded());
+        assertEquals(Arrays.asList("match child", "other child"), getData(filteredParent.getChildren()));
+
+        // ancestors of a matching leaf are expanded and only contain the match
+        TreeNode filteredAncestor = filtered.getChildren().get(1);
+        assertTrue(filteredAncestor.isExpanded());
+        assertEquals(1, filteredAncestor.getChildCount());
+        TreeNode filteredInnerAncestor = filteredAncestor.getChildren().get(0);
+        assertTrue(filteredInnerAncestor.isExpanded());
+        assertEquals(Collections.singletonList("match leaf"), getData(filteredInnerAncestor.getChildren()));
+    }
+
+    @Test
+    public void filterKeepsExpandedState() throws IOException {
+        TreeNode root = new DefaultTreeNode("root", null);
+        TreeNode parent = new DefaultTreeNode("match parent", root);
+        TreeNode child = new DefaultTreeNode("match child", parent);
+        new DefaultTreeNode("match leaf", child);
+        parent.setExpanded(true);
+
+        TreeNode filtered = filter(root, "match", new ArrayList<>());
+
+        TreeNode filteredParent = filtered.getChildren().get(0);
+        assertTrue(filteredParent.isExpanded());
+        assertFalse(filteredParent.getChildren().get(0).isExpanded());
+    }
+
+    @Test
+    public void filterWithoutMatches() throws IOException {
+        TreeNode root = new DefaultTreeNode("root", null);
+        TreeNode node = new DefaultTreeNode("other", root);
+        new DefaultTreeNode("other", node);
+
+        List<String> filteredRowKeys = new ArrayList<>();
+        TreeNode filtered = filter(root, "match", filteredRowKeys);
+
+        assertTrue(filteredRowKeys.isEmpty());
+        assertEquals(0, filtered.getChildCount());
+    }
+
+    private TreeNode filter(TreeNode root, String filterValue, List<String> filteredRowKeys) throws IOException {
+        Map<String, Object> data = new HashMap<>();
+        collectData(root, data);
+        String[] rowKey = new String[1];
+
+        TreeTable tt = mock(TreeTable.class);
+        when(tt.getFilteredRowKeys()).thenReturn(filteredRowKeys);
+        doAnswer(invocation -> rowKey[0] = invocation.getArgument(0)).when(tt).setRowKey(anyString());
+
+        ValueExpression filterBy = mock(ValueExpression.class);
+        when(filterBy.getValue(any())).thenAnswer(invocation -> data.get(rowKey[0]));
+        UIColumn column = mock(UIColumn.class);
+        when(column.getFilterMatchMode()).thenReturn(TreeTable.CONTAINS_MATCH_MODE);
+
+        FacesContext context = mock(FacesContext.class);
+        when(context.getELContext()).thenReturn(mock(ELContext.class));
+
+        return new TreeTableRenderer().filterTree(context, tt, root, Collections.singletonList(new FilterMeta(column, filterBy, filterValue)),
+                Locale.ENGLISH, null);
+    }
+
+    private void collectData(TreeNode node, Map<String, Object> data) {
+        for (TreeNode child : node.getChildren()) {
+            data.put(child.getRowKey(), child.getData());
+            collectData(child, data);
+        }
+    }
+
+    private List<Object> getData(List<TreeNode> nodes) {
+        return nodes.stream().map(TreeNode::getData).collect(Collectors.toList());
+    }
+
+    @Test
+    public void scroll() throws IOException {
+        params.put("tt_scrolling", "true");
+        params.put("tt_first", "2");
+
+        renderer.encodeEnd(context, tt);
+
+        assertEquals(Arrays.asList("b1", "b2", "b3", "c"), renderedNodes);
+        assertEquals(6, callbackParams.get("totalRecords"));
+        assertEquals(2, callbackParams.get("first"));
+    }
+
+    @Test
+    public void scrollWithCollapse() throws IOException {
+        params.put("tt_scrolling", "true");
+        params.put("tt_first", "1");
+        params.put("tt_collapse", "1");
+
+        renderer.encodeEnd(context, tt);
+
+        assertFalse(root.getChildren().get(1).isExpanded());
+        assertEquals(Arrays.asList("b", "c"), renderedNodes);
+        assertEquals(3, callbackParams.get("totalRecords"));
+        assertEquals(1, callbackParams.get("first"));
+    }
+
+    @Test
+    public void scrollClampsFirst() throws IOException {
+        params.put("tt_scrolling", "true");
+        params.put("tt_first", "100");
+
+        renderer.encodeEnd(context, tt);
+
+        assertEquals(Arrays.asList("b3", "c"), renderedNodes);
+        assertEquals(4, callbackParams.get("first"));
+
+        renderedNodes.clear();
+        params.put("tt_first", "-5");
+        renderer.encodeEnd(context, tt);
+        assertEquals(0, callbackParams.get("first"));
+
+        renderedNodes.clear();
+        params.put("tt_first", "top");
+        renderer.encodeEnd(context, tt);
+        assertEquals(Arrays.asList("a", "b", "b1", "b2"), renderedNodes);
+        assertEquals(0, callbackParams.get("first"));
+    }
+
+    @Test
+    public void expandReloadsWindow() throws IOException {
+        params.put("tt_expand", "1_1");
+        params.put("tt_first", "3");
+
+        renderer.encodeEnd(context, tt);
+
+        assertTrue(root.getChildren().get(1).getChildren().get(1).isExpanded());
+        // the window instead of all children of the expanded node
+        assertEquals(Arrays.asList("b2", "b21", "b22", "b23"), renderedNodes);
+        assertEquals(11, callbackParams.get("totalRecords"));
+        assertEquals(3, callbackParams.get("first"));
+    }
+
+    @Test
+    public void expandWithoutVirtualScroll() throws IOException {
+        when(tt.isVirtualScrolling()).thenReturn(false);
+        params.put("tt_expand", "1_1");
+
+        renderer.encodeEnd(context, tt);
+
+        assertEquals(Arrays.asList("b21", "b22", "b23", "b24", "b25"), renderedNodes);
+        assertFalse(callbackParams.containsKey("totalRecords"));
+    }
+
+    private void collectNodes(TreeNode node, Map<String, TreeNode> nodes) {
+        for (TreeNode child : node.getChildren()) {
+            nodes.put(child.getRowKey(), child);
+            collectNodes(child, nodes);
+        }
+    }
+}
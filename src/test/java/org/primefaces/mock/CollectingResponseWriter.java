@@ -131,7 +131,7 @@ public class CollectingResponseWriter extends ResponseWriter {
 			inXmlTag = false;
 			builder.append(">");
 		}
-		builder.append(arg0);
+		builder.append(arg0, arg1, arg2);
 	}
 
 	@Override
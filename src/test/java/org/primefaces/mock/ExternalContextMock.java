@@ -38,6 +38,7 @@ import javax.faces.context.ExternalContext;
 public class ExternalContextMock extends ExternalContext {
 
     public Map<String, Object> applicationMap = new HashMap<String, Object>();
+    public Map<String, Object> requestMap = new HashMap<String, Object>();
 
     @Override
     public void dispatch(String path) throws IOException {
@@ -126,7 +127,7 @@ public class ExternalContextMock extends ExternalContext {
 
     @Override
     public Map<String, Object> getRequestMap() {
-        return null;
+        return requestMap;
     }
 
     @Override
@@ -28,6 +28,10 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -172,4 +176,129 @@ public class CheckboxTreeNodeTest {
     }
 
 
+
+    @Test
+    public void shouldSelectInBulk() {
+        TreeNode documents = root.getChildren().get(0);
+        TreeNode work = documents.getChildren().get(0);
+        TreeNode expenses = work.getChildren().get(0);
+        TreeNode refdoc = documents.getChildren().get(1).getChildren().get(0);
+        TreeNode pictures = root.getChildren().get(1);
+        TreeNode barca = pictures.getChildren().get(0);
+
+        CheckboxTreeNode.setSelected(Collections.emptyList(), Arrays.asList(work, expenses, refdoc, barca), true, true);
+
+        assertTrue(work.getChildren().get(1).isSelected());
+        assertTrue(documents.isSelected());
+        assertFalse(documents.isPartialSelected());
+        assertFalse(pictures.isSelected());
+        assertTrue(pictures.isPartialSelected());
+        assertFalse(root.isSelected());
+        assertTrue(root.isPartialSelected());
+
+        CheckboxTreeNode.setSelected(Arrays.asList(work, expenses, refdoc, barca), Collections.singletonList(expenses), true, true);
+
+        assertTrue(expenses.isSelected());
+        assertFalse(work.getChildren().get(1).isSelected());
+        assertFalse(work.isSelected());
+        assertTrue(work.isPartialSelected());
+        assertTrue(documents.isPartialSelected());
+        assertFalse(pictures.isPartialSelected());
+        assertFalse(barca.isSelected());
+        assertTrue(root.isPartialSelected());
+    }
+
+    @Test
+    public void shouldSelectInBulkWithoutPropagation() {
+        TreeNode documents = root.getChildren().get(0);
+        TreeNode work = documents.getChildren().get(0);
+
+        CheckboxTreeNode.setSelected(null, Collections.singletonList(work), false, false);
+
+        assertTrue(work.isSelected());
+        assertFalse(work.getChildren().get(0).isSelected());
+        assertFalse(documents.isPartialSelected());
+    }
+
+    @Test
+    public void shouldKeepSelectedParentWithoutPropagatingDown() {
+        TreeNode documents = root.getChildren().get(0);
+        TreeNode work = documents.getChildren().get(0);
+        TreeNode expenses = work.getChildren().get(0);
+        expenses.setSelected(true);
+
+        CheckboxTreeNode.setSelected(Collections.singletonList(expenses), Collections.singletonList(work), false, true);
+
+        assertTrue(work.isSelected());
+        assertFalse(expenses.isSelected());
+        assertFalse(documents.isSelected());
+        assertTrue(documents.isPartialSelected());
+    }
+
+    @Test
+    public void shouldSelectInBulkLikeSingleNodes() {
+        int[][][] operations = {
+            // unselected, selected; nodes by their index in tree order
+            {{3}, {2}},
+            {{}, {2, 3, 1}},
+            {{1, 4}, {3, 0, 5}},
+            {{0}, {6, 0}},
+            {{7, 8}, {9, 7, 1, 2}}
+        };
+        boolean[] flags = {false, true};
+
+        for (int[][] operation : operations) {
+            for (boolean down : flags) {
+                for (boolean up : flags) {
+                    List<TreeNode> expected = createNodes();
+                    List<TreeNode> actual = createNodes();
+                    for (int index : operation[0]) {
+                        ((CheckboxTreeNode) expected.get(index)).setSelected(false, down, up);
+                    }
+                    for (int index : operation[1]) {
+                        ((CheckboxTreeNode) expected.get(index)).setSelected(true, down, up);
+                    }
+
+                    CheckboxTreeNode.setSelected(getNodes(actual, operation[0]), getNodes(actual, operation[1]), down, up);
+
+                    for (int i = 0; i < expected.size(); i++) {
+                        String message = Arrays.deepToString(operation) + " down=" + down + " up=" + up + " node=" + i;
+                        assertEquals(expected.get(i).isSelected(), actual.get(i).isSelected(), message);
+                        assertEquals(expected.get(i).isPartialSelected(), actual.get(i).isPartialSelected(), message);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the nodes of a tree of three levels with three children each in tree order, partially selected
+     */
+    private List<TreeNode> createNodes() {
+        List<TreeNode> nodes = new ArrayList<>();
+        TreeNode tree = new CheckboxTreeNode("root", null);
+        for (int i = 0; i < 3; i++) {
+            TreeNode node = new CheckboxTreeNode("node" + i, tree);
+            nodes.add(node);
+            for (int j = 0; j < 3; j++) {
+                TreeNode child = new CheckboxTreeNode("node" + i + j, node);
+                nodes.add(child);
+                for (int k = 0; k < 3; k++) {
+                    nodes.add(new CheckboxTreeNode("node" + i + j + k, child));
+                }
+            }
+        }
+
+        nodes.get(2).setSelected(true);
+        nodes.get(15).setSelected(true);
+        return nodes;
+    }
+
+    private List<TreeNode> getNodes(List<TreeNode> nodes, int[] indexes) {
+        List<TreeNode> result = new ArrayList<>();
+        for (int index : indexes) {
+            result.add(nodes.get(index));
+        }
+        return result;
+    }
 }
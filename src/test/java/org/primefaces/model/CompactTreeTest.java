@@ -0,0 +1,231 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2009-2019 PrimeTek
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import org.junit.jupiter.api.Test;
+import org.primefaces.util.TreeUtils;
+
+public class CompactTreeTest {
+
+    private static CompactTree createTree() {
+        CompactTree tree = new CompactTree("root");
+        int documents = tree.addNode(CompactTree.ROOT, "folder", "Documents");
+        tree.addNode(documents, "document", "Resume");
+        tree.addNode(documents, "document", "Expenses");
+        int music = tree.addNode(CompactTree.ROOT, "folder", "Music");
+        tree.addNode(music, "mp3", "Mozart");
+        return tree;
+    }
+
+    @Test
+    public void structure() {
+        CompactTree tree = createTree();
+        TreeNode root = tree.getRoot();
+
+        assertEquals(2, root.getChildCount());
+        TreeNode documents = root.getChildren().get(0);
+        assertEquals("Documents", documents.getData());
+        assertEquals("folder", documents.getType());
+        assertSame(root, documents.getParent());
+        assertSame(documents, tree.getNode(1));
+        assertEquals("Expenses", documents.getChildren().get(1).getData());
+        assertTrue(documents.getChildren().get(1).isLeaf());
+        assertFalse(documents.isLeaf());
+        assertNull(root.getParent());
+    }
+
+    @Test
+    public void state() {
+        TreeNode node = createTree().getNode(2);
+        assertTrue(node.isSelectable());
+        assertFalse(node.isExpanded());
+
+        node.setSelected(true);
+        node.setExpanded(true);
+        node.setSelectable(false);
+        assertTrue(node.isSelected());
+        assertTrue(node.isExpanded());
+        assertFalse(node.isSelectable());
+
+        node.setSelected(false);
+        assertFalse(node.isSelected());
+        assertTrue(node.isExpanded());
+    }
+
+    @Test
+    public void rowKeysFollowPosition() {
+        CompactTree tree = createTree();
+        TreeNode root = tree.getRoot();
+        root.setRowKey("root");
+
+        assertEquals("root", root.getRowKey());
+        assertEquals("1_0", tree.getNode(5).getRowKey());
+
+        TreeNode mozart = tree.getNode(5);
+        root.getChildren().get(0).getChildren().add(0, mozart);
+        assertEquals("0_0", mozart.getRowKey());
+        assertEquals("0_1", tree.getNode(2).getRowKey());
+        assertTrue(tree.getNode(4).isLeaf());
+        assertEquals(3, tree.getNode(1).getChildCount());
+
+        mozart.clearParent();
+        assertNull(mozart.getParent());
+        assertEquals(2, tree.getNode(1).getChildCount());
+    }
+
+    @Test
+    public void addToLoadedChildren() {
+        CompactTree tree = createTree();
+        TreeNode documents = tree.getNode(1);
+        assertEquals(2, documents.getChildren().size());
+
+        int index = tree.addNode(1, "Letter");
+        assertEquals(3, documents.getChildCount());
+        assertSame(tree.getNode(index), documents.getChildren().get(2));
+        assertEquals(DefaultTreeNode.DEFAULT_TYPE, tree.getNode(index).getType());
+    }
+
+    @Test
+    public void changesWrittenToArrays() {
+        CompactTree tree = createTree();
+        List<TreeNode> documents = tree.getNode(1).getChildren();
+        documents.add(0, tree.getNode(5));
+        documents.remove(tree.getNode(2));
+        documents.sort((n1, n2) -> n1.getData().toString().compareTo(n2.getData().toString()));
+
+        assertEquals(2, tree.getChildCount(1));
+        assertFalse(tree.hasChildren(4));
+        CompactTreeNodeChildren children = new CompactTreeNodeChildren((CompactTreeNode) tree.getNode(1));
+        tree.loadChildren(1, children);
+        assertEquals(Arrays.asList(tree.getNode(3), tree.getNode(5)), children);
+        assertEquals("0_1", tree.getNode(5).getRowKey());
+    }
+
+    @Test
+    public void viewsNotRetained() {
+        CompactTree tree = createTree();
+        TreeNode root = tree.getRoot();
+        root.getChildren().get(0).getChildren().get(1).setSelected(true);
+        WeakReference<TreeNode> documents = new WeakReference<>(root.getChildren().get(0));
+
+        for (int i = 0; i < 20 && documents.get() != null; i++) {
+            System.gc();
+        }
+
+        assertNull(documents.get());
+        assertEquals("Expenses", root.getChildren().get(0).getChildren().get(1).getData());
+        assertTrue(tree.getNode(3).isSelected());
+        assertEquals("0_1", tree.getNode(3).getRowKey());
+    }
+
+    @Test
+    public void rejectNodesOfOtherTrees() {
+        CompactTree tree = createTree();
+        assertThrows(IllegalArgumentException.class, () -> tree.getRoot().getChildren().add(new DefaultTreeNode("Other")));
+        assertThrows(IllegalArgumentException.class, () -> tree.getRoot().getChildren().add(createTree().getNode(1)));
+    }
+
+    @Test
+    public void sort() {
+        CompactTree tree = createTree();
+        TreeUtils.sortNode(tree.getRoot(), (n1, n2) -> ((TreeNode) n1).getData().toString().compareTo(((TreeNode) n2).getData().toString()));
+
+        assertEquals("Expenses", tree.getNode(1).getChildren().get(0).getData());
+        assertEquals("0_0", tree.getNode(3).getRowKey());
+    }
+
+    @Test
+    public void serialization() throws IOException, ClassNotFoundException {
+        CompactTree tree = createTree();
+        tree.getNode(5).setSelected(true);
+        tree.getNode(1).getChildren().add(0, tree.getNode(3));
+
+        CompactTree copy = (CompactTree) deserialize(serialize(tree));
+        TreeNode documents = copy.getNode(1);
+        assertEquals("Expenses", documents.getChildren().get(0).getData());
+        assertEquals("Resume", documents.getChildren().get(1).getData());
+        assertTrue(copy.getNode(5).isSelected());
+        assertEquals("mp3", copy.getNode(5).getType());
+        assertEquals(6, copy.size());
+
+        int index = copy.addNode(3, "Receipt");
+        assertSame(copy.getNode(index), copy.getNode(3).getChildren().get(0));
+    }
+
+    @Test
+    public void serializedViewIsUnique() throws IOException, ClassNotFoundException {
+        CompactTree tree = createTree();
+        Object[] copy = (Object[]) deserialize(serialize(new Object[] {tree, tree.getNode(2)}));
+
+        assertSame(((CompactTree) copy[0]).getNode(2), copy[1]);
+    }
+
+    @Test
+    public void smallerThanDefaultTreeNode() throws IOException {
+        CompactTree tree = new CompactTree("root");
+        TreeNode root = new DefaultTreeNode("root", null);
+        for (int i = 0; i < 100; i++) {
+            String data = String.format(Locale.ENGLISH, "folder %d", i);
+            int folder = tree.addNode(CompactTree.ROOT, data);
+            TreeNode folderNode = new DefaultTreeNode(data, root);
+            for (int j = 0; j < 100; j++) {
+                tree.addNode(folder, data);
+                new DefaultTreeNode(data, folderNode);
+            }
+        }
+
+        assertTrue(serialize(tree).length * 2 < serialize(root).length);
+    }
+
+    private static byte[] serialize(Object object) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    private static Object deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readObject();
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2009-2019 PrimeTek
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class LazyTreeNodeTest {
+
+    private static class CountingLoader implements LazyTreeNodeLoader {
+
+        private static final long serialVersionUID = 1L;
+
+        private int loads;
+        private int lastFirst;
+        private int lastPageSize;
+        private boolean attach;
+        private boolean fail;
+
+        @Override
+        public List<TreeNode> load(LazyTreeNode node, int first, int pageSize, String sortField, SortOrder sortOrder,
+                Map<String, Object> filters) {
+            loads++;
+            lastFirst = first;
+            lastPageSize = pageSize;
+            if (fail) {
+                throw new IllegalStateException("datasource unavailable");
+            }
+
+            List<TreeNode> children = new ArrayList<>();
+            int last = pageSize == 0 ? 5 : Math.min(5, first + pageSize);
+            for (int i = first; i < last; i++) {
+                String data = node.getData() + "/" + i + (sortField == null ? "" : sortField);
+                children.add(attach ? new LazyTreeNode(data, node) : new LazyTreeNode(data));
+            }
+            return children;
+        }
+
+        @Override
+        public boolean isLeaf(LazyTreeNode node) {
+            return node.getRowKey() != null && node.getRowKey().split("_").length > 2;
+        }
+    }
+
+    @Test
+    public void loadsChildrenOfRootOnly() {
+        CountingLoader loader = new CountingLoader();
+        LazyTreeNode root = new LazyTreeNode(loader);
+
+        assertEquals(5, root.getChildCount());
+        assertEquals(1, loader.loads);
+
+        TreeNode child = root.getChildren().get(1);
+        assertEquals("1", child.getRowKey());
+        assertEquals(0, child.getChildCount());
+        assertFalse(child.isLeaf());
+        assertEquals(1, loader.loads);
+
+        child.setExpanded(true);
+        assertEquals(5, child.getChildCount());
+        assertEquals("1_3", child.getChildren().get(3).getRowKey());
+        assertEquals(2, loader.loads);
+    }
+
+    @Test
+    public void loadsPages() {
+        CountingLoader loader = new CountingLoader();
+        LazyTreeNode root = new LazyTreeNode(loader, 2);
+
+        assertEquals(2, root.getChildCount());
+        assertTrue(root.hasMoreChildren());
+
+        root.loadChildren(4);
+        assertEquals(4, root.getChildCount());
+
+        root.loadChildren(Integer.MAX_VALUE);
+        assertEquals(5, root.getChildCount());
+        assertFalse(root.hasMoreChildren());
+        assertEquals(3, loader.loads);
+    }
+
+    @Test
+    public void reloadsOnChangedCriteria() {
+        CountingLoader loader = new CountingLoader();
+        LazyTreeNode root = new LazyTreeNode(loader);
+        TreeNode child = root.getChildren().get(0);
+
+        ((LazyTreeNode) child).sort("name", SortOrder.ASCENDING);
+        assertEquals(null, child.getParent());
+        assertEquals("null/0name", root.getChildren().get(0).getData());
+        assertEquals(2, loader.loads);
+
+        root.sort("name", SortOrder.ASCENDING);
+        root.filter(Collections.emptyMap());
+        root.getChildren();
+        assertEquals(2, loader.loads);
+    }
+
+    @Test
+    public void pagesChildrenOfRootOnly() {
+        CountingLoader loader = new CountingLoader();
+        LazyTreeNode root = new LazyTreeNode(loader, 2);
+
+        TreeNode child = root.getChildren().get(1);
+        child.setExpanded(true);
+        assertEquals(5, child.getChildCount());
+        assertEquals(0, loader.lastPageSize);
+        assertFalse(((LazyTreeNode) child).hasMoreChildren());
+
+        LazyTreeNode nested = new LazyTreeNode(loader, 2);
+        nested.setExpanded(true);
+        new DefaultTreeNode().getChildren().add(nested);
+        assertEquals(5, nested.getChildCount());
+        assertEquals(0, loader.lastPageSize);
+    }
+
+    @Test
+    public void loadsRequestedRange() {
+        CountingLoader loader = new CountingLoader();
+        loader.attach = true;
+        LazyTreeNode root = new LazyTreeNode(loader, 2);
+
+        root.loadChildren(3, 2);
+        assertEquals(1, loader.loads);
+        assertEquals(3, loader.lastFirst);
+        assertEquals(2, loader.lastPageSize);
+        assertEquals(5, root.getChildCount());
+        assertEquals("null/3", root.getChildren().get(3).getData());
+        assertEquals("4", root.getChildren().get(4).getRowKey());
+        assertFalse(root.getChildren().get(0) instanceof LazyTreeNode);
+
+        root.loadChildren(3, 2);
+        assertEquals(1, loader.loads);
+
+        root.loadChildren(1, 3);
+        assertEquals(2, loader.loads);
+        assertEquals(1, loader.lastFirst);
+        assertEquals(2, loader.lastPageSize);
+        assertEquals("null/1", root.getChildren().get(1).getData());
+        assertEquals("null/2", root.getChildren().get(2).getData());
+        assertEquals("null/3", root.getChildren().get(3).getData());
+        assertEquals(5, root.getChildCount());
+    }
+
+    @Test
+    public void retriesFailedLoad() {
+        CountingLoader loader = new CountingLoader();
+        loader.fail = true;
+        LazyTreeNode root = new LazyTreeNode(loader);
+
+        assertThrows(IllegalStateException.class, root::getChildren);
+        assertFalse(root.isLoaded());
+
+        loader.fail = false;
+        assertEquals(5, root.getChildCount());
+        assertTrue(root.isLoaded());
+        assertEquals(2, loader.loads);
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2009-2019 PrimeTek
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class RangeCacheTest {
+
+    private static String toString(List<RangeCache.Range<Integer>> ranges) {
+        return ranges.toString();
+    }
+
+    @Test
+    public void missingRanges() {
+        RangeCache<Integer> cache = new RangeCache<>();
+        assertEquals("[[0, 10)]", toString(cache.getMissingRanges(0, 10)));
+
+        cache.addRange(2, 4);
+        cache.addRange(6, 8);
+        assertEquals("[[0, 2), [4, 6), [8, 10)]", toString(cache.getMissingRanges(0, 10)));
+        assertEquals("[[4, 6)]", toString(cache.getMissingRanges(3, 7)));
+        assertEquals("[]", toString(cache.getMissingRanges(6, 8)));
+    }
+
+    @Test
+    public void mergeRanges() {
+        RangeCache<Integer> cache = new RangeCache<>();
+        cache.addRange(2, 4);
+        cache.addRange(6, 8);
+        cache.addRange(4, 6);
+        assertEquals("[[2, 8)]", toString(cache.getRanges()));
+
+        cache.addRange(0, 3);
+        cache.addRange(10, 12);
+        cache.addRange(7, 11);
+        assertEquals("[[0, 12)]", toString(cache.getRanges()));
+    }
+
+    @Test
+    public void loadOnlyMissingRanges() {
+        RangeCache<Integer> cache = new RangeCache<>();
+        List<String> loads = new ArrayList<>();
+
+        cache.load(0, 10, (start, end) -> loads.add(start + "-" + end));
+        cache.load(5, 15, (start, end) -> loads.add(start + "-" + end));
+        cache.load(0, 15, (start, end) -> loads.add(start + "-" + end));
+
+        assertEquals("[0-10, 10-15]", loads.toString());
+    }
+
+    @Test
+    public void evictOutside() {
+        RangeCache<Integer> cache = new RangeCache<>();
+        cache.addRange(0, 10);
+        cache.addRange(20, 30);
+
+        assertEquals("[[0, 5), [25, 30)]", toString(cache.evictOutside(5, 25)));
+        assertEquals("[[5, 10), [20, 25)]", toString(cache.getRanges()));
+        assertEquals("[]", toString(cache.evictOutside(0, 30)));
+    }
+
+    @Test
+    public void intersects() {
+        RangeCache<Integer> cache = new RangeCache<>();
+        cache.addRange(10, 20);
+
+        assertTrue(cache.intersects(10, null));
+        assertFalse(cache.intersects(20, null));
+        assertTrue(cache.intersects(5, 11));
+        assertFalse(cache.intersects(5, 10));
+        assertTrue(cache.intersects(19, 25));
+    }
+}
@@ -26,8 +26,12 @@ package org.primefaces.model;
 
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
@@ -70,4 +74,80 @@ public class ScheduleModelTest {
 
 		assertEquals("Entry 3", model.getEvent(id).getTitle());
 	}
+
+	@Test
+	public void lazyModelLoadsMissingPeriods() {
+		LocalDateTime day = LocalDateTime.of(2020, 1, 1, 0, 0);
+		List<String> loads = new ArrayList<>();
+		LazyScheduleModel model = new LazyScheduleModel() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public void loadEvents(LocalDateTime start, LocalDateTime end) {
+				loads.add(start.getDayOfMonth() + "-" + end.getDayOfMonth());
+				for (LocalDateTime date = start.minusDays(1); date.isBefore(end); date = date.plusDays(1)) {
+					addEvent(new DefaultScheduleEvent("Entry " + date.getDayOfMonth(), date.plusHours(12), date.plusHours(36)));
+				}
+			}
+		};
+
+		model.loadRange(day, day.plusDays(7));
+		model.loadRange(day, day.plusDays(7));
+		assertEquals(2, loads.size());
+		assertEquals(8, model.getEventCount());
+
+		model.setCacheWindow(Duration.ofDays(7));
+		model.loadRange(day, day.plusDays(7));
+		model.loadRange(day.plusDays(3), day.plusDays(10));
+		model.loadRange(day, day.plusDays(7));
+		assertEquals("[1-8, 8-11]", loads.subList(2, loads.size()).toString());
+		assertEquals(11, model.getEventCount());
+		assertEquals(8, model.getEvents(day, day.plusDays(7)).size());
+
+		model.loadRange(day.plusDays(20), day.plusDays(27));
+		assertEquals("21-28", loads.get(loads.size() - 1));
+		assertEquals(8, model.getEventCount());
+	}
+
+	@Test
+	public void lazyModelLoadsSpanningEventOnce() {
+		LocalDateTime day = LocalDateTime.of(2020, 1, 1, 0, 0);
+		LazyScheduleModel model = new LazyScheduleModel() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public void loadEvents(LocalDateTime start, LocalDateTime end) {
+				DefaultScheduleEvent event = new DefaultScheduleEvent("Long", day.minusDays(1), day.plusDays(8));
+				event.setId("long");
+				addEvent(event);
+				if (start.equals(day.plusDays(3))) {
+					addEvent(new DefaultScheduleEvent("Short", start, start.plusHours(1)));
+				}
+			}
+		};
+		model.setCacheWindow(Duration.ofDays(7));
+
+		model.loadRange(day.plusDays(3), day.plusDays(5));
+		assertEquals(2, model.getEventCount());
+
+		// without the spanning event in the model it is loaded again for both parts around the middle period
+		model.getEvents().removeIf(event -> "long".equals(event.getId()));
+		model.loadRange(day, day.plusDays(7));
+		assertEquals(2, model.getEventCount());
+		assertEquals(1, model.getEvents().stream().filter(event -> "long".equals(event.getId())).count());
+	}
+
+	@Test
+	public void lazyModelAssignsIdsWithoutCache() {
+		LazyScheduleModel model = new LazyScheduleModel();
+		DefaultScheduleEvent event = new DefaultScheduleEvent("Entry", LocalDateTime.now(), LocalDateTime.now().plusHours(1));
+		event.setId("entry");
+		model.addEvent(event);
+		assertNotEquals("entry", event.getId());
+
+		model.setCacheWindow(Duration.ofDays(7));
+		event.setId("entry");
+		model.addEvent(event);
+		assertEquals("entry", event.getId());
+	}
 }
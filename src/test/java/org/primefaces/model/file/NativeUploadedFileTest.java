@@ -24,8 +24,18 @@
 package org.primefaces.model.file;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import javax.faces.FacesException;
+import javax.servlet.http.Part;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -208,4 +218,61 @@ public class NativeUploadedFileTest {
         assertEquals("Content-Disposition filename property was not quoted.", thrown.getMessage());
     }
 
+    @Test
+    public void testTransferToPath() throws IOException {
+        // Arrange
+        byte[] content = new byte[3 * 1024 * 1024];
+        content[content.length - 1] = 42;
+        NativeUploadedFile uploadedFile = new NativeUploadedFile(mockPart(content), null);
+        Path target = Files.createTempFile("transfer", ".bin");
+
+        try {
+            // Act
+            long transferred = uploadedFile.transferTo(target);
+
+            // Assert
+            Assertions.assertEquals(content.length, transferred);
+            Assertions.assertArrayEquals(content, Files.readAllBytes(target));
+        }
+        finally {
+            Files.delete(target);
+        }
+    }
+
+    @Test
+    public void testTransferToChannel() throws IOException {
+        // Arrange
+        byte[] content = "PrimeFaces".getBytes("UTF-8");
+        NativeUploadedFile uploadedFile = new NativeUploadedFile(mockPart(content), 5L);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Act
+        long transferred = uploadedFile.transferTo(Channels.newChannel(output));
+
+        // Assert
+        Assertions.assertEquals(5, transferred);
+        Assertions.assertEquals("Prime", output.toString("UTF-8"));
+    }
+
+    @Test
+    public void testLargeContentNotCached() throws IOException {
+        // Arrange
+        byte[] small = new byte[16];
+        byte[] large = new byte[2 * 1024 * 1024];
+        NativeUploadedFile smallFile = new NativeUploadedFile(mockPart(small), null);
+        NativeUploadedFile largeFile = new NativeUploadedFile(mockPart(large), null);
+
+        // Act & Assert
+        Assertions.assertSame(smallFile.getContent(), smallFile.getContent());
+        Assertions.assertNotSame(largeFile.getContent(), largeFile.getContent());
+        Assertions.assertArrayEquals(large, largeFile.getContent());
+    }
+
+    private Part mockPart(byte[] content) throws IOException {
+        Part part = mock(Part.class);
+        when(part.getHeader("content-disposition")).thenReturn("form-data; name=\"XXX:XXX\"; filename=\"hello.bin\"");
+        when(part.getSize()).thenReturn((long) content.length);
+        when(part.getInputStream()).thenAnswer(invocation -> new ByteArrayInputStream(content));
+        return part;
+    }
 }
@@ -0,0 +1,256 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2009-2019 PrimeTek
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.model.timeline;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.function.BiFunction;
+import org.junit.jupiter.api.Test;
+import org.primefaces.component.timeline.TimelineUpdater;
+
+public class TimelineModelTest {
+
+    private static TimelineEvent<String> event(String id, long start, Long end, String group) {
+        return new TimelineEvent<>(id, id, new Date(start), end == null ? null : new Date(end), true, group, null);
+    }
+
+    private static List<String> ids(TreeSet<TimelineEvent<String>> events) {
+        List<String> ids = new ArrayList<>();
+        if (events != null) {
+            for (TimelineEvent<String> event : events) {
+                ids.add(event.getId());
+            }
+        }
+        return ids;
+    }
+
+    @Test
+    public void findEventById() {
+        TimelineModel<String, Object> model = new TimelineModel<>();
+        for (int i = 0; i < 5; i++) {
+            model.add(event("e" + i, i * 10, null, null));
+        }
+
+        assertEquals("e3", model.getEvent("e3").getData());
+        assertSame(model.getEvents().get(3), model.getEvent("e3"));
+        assertNull(model.getEvent("x"));
+
+        model.delete(model.getEvent("e1"));
+        assertSame(model.getEvents().get(2), model.getEvent("e3"));
+        assertFalse(model.hasEvent(event("e1", 0, null, null)));
+        assertTrue(model.hasEvent(event("e4", 0, null, null)));
+    }
+
+    @Test
+    public void eventListChangedDirectly() {
+        TimelineModel<String, Object> model = new TimelineModel<>();
+        model.add(event("e0", 0, null, null));
+        model.add(event("e1", 10, null, null));
+        assertSame(model.getEvents().get(1), model.getEvent("e1"));
+
+        model.getEvents().add(0, event("e2", 20, null, null));
+        assertSame(model.getEvents().get(2), model.getEvent("e1"));
+        assertSame(model.getEvents().get(0), model.getEvent("e2"));
+
+        model.getEvents().set(0, event("e3", 30, 40L, null));
+        assertNull(model.getEvent("e2"));
+        assertSame(model.getEvents().get(0), model.getEvent("e3"));
+    }
+
+    @Test
+    public void overlappedEvents() {
+        TimelineModel<String, Object> model = new TimelineModel<>();
+        model.add(event("long", 0, 1000L, "a"));
+        model.add(event("short", 100, 150L, "a"));
+        model.add(event("point", 500, null, "a"));
+        model.add(event("touch", 200, 300L, "a"));
+        model.add(event("other", 100, 300L, "b"));
+        model.add(event("later", 1001, 1100L, "a"));
+
+        TimelineEvent<String> query = event("query", 120, 200L, "a");
+        assertEquals(Arrays.asList("long", "short", "touch"), ids(model.getOverlappedEvents(query)));
+        assertEquals(Arrays.asList("long", "point"), ids(model.getOverlappedEvents(event("q", 500, null, "a"))));
+        assertNull(model.getOverlappedEvents(event("q", 2000, 3000L, "a")));
+        assertNull(model.getOverlappedEvents(event("q", 0, 10L, "c")));
+
+        TimelineEvent<String> later = model.getEvent("later");
+        later.setStartDate(new Date(150));
+        model.update(later);
+        assertEquals(Arrays.asList("long", "short", "later", "touch"), ids(model.getOverlappedEvents(query)));
+
+        model.delete(model.getEvent("long"));
+        model.add(event("new", 199, 199L, "a"));
+        assertEquals(Arrays.asList("short", "later", "new", "touch"), ids(model.getOverlappedEvents(query)));
+    }
+
+    @Test
+    public void intervalIndexMatchesScan() {
+        Random random = new Random(42);
+        List<TimelineEvent<String>> events = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            long start = random.nextInt(100_000);
+            Long end = (i % 10 == 0) ? null : start + (1L << random.nextInt(20)) - 1;
+            events.add(event("e" + i, start, end, (i % 3 == 0) ? "a" : "b"));
+        }
+        TimelineIntervalIndex<String> index = new TimelineIntervalIndex<>(events);
+        for (int i = 0; i < 500; i += 2) {
+            index.remove(events.get(i).getId());
+        }
+
+        for (int i = 0; i < 200; i++) {
+            long start = random.nextInt(100_000);
+            long end = start + random.nextInt(1000);
+            List<String> expected = new ArrayList<>();
+            for (int j = 1; j < events.size(); j += 2) {
+                TimelineEvent<String> event = events.get(j);
+                long eventEnd = (event.getEndDate() == null) ? event.getStartDate().getTime() : event.getEndDate().getTime();
+                if ("b".equals(event.getGroup()) && event.getStartDate().getTime() <= end && eventEnd >= start) {
+                    expected.add(event.getId());
+                }
+            }
+
+            List<String> actual = new ArrayList<>();
+            for (TimelineEvent<String> event : index.getIntersectingEvents("b", new Date(start), new Date(end))) {
+                actual.add(event.getId());
+            }
+            Collections.sort(expected);
+            Collections.sort(actual);
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void mergeAndDeleteAll() {
+        TimelineModel<String, Object> model = new TimelineModel<>();
+        TimelineEvent<String> first = event("first", 0, 100L, "a");
+        model.add(first);
+        model.add(event("second", 50, 200L, "a"));
+        model.add(event("third", 500, 600L, "a"));
+
+        TreeSet<TimelineEvent<String>> overlapped = model.getOverlappedEvents(first);
+        model.merge(first, overlapped);
+        assertNull(model.getEvent("second"));
+        assertSame(first, model.getEvent("first"));
+
+        model.deleteAll(model.getEvents());
+        assertTrue(model.getEvents().isEmpty());
+        assertNull(model.getEvent("third"));
+    }
+
+    @Test
+    public void lazyLoadMissingRanges() {
+        TimelineModel<String, Object> model = new TimelineModel<>();
+        List<String> loads = new ArrayList<>();
+        BiFunction<Date, Date, Collection<TimelineEvent<String>>> loader = (start, end) -> {
+            loads.add(start.getTime() + "-" + end.getTime());
+            List<TimelineEvent<String>> events = new ArrayList<>();
+            for (long time = (start.getTime() / 100) * 100; time <= end.getTime(); time += 100) {
+                events.add(event("e" + time, time, time + 150, null));
+            }
+            return events;
+        };
+        List<String> deleted = new ArrayList<>();
+        List<String> resets = new ArrayList<>();
+        TimelineUpdater updater = new TimelineUpdater() {
+            @Override
+            public void add(TimelineEvent<?> event) {
+            }
+
+            @Override
+            public void update(TimelineEvent<?> event) {
+            }
+
+            @Override
+            public void delete(int index) {
+            }
+
+            @Override
+            public void delete(String id) {
+                deleted.add(id);
+            }
+
+            @Override
+            public void select(int index) {
+            }
+
+            @Override
+            public void select(String id) {
+            }
+
+            @Override
+            public void clear() {
+            }
+
+            @Override
+            public void resetLazyLoading() {
+                resets.add("reset");
+            }
+        };
+
+        model.loadEvents(new Date(0), new Date(999), loader, updater);
+        model.loadEvents(new Date(500), new Date(1499), loader, updater);
+        assertEquals(Arrays.asList("0-999", "1000-1499"), loads);
+        assertEquals(15, model.getEvents().size());
+
+        model.setLazyLoadWindow(Duration.ofMillis(2000));
+        model.loadEvents(new Date(3000), new Date(3999), loader, updater);
+        assertEquals("3000-3999", loads.get(2));
+        assertEquals(Arrays.asList("e0", "e100", "e200", "e300", "e400", "e500", "e600", "e700", "e800"), deleted);
+        assertEquals(1, resets.size());
+        assertEquals(16, model.getEvents().size());
+        assertEquals("e900", model.getEvents().get(0).getId());
+    }
+
+    @Test
+    public void lazyLoadSpanningEventOnce() {
+        TimelineModel<String, Object> model = new TimelineModel<>();
+        BiFunction<Date, Date, Collection<TimelineEvent<String>>> loader = (start, end) -> {
+            List<TimelineEvent<String>> events = new ArrayList<>();
+            // default random ids, a new instance for every load
+            events.add(new TimelineEvent<>("vacation", new Date(-1000), new Date(5000)));
+            events.add(new TimelineEvent<>("meeting", start, new Date(start.getTime() + 10)));
+            return events;
+        };
+
+        model.loadEvents(new Date(0), new Date(999), loader, null);
+        model.loadEvents(new Date(2000), new Date(2999), loader, null);
+        model.loadEvents(new Date(0), new Date(3999), loader, null);
+
+        assertEquals(5, model.getEvents().size());
+        assertEquals(1, model.getEvents().stream().filter(event -> "vacation".equals(event.getData())).count());
+    }
+}
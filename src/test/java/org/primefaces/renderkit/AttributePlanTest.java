@@ -0,0 +1,154 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2009-2019 PrimeTek
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.renderkit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+import javax.el.ELContext;
+import javax.el.ValueExpression;
+import javax.faces.component.StateHelper;
+import javax.faces.component.html.HtmlOutputText;
+import javax.faces.context.FacesContext;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.primefaces.mock.FacesContextMock;
+import org.primefaces.component.inputtext.InputText;
+import org.primefaces.util.HTML;
+
+public class AttributePlanTest {
+
+    private FacesContext context;
+
+    @BeforeEach
+    public void setup() {
+        context = new FacesContextMock() {
+            @Override
+            public ELContext getELContext() {
+                return null;
+            }
+        };
+    }
+
+    @AfterEach
+    public void teardown() {
+        context.release();
+    }
+
+    @Test
+    public void unsetAttributes() {
+        InputText component = new InputText();
+        assertNull(getValue(component, HTML.INPUT_TEXT_ATTRS, "placeholder"));
+        assertNull(getValue(component, HTML.INPUT_TEXT_EVENTS, "onclick"));
+        assertEquals(Integer.MIN_VALUE, getValue(component, HTML.INPUT_TEXT_ATTRS, "size"));
+    }
+
+    @Test
+    public void unsetAttributesSkipped() {
+        int[] reads = new int[1];
+        InputText component = new InputText() {
+            @Override
+            public Map<String, Object> getAttributes() {
+                reads[0]++;
+                return super.getAttributes();
+            }
+        };
+        getValue(component, HTML.INPUT_TEXT_ATTRS, "placeholder");
+        reads[0] = 0;
+
+        // the default value is known, neither the getter nor the attributes map are needed
+        assertNull(getValue(component, HTML.INPUT_TEXT_ATTRS, "placeholder"));
+        assertNull(getValue(new InputText(), HTML.INPUT_TEXT_ATTRS, "placeholder"));
+        assertEquals(0, reads[0]);
+    }
+
+    @Test
+    public void localValue() {
+        InputText component = new InputText();
+        component.getAttributes().put("placeholder", "Name");
+        component.setOnclick("alert()");
+        component.setSize(10);
+        assertEquals("Name", getValue(component, HTML.INPUT_TEXT_ATTRS, "placeholder"));
+        assertEquals("alert()", getValue(component, HTML.INPUT_TEXT_EVENTS, "onclick"));
+        assertEquals(10, getValue(component, HTML.INPUT_TEXT_ATTRS, "size"));
+    }
+
+    @Test
+    public void valueExpression() {
+        InputText component = new InputText();
+        ValueExpression placeholder = mock(ValueExpression.class);
+        when(placeholder.getValue(any())).thenReturn("Name");
+        component.setValueExpression("placeholder", placeholder);
+        assertEquals("Name", getValue(component, HTML.INPUT_TEXT_ATTRS, "placeholder"));
+    }
+
+    @Test
+    public void customGetter() {
+        InputText component = new InputText() {
+            @Override
+            public String getPlaceholder() {
+                return "Custom";
+            }
+        };
+        assertEquals("Custom", getValue(component, HTML.INPUT_TEXT_ATTRS, "placeholder"));
+    }
+
+    @Test
+    public void noProperties() {
+        String[] attrs = {"data-foo", "data-bar"};
+        HtmlOutputText component = new HtmlOutputText();
+        component.getAttributes().put("data-foo", "foo");
+        AttributePlan plan = AttributePlan.get(component, attrs);
+        StateHelper stateHelper = plan.getStateHelper(component);
+        assertNull(stateHelper);
+        assertEquals("foo", plan.getValue(component, stateHelper, 0, "data-foo"));
+        assertNull(plan.getValue(component, stateHelper, 1, "data-bar"));
+    }
+
+    @Test
+    public void samePlan() {
+        assertSame(AttributePlan.get(new InputText(), HTML.INPUT_TEXT_ATTRS), AttributePlan.get(new InputText(), HTML.INPUT_TEXT_ATTRS));
+    }
+
+    private static Object getValue(InputText component, String[] attrs, String attribute) {
+        AttributePlan plan = AttributePlan.get(component, attrs);
+        return plan.getValue(component, plan.getStateHelper(component), indexOf(attrs, attribute), attribute);
+    }
+
+    private static int indexOf(String[] attrs, String attribute) {
+        for (int i = 0; i < attrs.length; i++) {
+            if (attrs[i].equals(attribute)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException(attribute);
+    }
+}
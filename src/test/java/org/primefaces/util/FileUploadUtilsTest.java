@@ -30,11 +30,22 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.primefaces.component.fileupload.FileUpload;
+import org.primefaces.config.PrimeEnvironment;
 import org.primefaces.context.PrimeApplicationContext;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.spi.FileTypeDetector;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
 
 import javax.faces.application.Application;
 import javax.faces.context.ExternalContext;
@@ -135,6 +146,73 @@ public class FileUploadUtilsTest {
         Assertions.assertTrue(FileUploadUtils.isValidType(appContext, fileUpload, createFile("test.png", "image/png", gif)));
     }
     
+    @Test
+    public void isValidTypeContentTypeCheckLargeFile() {
+        byte[] content = new byte[5 * 1024 * 1024];
+        System.arraycopy(new byte[] { 0x47, 0x49, 0x46, 0x38, 0x39, 0x61 }, 0, content, 0, 6);
+
+        when(fileUpload.isValidateContentType()).thenReturn(true);
+        when(fileUpload.getAccept()).thenReturn("image/gif");
+        Assertions.assertTrue(FileUploadUtils.isValidType(appContext, fileUpload,
+                createFile("test.gif", "image/gif", new ByteArrayInputStream(content))));
+    }
+
+    @Test
+    public void isValidTypeContentTypeCheckContainerBehindPrefix() throws IOException {
+        String docx = "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
+        ByteArrayOutputStream zip = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(zip)) {
+            out.putNextEntry(new ZipEntry("[Content_Types].xml"));
+            out.write(docx.getBytes(StandardCharsets.UTF_8));
+            out.putNextEntry(new ZipEntry("word/media/image1.png"));
+            byte[] image = new byte[512 * 1024];
+            new Random(1).nextBytes(image);
+            out.write(image);
+            //a central directory larger than the searched tail
+            for (int i = 0; i < 2000; i++) {
+                out.putNextEntry(new ZipEntry("word/media/thumbnails/thumbnail" + i + ".png"));
+            }
+        }
+        byte[] content = zip.toByteArray();
+        Path[] probed = new Path[1];
+        byte[][] probedContent = new byte[1][];
+
+        //mimics Tika: a zip is only recognized as docx once the [Content_Types].xml entry is located via the central directory
+        FileTypeDetector detector = new FileTypeDetector() {
+            @Override
+            public String probeContentType(Path path) throws IOException {
+                probed[0] = path;
+                probedContent[0] = Files.readAllBytes(path);
+                try (ZipFile zipFile = new ZipFile(path.toFile())) {
+                    ZipEntry entry = zipFile.getEntry("[Content_Types].xml");
+                    try (InputStream in = zipFile.getInputStream(entry)) {
+                        return IOUtils.toString(in, StandardCharsets.UTF_8);
+                    }
+                }
+                catch (ZipException ex) {
+                    return "application/zip";
+                }
+            }
+        };
+        PrimeApplicationContext tikaContext = mock(PrimeApplicationContext.class);
+        when(tikaContext.getFileTypeDetector()).thenReturn(detector);
+        PrimeEnvironment environment = mock(PrimeEnvironment.class);
+        when(environment.isTikaAvailable()).thenReturn(true);
+        when(tikaContext.getEnvironment()).thenReturn(environment);
+
+        when(fileUpload.isValidateContentType()).thenReturn(true);
+        when(fileUpload.getAccept()).thenReturn(docx);
+        UploadedFile file = createFile("test.docx", docx, new ByteArrayInputStream(content));
+        when(file.getInputStream()).thenAnswer(invocation -> new ByteArrayInputStream(content));
+        when(file.getSize()).thenReturn((long) content.length);
+
+        Assertions.assertTrue(FileUploadUtils.isValidType(tikaContext, fileUpload, file));
+        assertEquals(content.length, probedContent[0].length);
+        //the image in the middle of the container is not copied
+        assertEquals(0, probedContent[0][content.length / 4]);
+        Assertions.assertFalse(Files.exists(probed[0]));
+    }
+
     @Test
     public void checkPathTraversal_AbsoluteFile() {
         // Arrange
@@ -0,0 +1,154 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2009-2019 PrimeTek
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import javax.el.ELContext;
+import javax.el.ValueExpression;
+import javax.faces.context.FacesContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.primefaces.mock.FacesContextMock;
+import org.primefaces.model.CheckboxTreeNode;
+import org.primefaces.model.DefaultTreeNode;
+import org.primefaces.model.SortOrder;
+import org.primefaces.model.TreeNode;
+import org.primefaces.model.TreeNodeComparator;
+import org.primefaces.model.TreeNodeList;
+
+public class TreeUtilsTest {
+
+    private FacesContext context;
+    private ValueExpression sortBy;
+
+    @BeforeEach
+    public void setup() {
+        context = new FacesContextMock() {
+            @Override
+            public ELContext getELContext() {
+                return null;
+            }
+        };
+        sortBy = mock(ValueExpression.class);
+        when(sortBy.getValue(any())).thenAnswer(invocation -> context.getExternalContext().getRequestMap().get("node"));
+    }
+
+    @AfterEach
+    public void teardown() {
+        context.release();
+    }
+
+    @Test
+    public void sortNodeEvaluatesEachNodeOnce() {
+        TreeNode root = new DefaultTreeNode("root", null);
+        TreeNode b = new DefaultTreeNode("b", root);
+        new DefaultTreeNode("b2", b);
+        new DefaultTreeNode("B1", b);
+        new DefaultTreeNode("a", root);
+        new DefaultTreeNode("C", root);
+
+        TreeUtils.sortNode(root, new TreeNodeComparator(sortBy, "node", SortOrder.ASCENDING, null, false, Locale.ENGLISH));
+
+        assertEquals("a", root.getChildren().get(0).getData());
+        assertEquals("b", root.getChildren().get(1).getData());
+        assertEquals("C", root.getChildren().get(2).getData());
+        assertEquals("B1", b.getChildren().get(0).getData());
+        verify(sortBy, times(5)).getValue(any());
+    }
+
+    @Test
+    public void sortNodeKeepsSelectionState() {
+        CheckboxTreeNode root = new CheckboxTreeNode("root", null);
+        CheckboxTreeNode b = new CheckboxTreeNode("b", root);
+        CheckboxTreeNode b1 = new CheckboxTreeNode("b1", b);
+        new CheckboxTreeNode("b2", b);
+        new CheckboxTreeNode("a", root);
+        b1.setSelected(true);
+
+        TreeUtils.sortNode(root, new TreeNodeComparator(sortBy, "node", SortOrder.DESCENDING, null, true, Locale.ENGLISH));
+
+        assertSame(b, root.getChildren().get(0));
+        assertEquals("b2", b.getChildren().get(0).getData());
+        assertSame(b1, b.getChildren().get(1));
+        assertTrue(b1.isSelected());
+        assertFalse(b.isSelected());
+        assertTrue(b.isPartialSelected());
+        assertTrue(root.isPartialSelected());
+    }
+
+    @Test
+    public void sortNodeUpdatesRowKeysOfMovedNodes() {
+        TreeNode root = new DefaultTreeNode("root", null);
+        TreeNode b = new DefaultTreeNode("b", root);
+        TreeNode b2 = new DefaultTreeNode("b2", b);
+        TreeNode b1 = new DefaultTreeNode("b1", b);
+        TreeNode a = new DefaultTreeNode("a", root);
+        TreeNode a1 = new DefaultTreeNode("a1", a);
+        TreeNode c = new DefaultTreeNode("c", root);
+        TreeNode c1 = new DefaultTreeNode("c1", c);
+
+        List<TreeNode> changed = new ArrayList<>();
+        TreeUtils.sortNode(root, new TreeNodeComparator(sortBy, "node", SortOrder.ASCENDING, null, false, Locale.ENGLISH), changed::add);
+
+        assertEquals("0", a.getRowKey());
+        assertEquals("0_0", a1.getRowKey());
+        assertEquals("1", b.getRowKey());
+        assertEquals("1_0", b1.getRowKey());
+        assertEquals("1_1", b2.getRowKey());
+        assertEquals("2", c.getRowKey());
+        assertEquals("2_0", c1.getRowKey());
+        assertEquals(Arrays.asList(a, a1, b, b1, b2), changed);
+    }
+
+    @Test
+    public void setSiblingsRejectsOtherNodes() {
+        TreeNode root = new DefaultTreeNode("root", null);
+        TreeNode a = new DefaultTreeNode("a", root);
+        TreeNode b = new DefaultTreeNode("b", root);
+        TreeNode other = new DefaultTreeNode("other", null);
+
+        TreeNodeList children = (TreeNodeList) root.getChildren();
+        assertThrows(IllegalArgumentException.class, () -> children.setSiblings(new TreeNode[]{b}));
+        assertThrows(IllegalArgumentException.class, () -> children.setSiblings(new TreeNode[]{b, other}));
+
+        children.setSiblings(new TreeNode[]{b, a});
+        assertSame(b, children.get(0));
+        assertSame(a, children.get(1));
+    }
+}
@@ -130,4 +130,51 @@ public class WidgetBuilderTest {
 
         assertEquals("<script id=\"dt1_s\" type=\"text/javascript\">$(function(){PrimeFaces.cw(\"DataTable\",\"dt\",{id:\"dt1\",selectionMode:\"single\",lazy:true,onRowSelect:function(row){alert(row);}});});</script>", writer.toString());
     }
+
+    @Test
+    public void shouldEscapeAttributes() throws IOException {
+        CollectingResponseWriter writer = new CollectingResponseWriter();
+
+        WidgetBuilder builder = getWidgetBuilder(writer);
+        builder.init("AutoComplete", "ac", "ac1");
+        builder.attr("emptyMessage", "No \"results\"</script>");
+        builder.selectorAttr("appendTo", "form:panel");
+        builder.attr("delay", 300, 300);
+        builder.attr("minLength", (Number) 2);
+        builder.attr("scale", 1.5d, 1d);
+        builder.finish();
+
+        assertEquals("<script id=\"ac1_s\" type=\"text/javascript\">$(function(){PrimeFaces.cw(\"AutoComplete\",\"ac\",{id:\"ac1\","
+                + "emptyMessage:\"No \\x22results\\x22<\\/script>\",appendTo:\"form\\\\:panel\",minLength:2,scale:1.5});});</script>",
+                writer.toString());
+    }
+
+    @Test
+    public void shouldWriteOncePerCall() throws IOException {
+        int[] writes = new int[1];
+        CollectingResponseWriter writer = new CollectingResponseWriter() {
+            @Override
+            public void write(char[] chars, int offset, int length) throws IOException {
+                writes[0]++;
+                super.write(chars, offset, length);
+            }
+        };
+
+        StringBuilder longValue = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            longValue.append("value");
+        }
+
+        WidgetBuilder builder = getWidgetBuilder(writer);
+        builder.init("Calendar", "cal", "cal1");
+        builder.attr("pattern", "MM/dd/yyyy");
+        builder.attr("locale", longValue.toString());
+        builder.callback("onSelect", "function(date)", "alert(date);");
+        builder.finish();
+
+        assertEquals(5, writes[0]);
+        assertEquals("<script id=\"cal1_s\" type=\"text/javascript\">$(function(){PrimeFaces.cw(\"Calendar\",\"cal\",{id:\"cal1\","
+                + "pattern:\"MM\\/dd\\/yyyy\",locale:\"" + longValue + "\",onSelect:function(date){alert(date);}});});</script>",
+                writer.toString());
+    }
 }
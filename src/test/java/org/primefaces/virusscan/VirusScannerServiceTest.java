@@ -0,0 +1,165 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2009-2019 PrimeTek
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.virusscan;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.primefaces.cache.CacheProvider;
+import org.primefaces.cache.DefaultCacheProvider;
+import org.primefaces.model.file.UploadedFile;
+
+public class VirusScannerServiceTest {
+
+    private AtomicInteger scans;
+    private CacheProvider cacheProvider;
+    private VirusScannerService service;
+
+    @BeforeEach
+    public void setup() {
+        scans = new AtomicInteger();
+        cacheProvider = new DefaultCacheProvider();
+        service = createService(60L, 100);
+    }
+
+    @Test
+    public void identicalContentScannedOnce() throws VirusException, IOException {
+        service.performVirusScan(Arrays.asList(file("template"), file("other")));
+        service.performVirusScan(Collections.singletonList(file("template")));
+        service.performVirusScan(Collections.singletonList(file("template")));
+
+        Assertions.assertEquals(2, scans.get());
+    }
+
+    @Test
+    public void infectedContentNotCached() throws IOException {
+        Assertions.assertThrows(VirusException.class, () -> service.performVirusScan(Collections.singletonList(file("virus"))));
+        Assertions.assertThrows(VirusException.class, () -> service.performVirusScan(Collections.singletonList(file("virus"))));
+
+        Assertions.assertEquals(2, scans.get());
+    }
+
+    @Test
+    public void expiredResultScannedAgain() throws VirusException, IOException {
+        UploadedFile file = file("template");
+        cacheProvider.put(VirusScannerService.CACHE_REGION, service.hash(file), System.currentTimeMillis() - 1);
+
+        service.performVirusScan(Collections.singletonList(file));
+
+        Assertions.assertEquals(1, scans.get());
+    }
+
+    @Test
+    public void cacheDisabled() throws VirusException, IOException {
+        service = createService(0L, 100);
+
+        service.performVirusScan(Collections.singletonList(file("template")));
+        service.performVirusScan(Collections.singletonList(file("template")));
+
+        Assertions.assertEquals(2, scans.get());
+    }
+
+    @Test
+    public void cacheSizeLimited() throws VirusException, IOException {
+        service = createService(60L, 2);
+        UploadedFile first = file("first");
+        UploadedFile second = file("second");
+        UploadedFile third = file("third");
+
+        service.performVirusScan(Arrays.asList(first, second, third));
+
+        Assertions.assertNull(cacheProvider.get(VirusScannerService.CACHE_REGION, service.hash(first)));
+        Assertions.assertNotNull(cacheProvider.get(VirusScannerService.CACHE_REGION, service.hash(second)));
+        Assertions.assertNotNull(cacheProvider.get(VirusScannerService.CACHE_REGION, service.hash(third)));
+
+        service.performVirusScan(Arrays.asList(first, third));
+        Assertions.assertEquals(4, scans.get());
+    }
+
+    @Test
+    public void expiredResultsEvicted() throws VirusException, IOException, InterruptedException {
+        service = createService(1L, 100);
+        UploadedFile first = file("first");
+        service.performVirusScan(Collections.singletonList(first));
+
+        Thread.sleep(1100);
+        service.performVirusScan(Collections.singletonList(file("second")));
+
+        Assertions.assertNull(cacheProvider.get(VirusScannerService.CACHE_REGION, service.hash(first)));
+    }
+
+    private VirusScannerService createService(long ttl, int size) {
+        VirusScanner scanner = new VirusScanner() {
+            @Override
+            public boolean isEnabled() {
+                return true;
+            }
+
+            @Override
+            public void performVirusScan(InputStream inputStream) throws VirusException {
+                scans.incrementAndGet();
+                try {
+                    ByteArrayOutputStream content = new ByteArrayOutputStream();
+                    int b;
+                    while ((b = inputStream.read()) != -1) {
+                        content.write(b);
+                    }
+                    if (content.toString("UTF-8").contains("virus")) {
+                        throw new VirusException();
+                    }
+                }
+                catch (IOException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }
+        };
+        return new VirusScannerService(getClass().getClassLoader(), 1, () -> cacheProvider, ttl, size) {
+            @Override
+            protected List<VirusScanner> getEnabledScanners() {
+                return Collections.singletonList(scanner);
+            }
+        };
+    }
+
+    private static UploadedFile file(String content) throws IOException {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        UploadedFile file = mock(UploadedFile.class);
+        when(file.getInputStream()).thenAnswer(invocation -> new ByteArrayInputStream(bytes));
+        when(file.getSize()).thenReturn((long) bytes.length);
+        return file;
+    }
+}
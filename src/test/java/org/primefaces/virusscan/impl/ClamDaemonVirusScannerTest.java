@@ -0,0 +1,316 @@
+/**
+ * The MIT License
+ *
+ * Copyright (c) 2009-2019 PrimeTek
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.primefaces.virusscan.impl;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.faces.FacesException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.primefaces.model.file.UploadedFile;
+import org.primefaces.virusscan.VirusException;
+import org.primefaces.virusscan.VirusScanner;
+import org.primefaces.virusscan.VirusScannerService;
+
+public class ClamDaemonVirusScannerTest {
+
+    private static final String EICAR = "X5O!P%@AP[4\\PZX54(P^)7CC)7}$EICAR-STANDARD-ANTIVIRUS-TEST-FILE!$H+H*";
+
+    private FakeClamDaemon daemon;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        daemon = new FakeClamDaemon();
+    }
+
+    @AfterEach
+    public void teardown() throws IOException {
+        new ClamDaemonVirusScanner("localhost", daemon.getPort(), 5000, 2).release();
+        daemon.close();
+    }
+
+    @Test
+    public void cleanContent() throws VirusException {
+        ClamDaemonVirusScanner scanner = new ClamDaemonVirusScanner("localhost", daemon.getPort(), 5000, 2);
+
+        scanner.performVirusScan(stream("harmless"));
+    }
+
+    @Test
+    public void infectedContent() {
+        ClamDaemonVirusScanner scanner = new ClamDaemonVirusScanner("localhost", daemon.getPort(), 5000, 2);
+
+        Assertions.assertThrows(VirusException.class, () -> scanner.performVirusScan(stream(EICAR)));
+    }
+
+    @Test
+    public void sessionReused() throws VirusException {
+        ClamDaemonVirusScanner scanner = new ClamDaemonVirusScanner("localhost", daemon.getPort(), 5000, 2);
+
+        for (int i = 0; i < 5; i++) {
+            scanner.performVirusScan(stream("harmless " + i));
+        }
+
+        Assertions.assertEquals(1, daemon.getConnections());
+        Assertions.assertEquals(5, daemon.getScans());
+    }
+
+    @Test
+    public void sessionClosedByDaemon() throws VirusException, IOException {
+        ClamDaemonVirusScanner scanner = new ClamDaemonVirusScanner("localhost", daemon.getPort(), 5000, 2);
+
+        scanner.performVirusScan(stream("harmless"));
+        daemon.closeSessions();
+        scanner.performVirusScan(stream("harmless"));
+
+        Assertions.assertEquals(2, daemon.getConnections());
+    }
+
+    @Test
+    public void unavailableDaemon() throws IOException {
+        int port;
+        try (ServerSocket unused = new ServerSocket(0)) {
+            port = unused.getLocalPort();
+        }
+        ClamDaemonVirusScanner scanner = new ClamDaemonVirusScanner("localhost", port, 1000, 2);
+
+        Assertions.assertThrows(FacesException.class, () -> scanner.performVirusScan(stream("harmless")));
+    }
+
+    @Test
+    public void stalledDaemon() {
+        daemon.stall();
+        ClamDaemonVirusScanner scanner = new ClamDaemonVirusScanner("localhost", daemon.getPort(), 1000, 2);
+
+        // far more than the socket buffers can take, so writing blocks until the scan is aborted
+        InputStream content = new ByteArrayInputStream(new byte[64 * 1024 * 1024]);
+        long start = System.currentTimeMillis();
+        Assertions.assertThrows(FacesException.class, () -> scanner.performVirusScan(content));
+        Assertions.assertTrue(System.currentTimeMillis() - start < 5000);
+    }
+
+    @Test
+    public void poolPerConfiguration() throws VirusException {
+        new ClamDaemonVirusScanner("localhost", daemon.getPort(), 5000, 1).performVirusScan(stream("harmless"));
+        new ClamDaemonVirusScanner("localhost", daemon.getPort(), 5000, 2).performVirusScan(stream("harmless"));
+
+        Assertions.assertEquals(2, daemon.getConnections());
+    }
+
+    @Test
+    public void releaseClosesSessions() throws VirusException, InterruptedException {
+        ClamDaemonVirusScanner scanner = new ClamDaemonVirusScanner("localhost", daemon.getPort(), 5000, 2);
+        scanner.performVirusScan(stream("harmless"));
+        Assertions.assertEquals(0, daemon.getEndedSessions());
+
+        scanner.release();
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (daemon.getEndedSessions() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(1, daemon.getEndedSessions());
+
+        // a new session is opened afterwards
+        scanner.performVirusScan(stream("harmless"));
+        Assertions.assertEquals(2, daemon.getConnections());
+    }
+
+    @Test
+    public void concurrentScans() throws VirusException, IOException {
+        VirusScannerService service = createService(new ClamDaemonVirusScanner("localhost", daemon.getPort(), 5000, 3));
+        try {
+            List<UploadedFile> files = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                files.add(file("harmless " + i));
+            }
+            service.performVirusScan(files);
+
+            Assertions.assertEquals(20, daemon.getScans());
+            Assertions.assertTrue(daemon.getConnections() <= 3);
+
+            files.add(file(EICAR));
+            Assertions.assertThrows(VirusException.class, () -> service.performVirusScan(files));
+        }
+        finally {
+            service.release();
+        }
+    }
+
+    private VirusScannerService createService(VirusScanner scanner) {
+        return new VirusScannerService(getClass().getClassLoader(), 4) {
+            @Override
+            protected List<VirusScanner> getEnabledScanners() {
+                return Collections.singletonList(scanner);
+            }
+        };
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static UploadedFile file(String content) throws IOException {
+        UploadedFile file = mock(UploadedFile.class);
+        when(file.getInputStream()).thenAnswer(invocation -> stream(content));
+        return file;
+    }
+
+    /**
+     * Stand-in for clamd supporting IDSESSION, INSTREAM and END, which reports every stream containing the EICAR signature.
+     */
+    private static class FakeClamDaemon {
+
+        private final ServerSocket serverSocket;
+        private final AtomicInteger connections = new AtomicInteger();
+        private final AtomicInteger scans = new AtomicInteger();
+        private final AtomicInteger endedSessions = new AtomicInteger();
+        private volatile boolean stalled;
+        private final List<Socket> sessions = Collections.synchronizedList(new ArrayList<>());
+
+        FakeClamDaemon() throws IOException {
+            serverSocket = new ServerSocket(0);
+            Thread acceptor = new Thread(() -> {
+                while (!serverSocket.isClosed()) {
+                    try {
+                        Socket socket = serverSocket.accept();
+                        connections.incrementAndGet();
+                        sessions.add(socket);
+                        Thread session = new Thread(() -> handle(socket));
+                        session.setDaemon(true);
+                        session.start();
+                    }
+                    catch (IOException ex) {
+                        // closed
+                    }
+                }
+            });
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        int getConnections() {
+            return connections.get();
+        }
+
+        int getScans() {
+            return scans.get();
+        }
+
+        int getEndedSessions() {
+            return endedSessions.get();
+        }
+
+        /**
+         * Stops reading streamed content, like an overloaded daemon.
+         */
+        void stall() {
+            stalled = true;
+        }
+
+        void close() throws IOException {
+            serverSocket.close();
+            closeSessions();
+        }
+
+        void closeSessions() throws IOException {
+            synchronized (sessions) {
+                for (Socket session : sessions) {
+                    session.close();
+                }
+            }
+        }
+
+        private void handle(Socket socket) {
+            try (Socket s = socket) {
+                DataInputStream input = new DataInputStream(s.getInputStream());
+                OutputStream output = s.getOutputStream();
+                int requestId = 0;
+                String command;
+                while ((command = readCommand(input)) != null) {
+                    if ("zEND".equals(command)) {
+                        return;
+                    }
+                    if ("zINSTREAM".equals(command)) {
+                        while (stalled && !s.isClosed()) {
+                            Thread.sleep(10);
+                        }
+                        requestId++;
+                        ByteArrayOutputStream content = new ByteArrayOutputStream();
+                        int length;
+                        while ((length = input.readInt()) > 0) {
+                            byte[] chunk = new byte[length];
+                            input.readFully(chunk);
+                            content.write(chunk);
+                        }
+                        scans.incrementAndGet();
+                        String result = content.toString("US-ASCII").contains("EICAR") ? "Eicar-Test-Signature FOUND" : "OK";
+                        output.write((requestId + ": stream: " + result + "\0").getBytes(StandardCharsets.US_ASCII));
+                        output.flush();
+                    }
+                }
+            }
+            catch (IOException ex) {
+                // connection closed
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            finally {
+                endedSessions.incrementAndGet();
+            }
+        }
+
+        private String readCommand(InputStream input) throws IOException {
+            ByteArrayOutputStream command = new ByteArrayOutputStream();
+            int b;
+            while ((b = input.read()) > 0) {
+                command.write(b);
+            }
+            return b == -1 ? null : command.toString("US-ASCII");
+        }
+    }
+}